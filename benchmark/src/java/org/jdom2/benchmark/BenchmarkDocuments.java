@@ -0,0 +1,170 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+
+/**
+ * Generates the synthetic input documents shared by all the benchmarks.
+ * <p>
+ * The documents are 'record-style': a single root element containing
+ * <code>records</code> child <code>record</code> elements, each of which has
+ * a handful of attributes, namespaced children, mixed text that needs
+ * escaping on output, comments, and pretty-printed indentation. A single
+ * <code>summary</code> element follows the records (the worst case for a
+ * by-name child lookup on the root). This is
+ * representative of the feed and configuration documents that JDOM is most
+ * commonly used for, and it exercises the wide-element, namespace, and
+ * whitespace paths in the builders and outputters.
+ * <p>
+ * The generated content is deterministic so that results are comparable from
+ * one run to the next.
+ * 
+ * @author agent
+ */
+public final class BenchmarkDocuments {
+
+	/** The namespace URI used for the 'meta' children of each record */
+	public static final String META_URI = "urn:jdom:benchmark:meta";
+
+	/** The default namespace URI of the document */
+	public static final String DATA_URI = "urn:jdom:benchmark:data";
+
+	private BenchmarkDocuments() {
+		// static utility class.
+	}
+
+	/**
+	 * Generate the text of a record-style document.
+	 * 
+	 * @param records
+	 *        The number of record elements to put under the root.
+	 * @return The XML text of the document.
+	 */
+	public static String generate(final int records) {
+		final StringBuilder sb = new StringBuilder(records * 400 + 200);
+		sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		sb.append("<!-- JDOM benchmark document -->\n");
+		sb.append("<feed xmlns=\"").append(DATA_URI)
+			.append("\" xmlns:m=\"").append(META_URI)
+			.append("\" version=\"1.0\">\n");
+		for (int i = 0; i < records; i++) {
+			sb.append("  <record id=\"r").append(i)
+				.append("\" type=\"").append(i % 3 == 0 ? "alpha" : "beta")
+				.append("\" seq=\"").append(i)
+				.append("\" href=\"http://example.com/item?id=").append(i)
+				.append("&amp;page=").append(i % 17).append("\">\n");
+			sb.append("    <name>Record number ").append(i).append("</name>\n");
+			sb.append("    <m:created m:zone=\"UTC\">2014-01-")
+				.append(10 + (i % 20)).append("T12:00:00Z</m:created>\n");
+			sb.append("    <value>").append(i * 31 % 1000).append("</value>\n");
+			sb.append("    <description>Some &lt;b&gt;escaped&lt;/b&gt; text &amp; ")
+				.append("a   few    spaces for record ").append(i)
+				.append("</description>\n");
+			if (i % 10 == 0) {
+				sb.append("    <!-- every tenth record has a comment -->\n");
+			}
+			sb.append("    <tags>\n");
+			for (int t = 0; t < 3; t++) {
+				sb.append("      <tag>t").append((i + t) % 50).append("</tag>\n");
+			}
+			sb.append("    </tags>\n");
+			sb.append("  </record>\n");
+		}
+		sb.append("  <summary count=\"").append(records).append("\"/>\n");
+		sb.append("</feed>\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Generate the UTF-8 encoded bytes of a record-style document.
+	 * 
+	 * @param records
+	 *        The number of record elements to put under the root.
+	 * @return The XML bytes of the document.
+	 */
+	public static byte[] generateBytes(final int records) {
+		try {
+			return generate(records).getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException("UTF-8 is always supported", e);
+		}
+	}
+
+	/**
+	 * Build a JDOM Document from the supplied bytes using a default
+	 * SAXBuilder.
+	 * 
+	 * @param xml
+	 *        The XML bytes to parse.
+	 * @return The parsed Document.
+	 */
+	public static Document build(final byte[] xml) {
+		try {
+			return new SAXBuilder().build(new ByteArrayInputStream(xml));
+		} catch (JDOMException e) {
+			throw new IllegalStateException("Unable to parse benchmark input", e);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to parse benchmark input", e);
+		}
+	}
+
+}
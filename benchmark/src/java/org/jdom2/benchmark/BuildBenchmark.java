@@ -0,0 +1,202 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.input.DOMBuilder;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.SAXBuilderPool;
+import org.jdom2.input.StAXStreamBuilder;
+
+/**
+ * Benchmarks for the JDOM builders: SAXBuilder (with and without parser
+ * reuse, and pooled), StAXStreamBuilder, and DOMBuilder.
+ * <p>
+ * The DOMBuilder benchmark measures only the DOM-to-JDOM conversion; the DOM
+ * tree is parsed once during setup.
+ * <p>
+ * The 'trusted' parameter runs every builder in its trusted-input mode, so
+ * the cost of the Verifier checks that the parser already guarantees shows
+ * as the difference between the two settings.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BuildBenchmark {
+
+	/** The number of record elements in the input document */
+	@Param({"100", "10000"})
+	public int records;
+
+	/** Whether the builders are in trusted-input mode */
+	@Param({"false", "true"})
+	public boolean trusted;
+
+	private byte[] xml = null;
+	private SAXBuilder reusing = null;
+	private SAXBuilderPool pool = null;
+	private XMLInputFactory staxfactory = null;
+	private StAXStreamBuilder staxbuilder = null;
+	private org.w3c.dom.Document domdoc = null;
+	private DOMBuilder dombuilder = null;
+
+	/**
+	 * Generate the input, and prepare the reusable builders.
+	 * @throws Exception if the setup fails.
+	 */
+	@Setup
+	public void setup() throws Exception {
+		xml = BenchmarkDocuments.generateBytes(records);
+		reusing = newSAXBuilder();
+		reusing.setReuseParser(true);
+		pool = new SAXBuilderPool(newSAXBuilder(), 1);
+		staxfactory = XMLInputFactory.newInstance();
+		staxbuilder = new StAXStreamBuilder();
+		staxbuilder.setTrustedInput(trusted);
+		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		final DocumentBuilder db = dbf.newDocumentBuilder();
+		domdoc = db.parse(new ByteArrayInputStream(xml));
+		dombuilder = new DOMBuilder();
+		dombuilder.setTrustedInput(trusted);
+	}
+
+	private SAXBuilder newSAXBuilder() {
+		final SAXBuilder builder = new SAXBuilder();
+		builder.setTrustedInput(trusted);
+		return builder;
+	}
+
+	/**
+	 * SAXBuilder that creates (and configures) a new parser each time.
+	 * @return the built document
+	 * @throws Exception if the build fails
+	 */
+	@Benchmark
+	public Document saxBuildNewBuilder() throws Exception {
+		return newSAXBuilder().build(new ByteArrayInputStream(xml));
+	}
+
+	/**
+	 * SAXBuilder that reuses the same parser for each build.
+	 * @return the built document
+	 * @throws Exception if the build fails
+	 */
+	@Benchmark
+	public Document saxBuildReuseParser() throws Exception {
+		return reusing.build(new ByteArrayInputStream(xml));
+	}
+
+	/**
+	 * SAXBuilderPool (the thread-safe engine pool) build.
+	 * @return the built document
+	 * @throws Exception if the build fails
+	 */
+	@Benchmark
+	public Document saxBuildPooled() throws Exception {
+		return pool.build(new ByteArrayInputStream(xml));
+	}
+
+	/**
+	 * StAXStreamBuilder over an XMLStreamReader.
+	 * @return the built document
+	 * @throws Exception if the build fails
+	 */
+	@Benchmark
+	public Document staxStreamBuild() throws Exception {
+		final XMLStreamReader reader = staxfactory.createXMLStreamReader(
+				new ByteArrayInputStream(xml));
+		try {
+			return staxbuilder.build(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * DOMBuilder conversion of an already-parsed DOM Document.
+	 * @return the built document
+	 */
+	@Benchmark
+	public Document domBuild() {
+		return dombuilder.build(domdoc);
+	}
+
+}
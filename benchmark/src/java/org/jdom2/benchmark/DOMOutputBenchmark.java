@@ -0,0 +1,157 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.output.DOMOutputter;
+import org.jdom2.output.support.AbstractDOMOutputProcessor;
+
+/**
+ * Benchmarks for converting a JDOM Document to a DOM Document.
+ * <p>
+ * 'walker' is the AbstractDOMOutputProcessor (the previous default), 'raw'
+ * is the RawDOMOutputProcessor, and 'parallel' is the RawDOMOutputProcessor
+ * splitting the tree over a thread pool.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DOMOutputBenchmark {
+
+	/** The number of record elements in the input document */
+	@Param({"100", "10000"})
+	public int records;
+
+	private Document document = null;
+	private ExecutorService pool = null;
+	private final DOMOutputter walker = new DOMOutputter(
+			new AbstractDOMOutputProcessor() {
+				// the Walker-based processing.
+			});
+	private final DOMOutputter raw = new DOMOutputter();
+
+	/**
+	 * Build the document, and start the pool.
+	 */
+	@Setup
+	public void setup() {
+		document = BenchmarkDocuments.build(
+				BenchmarkDocuments.generateBytes(records));
+		pool = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Stop the pool.
+	 */
+	@TearDown
+	public void teardown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Convert with the AbstractDOMOutputProcessor.
+	 * @return the DOM Document
+	 * @throws JDOMException if the conversion fails
+	 */
+	@Benchmark
+	public org.w3c.dom.Document walker() throws JDOMException {
+		return walker.output(document);
+	}
+
+	/**
+	 * Convert with the RawDOMOutputProcessor.
+	 * @return the DOM Document
+	 * @throws JDOMException if the conversion fails
+	 */
+	@Benchmark
+	public org.w3c.dom.Document raw() throws JDOMException {
+		return raw.output(document);
+	}
+
+	/**
+	 * Convert with the RawDOMOutputProcessor over the thread pool.
+	 * @return the DOM Document
+	 * @throws JDOMException if the conversion fails
+	 */
+	@Benchmark
+	public org.w3c.dom.Document parallel() throws JDOMException {
+		return raw.output(document, pool);
+	}
+
+}
@@ -0,0 +1,207 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+
+package org.jdom2.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+
+/**
+ * Benchmarks for escaping Text and Attribute values, comparing the
+ * String-returning Format methods (followed by a write) with the methods
+ * that escape directly in to a Writer.
+ * <p>
+ * The 'plain' content has nothing to escape, 'html' is an HTML fragment
+ * with markup on every few characters, and 'urls' is a list of query
+ * strings full of '&amp;' characters. The 'encoding' parameter selects the
+ * EscapeStrategy.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class EscapeBenchmark {
+
+	/** The kind of content to escape */
+	@Param({"plain", "html", "urls"})
+	public String content;
+
+	/** The output encoding, which selects the EscapeStrategy */
+	@Param({"UTF-8", "US-ASCII", "windows-1252", "Shift_JIS"})
+	public String encoding;
+
+	private String value = null;
+	private EscapeStrategy strategy = null;
+	private final NullWriter writer = new NullWriter();
+
+	/**
+	 * Generate the value to escape.
+	 */
+	@Setup
+	public void setup() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			if ("html".equals(content)) {
+				sb.append("<p class=\"note\">Caf\u00e9 &amp; <b>bar</b> ")
+					.append(i).append(" &lt; ").append(i + 1).append("</p>\n");
+			} else if ("urls".equals(content)) {
+				sb.append("http://example.com/q?a=").append(i)
+					.append("&b=x&c=y&d=\u20ac&e=z\n");
+			} else {
+				sb.append("Some plain text for record ").append(i).append(". ");
+			}
+		}
+		value = sb.toString();
+		strategy = Format.getRawFormat().setEncoding(encoding).getEscapeStrategy();
+	}
+
+	/**
+	 * Escape as Text content to a String, then write it.
+	 * @return the number of characters output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long textString() throws IOException {
+		writer.count = 0L;
+		writer.write(Format.escapeText(strategy, "\n", value));
+		return writer.count;
+	}
+
+	/**
+	 * Escape as Text content directly to the Writer.
+	 * @return the number of characters output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long textWriter() throws IOException {
+		writer.count = 0L;
+		Format.escapeText(writer, strategy, "\n", value);
+		return writer.count;
+	}
+
+	/**
+	 * Escape as an Attribute value to a String, then write it.
+	 * @return the number of characters output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long attributeString() throws IOException {
+		writer.count = 0L;
+		writer.write(Format.escapeAttribute(strategy, value));
+		return writer.count;
+	}
+
+	/**
+	 * Escape as an Attribute value directly to the Writer.
+	 * @return the number of characters output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long attributeWriter() throws IOException {
+		writer.count = 0L;
+		Format.escapeAttribute(writer, strategy, value);
+		return writer.count;
+	}
+
+	private static final class NullWriter extends Writer {
+		long count = 0L;
+
+		@Override
+		public void write(final char[] cbuf, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final String str, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final int c) {
+			count++;
+		}
+
+		@Override
+		public void flush() {
+			// nothing
+		}
+
+		@Override
+		public void close() {
+			// nothing
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.output.Format;
+import org.jdom2.output.Format.TextMode;
+import org.jdom2.output.XMLOutputter;
+
+/**
+ * Benchmarks for XMLOutputter.output() to both a Writer and an OutputStream,
+ * under each of the Format text modes.
+ * <p>
+ * The PRESERVE mode uses the 'raw' Format, the other modes use the
+ * 'pretty' Format (indented) with the respective TextMode. The output is
+ * discarded, so only the cost of formatting, escaping, and encoding is
+ * measured.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OutputBenchmark {
+
+	/** The number of record elements in the input document */
+	@Param({"100", "10000"})
+	public int records;
+
+	/** The TextMode of the Format to output with */
+	@Param({"PRESERVE", "TRIM", "NORMALIZE", "TRIM_FULL_WHITE"})
+	public TextMode mode;
+
+	private Document document = null;
+	private XMLOutputter outputter = null;
+	private final NullWriter writer = new NullWriter();
+	private final NullOutputStream stream = new NullOutputStream();
+
+	/**
+	 * Build the document, and set up the outputter.
+	 */
+	@Setup
+	public void setup() {
+		document = BenchmarkDocuments.build(
+				BenchmarkDocuments.generateBytes(records));
+		final Format format = mode == TextMode.PRESERVE
+				? Format.getRawFormat()
+				: Format.getPrettyFormat().setTextMode(mode);
+		outputter = new XMLOutputter(format);
+	}
+
+	/**
+	 * Output the document to a Writer.
+	 * @return the number of characters output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long outputWriter() throws IOException {
+		writer.count = 0L;
+		outputter.output(document, writer);
+		return writer.count;
+	}
+
+	/**
+	 * Output the document to an OutputStream (including the char-to-byte
+	 * encoding).
+	 * @return the number of bytes output
+	 * @throws IOException if the output fails
+	 */
+	@Benchmark
+	public long outputStream() throws IOException {
+		stream.count = 0L;
+		outputter.output(document, stream);
+		return stream.count;
+	}
+
+	/**
+	 * Output the document to a String.
+	 * @return the output
+	 */
+	@Benchmark
+	public String outputString() {
+		return outputter.outputString(document);
+	}
+
+	private static final class NullWriter extends Writer {
+		long count = 0L;
+
+		@Override
+		public void write(final char[] cbuf, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final String str, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final int c) {
+			count++;
+		}
+
+		@Override
+		public void flush() {
+			// nothing
+		}
+
+		@Override
+		public void close() {
+			// nothing
+		}
+	}
+
+	private static final class NullOutputStream extends OutputStream {
+		long count = 0L;
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(final int b) {
+			count++;
+		}
+	}
+
+}
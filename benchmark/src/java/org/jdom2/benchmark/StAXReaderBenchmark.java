@@ -0,0 +1,166 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+
+package org.jdom2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.output.StAXStreamReader;
+import org.jdom2.output.support.RawStAXStreamReader;
+
+/**
+ * Benchmarks for reading a JDOM Document through an XMLStreamReader, the way
+ * a StAX consumer (like a JAXB Unmarshaller) would: every event, its name,
+ * attributes and namespaces, and its text through getTextCharacters().
+ * <p>
+ * 'formatted' is the StAXStreamReader with the default raw Format, and 'raw'
+ * is the RawStAXStreamReader.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class StAXReaderBenchmark {
+
+	/** The number of record elements in the input document */
+	@Param({"100", "10000"})
+	public int records;
+
+	private Document document = null;
+	private final StAXStreamReader staxreader = new StAXStreamReader();
+
+	/**
+	 * Build the document.
+	 */
+	@Setup
+	public void setup() {
+		document = BenchmarkDocuments.build(
+				BenchmarkDocuments.generateBytes(records));
+	}
+
+	private static long consume(final XMLStreamReader reader)
+			throws XMLStreamException {
+		long cnt = 0;
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					cnt += reader.getLocalName().length();
+					cnt += reader.getNamespaceURI().length();
+					for (int i = reader.getNamespaceCount() - 1; i >= 0; i--) {
+						cnt += reader.getNamespaceURI(i).length();
+					}
+					for (int i = reader.getAttributeCount() - 1; i >= 0; i--) {
+						cnt += reader.getAttributeLocalName(i).length();
+						cnt += reader.getAttributeValue(i).length();
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+					final char[] chars = reader.getTextCharacters();
+					final int len = reader.getTextLength();
+					if (len > 0) {
+						cnt += chars[reader.getTextStart()] + len;
+					}
+					break;
+				default:
+					cnt++;
+			}
+		}
+		reader.close();
+		return cnt;
+	}
+
+	/**
+	 * Read through the Format-based StAXStreamReader.
+	 * @return a checksum of the content read
+	 * @throws XMLStreamException if the read fails
+	 */
+	@Benchmark
+	public long formatted() throws XMLStreamException {
+		return consume(staxreader.output(document));
+	}
+
+	/**
+	 * Read through the RawStAXStreamReader.
+	 * @return a checksum of the content read
+	 * @throws XMLStreamException if the read fails
+	 */
+	@Benchmark
+	public long raw() throws XMLStreamException {
+		return consume(new RawStAXStreamReader(document));
+	}
+
+}
@@ -0,0 +1,180 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+
+package org.jdom2.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.transform.TransformerService;
+import org.jdom2.transform.XSLTransformException;
+import org.jdom2.transform.XSLTransformer;
+
+/**
+ * Benchmarks for XSLT transformations of small Documents, comparing an
+ * {@link XSLTransformer} (a new Transformer per call) with the pooled
+ * Transformers of a {@link TransformerService}, from several threads.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(4)
+@Fork(1)
+public class TransformBenchmark {
+
+	private static final String XSL =
+			"<?xml version=\"1.0\"?>\n" +
+			"<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">\n" +
+			"   <xsl:template match=\"/\">\n" +
+			"      <summary count=\"{count(//record)}\">\n" +
+			"         <xsl:for-each select=\"//record\">\n" +
+			"            <id><xsl:value-of select=\"@id\" /></id>\n" +
+			"         </xsl:for-each>\n" +
+			"      </summary>\n" +
+			"   </xsl:template>\n" +
+			"</xsl:stylesheet>\n";
+
+	/** The number of records in the input Document */
+	@Param({"10", "1000"})
+	public int records;
+
+	/** Whether the TransformerService supplies a StAXSource */
+	@Param({"false", "true"})
+	public boolean stax;
+
+	private File stylesheet = null;
+	private String systemId = null;
+	private Document input = null;
+	private XSLTransformer transformer = null;
+	private TransformerService service = null;
+
+	/**
+	 * Write the stylesheet and build the input.
+	 * @throws IOException if the stylesheet cannot be written
+	 * @throws XSLTransformException if the stylesheet cannot be compiled
+	 */
+	@Setup
+	public void setup() throws IOException, XSLTransformException {
+		stylesheet = File.createTempFile("jdombench", ".xsl");
+		final FileOutputStream fos = new FileOutputStream(stylesheet);
+		try {
+			fos.write(XSL.getBytes("UTF-8"));
+		} finally {
+			fos.close();
+		}
+		systemId = stylesheet.toURI().toString();
+		final Element root = new Element("records");
+		for (int i = 0; i < records; i++) {
+			root.addContent(new Element("record").setAttribute("id", String.valueOf(i))
+					.setText("value " + i));
+		}
+		input = new Document(root);
+		transformer = new XSLTransformer(stylesheet);
+		service = new TransformerService();
+		service.setStAXSource(stax);
+		service.getTemplates(systemId);
+	}
+
+	/**
+	 * Remove the stylesheet file.
+	 */
+	@TearDown
+	public void teardown() {
+		stylesheet.delete();
+	}
+
+	/**
+	 * Transform with an XSLTransformer, which creates a Transformer per call.
+	 * @return the transformed Document
+	 * @throws XSLTransformException if the transform fails
+	 */
+	@Benchmark
+	public Document xsltransformer() throws XSLTransformException {
+		return transformer.transform(input);
+	}
+
+	/**
+	 * Transform with a pooled Transformer from the TransformerService.
+	 * @return the transformed Document
+	 * @throws XSLTransformException if the transform fails
+	 */
+	@Benchmark
+	public Document service() throws XSLTransformException {
+		return service.transform(systemId, input);
+	}
+
+}
@@ -0,0 +1,178 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.direct.DirectXPathFactory;
+
+/**
+ * Benchmarks for XPathFactory.compile() and XPathExpression.evaluate().
+ * <p>
+ * The <code>query</code> parameter selects one of a few typical expressions:
+ * a simple child path, a descendant search, an attribute predicate, and a
+ * positional predicate. The <code>engine</code> parameter compares Jaxen with
+ * the direct JDOM engine.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class XPathBenchmark {
+
+	private static final String[][] QUERIES = {
+		{"child",      "/d:feed/d:record/d:name"},
+		{"descendant", "//d:tag"},
+		{"attribute",  "/d:feed/d:record[@type='alpha']/d:value"},
+		{"position",   "/d:feed/d:record[3]/m:created"},
+	};
+
+	/** The number of record elements in the input document */
+	@Param({"100", "10000"})
+	public int records;
+
+	/** The name of the query to run */
+	@Param({"child", "descendant", "attribute", "position"})
+	public String query;
+
+	/**
+	 * The XPath engine: "jaxen" for the default factory, or "direct" for the
+	 * {@link DirectXPathFactory}.
+	 */
+	@Param({"jaxen", "direct"})
+	public String engine;
+
+	private Document document = null;
+	private XPathFactory factory = null;
+	private String expression = null;
+	private Namespace[] namespaces = null;
+	private XPathExpression<Element> compiled = null;
+
+	/**
+	 * Build the document, and pre-compile the expression.
+	 */
+	@Setup
+	public void setup() {
+		document = BenchmarkDocuments.build(
+				BenchmarkDocuments.generateBytes(records));
+		factory = "direct".equals(engine) ? new DirectXPathFactory()
+				: XPathFactory.instance();
+		for (String[] q : QUERIES) {
+			if (q[0].equals(query)) {
+				expression = q[1];
+			}
+		}
+		if (expression == null) {
+			throw new IllegalArgumentException("Unknown query " + query);
+		}
+		namespaces = new Namespace[] {
+				Namespace.getNamespace("d", BenchmarkDocuments.DATA_URI),
+				Namespace.getNamespace("m", BenchmarkDocuments.META_URI)};
+		compiled = factory.compile(expression, Filters.element(), null,
+				namespaces);
+	}
+
+	/**
+	 * Compile the expression.
+	 * @return the compiled expression
+	 */
+	@Benchmark
+	public XPathExpression<Element> compile() {
+		return factory.compile(expression, Filters.element(), null, namespaces);
+	}
+
+	/**
+	 * Evaluate the pre-compiled expression against the document.
+	 * @return the matching elements
+	 */
+	@Benchmark
+	public List<Element> evaluate() {
+		return compiled.evaluate(document);
+	}
+
+	/**
+	 * Compile and then evaluate the expression against the document.
+	 * @return the matching elements
+	 */
+	@Benchmark
+	public List<Element> compileAndEvaluate() {
+		return factory.compile(expression, Filters.element(), null, namespaces)
+				.evaluate(document);
+	}
+
+}
@@ -345,6 +345,7 @@ public class Attribute extends CloneBase
 	 *         attribute name.
 	 */
 	public Attribute setName(final String name) {
+		checkMutable();
 		if (name == null) {
 			throw new NullPointerException(
 					"Can not set a null name for an Attribute.");
@@ -355,6 +356,10 @@ public class Attribute extends CloneBase
 		}
 		this.name = name;
 		specified = true;
+		if (parent != null && parent.attributes != null) {
+			// the parent's attribute index may need to be refreshed
+			parent.attributes.attributeRenamed();
+		}
 		return this;
 	}
 
@@ -440,6 +445,7 @@ public class Attribute extends CloneBase
 	 *         namespace. Attributes cannot be in a default namespace.
 	 */
 	public Attribute setNamespace(Namespace namespace) {
+		checkMutable();
 		if (namespace == null) {
 			namespace = Namespace.NO_NAMESPACE;
 		}
@@ -454,6 +460,10 @@ public class Attribute extends CloneBase
 		}
 		this.namespace = namespace;
 		specified = true;
+		if (parent != null && parent.attributes != null) {
+			// the parent's attribute index may need to be refreshed
+			parent.attributes.attributeRenamed();
+		}
 		return this;
 	}
 
@@ -478,6 +488,7 @@ public class Attribute extends CloneBase
 	 *         {@link org.jdom2.Verifier#checkCharacterData}).
 	 */
 	public Attribute setValue(final String value) {
+		checkMutable();
 		if (value == null) {
 			throw new NullPointerException(
 					"Can not set a null value for an Attribute");
@@ -509,6 +520,7 @@ public class Attribute extends CloneBase
 	 *         not one of the supported types.
 	 */
 	public Attribute setAttributeType(final AttributeType type) {
+		checkMutable();
 		this.type = type == null ? AttributeType.UNDECLARED : type;
 		specified = true;
 		return this;
@@ -525,6 +537,7 @@ public class Attribute extends CloneBase
 	 */
 	@Deprecated
 	public Attribute setAttributeType(final int type) {
+		checkMutable();
 		setAttributeType(AttributeType.byIndex(type));
 		return this;
 	}
@@ -546,6 +559,7 @@ public class Attribute extends CloneBase
 	 * @since JDOM2
 	 */
 	public void setSpecified(boolean specified) {
+		checkMutable();
 		this.specified = specified;
 	}
 	
@@ -568,6 +582,29 @@ public class Attribute extends CloneBase
 		.toString();
 	}
 
+	/**
+	 * Indicates whether this Attribute is part of a frozen Document, and
+	 * thus can not be modified.
+	 * 
+	 * @return true if this Attribute is frozen.
+	 * @see Document#freeze()
+	 */
+	public boolean isFrozen() {
+		return parent != null && parent.isFrozen();
+	}
+
+	/**
+	 * Ensure that this Attribute can be modified.
+	 * 
+	 * @throws UnsupportedOperationException if this Attribute is frozen.
+	 */
+	private final void checkMutable() {
+		if (isFrozen()) {
+			throw new UnsupportedOperationException(
+					"Cannot modify the attributes of a frozen Document");
+		}
+	}
+
 	@Override
 	public Attribute clone() {
 		final Attribute clone = (Attribute) super.clone();
@@ -78,6 +78,12 @@ final class AttributeList extends AbstractList<Attribute>
 	/** The initial size to start the backing array. */
 	private static final int INITIAL_ARRAY_SIZE = 4;
 
+	/**
+	 * Lists with fewer than this many Attributes are searched linearly,
+	 * larger lists build a hash index of the Attribute name/URI on demand.
+	 */
+	private static final int INDEX_THRESHOLD = 16;
+
 	/** The backing array */
 	private Attribute attributeData[];
 
@@ -86,6 +92,21 @@ final class AttributeList extends AbstractList<Attribute>
 
 	/** The parent Element */
 	private final Element parent;
+
+	/**
+	 * Open-addressing hash table of (position + 1) in attributeData, keyed
+	 * on the Attribute name and Namespace URI. 0 is an empty slot. It is
+	 * built lazily for large lists, kept up to date for appends, and dropped
+	 * (null) whenever Attributes move or are renamed. It is volatile because
+	 * frozen lists may be read, and thus indexed, by many threads at once.
+	 */
+	private volatile int[] hashindex = null;
+
+	/**
+	 * Set when the Document this list is part of is frozen. A frozen list is
+	 * trimmed to size and rejects all modification.
+	 */
+	private boolean frozen = false;
 	
 	private static final Comparator<Attribute> ATTRIBUTE_NATURAL = new Comparator<Attribute>() {
 
@@ -111,6 +132,31 @@ final class AttributeList extends AbstractList<Attribute>
 		this.parent = parent;
 	}
 
+	/**
+	 * Trim the backing array to the exact number of Attributes, and make
+	 * this list immutable.
+	 */
+	final void freeze() {
+		if (size == 0) {
+			attributeData = null;
+		} else if (attributeData.length != size) {
+			attributeData = ArrayCopy.copyOf(attributeData, size);
+		}
+		hashindex = null;
+		frozen = true;
+	}
+
+	/**
+	 * Ensure this list can be modified.
+	 * @throws UnsupportedOperationException if the list is frozen.
+	 */
+	private final void checkMutable() {
+		if (frozen) {
+			throw new UnsupportedOperationException(
+					"Cannot modify the attributes of a frozen Document");
+		}
+	}
+
 	/**
 	 * Package internal method to support building from sources that are 100%
 	 * trusted.
@@ -119,10 +165,13 @@ final class AttributeList extends AbstractList<Attribute>
 	 *        an Attribute to add without any checks
 	 */
 	final void uncheckedAddAttribute(final Attribute a) {
+		checkMutable();
 		a.parent = parent;
 		ensureCapacity(size + 1);
 		attributeData[size++] = a;
+		indexAppend();
 		modCount++;
+		parent.attributeNamespacesChanged();
 	}
 
 	/**
@@ -138,6 +187,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 */
 	@Override
 	public boolean add(final Attribute attribute) {
+		checkMutable();
 		if (attribute.getParent() != null) {
 			throw new IllegalAddException(
 					"The attribute already has an existing parent \""
@@ -155,6 +205,7 @@ final class AttributeList extends AbstractList<Attribute>
 			attribute.setParent(parent);
 			ensureCapacity(size + 1);
 			attributeData[size++] = attribute;
+			indexAppend();
 			modCount++;
 		} else {
 			final Attribute old = attributeData[duplicate];
@@ -162,6 +213,7 @@ final class AttributeList extends AbstractList<Attribute>
 			attributeData[duplicate] = attribute;
 			attribute.setParent(parent);
 		}
+		parent.attributeNamespacesChanged();
 		return true;
 	}
 
@@ -177,6 +229,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 */
 	@Override
 	public void add(final int index, final Attribute attribute) {
+		checkMutable();
 		if (index < 0 || index > size) {
 			throw new IndexOutOfBoundsException("Index: " + index +
 					" Size: " + size());
@@ -202,13 +255,17 @@ final class AttributeList extends AbstractList<Attribute>
 		ensureCapacity(size + 1);
 		if (index == size) {
 			attributeData[size++] = attribute;
+			indexAppend();
 		} else {
 			System.arraycopy(attributeData, index, attributeData, index + 1, 
 					size - index);
 			attributeData[index] = attribute;
 			size++;
+			// everything after the insert has moved.
+			hashindex = null;
 		}
 		modCount++;
+		parent.attributeNamespacesChanged();
 	}
 
 	/**
@@ -243,6 +300,7 @@ final class AttributeList extends AbstractList<Attribute>
 	@Override
 	public boolean addAll(final int index,
 			final Collection<? extends Attribute> collection) {
+		checkMutable();
 		if (index < 0 || index > size) {
 			throw new IndexOutOfBoundsException("Index: " + index +
 					" Size: " + size());
@@ -292,6 +350,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 */
 	@Override
 	public void clear() {
+		checkMutable();
 		if (attributeData != null) {
 			while (size > 0) {
 				size--;
@@ -299,7 +358,9 @@ final class AttributeList extends AbstractList<Attribute>
 				attributeData[size] = null;
 			}
 		}
+		hashindex = null;
 		modCount++;
+		parent.attributeNamespacesChanged();
 	}
 
 	/**
@@ -311,6 +372,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 *         if validation rules prevent the addAll
 	 */
 	void clearAndSet(final Collection<? extends Attribute> collection) {
+		checkMutable();
 		if (collection == null || collection.isEmpty()) {
 			clear();
 			return;
@@ -330,6 +392,7 @@ final class AttributeList extends AbstractList<Attribute>
 		}
 		size = 0;
 		attributeData = null;
+		hashindex = null;
 
 		boolean ok = false;
 		try {
@@ -341,10 +404,12 @@ final class AttributeList extends AbstractList<Attribute>
 				// restore the old system.
 				// re-attach the old stuff
 				attributeData = old;
+				hashindex = null;
 				while (size < oldSize) {
 					attributeData[size++].setParent(parent);
 				}
 				modCount = oldModCount;
+				parent.attributeNamespacesChanged();
 			}
 		}
 
@@ -358,7 +423,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 * @param minCapacity
 	 *        the desired minimum capacity.
 	 */
-	private void ensureCapacity(final int minCapacity) {
+	void ensureCapacity(final int minCapacity) {
 		if (attributeData == null) {
 			attributeData = 
 					new Attribute[Math.max(minCapacity, INITIAL_ARRAY_SIZE)];
@@ -425,6 +490,9 @@ final class AttributeList extends AbstractList<Attribute>
 				return indexOf(name, Namespace.NO_NAMESPACE);
 			}
 			final String uri = namespace.getURI();
+			if (size >= INDEX_THRESHOLD) {
+				return indexLookup(name, uri);
+			}
 			for (int i = 0; i < size; i++) {
 				final Attribute att = attributeData[i];
 				if (att.getNamespaceURI().equals(uri) &&
@@ -436,6 +504,99 @@ final class AttributeList extends AbstractList<Attribute>
 		return -1;
 	}
 
+	/**
+	 * Called when the name or Namespace of a member Attribute changes.
+	 */
+	void attributeRenamed() {
+		hashindex = null;
+		parent.attributeNamespacesChanged();
+	}
+
+	/**
+	 * Compute the hash of an Attribute name and Namespace URI. String caches
+	 * its hashCode, so this is cheap.
+	 */
+	private static final int hash(final String name, final String uri) {
+		final int h = name.hashCode() * 31 + uri.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Find the Attribute position using the hash index, building it if
+	 * needed.
+	 * 
+	 * @param name The Attribute name
+	 * @param uri The Attribute Namespace URI
+	 * @return the position of the Attribute, or -1 if there is none.
+	 */
+	private final int indexLookup(final String name, final String uri) {
+		int[] index = hashindex;
+		if (index == null) {
+			index = indexRebuild();
+		}
+		final int mask = index.length - 1;
+		int slot = hash(name, uri) & mask;
+		int pos = 0;
+		while ((pos = index[slot]) != 0) {
+			final Attribute att = attributeData[pos - 1];
+			if (att.getName().equals(name) && 
+					att.getNamespaceURI().equals(uri)) {
+				return pos - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Build the hash index for all the current Attributes. The table is
+	 * kept at most half full.
+	 * @return the new index.
+	 */
+	private final int[] indexRebuild() {
+		int cap = INDEX_THRESHOLD * 2;
+		while (cap < size * 2) {
+			cap <<= 1;
+		}
+		// build it completely before publishing it.
+		final int[] index = new int[cap];
+		for (int i = 0; i < size; i++) {
+			indexPut(index, i);
+		}
+		hashindex = index;
+		return index;
+	}
+
+	/**
+	 * Put the Attribute at the given position in to the hash index.
+	 * @param index The hash index to update.
+	 * @param pos The position to index.
+	 */
+	private final void indexPut(final int[] index, final int pos) {
+		final Attribute att = attributeData[pos];
+		final int mask = index.length - 1;
+		int slot = hash(att.getName(), att.getNamespaceURI()) & mask;
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		index[slot] = pos + 1;
+	}
+
+	/**
+	 * Keep an existing hash index up to date after an Attribute is appended
+	 * to the end of the list.
+	 */
+	private final void indexAppend() {
+		final int[] index = hashindex;
+		if (index != null) {
+			if (size * 2 > index.length) {
+				indexRebuild();
+			} else {
+				indexPut(index, size - 1);
+			}
+		}
+	}
+
 	/**
 	 * Remove the <code>Attribute</code> at <i>index</i>.
 	 * 
@@ -445,6 +606,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 */
 	@Override
 	public Attribute remove(final int index) {
+		checkMutable();
 		if (index < 0 || index >= size)
 			throw new IndexOutOfBoundsException("Index: " + index +
 					" Size: " + size());
@@ -454,7 +616,9 @@ final class AttributeList extends AbstractList<Attribute>
 		System.arraycopy(attributeData, index + 1, attributeData, index,
 				size - index - 1);
 		attributeData[--size] = null; // Let gc do its work
+		hashindex = null;
 		modCount++;
+		parent.attributeNamespacesChanged();
 		return old;
 	}
 
@@ -491,6 +655,7 @@ final class AttributeList extends AbstractList<Attribute>
 	 */
 	@Override
 	public Attribute set(final int index, final Attribute attribute) {
+		checkMutable();
 		if (index < 0 || index >= size)
 			throw new IndexOutOfBoundsException("Index: " + index +
 					" Size: " + size());
@@ -516,6 +681,9 @@ final class AttributeList extends AbstractList<Attribute>
 
 		attributeData[index] = attribute;
 		attribute.setParent(parent);
+		// the name at this position may have changed.
+		hashindex = null;
+		parent.attributeNamespacesChanged();
 		return old;
 	}
 
@@ -594,6 +762,7 @@ final class AttributeList extends AbstractList<Attribute>
 	}
 	
 	private void sortInPlace(final int[] indexes) {
+		checkMutable();
 		// the indexes are a discrete set of values that have no duplicates,
 		// and describe the relative order of each of them.
 		// as a result, we can do some tricks....
@@ -607,6 +776,8 @@ final class AttributeList extends AbstractList<Attribute>
 		for (int i = 0; i < indexes.length; i ++) {
 			attributeData[unsorted[i]] = usc[i];
 		}
+		// the Attributes have moved.
+		hashindex = null;
 	}
 
 	/**
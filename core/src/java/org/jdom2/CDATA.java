@@ -111,6 +111,7 @@ public class CDATA extends Text {
 	 */
 	@Override
 	public CDATA setText(final String str) {
+		checkMutable();
 		// Overrides Text.setText() because this needs to check that CDATA rules
 		// are enforced. We could have a separate Verifier check for CDATA
 		// beyond Text and call that alone before super.setText().
@@ -142,6 +143,7 @@ public class CDATA extends Text {
 	 */
 	@Override
 	public void append(final String str) {
+		checkMutable();
 		// Overrides Text.append(String) because this needs to check that CDATA
 		// rules are enforced. We could have a separate Verifier check for CDATA
 		// beyond Text and call that alone before super.setText().
@@ -181,6 +183,7 @@ public class CDATA extends Text {
 	 */
 	@Override
 	public void append(final Text text) {
+		checkMutable();
 		// Overrides Text.append(Text) because this needs to check that CDATA
 		// rules are enforced. We could have a separate Verifier check for CDATA
 		// beyond Text and call that alone before super.setText().
@@ -158,6 +158,37 @@ public abstract class Content extends CloneBase
 		return ctype;
 	}
 
+	/**
+	 * Indicates whether this Content is part of a frozen Document, and thus
+	 * can not be modified.
+	 * 
+	 * @return true if this Content is frozen.
+	 * @see Document#freeze()
+	 */
+	public boolean isFrozen() {
+		final Parent p = parent;
+		if (p instanceof Element) {
+			final ContentList cl = ((Element)p).content;
+			return cl != null && cl.isFrozen();
+		}
+		if (p instanceof Document) {
+			return ((Document)p).content.isFrozen();
+		}
+		return false;
+	}
+
+	/**
+	 * Ensure that this Content can be modified.
+	 * 
+	 * @throws UnsupportedOperationException if this Content is frozen.
+	 */
+	final void checkMutable() {
+		if (isFrozen()) {
+			throw new UnsupportedOperationException(
+					"Cannot modify the content of a frozen Document");
+		}
+	}
+
 	/**
 	 * Detaches this child from its parent or does nothing if the child
 	 * has no parent.
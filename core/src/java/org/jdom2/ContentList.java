@@ -81,6 +81,12 @@ final class ContentList extends AbstractList<Content>
 
 	private static final int INITIAL_ARRAY_SIZE = 4;
 
+	/**
+	 * Lists with fewer than this many members are searched linearly for
+	 * child Elements, larger lists build a name index on demand.
+	 */
+	private static final int INDEX_THRESHOLD = 32;
+
 	/** Our backing list */
 	private Content elementData[] = null;
 	
@@ -106,6 +112,20 @@ final class ContentList extends AbstractList<Content>
 	/** Document or Element this list belongs to */
 	private final Parent parent;
 
+	/**
+	 * Lazily built index of the Element members keyed by name and
+	 * namespace URI. It is only valid while its dataModCount matches ours.
+	 * It is volatile because frozen lists may be read, and thus indexed, by
+	 * many threads at once.
+	 */
+	private transient volatile NameIndex nameindex = null;
+
+	/**
+	 * Set when the Document this list is part of is frozen. A frozen list is
+	 * trimmed to size and rejects all modification.
+	 */
+	private boolean frozen = false;
+
 	/**
 	 * Force either a Document or Element parent
 	 * 
@@ -124,10 +144,15 @@ final class ContentList extends AbstractList<Content>
 	 *        content to add without any checks
 	 */
 	final void uncheckedAddContent(final Content c) {
+		checkMutable();
 		c.parent = parent;
 		ensureCapacity(size + 1);
+		final boolean patch = isIndexCurrent();
 		elementData[size++] = c;
 		incModCount();
+		if (patch) {
+			appendIndex(size - 1);
+		}
 	}
 
 	/**
@@ -183,6 +208,39 @@ final class ContentList extends AbstractList<Content>
 		return dataModiCount;
 	}
 
+	/**
+	 * Is this list frozen (part of a frozen Document).
+	 * @return true if the list can not be modified.
+	 */
+	final boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Trim the backing array to the exact size of the content, and make
+	 * this list immutable.
+	 */
+	final void freeze() {
+		if (size == 0) {
+			elementData = null;
+		} else if (elementData.length != size) {
+			elementData = ArrayCopy.copyOf(elementData, size);
+		}
+		nameindex = null;
+		frozen = true;
+	}
+
+	/**
+	 * Ensure this list can be modified.
+	 * @throws UnsupportedOperationException if the list is frozen.
+	 */
+	private final void checkMutable() {
+		if (frozen) {
+			throw new UnsupportedOperationException(
+					"Cannot modify the content of a frozen Document");
+		}
+	}
+
 	private final void checkIndex(final int index, final boolean excludes) {
 		final int max = excludes ? size - 1 : size;
 
@@ -240,6 +298,7 @@ final class ContentList extends AbstractList<Content>
 	 */
 	@Override
 	public void add(final int index, final Content child) {
+		checkMutable();
 		// Confirm basic sanity of child.
 		checkPreConditions(child, index, false);
 		// Check to see whether this parent believes it can contain this content
@@ -248,6 +307,9 @@ final class ContentList extends AbstractList<Content>
 		child.setParent(parent);
 
 		ensureCapacity(size + 1);
+		// appending does not move any existing content, so we can keep
+		// the name index up to date instead of invalidating it.
+		final boolean patch = index == size && isIndexCurrent();
 		if (index == size) {
 			elementData[size++] = child;
 		} else {
@@ -257,6 +319,9 @@ final class ContentList extends AbstractList<Content>
 		}
 		// Successful add's increment the AbstractList's modCount
 		incModCount();
+		if (patch) {
+			appendIndex(index);
+		}
 	}
 
 	/**
@@ -293,6 +358,7 @@ final class ContentList extends AbstractList<Content>
 					"Can not add a null collection to the ContentList");
 		}
 
+		checkMutable();
 		checkIndex(index, false);
 
 		if (collection.isEmpty()) {
@@ -340,6 +406,7 @@ final class ContentList extends AbstractList<Content>
 	 */
 	@Override
 	public void clear() {
+		checkMutable();
 		if (elementData != null) {
 			for (int i = 0; i < size; i++) {
 				Content obj = elementData[i];
@@ -359,6 +426,7 @@ final class ContentList extends AbstractList<Content>
 	 *        The collection to use.
 	 */
 	void clearAndSet(final Collection<? extends Content> collection) {
+		checkMutable();
 		if (collection == null || collection.isEmpty()) {
 			clear();
 			return;
@@ -487,6 +555,118 @@ final class ContentList extends AbstractList<Content>
 		return -1;
 	}
 
+	/**
+	 * Called when the name or Namespace of a member Element changes. The
+	 * Element is still in the same place, so the positions the FilterLists
+	 * have cached are still good (and iterators over them must not skip),
+	 * but the name index is keyed by name, so it has to be rebuilt.
+	 */
+	void childRenamed() {
+		nameindex = null;
+	}
+
+	/**
+	 * Get the first child Element with the given name and Namespace URI.
+	 * <p>
+	 * Small lists are simply scanned, larger lists use (and if needed,
+	 * build) the name index, so repeated lookups on wide Elements are O(1).
+	 * 
+	 * @param name
+	 *        The name of the Element to get (not null).
+	 * @param uri
+	 *        The Namespace URI of the Element to get (not null).
+	 * @return The first matching Element, or null if there is none.
+	 */
+	Element getFirstElement(final String name, final String uri) {
+		if (size < INDEX_THRESHOLD) {
+			// small list, don't bother with an index. Any index left over
+			// from when the list was larger is stale (the data modcount
+			// has changed) and is rebuilt if the list grows again.
+			for (int i = 0; i < size; i++) {
+				if (elementData[i] instanceof Element) {
+					final Element e = (Element)elementData[i];
+					if (name.equals(e.getName()) && 
+							uri.equals(e.getNamespaceURI())) {
+						return e;
+					}
+				}
+			}
+			return null;
+		}
+		final IndexEntry ie = getIndexEntry(name, uri);
+		return ie == null ? null : (Element)elementData[ie.positions[0]];
+	}
+
+	/**
+	 * Return a view of the child Elements with the given name and Namespace
+	 * URI. This is the same as getView(filter) with an ElementFilter, but the
+	 * view can be populated from the name index instead of scanning the
+	 * list.
+	 * 
+	 * @param filter
+	 *        The ElementFilter that matches the name and namespace.
+	 * @param name
+	 *        The name of the Elements to view (not null).
+	 * @param uri
+	 *        The Namespace URI of the Elements to view (not null).
+	 * @return a live list of the matching Elements.
+	 */
+	List<Element> getElementView(final Filter<Element> filter, 
+			final String name, final String uri) {
+		return new FilterList<Element>(filter, name, uri);
+	}
+
+	/**
+	 * Is the name index built, and in sync with the content.
+	 * @return true if the index is current.
+	 */
+	private final boolean isIndexCurrent() {
+		final NameIndex ni = nameindex;
+		return ni != null && ni.datamod == getDataModCount();
+	}
+
+	/**
+	 * Add the content at the end of the list to a current name index, and
+	 * keep the index current (the data modcount has changed since the index
+	 * was last current).
+	 * 
+	 * @param pos
+	 *        The position of the appended content.
+	 */
+	private final void appendIndex(final int pos) {
+		if (elementData[pos] instanceof Element) {
+			nameindex.add((Element)elementData[pos], pos);
+		}
+		nameindex.datamod = getDataModCount();
+	}
+
+	/**
+	 * Get the index entry for the given name and namespace URI, building
+	 * the name index if it is missing, or out of date.
+	 * 
+	 * @param name
+	 *        The Element name.
+	 * @param uri
+	 *        The Element Namespace URI.
+	 * @return The (non-empty) entry, or null if there is no such Element.
+	 */
+	private final IndexEntry getIndexEntry(final String name, 
+			final String uri) {
+		// work with a local reference, and publish the index only once it
+		// is complete.
+		NameIndex ni = nameindex;
+		if (ni == null || ni.datamod != getDataModCount()) {
+			ni = new NameIndex(getDataModCount());
+			for (int i = 0; i < size; i++) {
+				if (elementData[i] instanceof Element) {
+					ni.add((Element)elementData[i], i);
+				}
+			}
+			nameindex = ni;
+		}
+		return ni.get(name, uri);
+	}
+
 	/**
 	 * Remove the object at the specified offset.
 	 * 
@@ -496,6 +676,7 @@ final class ContentList extends AbstractList<Content>
 	 */
 	@Override
 	public Content remove(final int index) {
+		checkMutable();
 		checkIndex(index, true);
 
 		final Content old = elementData[index];
@@ -523,6 +704,7 @@ final class ContentList extends AbstractList<Content>
 	 */
 	@Override
 	public Content set(final int index, final Content child) {
+		checkMutable();
 		// Confirm basic sanity of child.
 		checkPreConditions(child, index, true);
 
@@ -581,6 +763,7 @@ final class ContentList extends AbstractList<Content>
 	}
 	
 	private void sortInPlace(final int[] indexes) {
+		checkMutable();
 		// the indexes are a discrete set of values that have no duplicates,
 		// and describe the relative order of each of them.
 		// as a result, we can do some tricks....
@@ -594,6 +777,8 @@ final class ContentList extends AbstractList<Content>
 		for (int i = 0; i < indexes.length; i ++) {
 			elementData[unsorted[i]] = usc[i];
 		}
+		// the positions of the content have changed.
+		nameindex = null;
 	}
 
 	/**
@@ -930,6 +1115,11 @@ final class ContentList extends AbstractList<Content>
 		int backingsize = 0;
 		// track data modifications in the backing ContentList.
 		int xdata = -1;
+		// the Element name/uri that the filter matches, if it can be indexed.
+		final String keyname;
+		final String keyuri;
+		// backingpos is fully populated (from the name index).
+		boolean complete = false;
 
 		/**
 		 * Create a new instance of the FilterList with the specified Filter.
@@ -938,7 +1128,26 @@ final class ContentList extends AbstractList<Content>
 		 *        The underlying Filter to use for filtering the content.
 		 */
 		FilterList(final Filter<F> filter) {
+			this(filter, null, null);
+		}
+
+		/**
+		 * Create a new instance of the FilterList with the specified Filter,
+		 * where the Filter matches exactly the Elements with the given name
+		 * and namespace URI (so the view can use the name index).
+		 * 
+		 * @param filter
+		 *        The underlying Filter to use for filtering the content.
+		 * @param keyname
+		 *        The name of the Elements matched by the Filter.
+		 * @param keyuri
+		 *        The Namespace URI of the Elements matched by the Filter.
+		 */
+		FilterList(final Filter<F> filter, final String keyname, 
+				final String keyuri) {
 			this.filter = filter;
+			this.keyname = keyname;
+			this.keyuri = keyuri;
 		}
 		
 		/**
@@ -973,9 +1182,19 @@ final class ContentList extends AbstractList<Content>
 				// we need to invalidate our research...
 				xdata = getDataModCount();
 				backingsize = 0;
+				complete = false;
 				if (size >= backingpos.length) {
 					backingpos = new int[size + 1];
 				}
+				if (keyname != null && size >= INDEX_THRESHOLD) {
+					// populate everything from the name index.
+					final IndexEntry ie = getIndexEntry(keyname, keyuri);
+					if (ie != null) {
+						System.arraycopy(ie.positions, 0, backingpos, 0, ie.count);
+						backingsize = ie.count;
+					}
+					complete = true;
+				}
 			}
 
 			if (index >= 0 && index < backingsize) {
@@ -984,6 +1203,11 @@ final class ContentList extends AbstractList<Content>
 				return backingpos[index];
 			}
 
+			if (complete) {
+				// there are no more matches.
+				return size;
+			}
+
 			// the index in the backing list of the next value to check.
 			int bpi = 0;
 			if (backingsize > 0) {
@@ -1034,6 +1258,7 @@ final class ContentList extends AbstractList<Content>
 				}
 				backingpos[index] = adj;
 				backingsize = index + 1;
+				complete = false;
 				xdata = getDataModCount();
 
 			} else {
@@ -1090,6 +1315,7 @@ final class ContentList extends AbstractList<Content>
 						}
 						backingpos[index + count] = adj + count;
 						backingsize = index + count + 1;
+						complete = false;
 						xdata = getDataModCount();
 
 						count++;
@@ -1112,6 +1338,7 @@ final class ContentList extends AbstractList<Content>
 					// reset the cache... will need to redo some work on another
 					// call maybe....
 					backingsize = index;
+					complete = false;
 					xdata = tmpmodcount;
 				}
 			}
@@ -1172,6 +1399,7 @@ final class ContentList extends AbstractList<Content>
 			final Content oldc = ContentList.this.remove(adj);
 			// optimise the backing cache.
 			backingsize = index;
+			complete = false;
 			xdata = getDataModCount();
 			// use Filter to ensure the cast is right.
 			return filter.filter(oldc);
@@ -1484,4 +1712,73 @@ final class ContentList extends AbstractList<Content>
 
 	}
 
+	/* * * * * * * * * * * * * NameIndex * * * * * * * * * * * * * * * */
+
+	/**
+	 * The positions of the Elements in the list, keyed by Element name, and
+	 * then Namespace URI. The positions of each name/uri are in list order.
+	 */
+	private static final class NameIndex {
+		/** The dataModCount of the list when this index was current */
+		int datamod;
+		private final HashMap<String, IndexEntry> names = 
+				new HashMap<String, IndexEntry>();
+
+		NameIndex(final int datamod) {
+			this.datamod = datamod;
+		}
+
+		void add(final Element e, final int pos) {
+			final String name = e.getName();
+			final String uri = e.getNamespaceURI();
+			IndexEntry ie = names.get(name);
+			if (ie == null) {
+				ie = new IndexEntry(uri, null);
+				names.put(name, ie);
+			} else {
+				while (ie != null && !uri.equals(ie.uri)) {
+					ie = ie.next;
+				}
+				if (ie == null) {
+					// same name, different namespace.
+					ie = names.get(name);
+					ie.next = new IndexEntry(uri, ie.next);
+					ie = ie.next;
+				}
+			}
+			ie.add(pos);
+		}
+
+		IndexEntry get(final String name, final String uri) {
+			IndexEntry ie = names.get(name);
+			while (ie != null && !uri.equals(ie.uri)) {
+				ie = ie.next;
+			}
+			return ie;
+		}
+	}
+
+	/**
+	 * The positions of all the Elements with a given name and namespace URI.
+	 */
+	private static final class IndexEntry {
+		private final String uri;
+		/** Other URIs with the same Element name */
+		private IndexEntry next;
+		private int[] positions = new int[2];
+		private int count = 0;
+
+		IndexEntry(final String uri, final IndexEntry next) {
+			this.uri = uri;
+			this.next = next;
+		}
+
+		void add(final int pos) {
+			if (count == positions.length) {
+				positions = ArrayCopy.copyOf(positions, count * 2);
+			}
+			positions[count++] = pos;
+		}
+	}
+
 }
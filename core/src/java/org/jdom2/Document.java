@@ -58,6 +58,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import org.jdom2.filter.*;
 import org.jdom2.util.IteratorIterable;
@@ -515,6 +516,7 @@ public class Document extends CloneBase implements Parent {
 	 * @param uri the base URI of this document
 	 */
 	public final void setBaseURI(String uri) {
+		checkMutable();
 		this.baseURI = uri;  // XXX We don't check the URI
 	}
 
@@ -681,31 +683,61 @@ public class Document extends CloneBase implements Parent {
 	 */
 	@Override
 	public Document clone() {
+		return cloneWith(null);
+	}
+
+	/**
+	 * Clone this Document using the supplied Executor to clone large parts
+	 * of the root element concurrently. The result is the same as
+	 * {@link #clone()}, see {@link Element#clone(Executor)}.
+	 *
+	 * @param executor The Executor to clone with.
+	 * @return the clone of this Document
+	 * @throws NullPointerException if the executor is null
+	 * @since JDOM2
+	 */
+	public Document clone(final Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		return cloneWith(executor);
+	}
+
+	/**
+	 * Clone this Document, and its content.
+	 * @param executor If not null, the Executor to clone the root Element with.
+	 * @return the clone.
+	 */
+	private final Document cloneWith(final Executor executor) {
 		final Document doc = (Document) super.clone();
 
 		// The clone has a reference to this object's content list, so
 		// owerwrite with a empty list
 		doc.content = new ContentList(doc);
+		if (content.size() > 0) {
+			doc.content.ensureCapacity(content.size());
+		}
 
-		// Add the cloned content to clone
+		// Add the cloned content to clone, it is already known to be legal.
 
 		for (int i = 0; i < content.size(); i++) {
 			Object obj = content.get(i);
 			if (obj instanceof Element) {
-				Element element = ((Element)obj).clone();
-				doc.content.add(element);
+				Element element = executor == null ? ((Element)obj).clone() 
+						: ((Element)obj).clone(executor);
+				doc.content.uncheckedAddContent(element);
 			}
 			else if (obj instanceof Comment) {
 				Comment comment = ((Comment)obj).clone();
-				doc.content.add(comment);
+				doc.content.uncheckedAddContent(comment);
 			}
 			else if (obj instanceof ProcessingInstruction) {
 				ProcessingInstruction pi = ((ProcessingInstruction)obj).clone();
-				doc.content.add(pi);
+				doc.content.uncheckedAddContent(pi);
 			}
 			else if (obj instanceof DocType) {
 				DocType dt = ((DocType)obj).clone();
-				doc.content.add(dt);
+				doc.content.uncheckedAddContent(dt);
 			}
 		}
 
@@ -767,6 +799,7 @@ public class Document extends CloneBase implements Parent {
 	 * @param value  the <code>Object</code> to store
 	 */
 	public void setProperty(String id, Object value) {
+		checkMutable();
 		if (propertyMap == null) {
 			propertyMap = new HashMap<String, Object>();
 		}
@@ -788,6 +821,69 @@ public class Document extends CloneBase implements Parent {
 		return propertyMap.get(id);
 	}
 	
+	/**
+	 * Make this Document, and all the content in it, immutable. Any
+	 * subsequent attempt to modify the Document, or any of its Elements,
+	 * Attributes, or other Content, will throw an
+	 * UnsupportedOperationException.
+	 * <p>
+	 * The internal storage of the Document is trimmed to the exact size of
+	 * the content as it is frozen, so a frozen Document retains less memory
+	 * than a regular one. Since it can not change, a frozen Document can
+	 * also be read by multiple threads concurrently.
+	 * <p>
+	 * There is no way to 'thaw' a frozen Document, but a {@link #clone()}
+	 * of a frozen Document is a regular, modifiable Document.
+	 * 
+	 * @return this Document (frozen).
+	 * @since JDOM2
+	 */
+	public Document freeze() {
+		if (content.isFrozen()) {
+			return this;
+		}
+		final ArrayList<Element> stack = new ArrayList<Element>();
+		for (int i = content.size() - 1; i >= 0; i--) {
+			if (content.get(i) instanceof Element) {
+				stack.add((Element)content.get(i));
+			}
+		}
+		while (!stack.isEmpty()) {
+			final Element emt = stack.remove(stack.size() - 1);
+			final ContentList kids = emt.content;
+			for (int i = kids.size() - 1; i >= 0; i--) {
+				if (kids.get(i) instanceof Element) {
+					stack.add((Element)kids.get(i));
+				}
+			}
+			emt.freezeContent();
+		}
+		content.freeze();
+		return this;
+	}
+
+	/**
+	 * Indicates whether this Document has been frozen.
+	 * 
+	 * @return true if this Document (and all of its content) is immutable.
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return content.isFrozen();
+	}
+
+	/**
+	 * Ensure that this Document can be modified.
+	 * 
+	 * @throws UnsupportedOperationException if this Document is frozen.
+	 */
+	private final void checkMutable() {
+		if (content.isFrozen()) {
+			throw new UnsupportedOperationException(
+					"Cannot modify a frozen Document");
+		}
+	}
+
 	@Override
 	public void canContainContent(Content child, int index, boolean replace) {
 		if (child instanceof Element) {
@@ -70,6 +70,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 import org.jdom2.ContentList.FilterList;
 import org.jdom2.filter.ElementFilter;
@@ -128,6 +129,14 @@ public class Element extends Content implements Parent {
 	 */
 	transient ContentList content = new ContentList(this);
 
+	/**
+	 * The cached Namespace scope of this element, or null if it has not been
+	 * computed, or was invalidated by a change to this element's namespaces.
+	 * It is volatile because frozen Documents may be read, and thus have
+	 * their scopes computed, by many threads at once.
+	 */
+	private transient volatile NamespaceScope scope = null;
+
 	/**
 	 * This protected constructor is provided in order to support an Element
 	 * subclass that wants full control over variable initialization. It
@@ -222,11 +231,13 @@ public class Element extends Content implements Parent {
 	 *                              name
 	 */
 	public Element setName(final String name) {
+		checkMutable();
 		final String reason = Verifier.checkElementName(name);
 		if (reason != null) {
 			throw new IllegalNameException(name, "element", reason);
 		}
 		this.name = name;
+		childRenamed();
 		return this;
 	}
 
@@ -248,6 +259,7 @@ public class Element extends Content implements Parent {
 	 * @throws IllegalAddException if there is a Namespace conflict
 	 */
 	public Element setNamespace(Namespace namespace) {
+		checkMutable();
 		if (namespace == null) {
 			namespace = Namespace.NO_NAMESPACE;
 		}
@@ -270,9 +282,21 @@ public class Element extends Content implements Parent {
 		}
 		
 		this.namespace = namespace;
+		scope = null;
+		childRenamed();
 		return this;
 	}
 
+	/**
+	 * Tell the parent Element that the name of this child has changed, so
+	 * that it can refresh any name-based views of its content.
+	 */
+	private final void childRenamed() {
+		if (parent instanceof Element) {
+			((Element)parent).content.childRenamed();
+		}
+	}
+
 	/**
 	 * Returns the namespace prefix of the element or an empty string if none
 	 * exists.
@@ -381,6 +405,7 @@ public class Element extends Content implements Parent {
 	 *                             namespace prefix on the element
 	 */
 	public boolean addNamespaceDeclaration(final Namespace additionalNamespace) {
+		checkMutable();
 
 		if (additionalNamespaces == null) {
 			additionalNamespaces = new ArrayList<Namespace>(INITIAL_ARRAY_SIZE);
@@ -399,9 +424,26 @@ public class Element extends Content implements Parent {
 			throw new IllegalAddException(this, additionalNamespace, reason);
 		}
 
+		scope = null;
 		return additionalNamespaces.add(additionalNamespace);
 	}
 
+	/**
+	 * Add an additional namespace declaration without checking for
+	 * duplicates or prefix collisions. Used by the factories that build
+	 * from parser-checked input.
+	 * 
+	 * @param additionalNamespace the Namespace to declare.
+	 */
+	final void uncheckedAddNamespaceDeclaration(final Namespace additionalNamespace) {
+		checkMutable();
+		if (additionalNamespaces == null) {
+			additionalNamespaces = new ArrayList<Namespace>(INITIAL_ARRAY_SIZE);
+		}
+		scope = null;
+		additionalNamespaces.add(additionalNamespace);
+	}
+
 	/**
 	 * Removes an additional namespace declarations from this element. This
 	 * should <i>not</i> be used to remove the declaration for this element
@@ -413,10 +455,13 @@ public class Element extends Content implements Parent {
 	 * @param additionalNamespace namespace to remove. A null Namespace does nothing.
 	 */
 	public void removeNamespaceDeclaration(final Namespace additionalNamespace) {
+		checkMutable();
 		if (additionalNamespaces == null) {
 			return;
 		}
-		additionalNamespaces.remove(additionalNamespace);
+		if (additionalNamespaces.remove(additionalNamespace)) {
+			scope = null;
+		}
 	}
 
 	/**
@@ -1085,11 +1130,40 @@ public class Element extends Content implements Parent {
 	 */
 	AttributeList getAttributeList() {
 		if (attributes == null) {
-			attributes = new AttributeList(this);
+			final AttributeList al = new AttributeList(this);
+			if (isFrozen()) {
+				// frozen Elements do not keep empty lists.
+				al.freeze();
+				return al;
+			}
+			attributes = al;
 		}
 		return attributes;
 	}
 
+	/**
+	 * Trim the storage of this Element to its exact content, and make its
+	 * content, Attributes, and Namespace declarations immutable.
+	 * This is only called from {@link Document#freeze()}.
+	 */
+	final void freezeContent() {
+		content.freeze();
+		if (attributes != null) {
+			if (attributes.isEmpty()) {
+				attributes = null;
+			} else {
+				attributes.freeze();
+			}
+		}
+		if (additionalNamespaces != null) {
+			if (additionalNamespaces.isEmpty()) {
+				additionalNamespaces = null;
+			} else if (additionalNamespaces instanceof ArrayList) {
+				((ArrayList<Namespace>)additionalNamespaces).trimToSize();
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * This returns the complete set of attributes for this element, as a
@@ -1435,6 +1509,47 @@ public class Element extends Content implements Parent {
 	 */
 	@Override
 	public Element clone() {
+		final Element element = cloneShallow();
+
+		// Cloning content. The cloned content is already known to be legal
+		// in this element, so it does not need to be checked again.
+		for(int i = 0; i < content.size(); i++) {
+			element.content.uncheckedAddContent(content.get(i).clone());
+		}
+
+		return element;
+	}
+
+	/**
+	 * Clone this element using the supplied Executor to clone large parts of
+	 * the element's descendants concurrently. The result is the same as
+	 * {@link #clone()}, but cloning a large element can scale with the number
+	 * of threads in the Executor.
+	 * <p>
+	 * The calling thread takes part in the work too, so the clone completes
+	 * even if the Executor is saturated, or rejects the work. This element
+	 * must not be modified while it is being cloned.
+	 *
+	 * @param executor The Executor to clone with.
+	 * @return the clone of this element
+	 * @throws NullPointerException if the executor is null
+	 * @since JDOM2
+	 */
+	public Element clone(final Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		return ParallelClone.cloneElement(this, executor);
+	}
+
+	/**
+	 * Clone this element with its Attributes and additional Namespaces, but
+	 * none of its content.
+	 * 
+	 * @return the shallow clone, with an empty content list sized to take
+	 *         this element's content.
+	 */
+	final Element cloneShallow() {
 
 		// Ken Rune Helland <kenh@csc.no> is our local clone() guru
 
@@ -1453,12 +1568,17 @@ public class Element extends Content implements Parent {
 		// super.clone() so we set it new lists if the original had lists
 		element.content = new ContentList(element);
 		element.attributes = attributes == null ? null : new AttributeList(element);
+		element.scope = null;
+		if (content.size() > 0) {
+			element.content.ensureCapacity(content.size());
+		}
 
-		// Cloning attributes
-		if (attributes != null) {
+		// Cloning attributes, they are already known to be legal.
+		if (attributes != null && attributes.size() > 0) {
+			element.attributes.ensureCapacity(attributes.size());
 			for(int i = 0; i < attributes.size(); i++) {
 				final Attribute attribute = attributes.get(i);
-				element.attributes.add(attribute.clone());
+				element.attributes.uncheckedAddAttribute(attribute.clone());
 			}
 		}
 
@@ -1467,12 +1587,6 @@ public class Element extends Content implements Parent {
 			element.additionalNamespaces = new ArrayList<Namespace>(additionalNamespaces);
 		}
 
-		// Cloning content
-		for(int i = 0; i < content.size(); i++) {
-			final Content c = content.get(i);
-			element.content.add(c.clone());
-		}
-
 		return element;
 	}
 
@@ -1574,7 +1688,12 @@ public class Element extends Content implements Parent {
 	 * @return all matching child elements
 	 */
 	public List<Element> getChildren(final String cname, final Namespace ns) {
-		return content.getView(new ElementFilter(cname, ns));
+		if (cname == null || ns == null) {
+			// an ElementFilter with a null name or namespace is a wildcard.
+			return content.getView(new ElementFilter(cname, ns));
+		}
+		return content.getElementView(new ElementFilter(cname, ns), 
+				cname, ns.getURI());
 	}
 
 	/**
@@ -1588,6 +1707,10 @@ public class Element extends Content implements Parent {
 	 * @return the first matching child element, or null if not found
 	 */
 	public Element getChild(final String cname, final Namespace ns) {
+		if (cname != null && ns != null) {
+			return content.getFirstElement(cname, ns.getURI());
+		}
+		// an ElementFilter with a null name or namespace is a wildcard.
 		final List<Element> elements = content.getView(new ElementFilter(cname, ns));
 		final Iterator<Element> iter = elements.iterator();
 		if (iter.hasNext()) {
@@ -1723,6 +1846,69 @@ public class Element extends Content implements Parent {
 	 */
 	@Override
 	public List<Namespace> getNamespacesInScope() {
+		return getNamespaceScope().namespaces;
+	}
+
+	/**
+	 * Notify this Element that the Namespaces of its Attributes have changed
+	 * (an Attribute was added, removed, or had its Namespace changed).
+	 */
+	final void attributeNamespacesChanged() {
+		scope = null;
+	}
+
+	/**
+	 * Get the current Namespace scope of this Element, recomputing it only if
+	 * this Element's own Namespaces have changed since it was last computed,
+	 * or if the parent's scope is no longer the one it was derived from.
+	 * @return the current Namespace scope.
+	 */
+	private NamespaceScope getNamespaceScope() {
+		// Walk up the ancestors (without recursion, documents can be deep)
+		// to find the top-most Element with a stale scope, if any.
+		final NamespaceScope mine = scope;
+		Element stale = null;
+		for (Element e = this; e != null; ) {
+			final Element pnt = e.getParentElement();
+			final NamespaceScope cached = e == this ? mine : e.scope;
+			if (cached == null || cached.parent != (pnt == null ? null : pnt.scope)) {
+				stale = e;
+			}
+			e = pnt;
+		}
+		if (stale == null) {
+			return mine;
+		}
+		// rebuild the scopes from the stale Element down to this one.
+		final ArrayList<Element> path = new ArrayList<Element>();
+		for (Element e = this; e != stale; e = e.getParentElement()) {
+			path.add(e);
+		}
+		path.add(stale);
+		NamespaceScope ns = null;
+		for (int i = path.size() - 1; i >= 0; i--) {
+			final Element e = path.get(i);
+			final Element pnt = e.getParentElement();
+			final NamespaceScope pscope = pnt == null ? null : pnt.scope;
+			ns = e.scope;
+			if (ns == null || ns.parent != pscope) {
+				ns = new NamespaceScope(pscope, e.computeNamespacesInScope(
+						pscope == null ? null : pscope.namespaces));
+				e.scope = ns;
+			}
+		}
+		return ns;
+	}
+
+	/**
+	 * Compute the Namespaces in scope for this Element, given the
+	 * Namespaces in scope on the parent Element.
+	 * @param inherited The parent's scope, or null if there is no parent.
+	 * @return The (unmodifiable) scope of this Element. This will be the
+	 *         same instance as the parent's scope if this Element changes
+	 *         nothing.
+	 */
+	private List<Namespace> computeNamespacesInScope(final List<Namespace> inherited) {
 		// The assumption here is that all namespaces are valid,
 		// that there are no namespace collisions on this element
 
@@ -1730,6 +1916,14 @@ public class Element extends Content implements Parent {
 		// It does not make reference to this Element instance's other
 		// getNamespace*() methods
 
+		if (inherited != null && inherited.get(0) == getNamespace() &&
+				(additionalNamespaces == null || additionalNamespaces.isEmpty()) &&
+				!hasPrefixedAttributes()) {
+			// The most common case by far.... nothing is changed by this
+			// element, so the scope is exactly that of the parent.
+			return inherited;
+		}
+
 		TreeMap<String,Namespace> namespaces = new TreeMap<String, Namespace>();
 		namespaces.put(Namespace.XML_NAMESPACE.getPrefix(), Namespace.XML_NAMESPACE);
 		namespaces.put(getNamespacePrefix(), getNamespace());
@@ -1750,16 +1944,15 @@ public class Element extends Content implements Parent {
 		}
 		// Right, we now have all the namespaces that are current on this ELement.
 		// Include any other namespaces that are inherited.
-		final Element pnt = getParentElement();
-		if (pnt != null) {
-			for (Namespace ns : pnt.getNamespacesInScope()) {
+		if (inherited != null) {
+			for (Namespace ns : inherited) {
 				if (!namespaces.containsKey(ns.getPrefix())) {
 					namespaces.put(ns.getPrefix(), ns);
 				}
 			}
 		}
 
-		if (pnt == null && !namespaces.containsKey("")) {
+		if (inherited == null && !namespaces.containsKey("")) {
 			// we are the root element, and there is no 'default' namespace.
 			namespaces.put(Namespace.NO_NAMESPACE.getPrefix(), Namespace.NO_NAMESPACE);
 		}
@@ -1769,9 +1962,39 @@ public class Element extends Content implements Parent {
 		namespaces.remove(getNamespacePrefix());
 		al.addAll(namespaces.values());
 
+		if (inherited != null && inherited.size() == al.size()) {
+			// share the parent's scope if it is the same as ours.
+			int i = al.size();
+			while (--i >= 0) {
+				if (al.get(i) != inherited.get(i)) {
+					break;
+				}
+			}
+			if (i < 0) {
+				return inherited;
+			}
+		}
+
 		return Collections.unmodifiableList(al);
 	}
 
+	/**
+	 * Determine whether any Attribute on this Element is in a Namespace
+	 * (and thus may contribute a prefix to the Namespace scope).
+	 * @return true if there is at least one Attribute in a Namespace.
+	 */
+	private boolean hasPrefixedAttributes() {
+		if (attributes == null) {
+			return false;
+		}
+		for (int i = attributes.size() - 1; i >= 0; i--) {
+			if (attributes.get(i).getNamespace() != Namespace.NO_NAMESPACE) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public List<Namespace> getNamespacesInherited() {
 		if (getParentElement() == null) {
@@ -2099,4 +2322,21 @@ public class Element extends Content implements Parent {
 
 	}
 
+	/**
+	 * An immutable snapshot of the Namespaces in scope on an Element. The
+	 * snapshot remembers the parent snapshot it was derived from, so a
+	 * snapshot is valid for as long as the Element's own Namespaces are
+	 * unchanged and its parent still has the same snapshot. Elements that
+	 * add nothing to their parent's scope share the parent's Namespace list.
+	 */
+	private static final class NamespaceScope {
+		private final NamespaceScope parent;
+		private final List<Namespace> namespaces;
+
+		NamespaceScope(final NamespaceScope parent, final List<Namespace> namespaces) {
+			this.parent = parent;
+			this.namespaces = namespaces;
+		}
+	}
+
 }
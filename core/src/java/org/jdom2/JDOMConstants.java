@@ -173,4 +173,14 @@ public final class JDOMConstants {
 	public static final String JDOM2_PROPERTY_LINE_SEPARATOR =
 			"org.jdom2.output.LineSeparator";
 	
+	/**
+	 * System Property queried to select the registry that stores the
+	 * Namespace instances. See {@link NamespaceRegistry} for the values.
+	 * <p>
+	 * Defined as {@value}
+	 * @see NamespaceRegistry
+	 */
+	public static final String JDOM2_PROPERTY_NAMESPACE_REGISTRY =
+			"org.jdom2.NamespaceRegistry";
+	
 }
@@ -58,8 +58,6 @@ import static org.jdom2.JDOMConstants.*;
 
 import java.io.InvalidObjectException;
 import java.io.Serializable;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * An XML namespace representation, as well as a factory for creating XML
@@ -82,13 +80,10 @@ public final class Namespace implements Serializable {
 
 	/** 
 	 * Factory list of namespaces. 
-	 * Keys are <i>URI</i>&amp;<i>prefix</i>. 
-	 * Values are Namespace objects 
+	 * Keyed on <i>URI</i>&amp;<i>prefix</i>, see {@link NamespaceRegistry}.
 	 */
-	
-	private static final ConcurrentMap<String, ConcurrentMap<String, Namespace>> 
-			namespacemap = new ConcurrentHashMap
-			<String, ConcurrentMap<String,Namespace>>(512, 0.75f, 64);
+	private static final NamespaceRegistry registry =
+			NamespaceRegistry.createDefault();
 	
 	/** Define a <code>Namespace</code> for when <i>not</i> in a namespace */
 	public static final Namespace NO_NAMESPACE = new Namespace(NS_PREFIX_DEFAULT, 
@@ -104,20 +99,21 @@ public final class Namespace implements Serializable {
 	static {
 		// pre-populate the map with the constant namespaces that would 
 		// otherwise fail validation
-		final ConcurrentMap<String,Namespace> nmap = 
-				new ConcurrentHashMap<String, Namespace>();
-		nmap.put(NO_NAMESPACE.getPrefix(), NO_NAMESPACE);
-		namespacemap.put(NO_NAMESPACE.getURI(), nmap);
-
-		final ConcurrentMap<String,Namespace> xmap = 
-				new ConcurrentHashMap<String, Namespace>();
-		xmap.put(XML_NAMESPACE.getPrefix(), XML_NAMESPACE);
-		namespacemap.put(XML_NAMESPACE.getURI(), xmap);
-
-		final ConcurrentMap<String,Namespace> xnsmap = 
-		        new ConcurrentHashMap<String, Namespace>();
-		xnsmap.put(XMLNS_NAMESPACE.getPrefix(), XMLNS_NAMESPACE);
-		namespacemap.put(XMLNS_NAMESPACE.getURI(), xnsmap);
+		registry.register(NO_NAMESPACE);
+		registry.register(XML_NAMESPACE);
+		registry.register(XMLNS_NAMESPACE);
+	}
+	
+	/**
+	 * Get the registry that stores the Namespace instances created by
+	 * {@link #getNamespace(String, String)}. The registry is chosen when the
+	 * Namespace class is initialized, see {@link NamespaceRegistry} for the
+	 * choices and how they are configured.
+	 * 
+	 * @return the registry in use (never null).
+	 */
+	public static NamespaceRegistry getRegistry() {
+		return registry;
 	}
 
 	/**
@@ -153,37 +149,36 @@ public final class Namespace implements Serializable {
 					"Namespace URIs must be non-null and non-empty Strings");
 		}
 
-		// must have checked for 'null' uri else namespacemap throws NPE
+		// must have checked for 'null' uri else the registry throws NPE
 		// do not 'trim' uri's any more see issue #50
-		ConcurrentMap<String, Namespace> urimap = namespacemap.get(uri);
-		if (urimap == null) {
-			// no Namespaces yet with that URI.
-			// Ensure proper naming
-			String reason;
-			if ((reason = Verifier.checkNamespaceURI(uri)) != null) {
-				throw new IllegalNameException(uri, "Namespace URI", reason);
-			}
-
-			urimap = new ConcurrentHashMap<String, Namespace>();
-			final ConcurrentMap<String, Namespace> xmap = 
-					namespacemap.putIfAbsent(uri, urimap);
-			
-			if (xmap != null) {
-				// some other thread registered this URI between when we
-				// first checked, and when we got a new map created.
-				// we must use the already-registered value.
-				urimap = xmap;
-			}
-		}
-		
-		// OK, we have a container for the URI, let's search on the prefix.
-		
-		Namespace ns = urimap.get(prefix == null ? NS_PREFIX_DEFAULT : prefix);
+		final String pfx = prefix == null ? NS_PREFIX_DEFAULT : prefix;
+		registry.countLookup();
+		Namespace ns = registry.lookup(uri, pfx);
 		if (ns != null) {
 			// got one.
 			return ns;
 		}
+		registry.countMiss();
 		
+		// The constant namespaces are always registered up front, but the
+		// registry is allowed to evict them. They would fail the validation
+		// below, so re-register the constant instances directly.
+		if (NS_URI_DEFAULT.equals(uri) && NS_PREFIX_DEFAULT.equals(pfx)) {
+			return registry.register(NO_NAMESPACE);
+		}
+		if (NS_URI_XML.equals(uri) && NS_PREFIX_XML.equals(pfx)) {
+			return registry.register(XML_NAMESPACE);
+		}
+		if (NS_URI_XMLNS.equals(uri) && NS_PREFIX_XMLNS.equals(pfx)) {
+			return registry.register(XMLNS_NAMESPACE);
+		}
+		
+		// Ensure proper naming
+		String reason;
+		if ((reason = Verifier.checkNamespaceURI(uri)) != null) {
+			throw new IllegalNameException(uri, "Namespace URI", reason);
+		}
+
 		// OK, no namespace yet for that uri/prefix
 		// validate the prefix (the uri is already validated).
 		
@@ -212,10 +207,6 @@ public final class Namespace implements Serializable {
         }
 
 		// no namespace found, we validate the prefix
-		final String pfx = prefix == null ? NS_PREFIX_DEFAULT : prefix;
-		
-		String reason;
-		
         // http://www.w3.org/TR/REC-xml-names/#xmlReserved 
 		// checkNamespacePrefix no longer checks for xml prefix
 		if (NS_PREFIX_XML.equals(pfx)) {
@@ -239,14 +230,9 @@ public final class Namespace implements Serializable {
 		}
 		
 		// OK, good bet that we have a new Namespace.
-		ns = new Namespace(pfx, uri);
-		final Namespace prev = urimap.putIfAbsent(pfx, ns);
-		if (prev != null) {
-			// someone registered the same namespace as us while we were busy 
-			// validating. Use their registered copy.
-			ns = prev;
-		}
-		return ns;
+		// If someone registered the same namespace as us while we were busy 
+		// validating then the registry returns their registered copy.
+		return registry.register(new Namespace(pfx, uri));
 	}
 
 	/** The prefix mapped to this namespace */
@@ -0,0 +1,498 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdom2.internal.ReflectionConstructor;
+import org.jdom2.internal.StripedCounter;
+import org.jdom2.internal.SystemProperty;
+
+/**
+ * The store that {@link Namespace#getNamespace(String, String)} uses to
+ * re-use existing Namespace instances.
+ * <p>
+ * JDOM interns every prefix/URI pair it sees, so that repeated lookups return
+ * the same Namespace instance and no memory is allocated for Namespaces that
+ * are already known. The traditional (and default) registry never forgets a
+ * Namespace, which is fine for applications with a fixed vocabulary, but it
+ * will grow without limit in processes that see generated or per-tenant
+ * Namespace URIs. Three implementations are available:
+ * <ul>
+ * <li>{@link #unbounded()} - the traditional JDOM behaviour. Nothing is
+ * ever removed.
+ * <li>{@link #weakValued()} - Namespaces are removed once they are no longer
+ * referenced from anywhere else in the JVM. Namespace identity is preserved:
+ * two live Namespaces with the same prefix and URI are always the same
+ * instance.
+ * <li>{@link #bounded(int)} - at most a fixed number of Namespaces are
+ * retained, and the least-recently-used ones are evicted (approximated with
+ * the 'CLOCK' second-chance algorithm so that lookups do not need to
+ * re-order anything). Note that a Namespace that is evicted while it is still
+ * in use in a Document may later be re-created as a second, equal, instance.
+ * JDOM handles this correctly, but output may contain some redundant
+ * namespace declarations.
+ * </ul>
+ * The registry is selected once, when the Namespace class is initialized, from
+ * the system property {@link JDOMConstants#JDOM2_PROPERTY_NAMESPACE_REGISTRY}.
+ * The value may be <code>unbounded</code>, <code>weak</code>,
+ * <code>lru</code>, <code>lru:<i>size</i></code>, or the fully qualified name
+ * of a NamespaceRegistry subclass with a public no-argument constructor. An
+ * unrecognised value results in the unbounded registry.
+ * <p>
+ * All implementations look up existing Namespaces without locking. The
+ * registry in use is available from {@link Namespace#getRegistry()} and
+ * reports how many entries it holds and how many lookups had to create (or
+ * re-create) a Namespace. Counting every lookup costs an extra write on the
+ * hot path, so it is off by default and has to be enabled with
+ * {@link #setLookupCounting(boolean)}.
+ * 
+ * @author agent
+ */
+public abstract class NamespaceRegistry {
+	
+	/** The default capacity of the registry when <code>lru</code> is selected */
+	public static final int DEFAULT_BOUNDED_CAPACITY = 10000;
+	
+	/** lookups are on the hot path, use a striped counter to limit contention */
+	private final StripedCounter lookups = new StripedCounter();
+	private volatile boolean countlookups = false;
+	private final AtomicLong misses = new AtomicLong();
+	
+	/**
+	 * Get a registry that retains every Namespace forever (the traditional
+	 * JDOM behaviour).
+	 * @return a new unbounded registry.
+	 */
+	public static NamespaceRegistry unbounded() {
+		return new UnboundedRegistry();
+	}
+
+	/**
+	 * Get a registry that retains Namespaces only while they are referenced
+	 * from elsewhere.
+	 * @return a new weak-valued registry.
+	 */
+	public static NamespaceRegistry weakValued() {
+		return new WeakRegistry();
+	}
+
+	/**
+	 * Get a registry that retains at most <code>capacity</code> Namespaces,
+	 * evicting the least recently used ones first.
+	 * @param capacity The maximum number of retained Namespaces.
+	 * @return a new bounded registry.
+	 * @throws IllegalArgumentException if capacity is less than 1.
+	 */
+	public static NamespaceRegistry bounded(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Registry capacity must be at least 1, not " + capacity);
+		}
+		return new BoundedRegistry(capacity);
+	}
+	
+	/**
+	 * Create the registry configured through the
+	 * {@link JDOMConstants#JDOM2_PROPERTY_NAMESPACE_REGISTRY} property.
+	 * @return the configured registry.
+	 */
+	static NamespaceRegistry createDefault() {
+		final String prop = SystemProperty.get(
+				JDOMConstants.JDOM2_PROPERTY_NAMESPACE_REGISTRY, "unbounded");
+		try {
+			return forName(prop);
+		} catch (RuntimeException e) {
+			// Namespace is not usable at all if its static initialization
+			// fails, so a bad configuration gets the traditional registry.
+			return unbounded();
+		}
+	}
+	
+	/**
+	 * Parse a registry specification in the same format as the system property.
+	 * @param spec the specification
+	 * @return the specified registry
+	 */
+	static NamespaceRegistry forName(final String spec) {
+		if (spec == null || "unbounded".equals(spec) || "default".equals(spec)) {
+			return unbounded();
+		}
+		if ("weak".equals(spec)) {
+			return weakValued();
+		}
+		if ("lru".equals(spec)) {
+			return bounded(DEFAULT_BOUNDED_CAPACITY);
+		}
+		if (spec.startsWith("lru:")) {
+			return bounded(Integer.parseInt(spec.substring(4).trim()));
+		}
+		return ReflectionConstructor.construct(spec, NamespaceRegistry.class);
+	}
+	
+	/**
+	 * Locate an already-registered Namespace. This is the hot path of
+	 * {@link Namespace#getNamespace(String, String)} and implementations
+	 * should not lock or allocate memory.
+	 * @param uri The Namespace URI (never null)
+	 * @param prefix The Namespace prefix (never null)
+	 * @return the registered Namespace, or null if there is none.
+	 */
+	protected abstract Namespace lookup(String uri, String prefix);
+	
+	/**
+	 * Register a new (validated) Namespace. If some other thread registered
+	 * an equivalent Namespace first, then that one is returned instead.
+	 * @param namespace The Namespace to register.
+	 * @return the registered Namespace with the same prefix and URI.
+	 */
+	protected abstract Namespace register(Namespace namespace);
+	
+	/**
+	 * The number of Namespaces currently held by this registry.
+	 * @return the current entry count.
+	 */
+	public abstract int size();
+	
+	/**
+	 * Enable or disable counting of every Namespace lookup. Misses are always
+	 * counted, but lookups are only counted while this is enabled (it is
+	 * disabled by default).
+	 * @param count true to count all lookups.
+	 */
+	public final void setLookupCounting(final boolean count) {
+		countlookups = count;
+	}
+	
+	/**
+	 * Is every Namespace lookup being counted.
+	 * @return true if lookup counting is enabled.
+	 * @see #setLookupCounting(boolean)
+	 */
+	public final boolean isLookupCounting() {
+		return countlookups;
+	}
+	
+	/**
+	 * The number of Namespace lookups this registry has served while lookup
+	 * counting was enabled.
+	 * @return the lookup count.
+	 * @see #setLookupCounting(boolean)
+	 */
+	public final long getLookupCount() {
+		return lookups.get();
+	}
+	
+	/**
+	 * The number of lookups that did not find an existing Namespace (and
+	 * had to validate and register a new one).
+	 * @return the miss count.
+	 */
+	public final long getMissCount() {
+		return misses.get();
+	}
+	
+	/**
+	 * Record a lookup, if lookup counting is enabled.
+	 */
+	final void countLookup() {
+		if (countlookups) {
+			lookups.increment();
+		}
+	}
+	
+	/**
+	 * Record a miss.
+	 */
+	final void countMiss() {
+		misses.getAndIncrement();
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[entries=" + size() 
+				+ ", lookups=" + getLookupCount() + ", misses=" 
+				+ getMissCount() + "]";
+	}
+	
+	/* *******************************************
+	 * Implementations.
+	 * ******************************************* */
+	
+	private static final class UnboundedRegistry extends NamespaceRegistry {
+		
+		private final ConcurrentMap<String, ConcurrentMap<String, Namespace>> 
+				namespacemap = new ConcurrentHashMap
+				<String, ConcurrentMap<String,Namespace>>(512, 0.75f, 64);
+
+		@Override
+		protected Namespace lookup(final String uri, final String prefix) {
+			final ConcurrentMap<String, Namespace> urimap = namespacemap.get(uri);
+			return urimap == null ? null : urimap.get(prefix);
+		}
+
+		@Override
+		protected Namespace register(final Namespace namespace) {
+			final String uri = namespace.getURI();
+			ConcurrentMap<String, Namespace> urimap = namespacemap.get(uri);
+			if (urimap == null) {
+				urimap = new ConcurrentHashMap<String, Namespace>();
+				final ConcurrentMap<String, Namespace> xmap = 
+						namespacemap.putIfAbsent(uri, urimap);
+				if (xmap != null) {
+					// some other thread registered this URI between when we
+					// first checked, and when we got a new map created.
+					urimap = xmap;
+				}
+			}
+			final Namespace prev = urimap.putIfAbsent(namespace.getPrefix(), namespace);
+			return prev == null ? namespace : prev;
+		}
+
+		@Override
+		public int size() {
+			int sz = 0;
+			for (ConcurrentMap<String, Namespace> urimap : namespacemap.values()) {
+				sz += urimap.size();
+			}
+			return sz;
+		}
+		
+	}
+	
+	private static final class NamespaceReference extends WeakReference<Namespace> {
+		private final String uri, prefix;
+
+		public NamespaceReference(final Namespace referent,
+				final ReferenceQueue<? super Namespace> q) {
+			super(referent, q);
+			this.uri = referent.getURI();
+			this.prefix = referent.getPrefix();
+		}
+	}
+	
+	private static final class WeakRegistry extends NamespaceRegistry {
+		
+		private final ConcurrentMap<String, ConcurrentMap<String, NamespaceReference>> 
+				namespacemap = new ConcurrentHashMap
+				<String, ConcurrentMap<String,NamespaceReference>>(512, 0.75f, 64);
+		
+		private final ReferenceQueue<Namespace> queue = new ReferenceQueue<Namespace>();
+
+		@Override
+		protected Namespace lookup(final String uri, final String prefix) {
+			final ConcurrentMap<String, NamespaceReference> urimap = namespacemap.get(uri);
+			if (urimap == null) {
+				return null;
+			}
+			final NamespaceReference ref = urimap.get(prefix);
+			return ref == null ? null : ref.get();
+		}
+
+		@Override
+		protected Namespace register(final Namespace namespace) {
+			expunge();
+			final String uri = namespace.getURI();
+			final String prefix = namespace.getPrefix();
+			while (true) {
+				ConcurrentMap<String, NamespaceReference> urimap = namespacemap.get(uri);
+				if (urimap == null) {
+					urimap = new ConcurrentHashMap<String, NamespaceReference>();
+					final ConcurrentMap<String, NamespaceReference> xmap = 
+							namespacemap.putIfAbsent(uri, urimap);
+					if (xmap != null) {
+						urimap = xmap;
+					}
+				}
+				final NamespaceReference ref = urimap.get(prefix);
+				if (ref != null) {
+					final Namespace prev = ref.get();
+					if (prev != null) {
+						return prev;
+					}
+				}
+				final NamespaceReference nref = new NamespaceReference(namespace, queue);
+				if (ref == null 
+						? urimap.putIfAbsent(prefix, nref) != null 
+						: !urimap.replace(prefix, ref, nref)) {
+					// lost a race, try again.
+					continue;
+				}
+				if (namespacemap.get(uri) == urimap) {
+					return namespace;
+				}
+				// the URI map was emptied and discarded by expunge() while we
+				// were adding to it. Start again with a live map.
+			}
+		}
+		
+		private void expunge() {
+			NamespaceReference ref = null;
+			while ((ref = (NamespaceReference)queue.poll()) != null) {
+				final ConcurrentMap<String, NamespaceReference> urimap = 
+						namespacemap.get(ref.uri);
+				if (urimap != null && urimap.remove(ref.prefix, ref) 
+						&& urimap.isEmpty()) {
+					// register() checks that its map is still live after
+					// adding to it, so a concurrent add is not lost.
+					namespacemap.remove(ref.uri, urimap);
+				}
+			}
+		}
+
+		@Override
+		public int size() {
+			expunge();
+			int sz = 0;
+			for (ConcurrentMap<String, NamespaceReference> urimap : namespacemap.values()) {
+				for (NamespaceReference ref : urimap.values()) {
+					if (ref.get() != null) {
+						sz++;
+					}
+				}
+			}
+			return sz;
+		}
+		
+	}
+	
+	private static final class ClockEntry {
+		private final Namespace namespace;
+		private volatile boolean used = false;
+		
+		public ClockEntry(final Namespace namespace) {
+			this.namespace = namespace;
+		}
+	}
+	
+	private static final class BoundedRegistry extends NamespaceRegistry {
+		
+		private final ConcurrentMap<String, ConcurrentMap<String, ClockEntry>> 
+				namespacemap = new ConcurrentHashMap
+				<String, ConcurrentMap<String,ClockEntry>>(512, 0.75f, 64);
+		
+		private final int capacity;
+		// only accessed while synchronized on this registry.
+		private final ArrayDeque<ClockEntry> clock = new ArrayDeque<ClockEntry>();
+
+		public BoundedRegistry(final int capacity) {
+			this.capacity = capacity;
+		}
+		
+		@Override
+		protected Namespace lookup(final String uri, final String prefix) {
+			final ConcurrentMap<String, ClockEntry> urimap = namespacemap.get(uri);
+			if (urimap == null) {
+				return null;
+			}
+			final ClockEntry entry = urimap.get(prefix);
+			if (entry == null) {
+				return null;
+			}
+			if (!entry.used) {
+				// only write when needed to keep the cache-line shared.
+				entry.used = true;
+			}
+			return entry.namespace;
+		}
+
+		@Override
+		protected synchronized Namespace register(final Namespace namespace) {
+			// all modifications happen with the lock held, lookups do not lock.
+			final String uri = namespace.getURI();
+			ConcurrentMap<String, ClockEntry> urimap = namespacemap.get(uri);
+			if (urimap == null) {
+				urimap = new ConcurrentHashMap<String, ClockEntry>();
+				namespacemap.put(uri, urimap);
+			}
+			final ClockEntry prev = urimap.get(namespace.getPrefix());
+			if (prev != null) {
+				return prev.namespace;
+			}
+			// make space before adding so the new entry is never the victim.
+			while (clock.size() >= capacity) {
+				final ClockEntry victim = clock.pollFirst();
+				if (victim.used) {
+					// second chance.
+					victim.used = false;
+					clock.addLast(victim);
+					continue;
+				}
+				final String vuri = victim.namespace.getURI();
+				final ConcurrentMap<String, ClockEntry> vmap = namespacemap.get(vuri);
+				vmap.remove(victim.namespace.getPrefix());
+				if (vmap.isEmpty() && vmap != urimap) {
+					namespacemap.remove(vuri);
+				}
+			}
+			final ClockEntry entry = new ClockEntry(namespace);
+			urimap.put(namespace.getPrefix(), entry);
+			clock.addLast(entry);
+			return namespace;
+		}
+
+		@Override
+		public synchronized int size() {
+			return clock.size();
+		}
+		
+	}
+	
+}
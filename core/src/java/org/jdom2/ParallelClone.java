@@ -0,0 +1,146 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.jdom2.internal.ParallelSubtrees;
+
+/**
+ * Deep-clones an Element by splitting its descendants in to independent
+ * subtrees that are cloned concurrently.
+ * <p>
+ * The frontier Elements found by {@link ParallelSubtrees} are each cloned by
+ * a separate task, and the levels above them are shallow-cloned and
+ * re-assembled on the calling thread once the tasks are done.
+ * 
+ * @author agent
+ */
+final class ParallelClone {
+
+	/**
+	 * Clone the Element using the Executor.
+	 * 
+	 * @param source The Element to clone.
+	 * @param executor The Executor to clone with.
+	 * @return The clone.
+	 */
+	static Element cloneElement(final Element source, final Executor executor) {
+		// Elements that are shallow-cloned on the calling thread.
+		final IdentityHashMap<Element, Boolean> upper = 
+				new IdentityHashMap<Element, Boolean>();
+		// Subclasses of Element may do more in their clone() method, so
+		// they are cloned whole.
+		final List<Element> level = 
+				ParallelSubtrees.frontier(source, false, upper);
+		if (level == null) {
+			return source.clone();
+		}
+
+		final List<Callable<Element>> work = 
+				new ArrayList<Callable<Element>>(level.size());
+		for (final Element e : level) {
+			work.add(new Callable<Element>() {
+				@Override
+				public Element call() {
+					return e.clone();
+				}
+			});
+		}
+		return assemble(source, upper, 
+				ParallelSubtrees.run(level, work, executor));
+	}
+
+	/**
+	 * Re-assemble the clone of an upper-level Element from its shallow clone,
+	 * the task results of frontier Elements, and directly-cloned other
+	 * content.
+	 * 
+	 * @param source The Element to assemble the clone of.
+	 * @param upper The upper-level Elements.
+	 * @param frontier The frontier Elements, and their tasks.
+	 * @return the clone of the source.
+	 */
+	private static Element assemble(final Element source,
+			final IdentityHashMap<Element, Boolean> upper,
+			final IdentityHashMap<Element, FutureTask<Element>> frontier) {
+		final Element copy = source.cloneShallow();
+		final ContentList content = source.content;
+		final int sz = content.size();
+		for (int i = 0; i < sz; i++) {
+			final Content c = content.get(i);
+			final Content cc;
+			if (upper.containsKey(c)) {
+				cc = assemble((Element)c, upper, frontier);
+			} else {
+				final FutureTask<Element> task = frontier.get(c);
+				cc = task == null ? c.clone()
+						: ParallelSubtrees.result(task, "Unable to clone Element");
+			}
+			copy.content.uncheckedAddContent(cc);
+		}
+		return copy;
+	}
+
+	private ParallelClone() {
+		// static methods only.
+	}
+
+}
@@ -141,6 +141,7 @@ public class ProcessingInstruction extends Content {
 	 * @return <code>ProcessingInstruction</code> - this PI modified.
 	 */
 	public ProcessingInstruction setTarget(String newTarget) {
+		checkMutable();
 		String reason;
 		if ((reason = Verifier.checkProcessingInstructionTarget(newTarget))
 				!= null) {
@@ -199,6 +200,7 @@ public class ProcessingInstruction extends Content {
 	 * @return <code>ProcessingInstruction</code> - this PI modified.
 	 */
 	public ProcessingInstruction setData(String data) {
+		checkMutable();
 		String reason = Verifier.checkProcessingInstructionData(data);
 		if (reason != null) {
 			throw new IllegalDataException(data, reason);
@@ -219,6 +221,7 @@ public class ProcessingInstruction extends Content {
 	 * @return <code>ProcessingInstruction</code> - modified PI.
 	 */
 	public ProcessingInstruction setData(Map<String,String> data) {
+		checkMutable();
 		String temp = toString(data);
 
 		String reason = Verifier.checkProcessingInstructionData(temp);
@@ -255,6 +258,7 @@ public class ProcessingInstruction extends Content {
 	 * @return <code>ProcessingInstruction</code> this PI modified.
 	 */
 	public ProcessingInstruction setPseudoAttribute(String name, String value) {
+		checkMutable();
 		String reason = Verifier.checkProcessingInstructionData(name);
 		if (reason != null) {
 			throw new IllegalDataException(name, reason);
@@ -279,6 +283,7 @@ public class ProcessingInstruction extends Content {
 	 *         instruction was removed.
 	 */
 	public boolean removePseudoAttribute(String name) {
+		checkMutable();
 		if ((mapData.remove(name)) != null) {
 			rawData = toString(mapData);
 			return true;
@@ -0,0 +1,267 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jdom2.internal.StripedCounter;
+
+/**
+ * A thread-safe, size-bounded mechanism for reusing String instances, intended
+ * to be shared by many {@link SlimJDOMFactory} instances (and thus many
+ * SAXBuilder and other builder instances) on many threads.
+ * <p>
+ * See {@link StringBin} for the motivation. StringBin is not thread-safe and
+ * grows without limit, so it can only be used for the lifetime of a single
+ * factory on a single thread. This class instead uses a fixed number of slots
+ * that are organised as a 2-way set-associative cache: each String can be
+ * stored in one of two slots determined by its hashCode(). A lookup checks
+ * both slots, and a miss stores the new value in the first slot and moves
+ * the previous occupant to the second slot, displacing whatever was there.
+ * This means that:
+ * <ul>
+ * <li>The memory used is bounded by the capacity set at construction.
+ * <li>Frequently used values (tag names, attribute names, common text) stay
+ * in the cache, and infrequently used values are evicted by newer ones.
+ * <li>Lookups and updates are lock-free. Concurrent updates may occasionally
+ * evict a value early, but will never return a String that is not equals()
+ * to the input.
+ * </ul>
+ * The bin records how many lookups found an existing String (hits), how many
+ * did not (misses), and an estimate of the number of heap bytes saved by
+ * returning a cached String instead of retaining the duplicate. The estimate
+ * assumes a 64-bit JVM with compressed references and two bytes per char.
+ * 
+ * @see SlimJDOMFactory#SlimJDOMFactory(SharedStringBin, boolean)
+ * @author agent
+ */
+public final class SharedStringBin {
+	
+	/** The default number of slots */
+	public static final int DEFAULT_CAPACITY = 16384;
+	
+	private final AtomicReferenceArray<String> slots;
+	private final int mask;
+	
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+	private final StripedCounter saved = new StripedCounter();
+	
+	/**
+	 * Create a SharedStringBin with the default capacity.
+	 */
+	public SharedStringBin() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a SharedStringBin that holds at most (about) capacity String
+	 * values. The actual capacity is rounded up to a power of 2.
+	 * @param capacity the maximum number of String values to retain.
+	 */
+	public SharedStringBin(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Can not have a negative capacity");
+		}
+		int sz = 2;
+		while (sz < capacity && sz < (1 << 30)) {
+			sz <<= 1;
+		}
+		slots = new AtomicReferenceArray<String>(sz);
+		// the set index is always even, the two ways are set and set + 1.
+		mask = sz - 2;
+	}
+	
+	/**
+	 * Get a String instance that is equal to the input value. This may or may
+	 * not be the same instance as the input value. Null input values will
+	 * reuse() as null.
+	 * @param value The value to check.
+	 * @return a String that is equals() to the input value, or null if the
+	 * input was null
+	 */
+	public String reuse(final String value) {
+		if (value == null) {
+			return null;
+		}
+		final int hash = value.hashCode();
+		// spread the high bits in, like StringBin, then pick an even slot.
+		final int set = (((hash >>> 16) ^ hash) << 1) & mask;
+		
+		final String first = slots.get(set);
+		if (first != null && first.hashCode() == hash && first.equals(value)) {
+			hit(first);
+			return first;
+		}
+		final String second = slots.get(set + 1);
+		if (second != null && second.hashCode() == hash && second.equals(value)) {
+			hit(second);
+			// promote it, so that it is not the next one to go.
+			if (slots.compareAndSet(set, first, second)) {
+				slots.lazySet(set + 1, first);
+			}
+			return second;
+		}
+		misses.increment();
+		final String v = compact(value);
+		if (slots.compareAndSet(set, first, v)) {
+			// first is demoted, and the old second is evicted.
+			slots.lazySet(set + 1, first);
+		}
+		// if we lost the race, someone else has just used the slot, and
+		// we will simply not be cached this time.
+		return v;
+	}
+	
+	private void hit(final String found) {
+		hits.increment();
+		// A String object plus its char[] (header, length, and padding).
+		saved.add(24 + ((16 + 2 * found.length() + 7) & ~7));
+	}
+
+	/**
+	 * Compact a Java String to its smallest char[] backing array.
+	 * See StringBin for the reasons.
+	 * @param input The String to compact
+	 * @return a Compacted version of the String.
+	 */
+	private static final String compact(final String input) {
+		return new String(input.toCharArray());
+	}
+	
+	/**
+	 * Remove all cached String values. The statistics are not affected.
+	 */
+	public void clear() {
+		for (int i = slots.length() - 1; i >= 0; i--) {
+			slots.set(i, null);
+		}
+	}
+	
+	/**
+	 * The maximum number of String values this bin can hold.
+	 * @return the number of slots in this bin.
+	 */
+	public int getCapacity() {
+		return slots.length();
+	}
+	
+	/**
+	 * The number of String values currently cached. This scans the bin.
+	 * @return the number of occupied slots.
+	 */
+	public int size() {
+		int cnt = 0;
+		for (int i = slots.length() - 1; i >= 0; i--) {
+			if (slots.get(i) != null) {
+				cnt++;
+			}
+		}
+		return cnt;
+	}
+	
+	/**
+	 * The number of reuse() calls that returned a previously cached String.
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+	
+	/**
+	 * The number of reuse() calls (with non-null input) that did not find a
+	 * cached String.
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+	
+	/**
+	 * The fraction of non-null reuse() calls that were hits.
+	 * @return a value between 0.0 and 1.0 (0.0 if the bin is unused).
+	 */
+	public double getHitRate() {
+		final long h = hits.get();
+		final long total = h + misses.get();
+		return total == 0L ? 0.0 : (double)h / total;
+	}
+	
+	/**
+	 * An estimate of the number of heap bytes that were not retained because a
+	 * cached String was returned instead of the duplicate input.
+	 * @return the estimated bytes saved.
+	 */
+	public long getBytesSaved() {
+		return saved.get();
+	}
+	
+	/**
+	 * Reset the hit, miss, and bytes-saved statistics to 0.
+	 */
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+		saved.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return "SharedStringBin[capacity=" + getCapacity() + ", hits=" 
+				+ getHitCount() + ", misses=" + getMissCount() 
+				+ ", bytesSaved=" + getBytesSaved() + "]";
+	}
+
+}
@@ -0,0 +1,118 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2;
+
+/**
+ * A factory for building documents from input that a conforming XML parser
+ * has already checked. The parser guarantees that the input is well-formed
+ * and namespace-well-formed, so this factory does not repeat the
+ * {@link Verifier} checks of Element, Attribute, and other names, of
+ * character data, of duplicate Attributes, and of Namespace prefix
+ * collisions, exactly like {@link UncheckedJDOMFactory}.
+ * <p>
+ * Unlike UncheckedJDOMFactory, the structural checks that are cheap and
+ * that no parser can make for JDOM are kept: Content and Attributes that
+ * already have a parent are rejected, and setting the root of a Document
+ * that already has one replaces it. The slower structural checks (for
+ * example, that an added Element is not an ancestor of its new parent) are
+ * skipped, because they can not fail for freshly-created content.
+ * <p>
+ * This factory is what the builders use in their 'trusted input' mode, for
+ * example {@link org.jdom2.input.SAXBuilder#setTrustedInput(boolean)}. It
+ * should only be used for content that comes from a conforming parser.
+ * Documents built from malformed input with this factory are malformed, and
+ * the problems will only show when the document is used or output.
+ * 
+ * @author agent
+ */
+public class TrustedJDOMFactory extends UncheckedJDOMFactory {
+
+	/**
+	 * Create a new TrustedJDOMFactory.
+	 */
+	public TrustedJDOMFactory() {
+		super();
+	}
+
+	@Override
+	public void addContent(final Parent parent, final Content child) {
+		if (child.getParent() != null) {
+			throw new IllegalAddException(
+					"The Content already has an existing parent");
+		}
+		super.addContent(parent, child);
+	}
+
+	@Override
+	public void setAttribute(final Element parent, final Attribute a) {
+		if (a.getParent() != null) {
+			throw new IllegalAddException(
+					"The attribute already has an existing parent \"" +
+					a.getParent().getQualifiedName() + "\"");
+		}
+		super.setAttribute(parent, a);
+	}
+
+	@Override
+	public void setRoot(final Document doc, final Element root) {
+		if (doc.hasRootElement()) {
+			// the checked route replaces the existing root.
+			doc.setRootElement(root);
+			return;
+		}
+		addContent(doc, root);
+	}
+
+}
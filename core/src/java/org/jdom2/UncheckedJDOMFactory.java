@@ -325,10 +325,7 @@ public class UncheckedJDOMFactory extends DefaultJDOMFactory {
 
 	@Override
 	public void addNamespaceDeclaration(Element parent, Namespace additional) {
-		if (parent.additionalNamespaces == null) {
-			parent.additionalNamespaces = new ArrayList<Namespace>(5); //Element.INITIAL_ARRAY_SIZE
-		}
-		parent.additionalNamespaces.add(additional);
+		parent.uncheckedAddNamespaceDeclaration(additional);
 	}
 	
 	@Override
@@ -0,0 +1,481 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.input;
+
+import static org.jdom2.internal.BinaryFormat.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import org.jdom2.Attribute;
+import org.jdom2.AttributeType;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.IllegalAddException;
+import org.jdom2.IllegalDataException;
+import org.jdom2.IllegalNameException;
+import org.jdom2.IllegalTargetException;
+import org.jdom2.JDOMException;
+import org.jdom2.JDOMFactory;
+import org.jdom2.Namespace;
+import org.jdom2.Parent;
+import org.jdom2.UncheckedJDOMFactory;
+import org.jdom2.internal.ArrayCopy;
+
+/**
+ * Builds a JDOM Document or Element from the compact binary format written by
+ * {@link org.jdom2.output.BinaryOutputter}.
+ * <p>
+ * The binary data was produced from existing JDOM content, so it is
+ * already known to be well-formed, and by default the content is rebuilt
+ * with an {@link UncheckedJDOMFactory}, without repeating any of the
+ * {@link org.jdom2.Verifier} checks. Use {@link #setFactory(JDOMFactory)}
+ * with a {@link org.jdom2.DefaultJDOMFactory} to have untrusted data
+ * verified as it is built.
+ * <p>
+ * The builder may read beyond the end of the binary unit in the
+ * InputStream, and the InputStream is not closed.
+ * BinaryBuilder instances are thread-safe as long as the factory is not
+ * changed while they are building.
+ * 
+ * @see org.jdom2.internal.BinaryFormat
+ * @author agent
+ */
+public class BinaryBuilder {
+
+	private static final AttributeType[] ATTRIBUTETYPES = AttributeType.values();
+
+	private JDOMFactory factory = new UncheckedJDOMFactory();
+
+	/**
+	 * Create a BinaryBuilder that rebuilds content without verification.
+	 */
+	public BinaryBuilder() {
+		// nothing
+	}
+
+	/**
+	 * Returns the current {@link org.jdom2.JDOMFactory} in use.
+	 * @return the factory in use
+	 */
+	public JDOMFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * This sets a custom JDOMFactory for the builder.  Use this to build
+	 * the tree with your own subclasses of the JDOM classes, or to verify the
+	 * content as it is built.
+	 *
+	 * @param factory <code>JDOMFactory</code> to use
+	 */
+	public void setFactory(final JDOMFactory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Build a Document from binary data.
+	 * 
+	 * @param in The binary Document.
+	 * @return The rebuilt Document.
+	 * @throws JDOMException if the data is not a valid binary JDOM Document,
+	 *         or is truncated.
+	 * @throws IOException if the InputStream fails.
+	 */
+	public Document build(final InputStream in) 
+			throws JDOMException, IOException {
+		try {
+			final Decoder dec = new Decoder(in, factory);
+			dec.header(DOCUMENT);
+			final Document doc = factory.document(null);
+			doc.setBaseURI(dec.readString());
+			dec.readContent(doc);
+			return doc;
+		} catch (EOFException e) {
+			throw new JDOMException("Truncated binary JDOM data", e);
+		}
+	}
+
+	/**
+	 * Build a Document from binary data.
+	 * 
+	 * @param data The binary Document.
+	 * @return The rebuilt Document.
+	 * @throws JDOMException if the data is not a valid binary JDOM Document.
+	 */
+	public Document build(final byte[] data) throws JDOMException {
+		try {
+			return build(new ByteArrayInputStream(data));
+		} catch (IOException e) {
+			throw new JDOMException("Truncated binary JDOM data", e);
+		}
+	}
+
+	/**
+	 * Build an Element from binary data.
+	 * 
+	 * @param in The binary Element.
+	 * @return The rebuilt (detached) Element.
+	 * @throws JDOMException if the data is not a valid binary JDOM Element,
+	 *         or is truncated.
+	 * @throws IOException if the InputStream fails.
+	 */
+	public Element buildElement(final InputStream in) 
+			throws JDOMException, IOException {
+		try {
+			final Decoder dec = new Decoder(in, factory);
+			dec.header(ELEMENT);
+			if (dec.readByte() != ELEMENT) {
+				throw new JDOMException("Binary JDOM data does not start with an Element");
+			}
+			final Element emt = dec.readElementStart();
+			dec.readContent(emt);
+			return emt;
+		} catch (EOFException e) {
+			throw new JDOMException("Truncated binary JDOM data", e);
+		}
+	}
+
+	/**
+	 * Build an Element from binary data.
+	 * 
+	 * @param data The binary Element.
+	 * @return The rebuilt (detached) Element.
+	 * @throws JDOMException if the data is not a valid binary JDOM Element.
+	 */
+	public Element buildElement(final byte[] data) throws JDOMException {
+		try {
+			return buildElement(new ByteArrayInputStream(data));
+		} catch (IOException e) {
+			throw new JDOMException("Truncated binary JDOM data", e);
+		}
+	}
+
+	/**
+	 * The per-build state: the buffer, and the string and namespace tables.
+	 */
+	private static final class Decoder {
+		private final InputStream in;
+		private final JDOMFactory factory;
+		private final byte[] buffer = new byte[8192];
+		private int pos = 0;
+		private int limit = 0;
+		private char[] chars = new char[256];
+		private final ArrayList<String> strings = new ArrayList<String>();
+		private final ArrayList<Namespace> namespaces = new ArrayList<Namespace>();
+
+		Decoder(final InputStream in, final JDOMFactory factory) {
+			this.in = in;
+			this.factory = factory;
+			namespaces.add(Namespace.NO_NAMESPACE);
+			namespaces.add(Namespace.XML_NAMESPACE);
+		}
+
+		void header(final int kind) throws JDOMException, IOException {
+			for (byte b : MAGIC) {
+				if (readByte() != b) {
+					throw new JDOMException("Not binary JDOM data");
+				}
+			}
+			final int version = readByte();
+			if (version != VERSION) {
+				throw new JDOMException("Unsupported binary JDOM version " + 
+						version + ", expected " + VERSION);
+			}
+			final int k = readByte();
+			if (k != kind) {
+				throw new JDOMException("Binary JDOM data contains " + 
+						(k == DOCUMENT ? "a Document" : k == ELEMENT ? "an Element" : 
+							"unknown content " + k) +
+						" not " + (kind == DOCUMENT ? "a Document" : "an Element"));
+			}
+		}
+
+		private boolean fill() throws IOException {
+			limit = in.read(buffer, 0, buffer.length);
+			pos = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return false;
+			}
+			return true;
+		}
+
+		int readByte() throws IOException {
+			if (pos >= limit && !fill()) {
+				throw new EOFException("Truncated binary JDOM data");
+			}
+			return buffer[pos++] & 0xFF;
+		}
+
+		int readVarint() throws IOException, JDOMException {
+			int val = 0;
+			int shift = 0;
+			int b;
+			do {
+				if (shift > 28) {
+					throw new JDOMException("Corrupt binary JDOM data (varint)");
+				}
+				b = readByte();
+				val |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return val;
+		}
+
+		String readString() throws IOException, JDOMException {
+			final int code = readVarint();
+			switch (code) {
+				case STRING_NULL:
+					return null;
+				case STRING_INLINE:
+					return readChars();
+				case STRING_NEW:
+					final String s = readChars();
+					strings.add(s);
+					return s;
+				default:
+					final int idx = code - STRING_TABLE;
+					if (idx < 0 || idx >= strings.size()) {
+						throw new JDOMException("Corrupt binary JDOM data (string " + idx + ")");
+					}
+					return strings.get(idx);
+			}
+		}
+
+		private String readChars() throws IOException, JDOMException {
+			final int len = readVarint();
+			if (len < 0) {
+				throw new JDOMException("Corrupt binary JDOM data (length " + len + ")");
+			}
+			// the length is not trusted, grow the buffer only as the
+			// characters are actually decoded.
+			char[] cs = chars;
+			for (int i = 0; i < len; i++) {
+				if (i == cs.length) {
+					cs = ArrayCopy.copyOf(cs, (int)Math.min(len, cs.length * 2L));
+					chars = cs;
+				}
+				final int b = pos < limit ? (buffer[pos++] & 0xFF) : readByte();
+				if (b < 0x80) {
+					cs[i] = (char)b;
+				} else if ((b & 0xE0) == 0xC0) {
+					cs[i] = (char)(((b & 0x1F) << 6) | (readByte() & 0x3F));
+				} else if ((b & 0xF0) == 0xE0) {
+					final int b2 = readByte();
+					cs[i] = (char)(((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) 
+							| (readByte() & 0x3F));
+				} else {
+					throw new JDOMException("Corrupt binary JDOM data (character)");
+				}
+			}
+			return new String(cs, 0, len);
+		}
+
+		private Namespace readNamespace() throws IOException, JDOMException {
+			final int code = readVarint();
+			if (code == NAMESPACE_NEW) {
+				final String prefix = readString();
+				final String uri = readString();
+				final Namespace ns;
+				try {
+					ns = Namespace.getNamespace(prefix, uri);
+				} catch (IllegalNameException ine) {
+					throw new JDOMException("Corrupt binary JDOM data (Namespace)", ine);
+				}
+				namespaces.add(ns);
+				return ns;
+			}
+			final int idx = code - NAMESPACE_TABLE;
+			if (idx < 0 || idx >= namespaces.size()) {
+				throw new JDOMException("Corrupt binary JDOM data (Namespace " + idx + ")");
+			}
+			return namespaces.get(idx);
+		}
+
+		/**
+		 * The JDOMFactory validates the decoded names and values, so corrupt
+		 * data surfaces as one of the unchecked JDOM exceptions.
+		 * @param what The kind of content being built.
+		 * @param e The factory's exception.
+		 * @return a JDOMException to throw instead.
+		 */
+		private static JDOMException corrupt(final String what, 
+				final IllegalArgumentException e) {
+			return new JDOMException("Corrupt binary JDOM data (" + what + ")", e);
+		}
+
+		/**
+		 * Read an Element's name, Namespaces, and Attributes (the ELEMENT event
+		 * has already been read).
+		 * @return the Element, with no content.
+		 */
+		Element readElementStart() throws IOException, JDOMException {
+			try {
+				return readElementParts();
+			} catch (IllegalNameException e) {
+				throw corrupt("Element", e);
+			} catch (IllegalDataException e) {
+				throw corrupt("Element", e);
+			} catch (IllegalAddException e) {
+				throw corrupt("Element", e);
+			}
+		}
+
+		private Element readElementParts() throws IOException, JDOMException {
+			final String name = readString();
+			final Element emt = factory.element(name, readNamespace());
+			int cnt = readVarint();
+			while (--cnt >= 0) {
+				factory.addNamespaceDeclaration(emt, readNamespace());
+			}
+			cnt = readVarint();
+			while (--cnt >= 0) {
+				final String aname = readString();
+				final Namespace ans = readNamespace();
+				final int type = readByte();
+				final int tidx = type & ~NOTSPECIFIED;
+				if (tidx >= ATTRIBUTETYPES.length) {
+					throw new JDOMException("Corrupt binary JDOM data (AttributeType " + tidx + ")");
+				}
+				final Attribute att = factory.attribute(aname, readString(), 
+						ATTRIBUTETYPES[tidx], ans);
+				if ((type & NOTSPECIFIED) != 0) {
+					att.setSpecified(false);
+				}
+				factory.setAttribute(emt, att);
+			}
+			return emt;
+		}
+
+		/**
+		 * Read all the content events of the Parent, up to and including its
+		 * END event. Nested Elements are processed with an explicit stack, so
+		 * deep documents do not exhaust the Java stack.
+		 * @param top The Parent to populate.
+		 */
+		void readContent(final Parent top) throws IOException, JDOMException {
+			try {
+				readContentEvents(top);
+			} catch (IllegalNameException e) {
+				throw corrupt("content", e);
+			} catch (IllegalDataException e) {
+				throw corrupt("content", e);
+			} catch (IllegalTargetException e) {
+				throw corrupt("content", e);
+			} catch (IllegalAddException e) {
+				throw corrupt("content", e);
+			}
+		}
+
+		private void readContentEvents(final Parent top) 
+				throws IOException, JDOMException {
+			final ArrayList<Parent> stack = new ArrayList<Parent>();
+			Parent parent = top;
+			while (true) {
+				final int event = readByte();
+				switch (event) {
+					case ELEMENT:
+						final Element emt = readElementStart();
+						factory.addContent(parent, emt);
+						stack.add(parent);
+						parent = emt;
+						break;
+					case END:
+						if (stack.isEmpty()) {
+							return;
+						}
+						parent = stack.remove(stack.size() - 1);
+						break;
+					case TEXT:
+						factory.addContent(parent, factory.text(readString()));
+						break;
+					case CDATA:
+						factory.addContent(parent, factory.cdata(readString()));
+						break;
+					case COMMENT:
+						factory.addContent(parent, factory.comment(readString()));
+						break;
+					case PROCESSINGINSTRUCTION:
+						final String target = readString();
+						factory.addContent(parent, 
+								factory.processingInstruction(target, readString()));
+						break;
+					case ENTITYREF:
+						final String ername = readString();
+						final String erpub = readString();
+						factory.addContent(parent, 
+								factory.entityRef(ername, erpub, readString()));
+						break;
+					case DOCTYPE:
+						final String dtname = readString();
+						final String dtpub = readString();
+						final String dtsys = readString();
+						final DocType dt = factory.docType(dtname, dtpub, dtsys);
+						dt.setInternalSubset(readString());
+						factory.addContent(parent, dt);
+						break;
+					default:
+						throw new JDOMException("Corrupt binary JDOM data (event " + event + ")");
+				}
+			}
+		}
+	}
+
+}
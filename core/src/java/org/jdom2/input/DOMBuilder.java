@@ -70,6 +70,7 @@ import org.jdom2.DocType;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMFactory;
+import org.jdom2.TrustedJDOMFactory;
 import org.jdom2.Namespace;
 
 
@@ -122,6 +123,38 @@ public class DOMBuilder {
 		this.factory = factory;
 	}
 
+	/**
+	 * Set whether the input to this builder is trusted. A DOM that was
+	 * built by a conforming parser is well-formed, but DOM implementations
+	 * do not check all the content (Text values, for example) that is added
+	 * to a DOM programmatically, so only use this mode for parsed DOMs.
+	 * <p>
+	 * Setting true replaces the factory with a {@link TrustedJDOMFactory}
+	 * (see there for what is, and is not, checked). Setting false restores
+	 * a {@link DefaultJDOMFactory} if the current factory is a
+	 * TrustedJDOMFactory, and otherwise has no effect.
+	 * 
+	 * @param trusted true to skip the checks the parser guarantees.
+	 * @see #isTrustedInput()
+	 */
+	public void setTrustedInput(final boolean trusted) {
+		if (trusted == isTrustedInput()) {
+			return;
+		}
+		setFactory(trusted ? new TrustedJDOMFactory() : new DefaultJDOMFactory());
+	}
+
+	/**
+	 * Is this builder in trusted-input mode (is the factory in use a
+	 * {@link TrustedJDOMFactory})?
+	 * 
+	 * @return true if the builder skips the checks the parser guarantees.
+	 * @see #setTrustedInput(boolean)
+	 */
+	public boolean isTrustedInput() {
+		return getFactory() instanceof TrustedJDOMFactory;
+	}
+
 	/**
 	 * Returns the current {@link org.jdom2.JDOMFactory} in use.
 	 * @return the factory in use
@@ -0,0 +1,679 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.xml.sax.InputSource;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.sax.SAXEngine;
+
+/**
+ * Builds many documents concurrently.
+ * <p>
+ * ParallelBuilder takes care of the thread-pool plumbing needed to parse
+ * batches of documents on all available cores. Documents are parsed by
+ * SAXEngines borrowed from a {@link SAXBuilderPool} that is configured from a
+ * template SAXBuilder and sized to the parallelism, so each worker thread
+ * effectively has its own engine, and engines are reused from one document to
+ * the next.
+ * <p>
+ * There is a typed submit(...) method for each of the common inputs:
+ * {@link File}, {@link URL}, a {@link String} system ID, {@link InputSource},
+ * and a {@link Callable} that opens an {@link InputStream}. The Callable is
+ * called by the worker thread just before the stream is parsed, and the stream
+ * is closed afterwards. Use this to avoid having thousands of streams open
+ * while they wait in the queue.
+ * <p>
+ * Batches are built with {@link #submitAll(Collection, InputType)} and
+ * {@link #buildAll(Collection, InputType)}, where the {@link InputType} (one
+ * of {@link #FILES}, {@link #URLS}, {@link #SYSTEM_IDS},
+ * {@link #INPUT_SOURCES}, or {@link #STREAMS}, or a custom implementation)
+ * says how to build each input in the collection. Each input is parsed
+ * independently: submitAll returns a Future for each document, and buildAll
+ * waits for the batch and returns a {@link Result} for each input, in input
+ * order, that contains either the Document or the exception that prevented it
+ * being built. One bad document does not affect the others.
+ * <p>
+ * By default ParallelBuilder uses its own fixed-size pool of daemon threads,
+ * which should be shut down with {@link #shutdown()} when it is no longer
+ * needed. Alternatively an existing ExecutorService can be supplied (for
+ * example one shared with the rest of the application); ParallelBuilder will
+ * then not shut it down. At most <code>parallelism</code> builds are handed to
+ * a shared executor at any one time and the rest are queued inside the
+ * ParallelBuilder, so the executor's threads never block waiting for a
+ * SAXEngine, and the executor remains available for other work.
+ * <p>
+ * Usage is typically:
+ * <pre>
+ *   ParallelBuilder builder = new ParallelBuilder(new SAXBuilder());
+ *   try {
+ *       for (ParallelBuilder.Result&lt;File&gt; result : 
+ *               builder.buildAll(files, ParallelBuilder.FILES)) {
+ *           if (result.isSuccess()) {
+ *               process(result.getDocument());
+ *           } else {
+ *               log(result.getInput(), result.getException());
+ *           }
+ *       }
+ *   } finally {
+ *       builder.shutdown();
+ *   }
+ * </pre>
+ * ParallelBuilder is thread-safe. The template SAXBuilder should not be
+ * modified after the ParallelBuilder is created, see {@link SAXBuilderPool}.
+ * 
+ * @author agent
+ */
+public final class ParallelBuilder {
+	
+	/**
+	 * How to build a Document from an input of a particular type.
+	 * Implementations are called from the worker threads, so must be
+	 * thread-safe.
+	 * 
+	 * @param <T> The type of input.
+	 */
+	public static interface InputType<T> {
+		/**
+		 * Build a Document from the input.
+		 * @param engine the (thread-safe) SAXEngine to build with.
+		 * @param input the input to build (never null).
+		 * @return the built Document.
+		 * @throws JDOMException if the input could not be parsed.
+		 * @throws IOException if the input could not be read.
+		 */
+		public Document build(SAXEngine engine, T input) 
+				throws JDOMException, IOException;
+	}
+	
+	/** Build Documents from Files. */
+	public static final InputType<File> FILES = new InputType<File>() {
+		@Override
+		public Document build(final SAXEngine engine, final File input)
+				throws JDOMException, IOException {
+			return engine.build(input);
+		}
+	};
+	
+	/** Build Documents from URLs. */
+	public static final InputType<URL> URLS = new InputType<URL>() {
+		@Override
+		public Document build(final SAXEngine engine, final URL input)
+				throws JDOMException, IOException {
+			return engine.build(input);
+		}
+	};
+	
+	/** Build Documents from system IDs (URIs). */
+	public static final InputType<String> SYSTEM_IDS = new InputType<String>() {
+		@Override
+		public Document build(final SAXEngine engine, final String input)
+				throws JDOMException, IOException {
+			return engine.build(input);
+		}
+	};
+	
+	/** Build Documents from SAX InputSources. */
+	public static final InputType<InputSource> INPUT_SOURCES = 
+			new InputType<InputSource>() {
+		@Override
+		public Document build(final SAXEngine engine, final InputSource input)
+				throws JDOMException, IOException {
+			return engine.build(input);
+		}
+	};
+	
+	/**
+	 * Build Documents from the InputStreams returned by Callables. The
+	 * Callable is only called once a worker thread is ready to parse the
+	 * stream, and the stream is closed after the parse.
+	 */
+	public static final InputType<Callable<? extends InputStream>> STREAMS = 
+			new InputType<Callable<? extends InputStream>>() {
+		@Override
+		public Document build(final SAXEngine engine, 
+				final Callable<? extends InputStream> input)
+				throws JDOMException, IOException {
+			final InputStream stream = openStream(input);
+			try {
+				return engine.build(stream);
+			} finally {
+				stream.close();
+			}
+		}
+	};
+	
+	/**
+	 * The outcome of building one input in
+	 * {@link ParallelBuilder#buildAll(Collection, InputType)}.
+	 * 
+	 * @param <T> The type of the input.
+	 */
+	public static final class Result<T> {
+		private final T input;
+		private final Document document;
+		private final Exception exception;
+		
+		private Result(final T input, final Document document, 
+				final Exception exception) {
+			this.input = input;
+			this.document = document;
+			this.exception = exception;
+		}
+		
+		/**
+		 * The input this is the result for.
+		 * @return the input as it was supplied.
+		 */
+		public T getInput() {
+			return input;
+		}
+		
+		/**
+		 * The built Document.
+		 * @return the Document, or null if the build failed.
+		 */
+		public Document getDocument() {
+			return document;
+		}
+		
+		/**
+		 * The reason the build failed. This is normally a JDOMException or
+		 * an IOException, but may be a RuntimeException.
+		 * @return the exception, or null if the build succeeded.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+		
+		/**
+		 * Whether the Document was built.
+		 * @return true if there is a Document.
+		 */
+		public boolean isSuccess() {
+			return exception == null;
+		}
+		
+		@Override
+		public String toString() {
+			return "[Result: " + input + " -> " 
+					+ (exception == null ? document : exception) + "]";
+		}
+	}
+	
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOLID = new AtomicInteger();
+		private final String prefix = "ParallelBuilder-" 
+				+ POOLID.incrementAndGet() + "-";
+		private final AtomicInteger threadid = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, prefix + threadid.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+	
+	private final class BuildTask<T> implements Callable<Document> {
+		private final T input;
+		private final InputType<? super T> type;
+
+		public BuildTask(final T input, final InputType<? super T> type) {
+			this.input = input;
+			this.type = type;
+		}
+
+		@Override
+		public Document call() throws JDOMException, IOException {
+			return type.build(pool, input);
+		}
+	}
+	
+	/**
+	 * Runs a queued build on the shared executor, and then hands the next
+	 * queued build (if any) to the executor.
+	 */
+	private final class Dispatch implements Runnable {
+		private final Runnable task;
+		
+		public Dispatch(final Runnable task) {
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				task.run();
+			} finally {
+				active.decrementAndGet();
+				dispatch();
+			}
+		}
+	}
+	
+	private final SAXBuilderPool pool;
+	private final ExecutorService executor;
+	private final boolean ownexecutor;
+	private final int parallelism;
+	/** Builds waiting for a shared executor (unused with our own executor) */
+	private final ConcurrentLinkedQueue<FutureTask<Document>> backlog = 
+			new ConcurrentLinkedQueue<FutureTask<Document>>();
+	/** The number of builds currently handed to a shared executor */
+	private final AtomicInteger active = new AtomicInteger();
+	
+	/**
+	 * Create a ParallelBuilder that uses one thread (and one engine) per
+	 * available processor.
+	 * 
+	 * @param template
+	 *        the SAXBuilder that configures the engines.
+	 * @throws NullPointerException
+	 *         if the template is null.
+	 * @throws IllegalArgumentException
+	 *         if the template has an XMLFilter.
+	 */
+	public ParallelBuilder(final SAXBuilder template) {
+		this(template, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a ParallelBuilder with its own pool of parallelism threads.
+	 * 
+	 * @param template
+	 *        the SAXBuilder that configures the engines.
+	 * @param parallelism
+	 *        the number of documents to build at the same time.
+	 * @throws NullPointerException
+	 *         if the template is null.
+	 * @throws IllegalArgumentException
+	 *         if the parallelism is less than 1, or the template has an
+	 *         XMLFilter.
+	 */
+	public ParallelBuilder(final SAXBuilder template, final int parallelism) {
+		this(new SAXBuilderPool(template, parallelism), 
+				Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory()),
+				true);
+	}
+
+	/**
+	 * Create a ParallelBuilder that runs on an existing ExecutorService. At
+	 * most parallelism builds are given to the executor at any one time, the
+	 * others wait in a queue in this ParallelBuilder.
+	 * 
+	 * @param template
+	 *        the SAXBuilder that configures the engines.
+	 * @param executor
+	 *        the ExecutorService to run the builds on. It is not shut down by
+	 *        {@link #shutdown()}.
+	 * @param parallelism
+	 *        the maximum number of documents to build at the same time.
+	 * @throws NullPointerException
+	 *         if the template or executor is null.
+	 * @throws IllegalArgumentException
+	 *         if the parallelism is less than 1, or the template has an
+	 *         XMLFilter.
+	 */
+	public ParallelBuilder(final SAXBuilder template, 
+			final ExecutorService executor, final int parallelism) {
+		this(new SAXBuilderPool(template, parallelism), executor, false);
+		if (executor == null) {
+			throw new NullPointerException("Null ExecutorService");
+		}
+	}
+	
+	private ParallelBuilder(final SAXBuilderPool pool, 
+			final ExecutorService executor, final boolean ownexecutor) {
+		this.pool = pool;
+		this.executor = executor;
+		this.ownexecutor = ownexecutor;
+		this.parallelism = pool.getCapacity();
+	}
+	
+	private static final InputStream openStream(
+			final Callable<? extends InputStream> opener) throws IOException {
+		final InputStream stream;
+		try {
+			stream = opener.call();
+		} catch (IOException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			final IOException ioe = new IOException(
+					"Unable to open the input stream: " + e.getMessage());
+			ioe.initCause(e);
+			throw ioe;
+		}
+		if (stream == null) {
+			throw new IOException("The input opener returned a null stream.");
+		}
+		return stream;
+	}
+	
+	/**
+	 * Hand queued builds to the shared executor until either the queue is
+	 * empty, or parallelism builds are running.
+	 */
+	private void dispatch() {
+		while (!backlog.isEmpty()) {
+			final int running = active.get();
+			if (running >= parallelism) {
+				// a running build will dispatch the next one when it is done.
+				return;
+			}
+			if (!active.compareAndSet(running, running + 1)) {
+				continue;
+			}
+			final FutureTask<Document> task = backlog.poll();
+			if (task == null) {
+				// someone else got there first.
+				active.decrementAndGet();
+				continue;
+			}
+			try {
+				executor.execute(new Dispatch(task));
+			} catch (RejectedExecutionException e) {
+				// the executor is no longer usable, nothing queued can run.
+				active.decrementAndGet();
+				task.cancel(false);
+				FutureTask<Document> queued;
+				while ((queued = backlog.poll()) != null) {
+					queued.cancel(false);
+				}
+				throw e;
+			}
+		}
+	}
+	
+	private <T> Future<Document> schedule(final T input, 
+			final InputType<? super T> type) {
+		final BuildTask<T> build = new BuildTask<T>(input, type);
+		if (ownexecutor) {
+			return executor.submit(build);
+		}
+		if (executor.isShutdown()) {
+			throw new RejectedExecutionException(
+					"The shared ExecutorService has been shut down.");
+		}
+		final FutureTask<Document> task = new FutureTask<Document>(build);
+		backlog.add(task);
+		dispatch();
+		return task;
+	}
+	
+	/**
+	 * Get the maximum number of documents that are built at the same time.
+	 * 
+	 * @return the parallelism.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Get the pool of engines used by this builder. The pool statistics
+	 * show how well the engines are being reused.
+	 * 
+	 * @return the pool of SAXEngines.
+	 */
+	public SAXBuilderPool getPool() {
+		return pool;
+	}
+	
+	/**
+	 * Queue an input to be built.
+	 * 
+	 * @param <T>
+	 *        the type of the input.
+	 * @param input
+	 *        the input to build.
+	 * @param type
+	 *        how to build the input.
+	 * @return a Future that produces the Document. A failed build throws an
+	 *         ExecutionException from Future.get() with the JDOMException or
+	 *         IOException as the cause.
+	 * @throws NullPointerException
+	 *         if the input or type is null.
+	 * @throws java.util.concurrent.RejectedExecutionException
+	 *         if the executor has been shut down.
+	 */
+	public <T> Future<Document> submit(final T input, 
+			final InputType<? super T> type) {
+		if (input == null) {
+			throw new NullPointerException("Null input");
+		}
+		if (type == null) {
+			throw new NullPointerException("Null InputType");
+		}
+		return schedule(input, type);
+	}
+
+	/**
+	 * Queue a File to be built.
+	 * 
+	 * @param file
+	 *        the File to build.
+	 * @return a Future that produces the Document.
+	 * @see #submit(Object, InputType)
+	 */
+	public Future<Document> submit(final File file) {
+		return submit(file, FILES);
+	}
+
+	/**
+	 * Queue a URL to be built.
+	 * 
+	 * @param url
+	 *        the URL to build.
+	 * @return a Future that produces the Document.
+	 * @see #submit(Object, InputType)
+	 */
+	public Future<Document> submit(final URL url) {
+		return submit(url, URLS);
+	}
+
+	/**
+	 * Queue a system ID (URI) to be built.
+	 * 
+	 * @param systemId
+	 *        the URI of the document to build.
+	 * @return a Future that produces the Document.
+	 * @see #submit(Object, InputType)
+	 */
+	public Future<Document> submit(final String systemId) {
+		return submit(systemId, SYSTEM_IDS);
+	}
+
+	/**
+	 * Queue an InputSource to be built.
+	 * 
+	 * @param source
+	 *        the InputSource to build.
+	 * @return a Future that produces the Document.
+	 * @see #submit(Object, InputType)
+	 */
+	public Future<Document> submit(final InputSource source) {
+		return submit(source, INPUT_SOURCES);
+	}
+
+	/**
+	 * Queue an InputStream to be opened and built. The opener is called by
+	 * the worker thread, and the stream is closed after the build.
+	 * 
+	 * @param opener
+	 *        the Callable that opens the stream to build.
+	 * @return a Future that produces the Document.
+	 * @see #submit(Object, InputType)
+	 */
+	public Future<Document> submit(final Callable<? extends InputStream> opener) {
+		return submit(opener, STREAMS);
+	}
+
+	/**
+	 * Queue a collection of inputs to be built.
+	 * 
+	 * @param <T>
+	 *        the type of the inputs.
+	 * @param inputs
+	 *        the inputs to build.
+	 * @param type
+	 *        how to build each input.
+	 * @return a Future for each input, in the iteration order of the inputs.
+	 * @throws NullPointerException
+	 *         if the type or any input is null (all the inputs are checked
+	 *         before any are queued).
+	 * @throws java.util.concurrent.RejectedExecutionException
+	 *         if the executor has been shut down.
+	 */
+	public <T> List<Future<Document>> submitAll(
+			final Collection<? extends T> inputs, final InputType<? super T> type) {
+		if (type == null) {
+			throw new NullPointerException("Null InputType");
+		}
+		for (final T input : inputs) {
+			if (input == null) {
+				throw new NullPointerException("Null input");
+			}
+		}
+		final List<Future<Document>> ret = 
+				new ArrayList<Future<Document>>(inputs.size());
+		for (final T input : inputs) {
+			ret.add(schedule(input, type));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Build a collection of inputs, and wait for all of them to complete.
+	 * 
+	 * @param <T>
+	 *        the type of the inputs.
+	 * @param inputs
+	 *        the inputs to build.
+	 * @param type
+	 *        how to build each input.
+	 * @return a Result for each input, in the iteration order of the inputs.
+	 * @throws InterruptedException
+	 *         if the calling thread is interrupted while waiting. The builds
+	 *         that have not yet started are cancelled.
+	 * @throws NullPointerException
+	 *         if the type or any input is null.
+	 */
+	public <T> List<Result<T>> buildAll(final Collection<? extends T> inputs, 
+			final InputType<? super T> type) throws InterruptedException {
+		final List<Future<Document>> futures = submitAll(inputs, type);
+		final List<Result<T>> ret = new ArrayList<Result<T>>(futures.size());
+		int i = 0;
+		try {
+			for (final T input : inputs) {
+				final Future<Document> future = futures.get(i++);
+				try {
+					ret.add(new Result<T>(input, future.get(), null));
+				} catch (ExecutionException e) {
+					final Throwable cause = e.getCause();
+					if (cause instanceof Error) {
+						throw (Error)cause;
+					}
+					ret.add(new Result<T>(input, null, cause instanceof Exception 
+							? (Exception)cause : e));
+				}
+			}
+		} catch (InterruptedException e) {
+			for (final Future<Document> future : futures) {
+				future.cancel(false);
+			}
+			throw e;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Stop accepting new inputs. Inputs that are already queued are still
+	 * built. This does nothing if the ExecutorService was supplied to the
+	 * constructor.
+	 */
+	public void shutdown() {
+		if (ownexecutor) {
+			executor.shutdown();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "[ParallelBuilder: parallelism=" + parallelism + ", " 
+				+ (ownexecutor ? "own" : "shared") + " executor]";
+	}
+
+}
@@ -84,16 +84,20 @@ import org.jdom2.Document;
 import org.jdom2.EntityRef;
 import org.jdom2.JDOMException;
 import org.jdom2.JDOMFactory;
+import org.jdom2.TrustedJDOMFactory;
 import org.jdom2.Verifier;
+import org.jdom2.filter.Filter;
 import org.jdom2.input.sax.BuilderErrorHandler;
 import org.jdom2.input.sax.DefaultSAXHandlerFactory;
 import org.jdom2.input.sax.SAXBuilderEngine;
 import org.jdom2.input.sax.SAXEngine;
 import org.jdom2.input.sax.SAXHandler;
 import org.jdom2.input.sax.SAXHandlerFactory;
+import org.jdom2.input.sax.SubtreeListener;
 import org.jdom2.input.sax.XMLReaderJDOMFactory;
 import org.jdom2.input.sax.XMLReaderSAX2Factory;
 import org.jdom2.input.sax.XMLReaders;
+import org.jdom2.internal.MappedFileInputStream;
 
 /**
  * Builds a JDOM Document using a SAX parser.
@@ -121,7 +125,12 @@ import org.jdom2.input.sax.XMLReaders;
  * Neither SAXBuilder nor anything derived from SAXBuilder is thread-safe. You
  * must ensure that SAXBuilder is used in a single thread, or that sufficient
  * locking is in place to ensure that SAXBuilder is not concurrently accessed.
- * See the special note on {@link #buildEngine()}. 
+ * See the special note on {@link #buildEngine()}. Use a {@link SAXBuilderPool}
+ * to share the parsing of documents between many threads.
+ * <p>
+ * Documents that are too large to fit in memory can be processed one subtree
+ * at a time with the buildSubtrees() methods, for example with
+ * <code>buildSubtrees(file, new ElementPathFilter("/feed/record"), listener)</code>.
  * <p>
  * Known issues:
  * <ul>
@@ -410,6 +419,46 @@ public class SAXBuilder implements SAXEngine {
 		engine = null;
 	}
 
+	/**
+	 * Set whether the input to this builder is trusted. The SAX parser
+	 * guarantees that the events it reports are well-formed, so this is
+	 * appropriate whenever the events come from a conforming parser (and
+	 * any XMLFilter that is installed does not introduce malformed data).
+	 * <p>
+	 * In trusted mode the builder uses a {@link TrustedJDOMFactory}, which
+	 * skips the {@link org.jdom2.Verifier} checks of names, character data,
+	 * and Namespace collisions that the parser has already enforced, but
+	 * keeps the structural bookkeeping of the JDOM content lists. This makes
+	 * every Element, Attribute, and Text cheaper to build, which is
+	 * worthwhile for large documents.
+	 * <p>
+	 * This is a convenience for <code>setJDOMFactory(new TrustedJDOMFactory())</code>,
+	 * and it replaces any custom factory. To build trusted input with your
+	 * own JDOM subclasses, extend TrustedJDOMFactory and set it directly.
+	 * Setting the mode to false restores a {@link DefaultJDOMFactory} if the
+	 * current factory is a TrustedJDOMFactory, and otherwise has no effect.
+	 * 
+	 * @param trusted true to skip the checks the parser guarantees.
+	 * @see #isTrustedInput()
+	 */
+	public void setTrustedInput(final boolean trusted) {
+		if (trusted == isTrustedInput()) {
+			return;
+		}
+		setJDOMFactory(trusted ? new TrustedJDOMFactory() : new DefaultJDOMFactory());
+	}
+
+	/**
+	 * Is this builder in trusted-input mode (is the factory in use a
+	 * {@link TrustedJDOMFactory})?
+	 * 
+	 * @return true if the builder skips the checks the parser guarantees.
+	 * @see #setTrustedInput(boolean)
+	 */
+	public boolean isTrustedInput() {
+		return getJDOMFactory() instanceof TrustedJDOMFactory;
+	}
+
 	/**
 	 * Get the current XMLReader factory.
 	 * 
@@ -845,11 +894,7 @@ public class SAXBuilder implements SAXEngine {
 	public SAXEngine buildEngine() throws JDOMException {
 
 		// Create and configure the content handler.
-		final SAXHandler contentHandler = handlerfac.createSAXHandler(jdomfac);
-
-		contentHandler.setExpandEntities(expand);
-		contentHandler.setIgnoringElementContentWhitespace(ignoringWhite);
-		contentHandler.setIgnoringBoundaryWhitespace(ignoringBoundaryWhite);
+		final SAXHandler contentHandler = createHandler();
 
 		final XMLReader parser = createParser();
 		// Configure parser
@@ -859,6 +904,20 @@ public class SAXBuilder implements SAXEngine {
 		return new SAXBuilderEngine(parser, contentHandler, valid);
 	}
 
+	/**
+	 * Create a SAXHandler configured with the current SAXBuilder settings.
+	 * 
+	 * @return a configured SAXHandler
+	 */
+	private SAXHandler createHandler() {
+		final SAXHandler contentHandler = handlerfac.createSAXHandler(jdomfac);
+
+		contentHandler.setExpandEntities(expand);
+		contentHandler.setIgnoringElementContentWhitespace(ignoringWhite);
+		contentHandler.setIgnoringBoundaryWhitespace(ignoringBoundaryWhite);
+		return contentHandler;
+	}
+
 	/**
 	 * Allow overriding classes access to the Parser before it is used in a
 	 * SAXBuilderEngine.
@@ -1121,6 +1180,36 @@ public class SAXBuilder implements SAXEngine {
 		}
 	}
 
+	/**
+	 * <p>
+	 * This builds a document from the supplied file, reading it through
+	 * memory-mapped windows instead of a regular file stream. This avoids
+	 * copying the file content through the operating system's read calls,
+	 * which is worthwhile for very large files. The parser detects the
+	 * document encoding from the byte-order mark or XML declaration, and
+	 * relative references (to a DTD, for example) resolve against the
+	 * file's location, exactly as they do for {@link #build(File)}.
+	 * </p>
+	 * 
+	 * @param file
+	 *        <code>File</code> to read from
+	 * @return <code>Document</code> resultant Document object
+	 * @throws JDOMException
+	 *         when errors occur in parsing
+	 * @throws IOException
+	 *         when an I/O error prevents a document from being fully parsed
+	 * @see MappedFileInputStream
+	 */
+	public Document buildMapped(final File file)
+			throws JDOMException, IOException {
+		final MappedFileInputStream in = new MappedFileInputStream(file);
+		try {
+			return build(in, file.getAbsoluteFile().toURI().toURL().toExternalForm());
+		} finally {
+			in.close();
+		}
+	}
+
 	/**
 	 * <p>
 	 * This builds a document from the supplied URL.
@@ -1302,4 +1391,114 @@ public class SAXBuilder implements SAXEngine {
 		}
 	}
 
+	/**
+	 * Build the supplied input in streaming mode: each Element that matches the
+	 * matcher is built, detached, and passed to the listener, and then
+	 * forgotten, so the memory needed is proportional to the largest matched
+	 * subtree, not to the whole document.
+	 * <p>
+	 * The matcher is consulted when each Element starts, so it can only
+	 * inspect the Element's name, Namespace, attributes, and ancestors. See
+	 * {@link SAXHandler#setSubtreeListener(Filter, SubtreeListener)} for the
+	 * full details. A new parser is used for each streaming build, the
+	 * parser that is reused by the regular build() methods is not affected.
+	 * 
+	 * @param in
+	 *        <code>InputSource</code> to read from
+	 * @param matcher
+	 *        selects the Elements to deliver (for example an
+	 *        {@link org.jdom2.input.sax.ElementPathFilter}).
+	 * @param listener
+	 *        receives each matched Element.
+	 * @return the Document 'skeleton': the root Element with its attributes,
+	 *         and any content outside the root Element, but no content from
+	 *         inside the root Element (unless the root Element itself matched,
+	 *         in which case the Document has no root Element).
+	 * @throws JDOMException
+	 *         when errors occur in parsing, or if the listener throws one.
+	 * @throws IOException
+	 *         when an I/O error prevents the input from being fully parsed
+	 */
+	public Document buildSubtrees(final InputSource in, final Filter<?> matcher,
+			final SubtreeListener listener) throws JDOMException, IOException {
+		if (matcher == null) {
+			throw new NullPointerException("Null matcher");
+		}
+		if (listener == null) {
+			throw new NullPointerException("Null listener");
+		}
+		final SAXHandler contentHandler = createHandler();
+		contentHandler.setSubtreeListener(matcher, listener);
+		final XMLReader parser = createParser();
+		configureParser(parser, contentHandler);
+		return new SAXBuilderEngine(parser, contentHandler, 
+				readerfac.isValidating()).build(in);
+	}
+
+	/**
+	 * Build the supplied input stream in streaming mode, see
+	 * {@link #buildSubtrees(InputSource, Filter, SubtreeListener)}.
+	 * 
+	 * @param in
+	 *        <code>InputStream</code> to read from
+	 * @param matcher
+	 *        selects the Elements to deliver.
+	 * @param listener
+	 *        receives each matched Element.
+	 * @return the Document 'skeleton'.
+	 * @throws JDOMException
+	 *         when errors occur in parsing, or if the listener throws one.
+	 * @throws IOException
+	 *         when an I/O error prevents the input from being fully parsed
+	 */
+	public Document buildSubtrees(final InputStream in, final Filter<?> matcher,
+			final SubtreeListener listener) throws JDOMException, IOException {
+		return buildSubtrees(new InputSource(in), matcher, listener);
+	}
+
+	/**
+	 * Build the supplied file in streaming mode, see
+	 * {@link #buildSubtrees(InputSource, Filter, SubtreeListener)}.
+	 * 
+	 * @param file
+	 *        <code>File</code> to read from
+	 * @param matcher
+	 *        selects the Elements to deliver.
+	 * @param listener
+	 *        receives each matched Element.
+	 * @return the Document 'skeleton'.
+	 * @throws JDOMException
+	 *         when errors occur in parsing, or if the listener throws one.
+	 * @throws IOException
+	 *         when an I/O error prevents the input from being fully parsed
+	 */
+	public Document buildSubtrees(final File file, final Filter<?> matcher,
+			final SubtreeListener listener) throws JDOMException, IOException {
+		return buildSubtrees(new InputSource(
+				file.getAbsoluteFile().toURI().toURL().toExternalForm()),
+				matcher, listener);
+	}
+
+	/**
+	 * Build the supplied character stream in streaming mode, see
+	 * {@link #buildSubtrees(InputSource, Filter, SubtreeListener)}.
+	 * 
+	 * @param characterStream
+	 *        <code>Reader</code> to read from
+	 * @param matcher
+	 *        selects the Elements to deliver.
+	 * @param listener
+	 *        receives each matched Element.
+	 * @return the Document 'skeleton'.
+	 * @throws JDOMException
+	 *         when errors occur in parsing, or if the listener throws one.
+	 * @throws IOException
+	 *         when an I/O error prevents the input from being fully parsed
+	 */
+	public Document buildSubtrees(final Reader characterStream,
+			final Filter<?> matcher, final SubtreeListener listener)
+			throws JDOMException, IOException {
+		return buildSubtrees(new InputSource(characterStream), matcher, listener);
+	}
+
 }
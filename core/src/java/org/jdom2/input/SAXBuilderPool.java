@@ -0,0 +1,420 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.JDOMFactory;
+import org.jdom2.input.sax.SAXEngine;
+
+/**
+ * A thread-safe {@link SAXEngine} that builds documents using a bounded pool of
+ * pre-configured SAXEngine instances.
+ * <p>
+ * {@link SAXBuilder} is not thread-safe, and the cost of creating and
+ * configuring a SAX parser (the {@link SAXBuilder#buildEngine()} call) is
+ * often higher than the cost of parsing a small document. SAXBuilderPool
+ * creates engines from a 'template' SAXBuilder only when needed, and then
+ * reuses them: each build(...) call borrows an idle engine (or creates a new
+ * one if there are no idle engines), parses the input, and then returns the
+ * engine to the pool. The SAXHandler in the engine is reset after each parse.
+ * <p>
+ * The pool is bounded: at most <code>capacity</code> engines will ever be
+ * created, and a build(...) call that happens when all engines are in use
+ * will wait until another thread returns one. Borrowing and returning an
+ * engine is lock-free unless the pool is exhausted.
+ * <p>
+ * Usage is typically:
+ * <pre>
+ *   SAXBuilder template = new SAXBuilder();
+ *   template.setIgnoringBoundaryWhitespace(true);
+ *   // one engine per core is normally enough.
+ *   SAXBuilderPool pool = new SAXBuilderPool(template,
+ *           Runtime.getRuntime().availableProcessors());
+ *   ....
+ *   // in any thread
+ *   Document doc = pool.build(request.getInputStream());
+ * </pre>
+ * <p>
+ * The template SAXBuilder is used to create the engines, so it should not be
+ * modified after the pool is created (engines created before, and after, the
+ * modification would be configured differently). Any ErrorHandler,
+ * EntityResolver, DTDHandler, SAXHandlerFactory or JDOMFactory set on the
+ * template will be shared by all the engines, and must be thread-safe. The
+ * default JDOM implementations of these are all thread-safe. An XMLFilter
+ * can not be shared by multiple parsers, so a template with an XMLFilter set
+ * can not be pooled.
+ * <p>
+ * The pool keeps statistics that can be used to size it: the number of builds
+ * that found an idle engine ({@link #getHitCount()}), the number that
+ * had to create a new engine ({@link #getMissCount()}), and the number that
+ * had to wait for an engine to be returned ({@link #getWaitCount()}).
+ * 
+ * @see SAXBuilder#buildEngine()
+ * @author agent
+ */
+public final class SAXBuilderPool implements SAXEngine {
+
+	private final SAXBuilder template;
+	private final int capacity;
+
+	/** Idle, ready-to-use engines */
+	private final ConcurrentLinkedQueue<SAXEngine> idle =
+			new ConcurrentLinkedQueue<SAXEngine>();
+	/** One permit for each engine that may be in use */
+	private final Semaphore permits;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong waits = new AtomicLong();
+
+	/**
+	 * Create a pool of SAXEngines configured like the template SAXBuilder.
+	 * 
+	 * @param template
+	 *        The SAXBuilder to use as the template for the engines. It should
+	 *        not be modified after the pool is created.
+	 * @param capacity
+	 *        The maximum number of engines in the pool, which is also the
+	 *        maximum number of concurrent builds.
+	 * @throws NullPointerException
+	 *         if the template is null.
+	 * @throws IllegalArgumentException
+	 *         if the capacity is less than 1, or the template has an
+	 *         XMLFilter.
+	 */
+	public SAXBuilderPool(final SAXBuilder template, final int capacity) {
+		if (template == null) {
+			throw new NullPointerException("Null template SAXBuilder");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"The pool capacity must be at least 1, not " + capacity);
+		}
+		if (template.getXMLFilter() != null) {
+			throw new IllegalArgumentException(
+					"A SAXBuilder with an XMLFilter can not be pooled because " +
+					"the XMLFilter can not be shared between parsers.");
+		}
+		this.template = template;
+		this.capacity = capacity;
+		this.permits = new Semaphore(capacity);
+	}
+
+	/**
+	 * Create a pool with one engine for each available processor.
+	 * 
+	 * @param template
+	 *        The SAXBuilder to use as the template for the engines. It should
+	 *        not be modified after the pool is created.
+	 * @throws NullPointerException
+	 *         if the template is null.
+	 * @throws IllegalArgumentException
+	 *         if the template has an XMLFilter.
+	 */
+	public SAXBuilderPool(final SAXBuilder template) {
+		this(template, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Borrow an engine from the pool, creating one if there are none idle.
+	 * The engine must be returned with {@link #release(SAXEngine)}.
+	 * 
+	 * @return an engine that is exclusively held by the calling thread.
+	 * @throws JDOMException
+	 *         if the engine could not be created, or the thread was
+	 *         interrupted while waiting for an engine.
+	 */
+	private SAXEngine acquire() throws JDOMException {
+		if (!permits.tryAcquire()) {
+			waits.incrementAndGet();
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				// preserve the interrupt for the caller.
+				Thread.currentThread().interrupt();
+				throw new JDOMException(
+						"Interrupted while waiting for a pooled SAXEngine", e);
+			}
+		}
+		final SAXEngine engine = idle.poll();
+		if (engine != null) {
+			hits.incrementAndGet();
+			return engine;
+		}
+		misses.incrementAndGet();
+		try {
+			// SAXBuilder is not thread-safe, and buildEngine() reads its state.
+			synchronized (template) {
+				return template.buildEngine();
+			}
+		} catch (JDOMException e) {
+			permits.release();
+			throw e;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Return a borrowed engine to the pool.
+	 * 
+	 * @param engine
+	 *        the engine to return.
+	 */
+	private void release(final SAXEngine engine) {
+		idle.offer(engine);
+		permits.release();
+	}
+
+	/**
+	 * Get the maximum number of engines in this pool.
+	 * 
+	 * @return the capacity of this pool.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Get the number of engines that are currently idle in the pool. This is
+	 * the number of engines that have been created, less the number that are
+	 * currently in use.
+	 * 
+	 * @return the number of idle engines.
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Get the number of builds that were able to reuse an idle engine.
+	 * 
+	 * @return the number of pool hits.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of builds that had to create a new engine.
+	 * 
+	 * @return the number of pool misses.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Get the number of builds that had to wait for an engine because all
+	 * the engines were in use. A high wait count indicates that the pool
+	 * capacity is too small for the number of concurrent builds.
+	 * 
+	 * @return the number of times a build waited for an engine.
+	 */
+	public long getWaitCount() {
+		return waits.get();
+	}
+
+	/**
+	 * Discard all idle engines. Engines that are currently in use will be
+	 * returned to the pool as normal. The statistics are not reset.
+	 */
+	public void clear() {
+		idle.clear();
+	}
+
+	@Override
+	public JDOMFactory getJDOMFactory() {
+		return template.getJDOMFactory();
+	}
+
+	@Override
+	public boolean isValidating() {
+		return template.isValidating();
+	}
+
+	@Override
+	public ErrorHandler getErrorHandler() {
+		return template.getErrorHandler();
+	}
+
+	@Override
+	public EntityResolver getEntityResolver() {
+		return template.getEntityResolver();
+	}
+
+	@Override
+	public DTDHandler getDTDHandler() {
+		return template.getDTDHandler();
+	}
+
+	@Override
+	public boolean getIgnoringElementContentWhitespace() {
+		return template.getIgnoringElementContentWhitespace();
+	}
+
+	@Override
+	public boolean getIgnoringBoundaryWhitespace() {
+		return template.getIgnoringBoundaryWhitespace();
+	}
+
+	@Override
+	public boolean getExpandEntities() {
+		return template.getExpandEntities();
+	}
+
+	@Override
+	public Document build(final InputSource in) throws JDOMException,
+			IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(in);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final InputStream in) throws JDOMException,
+			IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(in);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final File file) throws JDOMException, IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(file);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final URL url) throws JDOMException, IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(url);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final InputStream in, final String systemId)
+			throws JDOMException, IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(in, systemId);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final Reader characterStream) throws JDOMException,
+			IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(characterStream);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final Reader characterStream, final String systemId)
+			throws JDOMException, IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(characterStream, systemId);
+		} finally {
+			release(engine);
+		}
+	}
+
+	@Override
+	public Document build(final String systemId) throws JDOMException,
+			IOException {
+		final SAXEngine engine = acquire();
+		try {
+			return engine.build(systemId);
+		} finally {
+			release(engine);
+		}
+	}
+
+}
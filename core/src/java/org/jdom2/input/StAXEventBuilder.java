@@ -54,10 +54,13 @@
 
 package org.jdom2.input;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Iterator;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Characters;
@@ -75,6 +78,7 @@ import org.jdom2.JDOMFactory;
 import org.jdom2.Namespace;
 import org.jdom2.ProcessingInstruction;
 import org.jdom2.input.stax.DTDParser;
+import org.jdom2.internal.MappedFileInputStream;
 
 /**
  * Builds a JDOM Document from a StAX-based XMLEventReader.
@@ -279,5 +283,45 @@ public class StAXEventBuilder {
 	public Document build(XMLEventReader events) throws JDOMException {
 		return process(factory, events);
 	}
+
+	/**
+	 * This builds a document from the supplied file, reading it through
+	 * memory-mapped windows (see {@link MappedFileInputStream}) rather
+	 * than a regular file stream, which is worthwhile for very large files.
+	 * The XMLEventReader is created by the supplied factory, so it is
+	 * configured the same way as any other reader from that factory, and
+	 * the encoding is detected from the byte-order mark or XML declaration.
+	 * The XMLEventReader and the file are closed when the build completes.
+	 *
+	 * @param inputfactory The XMLInputFactory to create the XMLEventReader with
+	 * @param file The file to read from
+	 * @return <code>Document</code> resultant Document object
+	 * @throws JDOMException when errors occur in parsing
+	 * @throws IOException when the file can not be read
+	 */
+	public Document buildMapped(XMLInputFactory inputfactory, File file)
+			throws JDOMException, IOException {
+		final MappedFileInputStream in = new MappedFileInputStream(file);
+		try {
+			final XMLEventReader events;
+			try {
+				events = inputfactory.createXMLEventReader(
+						file.getAbsoluteFile().toURI().toURL().toExternalForm(), in);
+			} catch (XMLStreamException xse) {
+				throw new JDOMException("Unable to create the XMLEventReader. See Cause.", xse);
+			}
+			try {
+				return build(events);
+			} finally {
+				try {
+					events.close();
+				} catch (XMLStreamException xse) {
+					// ignore, the stream is closed below.
+				}
+			}
+		} finally {
+			in.close();
+		}
+	}
 	
 }
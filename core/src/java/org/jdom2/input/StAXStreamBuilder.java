@@ -56,10 +56,15 @@ package org.jdom2.input;
 
 import static javax.xml.stream.XMLStreamConstants.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
@@ -70,10 +75,14 @@ import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
 import org.jdom2.JDOMFactory;
+import org.jdom2.TrustedJDOMFactory;
 import org.jdom2.Namespace;
 import org.jdom2.Verifier;
 import org.jdom2.input.stax.DTDParser;
 import org.jdom2.input.stax.StAXFilter;
+import org.jdom2.internal.MappedFileInputStream;
+import org.jdom2.internal.SharedWhitespace;
+import org.jdom2.util.IteratorIterable;
 
 /**
  * Builds a JDOM Document from a StAX-based XMLStreamReader.
@@ -151,7 +160,7 @@ public class StAXStreamBuilder {
 						break;
 
 					case START_ELEMENT:
-						document.setRootElement(processElementFragment(factory, stream));
+						factory.setRoot(document, processElementFragment(factory, stream));
 						break;
 
 					case END_ELEMENT:
@@ -173,12 +182,12 @@ public class StAXStreamBuilder {
 						break;
 
 					case COMMENT:
-						document.addContent(
+						factory.addContent(document,
 								factory.comment(stream.getText()));
 						break;
 
 					case PROCESSING_INSTRUCTION:
-						document.addContent(factory.processingInstruction(
+						factory.addContent(document, factory.processingInstruction(
 								stream.getPITarget(), stream.getPIData()));
 						break;
 
@@ -200,14 +209,42 @@ public class StAXStreamBuilder {
 
 	private List<Content> processFragments(JDOMFactory factory, XMLStreamReader stream, StAXFilter filter) throws JDOMException {
 		
-		int state = stream.getEventType();
-
-		if (START_DOCUMENT != state) {
+		checkFragmentsStart(stream);
+		
+		List<Content> ret = new ArrayList<Content>();
+		Content content = null;
+		while ((content = nextFragment(factory, stream, filter, false)) != null) {
+			ret.add(content);
+		}
+		return ret;
+	}
+	
+	private static final void checkFragmentsStart(final XMLStreamReader stream)
+			throws JDOMException {
+		if (START_DOCUMENT != stream.getEventType()) {
 			throw new JDOMException("JDOM requires that XMLStreamReaders " +
 					"are at their beginning when being processed.");
 		}
-		List<Content> ret = new ArrayList<Content>();
+	}
+
+	/**
+	 * Advance the stream to the next content that the filter includes, and
+	 * build it.
+	 * @param factory The {@link JDOMFactory} to use
+	 * @param stream The XMLStreamReader to read from
+	 * @param filter The StAXFilter that selects the content
+	 * @param container true if the fragments are the children of an Element,
+	 * 				and the end of that Element ends the fragments.
+	 * @return the next fragment, or null if the end of the document (or
+	 * 				container) is reached.
+	 * @throws JDOMException if there is any issue
+	 * 				(XMLStreamExceptions are wrapped).
+	 */
+	private static final Content nextFragment(final JDOMFactory factory, 
+			final XMLStreamReader stream, final StAXFilter filter,
+			final boolean container) throws JDOMException {
 		
+		int state = stream.getEventType();
 		int depth = 0;
 		String text = null;
 		
@@ -219,63 +256,66 @@ public class StAXStreamBuilder {
 					case END_DOCUMENT:
 						throw new JDOMException("Illegal state for XMLStreamReader. Cannot get XML Fragment for state END_DOCUMENT" );
 					case END_ELEMENT:
+						if (container) {
+							// the end of the container Element.
+							return null;
+						}
 						throw new JDOMException("Illegal state for XMLStreamReader. Cannot get XML Fragment for state END_ELEMENT" );
 
 					case START_ELEMENT:
 						final QName qn = stream.getName();
 						if (filter.includeElement(depth, qn.getLocalPart(), 
 								Namespace.getNamespace(qn.getPrefix(), qn.getNamespaceURI()))) {
-							ret.add(processPrunableElement(factory, stream, depth, filter));
-						} else {
-							final int back = depth;
-							depth++;
-							
-							while (depth > back && stream.hasNext()) {
-								state = stream.next();
-								if (state == START_ELEMENT) {
-									depth++;
-								} else if (state == END_ELEMENT) {
-									depth--;
-								}
+							return processPrunableElement(factory, stream, depth, filter);
+						}
+						final int back = depth;
+						depth++;
+						
+						while (depth > back && stream.hasNext()) {
+							state = stream.next();
+							if (state == START_ELEMENT) {
+								depth++;
+							} else if (state == END_ELEMENT) {
+								depth--;
 							}
 						}
 						break;
 
 					case DTD:
 						if (filter.includeDocType()) {
-							ret.add(DTDParser.parse(stream.getText(), factory));
+							return DTDParser.parse(stream.getText(), factory);
 						}
 						break;
 
 					case CDATA:
 						if ((text = filter.includeCDATA(depth, stream.getText())) != null) {
-							ret.add(factory.cdata(text));
+							return factory.cdata(text);
 						}
 						break;
 
 					case SPACE:
 					case CHARACTERS:
-						if ((text = filter.includeText(depth, stream.getText())) != null) {
-							ret.add(factory.text(text));
+						if ((text = filter.includeText(depth, getText(stream))) != null) {
+							return factory.text(text);
 						}
 						break;
 
 					case COMMENT:
 						if ((text = filter.includeComment(depth, stream.getText())) != null) {
-							ret.add(factory.comment(text));
+							return factory.comment(text);
 						}
 						break;
 
 					case ENTITY_REFERENCE:
 						if (filter.includeEntityRef(depth, stream.getLocalName())) {
-							ret.add(factory.entityRef(stream.getLocalName()));
+							return factory.entityRef(stream.getLocalName());
 						}
 						break;
 
 					case PROCESSING_INSTRUCTION:
 						if (filter.includeProcessingInstruction(depth, stream.getPITarget())) {
-							ret.add(factory.processingInstruction(
-								stream.getPITarget(), stream.getPIData()));
+							return factory.processingInstruction(
+								stream.getPITarget(), stream.getPIData());
 						}
 						break;
 
@@ -287,7 +327,70 @@ public class StAXStreamBuilder {
 			throw new JDOMException("Unable to process fragments from XMLStreamReader.", e);
 		}
 		
-		return ret;
+		return null;
+	}
+	
+	/**
+	 * Pulls fragments from an XMLStreamReader one at a time, see
+	 * {@link StAXStreamBuilder#iterateFragments(XMLStreamReader, StAXFilter)}.
+	 */
+	private static final class FragmentIterator implements IteratorIterable<Content> {
+		
+		private final JDOMFactory factory;
+		private final XMLStreamReader stream;
+		private final StAXFilter filter;
+		private final boolean container;
+		private Content nextcontent = null;
+		private boolean done = false;
+		
+		public FragmentIterator(final JDOMFactory factory, 
+				final XMLStreamReader stream, final StAXFilter filter,
+				final boolean container) {
+			this.factory = factory;
+			this.stream = stream;
+			this.filter = filter;
+			this.container = container;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextcontent == null && !done) {
+				try {
+					nextcontent = nextFragment(factory, stream, filter, container);
+				} catch (JDOMException e) {
+					done = true;
+					throw new IllegalStateException(
+							"Unable to build the next fragment: " + e.getMessage(), e);
+				}
+				if (nextcontent == null) {
+					done = true;
+				}
+			}
+			return nextcontent != null;
+		}
+
+		@Override
+		public Content next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more fragments.");
+			}
+			final Content ret = nextcontent;
+			nextcontent = null;
+			return ret;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException(
+					"Fragments can not be removed from an XMLStreamReader.");
+		}
+
+		@Override
+		public Iterator<Content> iterator() {
+			// there is only one stream, so only one pass.
+			return this;
+		}
+		
 	}
 
 	
@@ -313,7 +416,7 @@ public class StAXStreamBuilder {
 							Namespace.getNamespace(
 									qn.getPrefix(), qn.getNamespaceURI()))) {
 						Element tmp = processElement(factory, reader);
-						current.addContent(tmp);
+						factory.addContent(current, tmp);
 						current = tmp;
 						depth++;
 					} else {
@@ -336,32 +439,32 @@ public class StAXStreamBuilder {
 					break;
 				case CDATA:
 					if ((text = filter.pruneCDATA(depth, reader.getText())) != null) {
-						current.addContent(factory.cdata(text));
+						factory.addContent(current, factory.cdata(text));
 					}
 					break;
 
 				case SPACE:
 				case CHARACTERS:
-					if ((text = filter.pruneText(depth, reader.getText())) != null) {
-						current.addContent(factory.text(text));
+					if ((text = filter.pruneText(depth, getText(reader))) != null) {
+						factory.addContent(current, factory.text(text));
 					}
 					break;
 
 				case COMMENT:
 					if ((text = filter.pruneComment(depth, reader.getText())) != null) {
-						current.addContent(factory.comment(text));
+						factory.addContent(current, factory.comment(text));
 					}
 					break;
 
 				case ENTITY_REFERENCE:
 					if (!filter.pruneEntityRef(depth, reader.getLocalName())) {
-						current.addContent(factory.entityRef(reader.getLocalName()));
+						factory.addContent(current, factory.entityRef(reader.getLocalName()));
 					}
 					break;
 
 				case PROCESSING_INSTRUCTION:
 					if (!filter.pruneProcessingInstruction(depth, reader.getPITarget())) {
-						current.addContent(factory.processingInstruction(
+						factory.addContent(current, factory.processingInstruction(
 								reader.getPITarget(), reader.getPIData()));
 					}
 					break;
@@ -415,7 +518,7 @@ public class StAXStreamBuilder {
 
 				case SPACE:
 				case CHARACTERS:
-					Content txt = factory.text(stream.getText());
+					Content txt = factory.text(getText(stream));
 					stream.next();
 					return txt;
 
@@ -460,7 +563,7 @@ public class StAXStreamBuilder {
 			switch(reader.next()) {
 				case START_ELEMENT:
 					Element tmp = processElement(factory, reader);
-					current.addContent(tmp);
+					factory.addContent(current, tmp);
 					current = tmp;
 					depth++;
 					break;
@@ -469,24 +572,24 @@ public class StAXStreamBuilder {
 					depth--;
 					break;
 				case CDATA:
-					current.addContent(factory.cdata(reader.getText()));
+					factory.addContent(current, factory.cdata(reader.getText()));
 					break;
 
 				case SPACE:
 				case CHARACTERS:
-					current.addContent(factory.text(reader.getText()));
+					factory.addContent(current, factory.text(getText(reader)));
 					break;
 
 				case COMMENT:
-					current.addContent(factory.comment(reader.getText()));
+					factory.addContent(current, factory.comment(reader.getText()));
 					break;
 
 				case ENTITY_REFERENCE:
-					current.addContent(factory.entityRef(reader.getLocalName()));
+					factory.addContent(current, factory.entityRef(reader.getLocalName()));
 					break;
 
 				case PROCESSING_INSTRUCTION:
-					current.addContent(factory.processingInstruction(
+					factory.addContent(current, factory.processingInstruction(
 							reader.getPITarget(), reader.getPIData()));
 					break;
 
@@ -499,6 +602,25 @@ public class StAXStreamBuilder {
 		return fragment;
 	}
 
+	/**
+	 * Get the text of a CHARACTERS or SPACE event. Indentation whitespace is
+	 * returned as a shared instance from {@link SharedWhitespace}, which
+	 * avoids keeping a separate String for each one.
+	 * @param reader The reader at a text event
+	 * @return The event's text.
+	 */
+	private static final String getText(final XMLStreamReader reader) {
+		final int len = reader.getTextLength();
+		if (len <= SharedWhitespace.MAXINDENT + 1) {
+			final String ws = SharedWhitespace.get(reader.getTextCharacters(),
+					reader.getTextStart(), len);
+			if (ws != null) {
+				return ws;
+			}
+		}
+		return reader.getText();
+	}
+
 	private static final Element processElement(final JDOMFactory factory, 
 			final XMLStreamReader reader) {
 
@@ -518,7 +640,7 @@ public class StAXStreamBuilder {
 
 		// Handle Namespaces
 		for (int i = 0, len = reader.getNamespaceCount(); i < len; i++) {
-			element.addNamespaceDeclaration(Namespace.getNamespace(
+			factory.addNamespaceDeclaration(element, Namespace.getNamespace(
 					reader.getNamespacePrefix(i), reader.getNamespaceURI(i)));
 		}
 
@@ -547,6 +669,38 @@ public class StAXStreamBuilder {
 		this.builderfactory = factory;
 	}
 
+	/**
+	 * Set whether the input to this builder is trusted. An
+	 * XMLStreamReader from a conforming StAX parser guarantees that the
+	 * events it reports are well-formed, so this is appropriate whenever
+	 * the readers come from such a parser.
+	 * <p>
+	 * Setting true replaces the factory with a {@link TrustedJDOMFactory}
+	 * (see there for what is, and is not, checked). Setting false restores
+	 * a {@link DefaultJDOMFactory} if the current factory is a
+	 * TrustedJDOMFactory, and otherwise has no effect.
+	 * 
+	 * @param trusted true to skip the checks the parser guarantees.
+	 * @see #isTrustedInput()
+	 */
+	public void setTrustedInput(final boolean trusted) {
+		if (trusted == isTrustedInput()) {
+			return;
+		}
+		setFactory(trusted ? new TrustedJDOMFactory() : new DefaultJDOMFactory());
+	}
+
+	/**
+	 * Is this builder in trusted-input mode (is the factory in use a
+	 * {@link TrustedJDOMFactory})?
+	 * 
+	 * @return true if the builder skips the checks the parser guarantees.
+	 * @see #setTrustedInput(boolean)
+	 */
+	public boolean isTrustedInput() {
+		return getFactory() instanceof TrustedJDOMFactory;
+	}
+
 	/**
 	 * This builds a document from the supplied
 	 * XMLStreamReader.
@@ -560,6 +714,46 @@ public class StAXStreamBuilder {
 	public Document build(XMLStreamReader reader) throws JDOMException {
 		return process(builderfactory, reader);
 	}
+
+	/**
+	 * This builds a document from the supplied file, reading it through
+	 * memory-mapped windows (see {@link MappedFileInputStream}) rather
+	 * than a regular file stream, which is worthwhile for very large files.
+	 * The XMLStreamReader is created by the supplied factory, so it is
+	 * configured the same way as any other reader from that factory, and
+	 * the encoding is detected from the byte-order mark or XML declaration.
+	 * The XMLStreamReader and the file are closed when the build completes.
+	 *
+	 * @param inputfactory The XMLInputFactory to create the XMLStreamReader with
+	 * @param file The file to read from
+	 * @return <code>Document</code> resultant Document object
+	 * @throws JDOMException when errors occur in parsing
+	 * @throws IOException when the file can not be read
+	 */
+	public Document buildMapped(XMLInputFactory inputfactory, File file)
+			throws JDOMException, IOException {
+		final MappedFileInputStream in = new MappedFileInputStream(file);
+		try {
+			final XMLStreamReader reader;
+			try {
+				reader = inputfactory.createXMLStreamReader(
+						file.getAbsoluteFile().toURI().toURL().toExternalForm(), in);
+			} catch (XMLStreamException xse) {
+				throw new JDOMException("Unable to create the XMLStreamReader. See Cause.", xse);
+			}
+			try {
+				return build(reader);
+			} finally {
+				try {
+					reader.close();
+				} catch (XMLStreamException xse) {
+					// ignore, the stream is closed below.
+				}
+			}
+		} finally {
+			in.close();
+		}
+	}
 	
 	/**
 	 * Read the entire XMLStreamReader and from it build a list of Content that
@@ -574,6 +768,46 @@ public class StAXStreamBuilder {
 	}
 
 	
+	/**
+	 * Lazily read the XMLStreamReader, building one fragment at a time, using
+	 * the same rules as {@link #buildFragments(XMLStreamReader, StAXFilter)}.
+	 * <p>
+	 * The XMLStreamReader is only advanced when the returned iterator is asked
+	 * for its next fragment, and only the next fragment is held in memory, so
+	 * large inputs can be processed in constant memory (a fragment at a time).
+	 * The returned value can be iterated only once, and the reader must not be
+	 * used by anything else while the iteration is in progress.
+	 * <p>
+	 * The reader may be at the START_DOCUMENT state, in which case the
+	 * fragments are the top-level content of the document (exactly like
+	 * buildFragments()). Alternatively the reader may be positioned at a
+	 * START_ELEMENT, for example with <code>reader.nextTag()</code> to get to the
+	 * root Element, in which case that Element itself is not built, and the
+	 * fragments are its child content (at filter depth 0). The iteration ends
+	 * with the reader at the container's END_ELEMENT. This is the way to stream
+	 * a document that consists of one root Element with very many children.
+	 * <p>
+	 * Iterator methods can not throw checked exceptions. Problems reading
+	 * or processing the XMLStreamReader during the iteration are thrown from
+	 * hasNext() or next() as an IllegalStateException, with the JDOMException
+	 * as the cause.
+	 * 
+	 * @param reader The XMLStreamReader to parse, at the START_DOCUMENT or
+	 * 				a START_ELEMENT state.
+	 * @param filter The Filter to use for the Content
+	 * @return an iterator over the Content identified by the supplied filter
+	 * @throws JDOMException if the reader is not at the START_DOCUMENT or a
+	 * 				START_ELEMENT state.
+	 */
+	public IteratorIterable<Content> iterateFragments(XMLStreamReader reader, 
+			StAXFilter filter) throws JDOMException {
+		if (START_ELEMENT == reader.getEventType()) {
+			return new FragmentIterator(builderfactory, reader, filter, true);
+		}
+		checkFragmentsStart(reader);
+		return new FragmentIterator(builderfactory, reader, filter, false);
+	}
+	
 	/**
 	 * Read the current XML Fragment from the XMLStreamReader.
 	 * The XMLStreamReader must be at some 'content' state, it cannot be
@@ -0,0 +1,173 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.input.sax;
+
+import java.util.Arrays;
+
+import org.jdom2.Element;
+import org.jdom2.Parent;
+import org.jdom2.filter.AbstractFilter;
+
+/**
+ * A Filter that matches Elements by the names of the Element and its
+ * ancestors. It is intended to select the subtrees of a streaming build (see
+ * {@link SubtreeListener}) because it only needs the information that is
+ * available when an Element starts: its name, and the names of its ancestors.
+ * <p>
+ * The path is a '/'-separated list of name steps:
+ * <ul>
+ * <li>A step containing a ':' has to match the Element's qualified name
+ * (<code>prefix:name</code>).
+ * <li>A step without a ':' has to match the Element's local name, in any
+ * Namespace.
+ * <li>The step <code>*</code> matches any Element.
+ * </ul>
+ * A path starting with '/' is absolute and the first step has to match the
+ * root Element (e.g. <code>/feed/record</code>). A relative path matches an
+ * Element if the last steps of its ancestry match (e.g.
+ * <code>record</code> matches every <code>record</code> Element at any depth).
+ * 
+ * @author agent
+ */
+public final class ElementPathFilter extends AbstractFilter<Element> {
+
+	private static final long serialVersionUID = 200L;
+	
+	private final String path;
+	private final String[] steps;
+	private final boolean absolute;
+	
+	/**
+	 * Create a filter for the specified path.
+	 * @param path the path to match.
+	 * @throws IllegalArgumentException if the path is null or has empty steps.
+	 */
+	public ElementPathFilter(final String path) {
+		if (path == null) {
+			throw new IllegalArgumentException("Null path");
+		}
+		this.path = path;
+		this.absolute = path.startsWith("/");
+		this.steps = (absolute ? path.substring(1) : path).split("/", -1);
+		for (String s : steps) {
+			if (s.length() == 0) {
+				throw new IllegalArgumentException(
+						"Path '" + path + "' contains an empty step.");
+			}
+		}
+	}
+	
+	/**
+	 * Get the path this filter matches.
+	 * @return the path.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public Element filter(final Object content) {
+		if (!(content instanceof Element)) {
+			return null;
+		}
+		final Element element = (Element)content;
+		Element e = element;
+		int s = steps.length - 1;
+		while (s >= 0) {
+			if (e == null || !stepMatches(steps[s], e)) {
+				return null;
+			}
+			s--;
+			final Parent p = e.getParent();
+			e = p instanceof Element ? (Element)p : null;
+		}
+		if (absolute && e != null) {
+			// did not get all the way to the root.
+			return null;
+		}
+		return element;
+	}
+	
+	private static final boolean stepMatches(final String step, final Element e) {
+		if ("*".equals(step)) {
+			return true;
+		}
+		if (step.indexOf(':') >= 0) {
+			return step.equals(e.getQualifiedName());
+		}
+		return step.equals(e.getName());
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		return obj instanceof ElementPathFilter 
+				&& absolute == ((ElementPathFilter)obj).absolute
+				&& Arrays.equals(steps, ((ElementPathFilter)obj).steps);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(steps) ^ (absolute ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "[ElementPathFilter: " + path + "]";
+	}
+
+}
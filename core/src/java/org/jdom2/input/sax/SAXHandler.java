@@ -79,11 +79,13 @@ import org.jdom2.DocType;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.EntityRef;
+import org.jdom2.JDOMException;
 import org.jdom2.JDOMFactory;
 import org.jdom2.Namespace;
 import org.jdom2.Parent;
 import org.jdom2.ProcessingInstruction;
 import org.jdom2.Text;
+import org.jdom2.filter.Filter;
 import org.jdom2.input.SAXBuilder;
 
 /**
@@ -166,7 +168,10 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 	/** Indicator of whether we are in a CDATA - must be reset() */
 	private boolean inCDATA = false;
 
-	/** Indicator of whether we should expand entities - must be reset() */
+	/**
+	 * Indicator of whether we should expand entities. This is configuration,
+	 * it survives a reset()
+	 */
 	private boolean expand = true;
 
 	/**
@@ -185,6 +190,15 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 	private boolean ignoringBoundaryWhite = false;
 	
 	private int lastline = 0, lastcol = 0;
+	
+	/** Selects the subtrees of a streaming build (null when not streaming) */
+	private Filter<?> subtreeMatcher = null;
+	
+	/** Receives the subtrees of a streaming build */
+	private SubtreeListener subtreeListener = null;
+	
+	/** The top of the subtree currently being captured in a streaming build */
+	private Element subtreeRoot = null;
 
 	/**
 	 * This will create a new <code>SAXHandler</code> that listens to SAX events
@@ -222,6 +236,11 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 	 * All internal variables are cleared to an initialized state, and then the
 	 * resetSubClass() method is called to clear any methods that a subclass may
 	 * need to have reset.
+	 * <p>
+	 * The configuration of the handler (expand entities, and the whitespace
+	 * settings) is not changed by a reset, so a SAXHandler can be reused
+	 * (for example in a SAXBuilder that reuses its parser, or in a
+	 * {@link org.jdom2.input.SAXBuilderPool}) without being reconfigured.
 	 */
 	public final void reset() {
 		currentLocator = null;
@@ -232,15 +251,13 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 		inInternalSubset = false;
 		previousCDATA = false;
 		inCDATA = false;
-		expand = true;
 		suppress = false;
 		entityDepth = 0;
 		declaredNamespaces.clear();
 		internalSubset.setLength(0);
 		textBuffer.clear();
 		externalEntities.clear();
-		ignoringWhite = false;
-		ignoringBoundaryWhite = false;
+		subtreeRoot = null;
 		resetSubCLass();
 	}
 
@@ -263,6 +280,56 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 		currentElement = element;
 	}
 
+	/**
+	 * Switch this handler in to (or out of) streaming mode.
+	 * <p>
+	 * In streaming mode each Element that matches the matcher is built
+	 * complete with its content, and then, when it ends, it is detached,
+	 * given declarations for the Namespaces it inherited, and passed to the
+	 * listener. Content inside a matched Element is not matched again: the
+	 * whole subtree is delivered once.
+	 * <p>
+	 * The matcher is consulted when an Element starts, so it can inspect the
+	 * Element's name, Namespace, attributes, and ancestors, but not its
+	 * content ({@link ElementPathFilter} is designed for this).
+	 * <p>
+	 * Outside of the matched subtrees only a 'skeleton' is built: the
+	 * ancestors of the current Element (with their attributes) are kept so
+	 * that matchers and Namespace scoping work, but Text, Comment,
+	 * ProcessingInstruction, and EntityRef content, and Elements that have
+	 * ended, are discarded. The memory used is thus proportional to the size
+	 * of one subtree, not to the size of the whole document. The Document
+	 * returned from {@link #getDocument()} contains only what is left of the
+	 * skeleton.
+	 * <p>
+	 * Like the other configuration, the streaming mode survives a
+	 * {@link #reset()}.
+	 * 
+	 * @param matcher
+	 *        selects the Elements to deliver, or null to stop streaming.
+	 * @param listener
+	 *        receives the matched Elements, or null to stop streaming.
+	 */
+	public void setSubtreeListener(final Filter<?> matcher,
+			final SubtreeListener listener) {
+		if (matcher == null || listener == null) {
+			this.subtreeMatcher = null;
+			this.subtreeListener = null;
+		} else {
+			this.subtreeMatcher = matcher;
+			this.subtreeListener = listener;
+		}
+		this.subtreeRoot = null;
+	}
+	
+	/**
+	 * Discard content outside of the matched subtrees in streaming mode.
+	 * @return true if content at the current location should not be kept.
+	 */
+	private boolean isSkeleton() {
+		return subtreeListener != null && subtreeRoot == null;
+	}
+
 	/**
 	 * Returns the document. Should be called after parsing is complete.
 	 * 
@@ -499,7 +566,7 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 
 		if (atRoot) {
 			factory.addContent(currentDocument, pi);
-		} else {
+		} else if (!isSkeleton()) {
 			factory.addContent(getCurrentElement(), pi);
 		}
 	}
@@ -721,6 +788,11 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 			factory.setAttribute(element, attribute);
 		}
 
+		if (subtreeListener != null && subtreeRoot == null
+				&& subtreeMatcher.matches(element)) {
+			subtreeRoot = element;
+		}
+
 	}
 
 	/**
@@ -733,7 +805,7 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 	private void transferNamespaces(final Element element) {
 		for (final Namespace ns : declaredNamespaces) {
 			if (ns != element.getNamespace()) {
-				element.addNamespaceDeclaration(ns);
+				factory.addNamespaceDeclaration(element, ns);
 			}
 		}
 		declaredNamespaces.clear();
@@ -819,7 +891,7 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 	 *         if the state of the handler does not allow this.
 	 */
 	protected void flushCharacters(final String data) throws SAXException {
-		if (data.length() == 0 && !inCDATA) {
+		if ((data.length() == 0 && !inCDATA) || isSkeleton()) {
 			previousCDATA = inCDATA;
 			return;
 		}
@@ -869,12 +941,22 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 		flushCharacters();
 
 		if (!atRoot) {
-			final Parent p = currentElement.getParent();
+			final Element ended = currentElement;
+			final Parent p = ended.getParent();
 			if (p instanceof Document) {
 				atRoot = true;
 			} else {
 				currentElement = (Element) p;
 			}
+			if (subtreeListener != null) {
+				if (ended == subtreeRoot) {
+					subtreeRoot = null;
+					deliverSubtree(ended);
+				} else if (subtreeRoot == null && !atRoot) {
+					// a skeleton Element, it is no longer needed.
+					ended.detach();
+				}
+			}
 		} else {
 			throw new SAXException(
 					"Ill-formed XML document (missing opening tag for "
@@ -882,6 +964,31 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 		}
 	}
 
+	/**
+	 * Detach a matched subtree, make it declare the Namespaces it inherited,
+	 * and pass it to the listener.
+	 * 
+	 * @param element
+	 *        the matched Element
+	 * @throws SAXException
+	 *         wrapping any JDOMException thrown by the listener
+	 */
+	private void deliverSubtree(final Element element) throws SAXException {
+		final List<Namespace> inherited = element.getNamespacesInherited();
+		element.detach();
+		for (final Namespace ns : inherited) {
+			if (ns != Namespace.NO_NAMESPACE && ns != Namespace.XML_NAMESPACE
+					&& ns != element.getNamespace()) {
+				element.addNamespaceDeclaration(ns);
+			}
+		}
+		try {
+			subtreeListener.subtreeBuilt(element);
+		} catch (final JDOMException e) {
+			throw new SAXException(e);
+		}
+	}
+
 	/**
 	 * This will signify that a DTD is being parsed, and can be used to ensure
 	 * that comments and other lexical structures in the DTD are not added to
@@ -957,7 +1064,7 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 				 * ext/LexicalHandler.html#startEntity(java.lang.String) for
 				 * more information
 				 */
-				if (!atRoot) {
+				if (!atRoot && !isSkeleton()) {
 					flushCharacters();
 					final EntityRef entity = currentLocator == null ? factory
 							.entityRef(name, pub, sys) : factory.entityRef(
@@ -1046,7 +1153,7 @@ public class SAXHandler extends DefaultHandler implements LexicalHandler,
 					currentLocator.getColumnNumber(), commentText);
 			if (atRoot) {
 				factory.addContent(currentDocument, comment);
-			} else {
+			} else if (!isSkeleton()) {
 				factory.addContent(getCurrentElement(), comment);
 			}
 		}
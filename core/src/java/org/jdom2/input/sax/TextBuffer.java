@@ -56,6 +56,7 @@ package org.jdom2.input.sax;
 
 import org.jdom2.Verifier;
 import org.jdom2.internal.ArrayCopy;
+import org.jdom2.internal.SharedWhitespace;
 
 /**
  * A non-public utility class similar to StringBuilder but optimized for XML
@@ -129,12 +130,19 @@ final class TextBuffer {
 		return true;
 	}
 
-	/** Returns the text value stored in the buffer. */
+	/**
+	 * Returns the text value stored in the buffer. Indentation whitespace
+	 * is returned as a shared instance from {@link SharedWhitespace}.
+	 */
 	@Override
 	public String toString() {
 		if (arraySize == 0) {
 			return "";
 		}
+		final String ws = SharedWhitespace.get(array, 0, arraySize);
+		if (ws != null) {
+			return ws;
+		}
 		return String.valueOf(array, 0, arraySize);
 	}
 
@@ -0,0 +1,151 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.internal;
+
+/**
+ * Constants that describe the compact binary JDOM format written by
+ * {@link org.jdom2.output.BinaryOutputter} and read by
+ * {@link org.jdom2.input.BinaryBuilder}.
+ * <p>
+ * The format is a header followed by a flat stream of events:
+ * <pre>
+ *   header    := 'J' 'D' 'B' VERSION kind
+ *   document  := DOCUMENT string(baseURI) event* END
+ *   element   := ELEMENT elementbody
+ *   event     := ELEMENT elementbody
+ *              | TEXT string | CDATA string | COMMENT string
+ *              | PI string(target) string(data)
+ *              | ENTITYREF string(name) string(publicID) string(systemID)
+ *              | DOCTYPE string(name) string(publicID) string(systemID)
+ *                        string(internalSubset)
+ *   elementbody := string(name) namespace 
+ *                  varint(n) namespace{n}
+ *                  varint(n) attribute{n}
+ *                  event* END
+ *   attribute := string(name) namespace byte(type | NOTSPECIFIED) string(value)
+ * </pre>
+ * All counts and lengths are unsigned variable-length integers, 7 bits per
+ * byte, least-significant group first.
+ * <p>
+ * Strings are written as a varint code: {@link #STRING_NULL},
+ * {@link #STRING_INLINE} (the characters follow, and are not remembered),
+ * {@link #STRING_NEW} (the characters follow, and are added to the string
+ * table), or {@link #STRING_TABLE} + n, a reference to the n'th string in the
+ * table. The characters are a varint char count, then each char in 1 to 3
+ * bytes as UTF-8 (surrogates are encoded individually, so any Java String
+ * round-trips exactly).
+ * <p>
+ * Namespaces are written as a varint code: {@link #NAMESPACE_NEW} followed by
+ * the prefix and URI strings (the Namespace is added to the namespace
+ * table), or {@link #NAMESPACE_TABLE} + n, a reference to the n'th entry in the
+ * namespace table. The table starts with NO_NAMESPACE and XML_NAMESPACE.
+ * 
+ * @author agent
+ */
+public final class BinaryFormat {
+
+	/** The magic bytes at the start of binary JDOM data */
+	public static final byte[] MAGIC = {'J', 'D', 'B'};
+
+	/** The current version of the format */
+	public static final int VERSION = 1;
+
+	/** The event (and header kind) for a Document */
+	public static final int DOCUMENT = 1;
+	/** The event (and header kind) for an Element */
+	public static final int ELEMENT = 2;
+	/** The event that ends a Document or Element */
+	public static final int END = 3;
+	/** The event for Text */
+	public static final int TEXT = 4;
+	/** The event for CDATA */
+	public static final int CDATA = 5;
+	/** The event for a Comment */
+	public static final int COMMENT = 6;
+	/** The event for a ProcessingInstruction */
+	public static final int PROCESSINGINSTRUCTION = 7;
+	/** The event for an EntityRef */
+	public static final int ENTITYREF = 8;
+	/** The event for a DocType */
+	public static final int DOCTYPE = 9;
+
+	/** String code for a null value */
+	public static final int STRING_NULL = 0;
+	/** String code for characters that are not added to the string table */
+	public static final int STRING_INLINE = 1;
+	/** String code for characters that are added to the string table */
+	public static final int STRING_NEW = 2;
+	/** String code for the first string table reference */
+	public static final int STRING_TABLE = 3;
+
+	/**
+	 * Strings longer than this are always written inline: they are unlikely
+	 * to repeat, and would bloat the string tables.
+	 */
+	public static final int MAXTABLESTRING = 64;
+
+	/** Namespace code for a Namespace that is added to the namespace table */
+	public static final int NAMESPACE_NEW = 0;
+	/** Namespace code for the first namespace table reference */
+	public static final int NAMESPACE_TABLE = 1;
+
+	/** Flag on the Attribute type byte if the Attribute was not specified */
+	public static final int NOTSPECIFIED = 0x80;
+
+	private BinaryFormat() {
+		// constants only.
+	}
+
+}
@@ -0,0 +1,215 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An InputStream that reads a file through read-only memory-mapped windows
+ * rather than through read() system calls. Only one window of the file is
+ * mapped at a time, and the next window is mapped when the current one is
+ * exhausted, so files larger than the 2GB limit of a single mapping (and
+ * larger than the available address space) can be read.
+ * <p>
+ * The stream supplies raw bytes: the consumer (an XML parser, typically)
+ * is responsible for detecting the character encoding from the byte-order
+ * mark or the XML declaration, exactly as it would for a FileInputStream.
+ * <p>
+ * A mapping is only released when its buffer is garbage-collected, not when
+ * the stream is closed. On some platforms (Windows) the file can not be
+ * deleted or truncated until that happens. Truncating a file while it is
+ * being read through a mapping has undefined results.
+ * 
+ * @author agent
+ */
+public final class MappedFileInputStream extends InputStream {
+
+	/** The default window size, 64MB */
+	public static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long length;
+	private final int window;
+	/** The file offset of the start of the current buffer */
+	private long offset = 0L;
+	private MappedByteBuffer buffer = null;
+	private boolean closed = false;
+
+	/**
+	 * Open the specified file using the default window size.
+	 * @param file The file to read.
+	 * @throws IOException if the file can not be opened.
+	 */
+	public MappedFileInputStream(final File file) throws IOException {
+		this(file, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Open the specified file, mapping at most <code>window</code> bytes at a
+	 * time.
+	 * @param file The file to read.
+	 * @param window The maximum number of bytes to map at one time.
+	 * @throws IOException if the file can not be opened.
+	 * @throws IllegalArgumentException if the window is not positive.
+	 */
+	public MappedFileInputStream(final File file, final int window)
+			throws IOException {
+		if (window <= 0) {
+			throw new IllegalArgumentException(
+					"The mapping window must be positive, not " + window);
+		}
+		this.window = window;
+		this.file = new RandomAccessFile(file, "r");
+		this.channel = this.file.getChannel();
+		this.length = channel.size();
+	}
+
+	/**
+	 * Make sure there is at least one byte available in the current buffer,
+	 * mapping the next window if needed.
+	 * @return true if there is data, false at the end of the file.
+	 * @throws IOException if the stream is closed or the mapping fails.
+	 */
+	private final boolean ensure() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (buffer != null) {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+			offset += buffer.limit();
+			// release this window before mapping the next.
+			buffer = null;
+		}
+		if (offset >= length) {
+			return false;
+		}
+		final long size = Math.min(window, length - offset);
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensure()) {
+			return -1;
+		}
+		return buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+			return 0;
+		}
+		if (!ensure()) {
+			return -1;
+		}
+		final int cnt = Math.min(len, buffer.remaining());
+		buffer.get(b, off, cnt);
+		return cnt;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		if (n <= 0 || !ensure()) {
+			return 0L;
+		}
+		final long pos = offset + buffer.position();
+		final long skip = Math.min(n, length - pos);
+		if (skip <= buffer.remaining()) {
+			buffer.position(buffer.position() + (int)skip);
+		} else {
+			// jump to a new window.
+			offset = pos + skip;
+			buffer = null;
+		}
+		return skip;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		final long pos = offset + (buffer == null ? 0 : buffer.position());
+		return (int)Math.min(Integer.MAX_VALUE, length - pos);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		buffer = null;
+		file.close();
+	}
+
+}
@@ -0,0 +1,244 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.internal;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.jdom2.Content;
+import org.jdom2.Element;
+
+/**
+ * Splits an Element tree in to independent subtrees that can be processed
+ * concurrently, and runs the work for those subtrees on an Executor.
+ * <p>
+ * The top few levels of the tree are expanded (breadth-first) until there
+ * are enough child Elements to keep all processors busy. Each of those
+ * 'frontier' Elements is processed by a separate task, and the levels above
+ * them are left to the calling thread.
+ * <p>
+ * The calling thread runs any task that the Executor has not yet started, so
+ * the work always completes, even if the Executor is busy, is shut down, or
+ * rejects the tasks. An Executor that runs tasks in the calling thread
+ * simply results in sequential processing.
+ * 
+ * @author agent
+ */
+public final class ParallelSubtrees {
+
+	/** Do not expand the tree more than this many levels looking for work */
+	private static final int MAXDEPTH = 8;
+
+	/** How many tasks to aim for per processor, to even out the load */
+	private static final int TASKSPERCPU = 4;
+
+	private ParallelSubtrees() {
+		// static methods only.
+	}
+
+	/**
+	 * Find the frontier Elements of a tree: the Elements that are each worth
+	 * processing as a task.
+	 * 
+	 * @param root
+	 *        The top of the tree.
+	 * @param subclasses
+	 *        Whether subclasses of Element may be expanded. If false, only
+	 *        plain Element instances are expanded, and subclasses are left
+	 *        whole (on the calling thread).
+	 * @param upper
+	 *        If not null, the expanded Elements (the ones above the frontier
+	 *        that have Element children) are added to this Map.
+	 * @return the frontier Elements in document order, or null if the tree
+	 *         is not worth splitting.
+	 */
+	public static List<Element> frontier(final Element root,
+			final boolean subclasses, final Map<Element, Boolean> upper) {
+		final int target = Math.max(2, 
+				Runtime.getRuntime().availableProcessors() * TASKSPERCPU);
+
+		List<Element> level = new ArrayList<Element>();
+		level.add(root);
+		boolean expanded = false;
+		int depth = 0;
+		while (level.size() < target && depth++ < MAXDEPTH) {
+			final List<Element> next = new ArrayList<Element>();
+			for (final Element e : level) {
+				if (!subclasses && e.getClass() != Element.class) {
+					continue;
+				}
+				final int sz = e.getContentSize();
+				boolean kids = false;
+				for (int i = 0; i < sz; i++) {
+					final Content c = e.getContent(i);
+					if (c instanceof Element) {
+						next.add((Element)c);
+						kids = true;
+					}
+				}
+				if (kids) {
+					expanded = true;
+					if (upper != null) {
+						upper.put(e, Boolean.TRUE);
+					}
+				}
+			}
+			if (next.isEmpty()) {
+				break;
+			}
+			level = next;
+		}
+
+		if (!expanded || level.size() < 2) {
+			// nothing worth splitting.
+			return null;
+		}
+		return level;
+	}
+
+	/**
+	 * Run the work for each frontier Element. The work is offered to the
+	 * Executor, and the calling thread then runs, from the back, whatever
+	 * the Executor has not started. When this method returns every task has
+	 * been started, but tasks run by the Executor may still be in progress.
+	 * 
+	 * @param <T>
+	 *        The generic type of the work results.
+	 * @param frontier
+	 *        The frontier Elements.
+	 * @param work
+	 *        The work for each frontier Element, in the same order.
+	 * @param executor
+	 *        The Executor to offer the work to.
+	 * @return the task for each frontier Element.
+	 */
+	public static <T> IdentityHashMap<Element, FutureTask<T>> run(
+			final List<Element> frontier,
+			final List<? extends Callable<T>> work, final Executor executor) {
+		final IdentityHashMap<Element, FutureTask<T>> tasks =
+				new IdentityHashMap<Element, FutureTask<T>>();
+		final List<FutureTask<T>> queue = 
+				new ArrayList<FutureTask<T>>(work.size());
+		for (int i = 0; i < work.size(); i++) {
+			final FutureTask<T> task = new FutureTask<T>(work.get(i));
+			tasks.put(frontier.get(i), task);
+			queue.add(task);
+		}
+		for (final FutureTask<T> task : queue) {
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException ree) {
+				// we will run it ourselves.
+				break;
+			}
+		}
+		// help out, from the back of the queue, while the executor works
+		// from the front. FutureTask.run() does nothing if the task is
+		// already running, or done.
+		for (int i = queue.size() - 1; i >= 0; i--) {
+			queue.get(i).run();
+		}
+		return tasks;
+	}
+
+	/**
+	 * Get the result of a completed (or running) task. Unchecked exceptions
+	 * from the task are re-thrown as they are.
+	 * 
+	 * @param <T>
+	 *        The generic type of the task result.
+	 * @param task
+	 *        The task to get the result of.
+	 * @param failure
+	 *        The message of the IllegalStateException thrown if the task
+	 *        failed with a checked exception.
+	 * @return The task's result
+	 */
+	public static <T> T result(final FutureTask<T> task, final String failure) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException ie) {
+					// the task is already running in another thread, and
+					// will complete soon, we need its result.
+					interrupted = true;
+				} catch (ExecutionException ee) {
+					final Throwable cause = ee.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error)cause;
+					}
+					throw new IllegalStateException(failure, cause);
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.internal;
+
+/**
+ * A table of shared String instances for the whitespace that indents
+ * pretty-printed XML. In such documents about half of all Text values are
+ * indentation like <code>"\n    "</code>, and without sharing every one of
+ * them is a separate String.
+ * <p>
+ * The shared values are an optional newline followed by a run of up to
+ * {@link #MAXINDENT} spaces, or of up to MAXINDENT tabs. Values are created
+ * the first time they are seen and are then reused by all builds. Other
+ * whitespace (mixed spaces and tabs, multiple newlines, carriage returns)
+ * is not shared.
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @author agent
+ */
+public final class SharedWhitespace {
+
+	/** The longest run of indent characters that is shared */
+	public static final int MAXINDENT = 64;
+
+	/**
+	 * The tables of shared values, indexed by (newline ? 2 : 0) + (tab ? 1 :
+	 * 0), and then by the indent length. Entries are created lazily; racing
+	 * threads may both create a value, which is harmless.
+	 */
+	private static final String[][] TABLES = new String[4][MAXINDENT + 1];
+
+	private SharedWhitespace() {
+		// static methods only.
+	}
+
+	/**
+	 * Get the shared String for the specified characters, if they are
+	 * indentation whitespace.
+	 * 
+	 * @param chars
+	 *        The characters to inspect
+	 * @param start
+	 *        The offset of the first character
+	 * @param length
+	 *        The number of characters
+	 * @return the shared String with the same value, or null if the value is
+	 *         not one that is shared.
+	 */
+	public static String get(final char[] chars, final int start,
+			final int length) {
+		if (length == 0 || length > MAXINDENT + 1) {
+			return null;
+		}
+		final int end = start + length;
+		int pos = start;
+		int kind = 0;
+		if (chars[pos] == '\n') {
+			kind = 2;
+			pos++;
+		}
+		final int indent = end - pos;
+		if (indent > MAXINDENT) {
+			return null;
+		}
+		if (indent > 0) {
+			final char ic = chars[pos];
+			if (ic == '\t') {
+				kind++;
+			} else if (ic != ' ') {
+				return null;
+			}
+			while (++pos < end) {
+				if (chars[pos] != ic) {
+					return null;
+				}
+			}
+		}
+		final String[] table = TABLES[kind];
+		String value = table[indent];
+		if (value == null) {
+			value = String.valueOf(chars, start, length);
+			table[indent] = value;
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A statistics counter that many threads can update concurrently without
+ * all of them contending on the same memory location. Updates are spread
+ * over a few padded stripes (selected by thread id), and reads sum the
+ * stripes. Reads are therefore not atomic snapshots, which is fine for
+ * statistics.
+ * 
+ * @author agent
+ */
+public final class StripedCounter {
+	
+	/** Must be a power of 2 */
+	private static final int STRIPES = 16;
+	/** 8 longs is 64 bytes, a common cache-line size */
+	private static final int STRIDE = 8;
+	
+	private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * STRIDE);
+	
+	private static final int slot() {
+		return ((int)Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+	}
+	
+	/**
+	 * Add one to the counter.
+	 */
+	public void increment() {
+		stripes.getAndIncrement(slot());
+	}
+	
+	/**
+	 * Add a value to the counter.
+	 * @param delta the amount to add.
+	 */
+	public void add(final long delta) {
+		stripes.getAndAdd(slot(), delta);
+	}
+	
+	/**
+	 * Get the current total of the counter.
+	 * @return the sum of all stripes.
+	 */
+	public long get() {
+		long sum = 0L;
+		for (int i = 0; i < STRIPES; i++) {
+			sum += stripes.get(i * STRIDE);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Set the counter back to 0. Concurrent updates may or may not survive.
+	 */
+	public void reset() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes.set(i * STRIDE, 0L);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return String.valueOf(get());
+	}
+
+}
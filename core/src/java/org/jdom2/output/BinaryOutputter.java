@@ -0,0 +1,337 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output;
+
+import static org.jdom2.internal.BinaryFormat.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+
+/**
+ * Outputs a JDOM Document or Element in a compact binary format that can be
+ * rebuilt with {@link org.jdom2.input.BinaryBuilder}.
+ * <p>
+ * The binary format is intended for moving already-parsed JDOM content
+ * between JVMs, or caching it outside the heap. It is smaller and much
+ * faster to write and read than both the XML text, and Java Serialization of
+ * the JDOM objects: names, Namespaces, and short repeated values are written
+ * once and then referenced through a string table, and all lengths are
+ * variable-length integers.
+ * <p>
+ * The output is an exact copy of the JDOM content, including content
+ * (like adjacent Text, or EntityRefs) that would be normalized by an XML
+ * round-trip, and Attribute types. Document properties are not output.
+ * <p>
+ * Each call to output() writes a single self-contained unit. The
+ * OutputStream is flushed, but not closed. BinaryOutputter instances hold
+ * no state between calls, and are thread-safe.
+ * 
+ * @see org.jdom2.internal.BinaryFormat
+ * @author agent
+ */
+public final class BinaryOutputter {
+
+	/**
+	 * Create a BinaryOutputter.
+	 */
+	public BinaryOutputter() {
+		// nothing
+	}
+
+	/**
+	 * Output the Document in binary form.
+	 * 
+	 * @param document The Document to output.
+	 * @param out The OutputStream to write to.
+	 * @throws IOException if the OutputStream fails.
+	 */
+	public void output(final Document document, final OutputStream out)
+			throws IOException {
+		final Encoder enc = new Encoder(out);
+		enc.header(DOCUMENT);
+		enc.writeString(document.getBaseURI());
+		final List<Content> content = document.getContent();
+		for (int i = 0, sz = content.size(); i < sz; i++) {
+			enc.writeContent(content.get(i));
+		}
+		enc.writeByte(END);
+		enc.flush();
+	}
+
+	/**
+	 * Output the Element (and all its content) in binary form.
+	 * 
+	 * @param element The Element to output.
+	 * @param out The OutputStream to write to.
+	 * @throws IOException if the OutputStream fails.
+	 */
+	public void output(final Element element, final OutputStream out)
+			throws IOException {
+		final Encoder enc = new Encoder(out);
+		enc.header(ELEMENT);
+		enc.writeElement(element);
+		enc.flush();
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryOutputter[version=" + VERSION + "]";
+	}
+
+	/**
+	 * The per-output state: the buffer, and the string and namespace tables.
+	 */
+	private static final class Encoder {
+		private final OutputStream out;
+		private final byte[] buffer = new byte[8192];
+		private int pos = 0;
+		private final HashMap<String, Integer> strings = 
+				new HashMap<String, Integer>();
+		private final IdentityHashMap<Namespace, Integer> namespaces = 
+				new IdentityHashMap<Namespace, Integer>();
+
+		Encoder(final OutputStream out) {
+			this.out = out;
+			namespaces.put(Namespace.NO_NAMESPACE, Integer.valueOf(0));
+			namespaces.put(Namespace.XML_NAMESPACE, Integer.valueOf(1));
+		}
+
+		void header(final int kind) throws IOException {
+			for (byte b : MAGIC) {
+				writeByte(b);
+			}
+			writeByte(VERSION);
+			writeByte(kind);
+		}
+
+		void flush() throws IOException {
+			out.write(buffer, 0, pos);
+			pos = 0;
+			out.flush();
+		}
+
+		private void ensure(final int len) throws IOException {
+			if (pos + len > buffer.length) {
+				out.write(buffer, 0, pos);
+				pos = 0;
+			}
+		}
+
+		void writeByte(final int b) throws IOException {
+			ensure(1);
+			buffer[pos++] = (byte)b;
+		}
+
+		void writeVarint(int val) throws IOException {
+			ensure(5);
+			while ((val & ~0x7F) != 0) {
+				buffer[pos++] = (byte)((val & 0x7F) | 0x80);
+				val >>>= 7;
+			}
+			buffer[pos++] = (byte)val;
+		}
+
+		void writeString(final String s) throws IOException {
+			if (s == null) {
+				writeVarint(STRING_NULL);
+				return;
+			}
+			if (s.length() > MAXTABLESTRING) {
+				writeVarint(STRING_INLINE);
+				writeChars(s);
+				return;
+			}
+			final Integer idx = strings.get(s);
+			if (idx != null) {
+				writeVarint(STRING_TABLE + idx.intValue());
+				return;
+			}
+			strings.put(s, Integer.valueOf(strings.size()));
+			writeVarint(STRING_NEW);
+			writeChars(s);
+		}
+
+		private void writeChars(final String s) throws IOException {
+			final int len = s.length();
+			writeVarint(len);
+			int i = 0;
+			while (i < len) {
+				// at most 3 bytes per char, make sure a chunk fits.
+				final int chunk = Math.min(len - i, 1024);
+				ensure(chunk * 3);
+				final byte[] buf = buffer;
+				int p = pos;
+				final int end = i + chunk;
+				for (; i < end; i++) {
+					final char c = s.charAt(i);
+					if (c < 0x80) {
+						buf[p++] = (byte)c;
+					} else if (c < 0x800) {
+						buf[p++] = (byte)(0xC0 | (c >> 6));
+						buf[p++] = (byte)(0x80 | (c & 0x3F));
+					} else {
+						buf[p++] = (byte)(0xE0 | (c >> 12));
+						buf[p++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+						buf[p++] = (byte)(0x80 | (c & 0x3F));
+					}
+				}
+				pos = p;
+			}
+		}
+
+		private void writeNamespace(final Namespace ns) throws IOException {
+			final Integer idx = namespaces.get(ns);
+			if (idx != null) {
+				writeVarint(NAMESPACE_TABLE + idx.intValue());
+				return;
+			}
+			namespaces.put(ns, Integer.valueOf(namespaces.size()));
+			writeVarint(NAMESPACE_NEW);
+			writeString(ns.getPrefix());
+			writeString(ns.getURI());
+		}
+
+		void writeContent(final Content c) throws IOException {
+			switch (c.getCType()) {
+				case Element:
+					writeElement((Element)c);
+					break;
+				case Text:
+					writeByte(TEXT);
+					writeString(((Text)c).getText());
+					break;
+				case CDATA:
+					writeByte(CDATA);
+					writeString(((CDATA)c).getText());
+					break;
+				case Comment:
+					writeByte(COMMENT);
+					writeString(((Comment)c).getText());
+					break;
+				case ProcessingInstruction:
+					final ProcessingInstruction pi = (ProcessingInstruction)c;
+					writeByte(PROCESSINGINSTRUCTION);
+					writeString(pi.getTarget());
+					writeString(pi.getData());
+					break;
+				case EntityRef:
+					final EntityRef er = (EntityRef)c;
+					writeByte(ENTITYREF);
+					writeString(er.getName());
+					writeString(er.getPublicID());
+					writeString(er.getSystemID());
+					break;
+				case DocType:
+					final DocType dt = (DocType)c;
+					writeByte(DOCTYPE);
+					writeString(dt.getElementName());
+					writeString(dt.getPublicID());
+					writeString(dt.getSystemID());
+					writeString(dt.getInternalSubset());
+					break;
+			}
+		}
+
+		void writeElement(final Element element) throws IOException {
+			writeByte(ELEMENT);
+			writeString(element.getName());
+			writeNamespace(element.getNamespace());
+			if (element.hasAdditionalNamespaces()) {
+				final List<Namespace> decls = element.getAdditionalNamespaces();
+				writeVarint(decls.size());
+				for (int i = 0, sz = decls.size(); i < sz; i++) {
+					writeNamespace(decls.get(i));
+				}
+			} else {
+				writeVarint(0);
+			}
+			if (element.hasAttributes()) {
+				final List<Attribute> atts = element.getAttributes();
+				writeVarint(atts.size());
+				for (int i = 0, sz = atts.size(); i < sz; i++) {
+					final Attribute a = atts.get(i);
+					writeString(a.getName());
+					writeNamespace(a.getNamespace());
+					writeByte(a.getAttributeType().ordinal() | 
+							(a.isSpecified() ? 0 : NOTSPECIFIED));
+					writeString(a.getValue());
+				}
+			} else {
+				writeVarint(0);
+			}
+			final List<Content> content = element.getContent();
+			for (int i = 0, sz = content.size(); i < sz; i++) {
+				writeContent(content.get(i));
+			}
+			writeByte(END);
+		}
+	}
+
+}
@@ -55,6 +55,7 @@
 package org.jdom2.output;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.jdom2.Attribute;
 import org.jdom2.CDATA;
@@ -70,8 +71,8 @@ import org.jdom2.Text;
 import org.jdom2.adapters.DOMAdapter;
 import org.jdom2.adapters.JAXPDOMAdapter;
 import org.jdom2.internal.ReflectionConstructor;
-import org.jdom2.output.support.AbstractDOMOutputProcessor;
 import org.jdom2.output.support.DOMOutputProcessor;
+import org.jdom2.output.support.RawDOMOutputProcessor;
 
 /**
  * Outputs a JDOM {@link org.jdom2.Document org.jdom2.Document} as a DOM
@@ -82,6 +83,11 @@ import org.jdom2.output.support.DOMOutputProcessor;
  * node using the DOMAdapter to create a new org.w3c.dom.Document. The other
  * version creates the new DOM Nodes using the supplied org.w3c.dom.Document
  * instance.
+ * <p>
+ * The default DOMOutputProcessor is a {@link RawDOMOutputProcessor}, which
+ * has a fast path for Formats that leave the content unchanged (like the
+ * default raw Format), and which can also convert large Documents and
+ * Elements concurrently, see {@link #output(Document, Executor)}.
  * 
  * @author Brett McLaughlin
  * @author Jason Hunter
@@ -93,21 +99,10 @@ import org.jdom2.output.support.DOMOutputProcessor;
  */
 public class DOMOutputter {
 
-	/**
-	 * Create a final/concrete instance of the AbstractDOMOutputProcessor.
-	 * Making it final improves performance.
-	 * 
-	 * @author Rolf Lear
-	 */
-	private static final class DefaultDOMOutputProcessor extends
-			AbstractDOMOutputProcessor {
-		// add nothing except make it final.
-	}
-
 	/** Default adapter class */
 	private static final DOMAdapter DEFAULT_ADAPTER = new JAXPDOMAdapter();
 
-	private static final DOMOutputProcessor DEFAULT_PROCESSOR = new DefaultDOMOutputProcessor();
+	private static final DOMOutputProcessor DEFAULT_PROCESSOR = new RawDOMOutputProcessor();
 
 	/** Adapter to use for interfacing with the DOM implementation */
 	private DOMAdapter adapter;
@@ -302,6 +297,38 @@ public class DOMOutputter {
 				format, document);
 	}
 
+	/**
+	 * This converts the JDOM <code>Document</code> parameter to a DOM Document,
+	 * like {@link #output(Document)}, but uses the Executor to build large
+	 * parts of the DOM concurrently. This is only done when the
+	 * DOMOutputProcessor is a {@link RawDOMOutputProcessor} and the Format
+	 * leaves the content unchanged, otherwise the Document is converted
+	 * sequentially. The Document must not be modified during the conversion.
+	 * 
+	 * @param document
+	 *        <code>Document</code> to output.
+	 * @param executor
+	 *        The Executor to build with.
+	 * @return an <code>org.w3c.dom.Document</code> version
+	 * @throws JDOMException
+	 *         if output failed.
+	 * @throws NullPointerException
+	 *         if the executor is null.
+	 */
+	public org.w3c.dom.Document output(Document document, Executor executor)
+			throws JDOMException {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		final org.w3c.dom.Document basedoc = 
+				adapter.createDocument(document.getDocType());
+		if (processor instanceof RawDOMOutputProcessor) {
+			return ((RawDOMOutputProcessor)processor).process(basedoc, format,
+					document, executor);
+		}
+		return processor.process(basedoc, format, document);
+	}
+
 	/**
 	 * This converts the JDOM <code>DocType</code> parameter to a DOM DocumentType,
 	 * returning the DOM version. The DOM implementation is the one supplied by
@@ -337,6 +364,34 @@ public class DOMOutputter {
 		return processor.process(adapter.createDocument(), format, element);
 	}
 
+	/**
+	 * This converts the JDOM <code>Element</code> parameter to a DOM Element,
+	 * like {@link #output(Element)}, but uses the Executor to build large parts
+	 * of the DOM concurrently, see {@link #output(Document, Executor)}.
+	 * 
+	 * @param element
+	 *        <code>Element</code> to output.
+	 * @param executor
+	 *        The Executor to build with.
+	 * @return an <code>org.w3c.dom.Element</code> version
+	 * @throws JDOMException
+	 *         if output failed.
+	 * @throws NullPointerException
+	 *         if the executor is null.
+	 */
+	public org.w3c.dom.Element output(Element element, Executor executor)
+			throws JDOMException {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		final org.w3c.dom.Document basedoc = adapter.createDocument();
+		if (processor instanceof RawDOMOutputProcessor) {
+			return ((RawDOMOutputProcessor)processor).process(basedoc, format,
+					element, executor);
+		}
+		return processor.process(basedoc, format, element);
+	}
+
 	/**
 	 * This converts the JDOM <code>Text</code> parameter to a DOM Text Node,
 	 * returning the DOM version. The DOM Node will be linked to an independent
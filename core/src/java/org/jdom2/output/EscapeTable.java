@@ -0,0 +1,112 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output;
+
+/**
+ * A precomputed lookup table over the Basic Multilingual Plane of the
+ * characters that need special handling when escaping output with a
+ * particular {@link EscapeStrategy}. There is one bitmap for Text content
+ * and one for Attribute values: a character's bit is set if it is markup
+ * that has to be replaced by an entity ('&lt;', '&amp;', etc.) or if the
+ * strategy escapes it. Each bitmap is 8KB.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * 
+ * @author agent
+ */
+final class EscapeTable {
+
+	private static final int WORDS = 0x10000 >>> 6;
+
+	private final long[] text = new long[WORDS];
+	private final long[] attribute = new long[WORDS];
+
+	/**
+	 * Build the tables by querying every character of the strategy.
+	 * @param strategy The strategy to tabulate.
+	 */
+	EscapeTable(final EscapeStrategy strategy) {
+		for (int c = 0; c < 0x10000; c++) {
+			final char ch = (char)c;
+			final boolean markup = ch == '<' || ch == '>' || ch == '&' ||
+					ch == '\r' || ch == '\n';
+			if (markup || strategy.shouldEscape(ch)) {
+				text[c >>> 6] |= 1L << c;
+				attribute[c >>> 6] |= 1L << c;
+			} else if (ch == '"' || ch == '\t') {
+				attribute[c >>> 6] |= 1L << c;
+			}
+		}
+	}
+
+	/**
+	 * Does the character need special handling in Text content?
+	 * @param ch The character to check
+	 * @return true if the character is markup or should be escaped.
+	 */
+	boolean isSpecialText(final char ch) {
+		return (text[ch >>> 6] & (1L << ch)) != 0L;
+	}
+
+	/**
+	 * Does the character need special handling in an Attribute value?
+	 * @param ch The character to check
+	 * @return true if the character is markup or should be escaped.
+	 */
+	boolean isSpecialAttribute(final char ch) {
+		return (attribute[ch >>> 6] & (1L << ch)) != 0L;
+	}
+
+}
@@ -54,8 +54,12 @@
 
 package org.jdom2.output;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jdom2.IllegalDataException;
 import org.jdom2.Verifier;
@@ -92,11 +96,30 @@ import org.jdom2.Verifier;
  */
 public class Format implements Cloneable {
 
+	/**
+	 * Base class for the built-in EscapeStrategy instances, which are shared
+	 * by all Formats. The first time the strategy is used for escaping
+	 * output its {@link EscapeTable} is computed, and it is then reused.
+	 */
+	private static abstract class TabledEscapeStrategy implements EscapeStrategy {
+		/** Racy single-check initialization is fine, the table is immutable */
+		private volatile EscapeTable table = null;
+
+		final EscapeTable getTable() {
+			EscapeTable t = table;
+			if (t == null) {
+				t = new EscapeTable(this);
+				table = t;
+			}
+			return t;
+		}
+	}
+
 	/**
 	 * An EscapeStrategy suitable for UTF-8 an UTF-16. We want the class to
 	 * have its own name.
 	 */
-	private static final class EscapeStrategyUTF implements EscapeStrategy {
+	private static final class EscapeStrategyUTF extends TabledEscapeStrategy {
 		@Override
 		public final boolean shouldEscape(char ch) {
 			return Verifier.isHighSurrogate(ch);
@@ -112,7 +135,7 @@ public class Format implements Cloneable {
 	 * An EscapeStrategy suitable for 8-bit charsets. We want the class to have
 	 * its own name.
 	 */
-	private static final class EscapeStrategy8Bits implements EscapeStrategy {
+	private static final class EscapeStrategy8Bits extends TabledEscapeStrategy {
 		@Override
 		public boolean shouldEscape(final char ch) {
 			return (ch >>> 8) != 0;
@@ -128,7 +151,7 @@ public class Format implements Cloneable {
 	 * An EscapeStrategy suitable for 7-bit charsets. We want the class to
 	 * have its own name.
 	 */
-	private static final class EscapeStrategy7Bits implements EscapeStrategy {
+	private static final class EscapeStrategy7Bits extends TabledEscapeStrategy {
 		@Override
 		public boolean shouldEscape(final char ch) {
 			return (ch >>> 7) != 0;
@@ -144,7 +167,7 @@ public class Format implements Cloneable {
 	/**
 	 * An EscapeStrategy suitable for 'unknown' charsets
 	 */
-	private static final EscapeStrategy DefaultEscapeStrategy = new EscapeStrategy() {
+	private static final EscapeStrategy DefaultEscapeStrategy = new TabledEscapeStrategy() {
 		@Override
 		public boolean shouldEscape(char ch) {
 			if (Verifier.isHighSurrogate(ch)) {
@@ -156,28 +179,57 @@ public class Format implements Cloneable {
 	};
 	
 	/**
-	 * Handles Charsets.
+	 * Handles Charsets. The characters the Charset can not encode are
+	 * computed once, when the strategy is created, and stored in a bitmap of
+	 * the Basic Multilingual Plane. Escaping is then a table lookup instead
+	 * of a (slow, and not thread-safe) CharsetEncoder.canEncode() call, and
+	 * a single instance per Charset is shared by all Formats (see
+	 * {@link Format#getCharsetStrategy(Charset)}).
 	 */
-	private final static class DefaultCharsetEscapeStrategy implements EscapeStrategy {
+	private final static class DefaultCharsetEscapeStrategy extends TabledEscapeStrategy {
 		
-		private final CharsetEncoder encoder;
+		private final long[] escapes = new long[0x10000 >>> 6];
 
 		public DefaultCharsetEscapeStrategy(CharsetEncoder cse) {
-			encoder = cse;
+			for (int c = 0; c < 0x10000; c++) {
+				final char ch = (char)c;
+				// Safer to escape high surrogates per http://unicode.org/faq/utf_bom.html#utf8-4
+				if (Verifier.isHighSurrogate(ch) || !cse.canEncode(ch)) {
+					escapes[c >>> 6] |= 1L << c;
+				}
+			}
 		}
 
 		@Override
 		public boolean shouldEscape(final char ch) {
-			
-			if (Verifier.isHighSurrogate(ch)) {
-				return true;  // Safer this way per http://unicode.org/faq/utf_bom.html#utf8-4
-			}
-
-			return !encoder.canEncode(ch);
+			return (escapes[ch >>> 6] & (1L << ch)) != 0L;
 		}
 		
 	}
 	
+	/**
+	 * The shared EscapeStrategy instances for Charsets that do not have a
+	 * built-in strategy, keyed by Charset, so aliases share an instance.
+	 */
+	private static final ConcurrentMap<Charset, EscapeStrategy> charsetstrategies = 
+			new ConcurrentHashMap<Charset, EscapeStrategy>();
+	
+	/**
+	 * Get (creating if needed) the shared EscapeStrategy for a Charset.
+	 * @param charset The Charset to get the strategy for.
+	 * @return The shared strategy.
+	 */
+	private static final EscapeStrategy getCharsetStrategy(final Charset charset) {
+		final EscapeStrategy got = charsetstrategies.get(charset);
+		if (got != null) {
+			return got;
+		}
+		final EscapeStrategy built = 
+				new DefaultCharsetEscapeStrategy(charset.newEncoder());
+		final EscapeStrategy raced = charsetstrategies.putIfAbsent(charset, built);
+		return raced == null ? built : raced;
+	}
+	
 	/**
 	 * Returns a new Format object that performs no whitespace changes, uses
 	 * the UTF-8 encoding, doesn't expand empty elements, includes the
@@ -536,6 +588,198 @@ public class Format implements Cloneable {
 	}
 	
 	
+	/**
+	 * Get the precomputed EscapeTable for a strategy, if it has one.
+	 * @param strategy The strategy to get the table for
+	 * @return the strategy's table, or null if the strategy has no table.
+	 */
+	private static final EscapeTable getTable(final EscapeStrategy strategy) {
+		if (strategy instanceof TabledEscapeStrategy) {
+			return ((TabledEscapeStrategy)strategy).getTable();
+		}
+		return null;
+	}
+
+	private static final char[] HEX = {'0', '1', '2', '3', '4', '5', '6',
+			'7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+	/**
+	 * Write a hexadecimal character reference without creating any
+	 * intermediate Strings.
+	 * @param out The destination
+	 * @param cp The code point to reference
+	 * @throws IOException if the destination fails
+	 */
+	private static final void writeCharRef(final Writer out, final int cp)
+			throws IOException {
+		out.write("&#x");
+		int shift = 28;
+		while (shift > 0 && (cp >>> shift) == 0) {
+			shift -= 4;
+		}
+		for (; shift >= 0; shift -= 4) {
+			out.write(HEX[(cp >>> shift) & 0xF]);
+		}
+		out.write(';');
+	}
+
+	/**
+	 * Escape an Attribute value exactly like
+	 * {@link #escapeAttribute(EscapeStrategy, String)}, but write the
+	 * result directly to a Writer. Runs of characters that need no escaping
+	 * are written as sub-ranges of the input value, and entities and
+	 * character references are written in place, so no intermediate
+	 * Strings or buffers are created.
+	 * <p>
+	 * Unlike {@link #escapeAttribute(EscapeStrategy, String)}, if an
+	 * IllegalDataException is thrown, part of the value may already have
+	 * been written.
+	 * 
+	 * @param out
+	 *        The destination Writer
+	 * @param strategy
+	 *        The EscapeStrategy to query.
+	 * @param value
+	 *        <code>String</code> Attribute value to escape.
+	 * @throws IOException
+	 *         if the destination Writer fails.
+	 * @throws IllegalDataException
+	 *         if an entity can not be escaped
+	 * @since JDOM2
+	 */
+	public static final void escapeAttribute(final Writer out,
+			final EscapeStrategy strategy, final String value)
+			throws IOException {
+		escape(out, strategy, null, value, true);
+	}
+
+	/**
+	 * Escape Text content exactly like
+	 * {@link #escapeText(EscapeStrategy, String, String)}, but write the
+	 * result directly to a Writer. Runs of characters that need no escaping
+	 * are written as sub-ranges of the input value, and entities and
+	 * character references are written in place, so no intermediate
+	 * Strings or buffers are created.
+	 * <p>
+	 * Unlike {@link #escapeText(EscapeStrategy, String, String)}, if an
+	 * IllegalDataException is thrown, part of the value may already have
+	 * been written.
+	 * 
+	 * @param out
+	 *        The destination Writer
+	 * @param strategy
+	 *        The EscapeStrategy
+	 * @param eol
+	 *        The End-Of-Line sequence to be used (may be null).
+	 * @param value
+	 *        The String to escape
+	 * @throws IOException
+	 *         if the destination Writer fails.
+	 * @throws IllegalDataException
+	 *         if an entity can not be escaped
+	 * @since JDOM2
+	 */
+	public static final void escapeText(final Writer out,
+			final EscapeStrategy strategy, final String eol,
+			final String value) throws IOException {
+		escape(out, strategy, eol, value, false);
+	}
+
+	private static final void escape(final Writer out,
+			final EscapeStrategy strategy, final String eol,
+			final String value, final boolean attribute) throws IOException {
+		final EscapeTable table = getTable(strategy);
+		final int len = value.length();
+		// the start of the run of characters not yet written.
+		int start = 0;
+		char highsurrogate = 0;
+		for (int idx = 0; idx < len; idx++) {
+			final char ch = value.charAt(idx);
+			if (highsurrogate > 0) {
+				if (!Verifier.isLowSurrogate(ch)) {
+					throw new IllegalDataException(
+							"Could not decode surrogate pair 0x" +
+									Integer.toHexString(highsurrogate) + " / 0x"
+									+ Integer.toHexString(ch));
+				}
+				writeCharRef(out, Verifier.decodeSurrogatePair(highsurrogate, ch));
+				highsurrogate = 0;
+				start = idx + 1;
+				continue;
+			}
+			if (table != null) {
+				if (attribute ? !table.isSpecialAttribute(ch)
+						: !table.isSpecialText(ch)) {
+					continue;
+				}
+			} else if (!(ch == '<' || ch == '>' || ch == '&' || ch == '\r'
+					|| ch == '\n' || (attribute && (ch == '"' || ch == '\t'))
+					|| strategy.shouldEscape(ch))) {
+				continue;
+			}
+			if (idx > start) {
+				out.write(value, start, idx - start);
+			}
+			start = idx + 1;
+			switch (ch) {
+				case '<':
+					out.write("&lt;");
+					break;
+				case '>':
+					out.write("&gt;");
+					break;
+				case '&':
+					out.write("&amp;");
+					break;
+				case '\r':
+					out.write("&#xD;");
+					break;
+				case '"':
+					if (attribute) {
+						out.write("&quot;");
+					} else {
+						// the strategy escapes quotes in text.
+						writeCharRef(out, ch);
+					}
+					break;
+				case '\t':
+					if (attribute) {
+						out.write("&#x9;");
+					} else {
+						writeCharRef(out, ch);
+					}
+					break;
+				case '\n':
+					if (attribute) {
+						out.write("&#xA;");
+					} else if (eol != null) {
+						out.write(eol);
+					} else {
+						out.write('\n');
+					}
+					break;
+				default:
+					// only the strategy makes a character special here.
+					// make sure what we are escaping is not the
+					// beginning of a multi-byte character.
+					if (Verifier.isHighSurrogate(ch)) {
+						// this is a the high of a surrogate pair
+						highsurrogate = ch;
+					} else {
+						writeCharRef(out, ch);
+					}
+					break;
+			}
+		}
+		if (highsurrogate > 0) {
+			throw new IllegalDataException("Surrogate pair 0x" +
+					Integer.toHexString(highsurrogate) + "truncated");
+		}
+		if (start < len) {
+			out.write(value, start, len - start);
+		}
+	}
+
 	private static final EscapeStrategy chooseStrategy(String encoding) {
 		if ("UTF-8".equalsIgnoreCase(encoding) ||
 				"UTF-16".equalsIgnoreCase(encoding)) {
@@ -553,8 +797,7 @@ public class Format implements Cloneable {
 		}
 
 		try {
-			final CharsetEncoder cse = Charset.forName(encoding).newEncoder();
-			return new DefaultCharsetEscapeStrategy(cse);
+			return getCharsetStrategy(Charset.forName(encoding));
 		} catch (Exception e) {
 			// swallow that... and assume false.
 		}
@@ -85,6 +85,10 @@ import org.jdom2.output.support.StAXStreamReaderProcessor;
  * constructor. A fully-enabled Abstract class
  * {@link AbstractStAXStreamReaderProcessor} is available to be further extended to
  * your needs if all you want to do is tweak some details.
+ * <p>
+ * If the content should be reported exactly as it is in the Document, the
+ * {@link org.jdom2.output.support.RawStAXStreamReader} does the same job without
+ * any Format processing, and with almost no memory allocation.
  * 
  * @author Rolf Lear
  * @since JDOM 2.1.0
@@ -74,7 +74,9 @@ import org.jdom2.EntityRef;
 import org.jdom2.ProcessingInstruction;
 import org.jdom2.Text;
 import org.jdom2.output.support.AbstractXMLOutputProcessor;
+import org.jdom2.output.support.EncodingXMLOutputProcessor;
 import org.jdom2.output.support.FormatStack;
+import org.jdom2.output.support.XMLByteWriter;
 import org.jdom2.output.support.XMLOutputProcessor;
 
 /**
@@ -168,6 +170,10 @@ public final class XMLOutputter implements Cloneable {
 	private static final Writer makeWriter(final OutputStream out,
 			final Format format)
 			throws java.io.UnsupportedEncodingException {
+		if (XMLByteWriter.isSupported(format.getEncoding())) {
+			// encode directly to bytes, no OutputStreamWriter/CharsetEncoder.
+			return new XMLByteWriter(out, format.getEncoding());
+		}
 		return new BufferedWriter(new OutputStreamWriter(
 				new BufferedOutputStream(out), format.getEncoding()));
 	}
@@ -182,7 +188,7 @@ public final class XMLOutputter implements Cloneable {
 	 * @author rolf
 	 */
 	private static final class DefaultXMLProcessor
-			extends AbstractXMLOutputProcessor {
+			extends EncodingXMLOutputProcessor {
 
 		/**
 		 * A helper method to implement backward-compatibility with JDOM1
@@ -0,0 +1,118 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output.support;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.jdom2.Text;
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+
+/**
+ * An XMLOutputProcessor that escapes Text and Attribute values directly in
+ * to the destination, instead of building an escaped String first. When the
+ * Writer passed to the output methods is an {@link XMLByteWriter} then the
+ * values are escaped and encoded in a single pass in to the writer's byte
+ * buffer. For all other Writers the values are escaped with
+ * {@link Format#escapeText(Writer, EscapeStrategy, String, String)} and
+ * {@link Format#escapeAttribute(Writer, EscapeStrategy, String)}, which
+ * write unescaped runs and entities straight to the Writer. Either way,
+ * content that is heavy with markup characters is output without any
+ * per-character allocation.
+ * <p>
+ * Note that escaped Text values do not go through the
+ * {@link #textRaw(Writer, String)} hook, and escaped Attribute values do
+ * not go through {@link #write(Writer, String)}. Subclasses that rely on
+ * those hooks to see all text content should extend
+ * {@link AbstractXMLOutputProcessor} instead.
+ * <p>
+ * {@link org.jdom2.output.XMLOutputter} uses an XMLByteWriter when it is
+ * outputting to an OutputStream with a UTF-8, US-ASCII or ISO-8859-1
+ * encoding, and its default processor extends this class.
+ * 
+ * @author agent
+ * @since JDOM2
+ */
+public class EncodingXMLOutputProcessor extends AbstractXMLOutputProcessor {
+
+	@Override
+	protected void printText(final Writer out, final FormatStack fstack,
+			final Text text) throws IOException {
+		if (!fstack.getEscapeOutput()) {
+			super.printText(out, fstack, text);
+		} else if (out instanceof XMLByteWriter) {
+			((XMLByteWriter)out).writeEscapedText(fstack.getEscapeStrategy(),
+					fstack.getLineSeparator(), text.getText());
+		} else {
+			Format.escapeText(out, fstack.getEscapeStrategy(),
+					fstack.getLineSeparator(), text.getText());
+		}
+	}
+
+	@Override
+	protected void attributeEscapedEntitiesFilter(final Writer out,
+			final FormatStack fstack, final String value) throws IOException {
+		if (!fstack.getEscapeOutput()) {
+			super.attributeEscapedEntitiesFilter(out, fstack, value);
+		} else if (out instanceof XMLByteWriter) {
+			((XMLByteWriter)out).writeEscapedAttribute(
+					fstack.getEscapeStrategy(), value);
+		} else {
+			Format.escapeAttribute(out, fstack.getEscapeStrategy(), value);
+		}
+	}
+
+}
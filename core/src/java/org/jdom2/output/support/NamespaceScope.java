@@ -0,0 +1,225 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output.support;
+
+import java.util.List;
+
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.internal.ArrayCopy;
+
+/**
+ * An allocation-light record of the Namespaces in scope while walking down
+ * a JDOM tree. It has the same results as pushing each Element on to a
+ * {@link org.jdom2.util.NamespaceStack}, but keeps every declaration in a
+ * single array, and the caller keeps track of where each Element's
+ * declarations start (the {@link #size()} before the {@link #declare(Element)}
+ * call) so it can {@link #truncate(int)} back to it afterwards.
+ * 
+ * @author agent
+ */
+final class NamespaceScope {
+
+	private Namespace[] decl = new Namespace[32];
+	private int size = 0;
+
+	/**
+	 * Create an empty scope, where only the default and xml prefixes are bound.
+	 */
+	NamespaceScope() {
+		// nothing
+	}
+
+	/**
+	 * Create a copy of another scope.
+	 * 
+	 * @param from the scope to copy.
+	 */
+	NamespaceScope(final NamespaceScope from) {
+		decl = ArrayCopy.copyOf(from.decl, Math.max(32, from.size + 16));
+		size = from.size;
+	}
+
+	/**
+	 * The number of Namespace declarations in the scope.
+	 * 
+	 * @return the declaration count.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Get a Namespace declaration.
+	 * 
+	 * @param index the declaration to get, from 0 to {@link #size()} - 1
+	 * @return the declared Namespace.
+	 */
+	Namespace get(final int index) {
+		return decl[index];
+	}
+
+	/**
+	 * Discard all declarations after the given size.
+	 * 
+	 * @param to the size to return to.
+	 */
+	void truncate(final int to) {
+		while (size > to) {
+			decl[--size] = null;
+		}
+	}
+
+	/**
+	 * Add the Namespaces that the Element brings in to scope. They are added
+	 * in the same order as the NamespaceStack reports them: the Element's own
+	 * Namespace (if it is new) then the rest in prefix order.
+	 * 
+	 * @param emt the Element to declare the Namespaces of.
+	 */
+	void declare(final Element emt) {
+		final int start = size;
+		final Namespace mns = emt.getNamespace();
+		declare(mns);
+		if (emt.hasAdditionalNamespaces()) {
+			for (final Namespace ns : emt.getAdditionalNamespaces()) {
+				declare(ns);
+			}
+		}
+		if (emt.hasAttributes()) {
+			final List<Attribute> atts = emt.getAttributes();
+			final int sz = atts.size();
+			for (int i = 0; i < sz; i++) {
+				final Namespace ns = atts.get(i).getNamespace();
+				if (ns != Namespace.NO_NAMESPACE) {
+					declare(ns);
+				}
+			}
+		}
+
+		final int from = start < size && decl[start] == mns ? start + 1 : start;
+		for (int i = from + 1; i < size; i++) {
+			final Namespace ns = decl[i];
+			int j = i;
+			while (j > from && decl[j - 1].getPrefix().compareTo(ns.getPrefix()) > 0) {
+				decl[j] = decl[j - 1];
+				j--;
+			}
+			decl[j] = ns;
+		}
+	}
+
+	private final void declare(final Namespace ns) {
+		final Namespace bound = lookup(ns.getPrefix());
+		if (bound != null && bound.getURI().equals(ns.getURI())) {
+			return;
+		}
+		if (size >= decl.length) {
+			decl = ArrayCopy.copyOf(decl, size + 32);
+		}
+		decl[size++] = ns;
+	}
+
+	/**
+	 * Find the Namespace bound to a prefix.
+	 * 
+	 * @param prefix the prefix to look up.
+	 * @return the bound Namespace, or null if the prefix is not bound.
+	 */
+	Namespace lookup(final String prefix) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (decl[i].getPrefix().equals(prefix)) {
+				return decl[i];
+			}
+		}
+		if ("".equals(prefix)) {
+			return Namespace.NO_NAMESPACE;
+		}
+		if ("xml".equals(prefix)) {
+			return Namespace.XML_NAMESPACE;
+		}
+		return null;
+	}
+
+	/**
+	 * The innermost binding for each prefix in scope, including the default
+	 * and xml prefixes.
+	 * 
+	 * @return a new array of the in-scope Namespaces.
+	 */
+	Namespace[] inScope() {
+		final Namespace[] scope = new Namespace[size + 2];
+		int cnt = 0;
+		boolean hasdefault = false;
+		outer: for (int i = size - 1; i >= 0; i--) {
+			final String prefix = decl[i].getPrefix();
+			for (int j = 0; j < cnt; j++) {
+				if (scope[j].getPrefix().equals(prefix)) {
+					// hidden by an inner declaration.
+					continue outer;
+				}
+			}
+			hasdefault |= prefix.length() == 0;
+			scope[cnt++] = decl[i];
+		}
+		if (!hasdefault) {
+			scope[cnt++] = Namespace.NO_NAMESPACE;
+		}
+		scope[cnt++] = Namespace.XML_NAMESPACE;
+		return ArrayCopy.copyOf(scope, cnt);
+	}
+
+}
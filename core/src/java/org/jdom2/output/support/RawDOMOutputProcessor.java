@@ -0,0 +1,442 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.w3c.dom.DOMException;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.JDOMConstants;
+import org.jdom2.Namespace;
+import org.jdom2.Parent;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.internal.ParallelSubtrees;
+import org.jdom2.output.Format;
+import org.jdom2.output.Format.TextMode;
+
+/**
+ * A DOMOutputProcessor with a fast path for Formats that do not change the
+ * content (those with the {@link TextMode#PRESERVE} TextMode, like the
+ * default {@link Format#getRawFormat()}).
+ * <p>
+ * For those Formats, Documents, Elements and content lists are converted
+ * without the FormatStack, Walker and NamespaceStack machinery: the content
+ * is processed by index, the Namespace scope is kept in a single array, and
+ * the prefix-qualified names of Elements, Attributes and
+ * <code>xmlns</code> declarations are built once per conversion and then
+ * shared by every DOM node that uses them. The DOM that is produced is the
+ * same as the one {@link AbstractDOMOutputProcessor} produces. Other Formats
+ * are processed by {@link AbstractDOMOutputProcessor}.
+ * <p>
+ * Large Documents and Elements can also be converted using an
+ * {@link Executor}: the top levels of the tree are expanded until there are
+ * enough independent subtrees to keep the processors busy, each of those is
+ * built in to a separate DOM Document by a different task, and the results
+ * are then adopted in to the target DOM Document. As with
+ * {@link Element#clone(Executor)}, the calling thread runs any task that the
+ * Executor has not started, so the conversion completes even if the Executor
+ * is busy or rejects the work.
+ * 
+ * @author agent
+ */
+public final class RawDOMOutputProcessor extends AbstractDOMOutputProcessor {
+
+	/**
+	 * The state of one conversion to one DOM Document. Not thread-safe.
+	 */
+	private static final class Builder {
+		private final org.w3c.dom.Document basedoc;
+		private final boolean specifiedonly;
+		private final NamespaceScope scope;
+		private final HashMap<String, HashMap<String, String>> qnames =
+				new HashMap<String, HashMap<String, String>>();
+		private final HashMap<String, String> xmlnsnames =
+				new HashMap<String, String>();
+		private String lastprefix = null;
+		private HashMap<String, String> lastnames = null;
+
+		// Elements to take from a task instead of building, may be null.
+		private final IdentityHashMap<Element, FutureTask<org.w3c.dom.Element>> frontier;
+
+		Builder(final org.w3c.dom.Document basedoc, final Format format,
+				final NamespaceScope scope,
+				final IdentityHashMap<Element, FutureTask<org.w3c.dom.Element>> frontier) {
+			this.basedoc = basedoc;
+			this.specifiedonly = format.isSpecifiedAttributesOnly();
+			this.scope = scope;
+			this.frontier = frontier;
+		}
+
+		private final String qname(final String prefix, final String name) {
+			if (prefix.length() == 0) {
+				return name;
+			}
+			if (!prefix.equals(lastprefix)) {
+				lastnames = qnames.get(prefix);
+				if (lastnames == null) {
+					lastnames = new HashMap<String, String>();
+					qnames.put(prefix, lastnames);
+				}
+				lastprefix = prefix;
+			}
+			String qname = lastnames.get(name);
+			if (qname == null) {
+				qname = prefix + ":" + name;
+				lastnames.put(name, qname);
+			}
+			return qname;
+		}
+
+		private final String xmlns(final String prefix) {
+			String xmlns = xmlnsnames.get(prefix);
+			if (xmlns == null) {
+				xmlns = prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix;
+				xmlnsnames.put(prefix, xmlns);
+			}
+			return xmlns;
+		}
+
+		org.w3c.dom.Element element(final Element emt) {
+			final int mark = scope.size();
+			scope.declare(emt);
+
+			final org.w3c.dom.Element ret = basedoc.createElementNS(
+					emt.getNamespaceURI(), qname(emt.getNamespacePrefix(), emt.getName()));
+
+			final int nscount = scope.size();
+			for (int i = mark; i < nscount; i++) {
+				final Namespace ns = scope.get(i);
+				if (ns != Namespace.XML_NAMESPACE) {
+					ret.setAttributeNS(JDOMConstants.NS_URI_XMLNS,
+							xmlns(ns.getPrefix()), ns.getURI());
+				}
+			}
+
+			if (emt.hasAttributes()) {
+				final List<Attribute> atts = emt.getAttributes();
+				final int sz = atts.size();
+				for (int i = 0; i < sz; i++) {
+					final Attribute att = atts.get(i);
+					if (specifiedonly && !att.isSpecified()) {
+						continue;
+					}
+					final org.w3c.dom.Attr a = basedoc.createAttributeNS(
+							att.getNamespaceURI(),
+							qname(att.getNamespacePrefix(), att.getName()));
+					a.setValue(att.getValue());
+					ret.setAttributeNodeNS(a);
+				}
+			}
+
+			final List<Content> content = emt.getContent();
+			final int sz = content.size();
+			for (int i = 0; i < sz; i++) {
+				final org.w3c.dom.Node n = content(content.get(i));
+				if (n != null) {
+					ret.appendChild(n);
+				}
+			}
+
+			scope.truncate(mark);
+			return ret;
+		}
+
+		org.w3c.dom.Node content(final Content c) {
+			switch (c.getCType()) {
+				case Element:
+					if (frontier != null) {
+						final FutureTask<org.w3c.dom.Element> task = frontier.get(c);
+						if (task != null) {
+							return adopt(basedoc, ParallelSubtrees.result(task,
+									"Unable to build DOM Element"));
+						}
+					}
+					return element((Element)c);
+				case Text:
+					return basedoc.createTextNode(c.getValue());
+				case CDATA:
+					return basedoc.createCDATASection(c.getValue());
+				case Comment:
+					return basedoc.createComment(c.getValue());
+				case EntityRef:
+					return basedoc.createEntityReference(((EntityRef)c).getName());
+				case ProcessingInstruction:
+					final ProcessingInstruction pi = (ProcessingInstruction)c;
+					String data = pi.getData();
+					if (data == null || data.trim().length() == 0) {
+						data = "";
+					}
+					return basedoc.createProcessingInstruction(pi.getTarget(), data);
+				case DocType:
+					// cannot simply add a DocType to a DOM object
+					// it is added when the DOM Document is created.
+					return null;
+				default:
+					throw new IllegalStateException("Unexpected Content "
+							+ c.getCType());
+			}
+		}
+	}
+
+	/**
+	 * Is the Format one that leaves the content unchanged.
+	 * 
+	 * @param format The Format to check
+	 * @return true if the fast path can be used.
+	 */
+	private static boolean isRaw(final Format format) {
+		return format.getTextMode() == TextMode.PRESERVE;
+	}
+
+	@Override
+	public org.w3c.dom.Document process(final org.w3c.dom.Document basedoc,
+			final Format format, final Document doc) {
+		if (!isRaw(format)) {
+			return super.process(basedoc, format, doc);
+		}
+		return printDocument(new Builder(basedoc, format, new NamespaceScope(), null),
+				format, doc);
+	}
+
+	@Override
+	public org.w3c.dom.Element process(final org.w3c.dom.Document basedoc,
+			final Format format, final Element element) {
+		if (!isRaw(format)) {
+			return super.process(basedoc, format, element);
+		}
+		return new Builder(basedoc, format, new NamespaceScope(), null)
+				.element(element);
+	}
+
+	@Override
+	public List<org.w3c.dom.Node> process(final org.w3c.dom.Document basedoc,
+			final Format format, final List<? extends Content> list) {
+		if (!isRaw(format)) {
+			return super.process(basedoc, format, list);
+		}
+		final Builder builder = new Builder(basedoc, format, new NamespaceScope(), null);
+		final List<org.w3c.dom.Node> ret = new ArrayList<org.w3c.dom.Node>(list.size());
+		for (final Content c : list) {
+			final org.w3c.dom.Node n = builder.content(c);
+			if (n != null) {
+				ret.add(n);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Convert a Document, building large parts of it concurrently with the
+	 * Executor. The result is the same as {@link #process(org.w3c.dom.Document, Format, Document)}.
+	 * Formats that change the content are processed sequentially.
+	 * 
+	 * @param basedoc The DOM Document to populate.
+	 * @param format The Format to use.
+	 * @param doc The JDOM Document to convert.
+	 * @param executor The Executor to use.
+	 * @return the populated basedoc
+	 * @throws NullPointerException if the executor is null
+	 */
+	public org.w3c.dom.Document process(final org.w3c.dom.Document basedoc,
+			final Format format, final Document doc, final Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		if (!isRaw(format) || !doc.hasRootElement()) {
+			return process(basedoc, format, doc);
+		}
+		return printDocument(
+				parallelBuilder(basedoc, format, doc.getRootElement(), executor),
+				format, doc);
+	}
+
+	/**
+	 * Convert an Element, building large parts of it concurrently with the
+	 * Executor. The result is the same as {@link #process(org.w3c.dom.Document, Format, Element)}.
+	 * Formats that change the content are processed sequentially.
+	 * 
+	 * @param basedoc The DOM Document to create the DOM Element with.
+	 * @param format The Format to use.
+	 * @param element The JDOM Element to convert.
+	 * @param executor The Executor to use.
+	 * @return the converted Element
+	 * @throws NullPointerException if the executor is null
+	 */
+	public org.w3c.dom.Element process(final org.w3c.dom.Document basedoc,
+			final Format format, final Element element, final Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException("Executor may not be null");
+		}
+		if (!isRaw(format)) {
+			return process(basedoc, format, element);
+		}
+		return parallelBuilder(basedoc, format, element, executor).element(element);
+	}
+
+	private static org.w3c.dom.Document printDocument(final Builder builder,
+			final Format format, final Document doc) {
+		final org.w3c.dom.Document basedoc = builder.basedoc;
+		if (!format.getOmitDeclaration()) {
+			basedoc.setXmlVersion("1.0");
+		}
+		final int sz = doc.getContentSize();
+		for (int i = 0; i < sz; i++) {
+			final Content c = doc.getContent(i);
+			switch (c.getCType()) {
+				case Comment:
+				case Element:
+				case ProcessingInstruction:
+					basedoc.appendChild(builder.content(c));
+					break;
+				default:
+					// DocType is set when the DOM Document is created.
+			}
+		}
+		return basedoc;
+	}
+
+	/**
+	 * Start the tasks that build the frontier Elements of the root, and
+	 * return a Builder that will use their results.
+	 */
+	private static Builder parallelBuilder(final org.w3c.dom.Document basedoc,
+			final Format format, final Element root, final Executor executor) {
+
+		final List<Element> level = ParallelSubtrees.frontier(root, true, null);
+		if (level == null) {
+			return new Builder(basedoc, format, new NamespaceScope(), null);
+		}
+
+		// each task builds in to a DOM Document of its own, because DOM
+		// implementations are not thread-safe.
+		final List<org.w3c.dom.Document> workdocs =
+				new ArrayList<org.w3c.dom.Document>(level.size());
+		try {
+			final org.w3c.dom.DOMImplementation impl = basedoc.getImplementation();
+			for (int i = level.size(); i > 0; i--) {
+				workdocs.add(impl.createDocument(null, null, null));
+			}
+		} catch (DOMException de) {
+			// The DOM implementation cannot create empty Documents.
+			return new Builder(basedoc, format, new NamespaceScope(), null);
+		}
+
+		final List<Callable<org.w3c.dom.Element>> work =
+				new ArrayList<Callable<org.w3c.dom.Element>>(level.size());
+		for (int i = 0; i < level.size(); i++) {
+			final Element e = level.get(i);
+			final org.w3c.dom.Document workdoc = workdocs.get(i);
+			work.add(new Callable<org.w3c.dom.Element>() {
+				@Override
+				public org.w3c.dom.Element call() {
+					return new Builder(workdoc, format, scopeOf(root, e), null)
+							.element(e);
+				}
+			});
+		}
+		return new Builder(basedoc, format, new NamespaceScope(),
+				ParallelSubtrees.run(level, work, executor));
+	}
+
+	/**
+	 * The Namespaces in scope for the content of the parent of an Element,
+	 * when the conversion starts at root.
+	 */
+	private static NamespaceScope scopeOf(final Element root, final Element emt) {
+		final NamespaceScope scope = new NamespaceScope();
+		if (emt == root) {
+			return scope;
+		}
+		final List<Element> ancestors = new ArrayList<Element>();
+		Parent p = emt.getParent();
+		while (p != root) {
+			ancestors.add((Element)p);
+			p = p.getParent();
+		}
+		scope.declare(root);
+		for (int i = ancestors.size() - 1; i >= 0; i--) {
+			scope.declare(ancestors.get(i));
+		}
+		return scope;
+	}
+
+	/**
+	 * Move a node built in a task's DOM Document in to the target Document.
+	 */
+	private static org.w3c.dom.Node adopt(final org.w3c.dom.Document basedoc,
+			final org.w3c.dom.Node node) {
+		try {
+			final org.w3c.dom.Node adopted = basedoc.adoptNode(node);
+			if (adopted != null) {
+				return adopted;
+			}
+		} catch (DOMException de) {
+			// fall through to an import.
+		}
+		return basedoc.importNode(node, true);
+	}
+
+}
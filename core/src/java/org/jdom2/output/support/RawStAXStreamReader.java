@@ -0,0 +1,686 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output.support;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Verifier;
+import org.jdom2.internal.ArrayCopy;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.util.JDOMNamespaceContext;
+
+/**
+ * An {@link XMLStreamReader} that reports the content of a JDOM
+ * {@link Document} exactly as it is in the tree, with no {@link org.jdom2.output.Format}
+ * processing at all.
+ * <p>
+ * Where {@link AbstractStAXStreamReader} walks the tree with formatting
+ * Walkers, a FormatStack and a NamespaceStack, this reader steps through the
+ * content lists by index, and tracks the in-scope Namespaces in a flat array.
+ * Text values are reported as the actual Strings in the JDOM tree, and
+ * {@link #getTextCharacters()} copies them in to a buffer that is reused for
+ * the life of the reader, so once the reader is running the only events that
+ * allocate memory are the DocType and the methods that return new objects
+ * ({@link #getName()}, {@link #getAttributeName(int)},
+ * {@link #getNamespaceContext()}).
+ * <p>
+ * This makes it a cheap way to hand an in-memory JDOM tree to a StAX consumer
+ * like a JAXB Unmarshaller:
+ * 
+ * <pre>
+ * Object bean = unmarshaller.unmarshal(new RawStAXStreamReader(document));
+ * </pre>
+ * 
+ * The Document must not be modified while it is being read.
+ * 
+ * @see org.jdom2.output.StAXStreamReader
+ * @author agent
+ */
+public final class RawStAXStreamReader implements XMLStreamReader {
+
+	private static final Location NOLOCATION = new Location() {
+		@Override
+		public int getLineNumber() {
+			return -1;
+		}
+
+		@Override
+		public int getColumnNumber() {
+			return -1;
+		}
+
+		@Override
+		public int getCharacterOffset() {
+			return -1;
+		}
+
+		@Override
+		public String getPublicId() {
+			return null;
+		}
+
+		@Override
+		public String getSystemId() {
+			return null;
+		}
+	};
+
+	private static final char[] EMPTYCHARS = new char[0];
+
+	private Document document;
+
+	// emtstack[d] is the Element at depth d (the Document is depth 0), and
+	// cursor[d] is the index of the next child to report from it.
+	private Element[] emtstack = new Element[32];
+	private int[] cursor = new int[32];
+	private int depth = 0;
+
+	// Namespaces introduced by the Element at depth d are
+	// scope.get(nsstart[d]) to scope.get(nsend[d] - 1).
+	private final NamespaceScope scope = new NamespaceScope();
+	private int[] nsstart = new int[32];
+	private int[] nsend = new int[32];
+
+	private int currentEvt = START_DOCUMENT;
+	private String ctext = null, cname = null, cdata = null;
+
+	private char[] textbuf = EMPTYCHARS;
+	private boolean textbufvalid = false;
+
+	/**
+	 * Create a RawStAXStreamReader that reports the content of a Document.
+	 * 
+	 * @param document the Document to report.
+	 * @throws NullPointerException if the document is null.
+	 * @throws IllegalStateException if the document has no root element.
+	 */
+	public RawStAXStreamReader(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("Cannot read a null Document");
+		}
+		if (!document.hasRootElement()) {
+			throw new IllegalStateException("Root element not set");
+		}
+		this.document = document;
+	}
+
+	@Override
+	public boolean hasNext() throws XMLStreamException {
+		return currentEvt != END_DOCUMENT;
+	}
+
+	@Override
+	public int next() throws XMLStreamException {
+		if (currentEvt == END_DOCUMENT) {
+			throw new NoSuchElementException("No more data available.");
+		}
+
+		ctext = null;
+		cname = null;
+		cdata = null;
+		textbufvalid = false;
+
+		if (currentEvt == END_ELEMENT) {
+			// the ended Element's namespaces go out of scope now.
+			scope.truncate(nsstart[depth + 1]);
+			emtstack[depth + 1] = null;
+		}
+
+		final List<Content> kids = depth == 0
+				? document.getContent() : emtstack[depth].getContent();
+		final int index = cursor[depth];
+		if (index >= kids.size()) {
+			if (depth == 0) {
+				depth = -1;
+				return currentEvt = END_DOCUMENT;
+			}
+			depth--;
+			return currentEvt = END_ELEMENT;
+		}
+		cursor[depth] = index + 1;
+
+		final Content c = kids.get(index);
+		switch (c.getCType()) {
+			case Text:
+				ctext = c.getValue();
+				return currentEvt = CHARACTERS;
+			case CDATA:
+				ctext = c.getValue();
+				return currentEvt = CDATA;
+			case Comment:
+				ctext = c.getValue();
+				return currentEvt = COMMENT;
+			case DocType:
+				ctext = new XMLOutputter().outputString((DocType)c);
+				return currentEvt = DTD;
+			case EntityRef:
+				cname = ((EntityRef)c).getName();
+				ctext = "";
+				return currentEvt = ENTITY_REFERENCE;
+			case ProcessingInstruction:
+				final ProcessingInstruction pi = (ProcessingInstruction)c;
+				cname = pi.getTarget();
+				cdata = pi.getData();
+				return currentEvt = PROCESSING_INSTRUCTION;
+			case Element:
+				pushElement((Element)c);
+				return currentEvt = START_ELEMENT;
+			default:
+				throw new IllegalStateException("Unexpected content " + c);
+		}
+	}
+
+	private final void pushElement(final Element emt) {
+		depth++;
+		if (depth >= emtstack.length) {
+			final int len = depth + 32;
+			emtstack = ArrayCopy.copyOf(emtstack, len);
+			cursor = ArrayCopy.copyOf(cursor, len);
+			nsstart = ArrayCopy.copyOf(nsstart, len);
+			nsend = ArrayCopy.copyOf(nsend, len);
+		}
+		emtstack[depth] = emt;
+		cursor[depth] = 0;
+		nsstart[depth] = scope.size();
+		scope.declare(emt);
+		nsend[depth] = scope.size();
+	}
+
+	/**
+	 * The depth of the Element for the current START_ELEMENT or END_ELEMENT
+	 * event.
+	 */
+	private final int elementDepth(final String method) {
+		switch (currentEvt) {
+			case START_ELEMENT:
+				return depth;
+			case END_ELEMENT:
+				return depth + 1;
+			default:
+				throw new IllegalStateException(method +
+						" not supported for event " + currentEvt);
+		}
+	}
+
+	private final Attribute attribute(final int index, final String method) {
+		if (currentEvt != START_ELEMENT) {
+			throw new IllegalStateException(method +
+					" not supported for event " + currentEvt);
+		}
+		return emtstack[depth].getAttributes().get(index);
+	}
+
+	@Override
+	public int getEventType() {
+		return currentEvt;
+	}
+
+	@Override
+	public boolean isStartElement() {
+		return currentEvt == START_ELEMENT;
+	}
+
+	@Override
+	public boolean isEndElement() {
+		return currentEvt == END_ELEMENT;
+	}
+
+	@Override
+	public boolean isCharacters() {
+		return currentEvt == CHARACTERS;
+	}
+
+	@Override
+	public boolean isWhiteSpace() {
+		switch (currentEvt) {
+			case CDATA:
+			case CHARACTERS:
+				return Verifier.isAllXMLWhitespace(ctext);
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public void require(int type, String namespaceURI, String localName)
+			throws XMLStreamException {
+		if (type != currentEvt) {
+			throw new XMLStreamException("required event " + type +
+					" but got event " + currentEvt);
+		}
+		if (localName != null && !localName.equals(getLocalName())) {
+			throw new XMLStreamException("required name " + localName +
+					" but got name " + getLocalName());
+		}
+		if (namespaceURI != null && !namespaceURI.equals(getNamespaceURI())) {
+			throw new XMLStreamException("required namespace " + namespaceURI +
+					" but got namespace " + getNamespaceURI());
+		}
+	}
+
+	@Override
+	public QName getName() {
+		final Element emt = emtstack[elementDepth("getName")];
+		return new QName(emt.getNamespaceURI(), emt.getName(),
+				emt.getNamespacePrefix());
+	}
+
+	@Override
+	public String getLocalName() {
+		if (currentEvt == ENTITY_REFERENCE) {
+			return cname;
+		}
+		return emtstack[elementDepth("getLocalName")].getName();
+	}
+
+	@Override
+	public boolean hasName() {
+		return currentEvt == START_ELEMENT || currentEvt == END_ELEMENT;
+	}
+
+	@Override
+	public String getNamespaceURI() {
+		return emtstack[elementDepth("getNamespaceURI")].getNamespaceURI();
+	}
+
+	@Override
+	public String getPrefix() {
+		return emtstack[elementDepth("getPrefix")].getNamespacePrefix();
+	}
+
+	@Override
+	public String getPITarget() {
+		if (currentEvt != PROCESSING_INSTRUCTION) {
+			throw new IllegalStateException(
+					"getPITarget not supported for event " + currentEvt);
+		}
+		return cname;
+	}
+
+	@Override
+	public String getPIData() {
+		if (currentEvt != PROCESSING_INSTRUCTION) {
+			throw new IllegalStateException(
+					"getPIData not supported for event " + currentEvt);
+		}
+		return cdata;
+	}
+
+	@Override
+	public String getElementText() throws XMLStreamException {
+		if (currentEvt != START_ELEMENT) {
+			throw new XMLStreamException(
+					"parser must be on START_ELEMENT to read next text");
+		}
+		int eventType = next();
+		if (eventType == END_ELEMENT) {
+			return "";
+		}
+		String first = null;
+		StringBuilder buf = null;
+		while (eventType != END_ELEMENT) {
+			switch (eventType) {
+				case CHARACTERS:
+				case CDATA:
+				case SPACE:
+				case ENTITY_REFERENCE:
+					// only build a buffer if there is more than one value.
+					if (first == null) {
+						first = ctext;
+					} else {
+						if (buf == null) {
+							buf = new StringBuilder(first);
+						}
+						buf.append(ctext);
+					}
+					break;
+				case PROCESSING_INSTRUCTION:
+				case COMMENT:
+					// skipping
+					break;
+				case START_ELEMENT:
+					throw new XMLStreamException(
+							"element text content may not contain START_ELEMENT",
+							getLocation());
+				default:
+					throw new XMLStreamException("Unexpected event type " +
+							eventType, getLocation());
+			}
+			eventType = next();
+		}
+		return buf != null ? buf.toString() : first == null ? "" : first;
+	}
+
+	@Override
+	public int nextTag() throws XMLStreamException {
+		int eventType = next();
+		while ((eventType == CHARACTERS && isWhiteSpace())
+				|| (eventType == CDATA && isWhiteSpace())
+				|| eventType == SPACE
+				|| eventType == PROCESSING_INSTRUCTION
+				|| eventType == COMMENT) {
+			eventType = next();
+		}
+		if (eventType != START_ELEMENT && eventType != END_ELEMENT) {
+			throw new XMLStreamException("expected start or end tag",
+					getLocation());
+		}
+		return eventType;
+	}
+
+	@Override
+	public void close() throws XMLStreamException {
+		currentEvt = END_DOCUMENT;
+		while (depth >= 0) {
+			emtstack[depth--] = null;
+		}
+		scope.truncate(0);
+		ctext = null;
+		cname = null;
+		cdata = null;
+		textbuf = EMPTYCHARS;
+		textbufvalid = false;
+		document = null;
+	}
+
+	@Override
+	public String getNamespaceURI(final String prefix) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Prefix may not be null");
+		}
+		final Namespace ns = scope.lookup(prefix);
+		return ns == null ? null : ns.getURI();
+	}
+
+	@Override
+	public String getAttributeValue(final String namespaceURI,
+			final String localName) {
+		if (currentEvt != START_ELEMENT) {
+			throw new IllegalStateException(
+					"getAttributeValue not supported for event " + currentEvt);
+		}
+		final Element emt = emtstack[depth];
+		if (!emt.hasAttributes()) {
+			return null;
+		}
+		final List<Attribute> atts = emt.getAttributes();
+		final int size = atts.size();
+		for (int i = 0; i < size; i++) {
+			final Attribute a = atts.get(i);
+			if (a.getName().equals(localName) && (namespaceURI == null
+					|| namespaceURI.equals(a.getNamespaceURI()))) {
+				return a.getValue();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public int getAttributeCount() {
+		if (currentEvt != START_ELEMENT) {
+			throw new IllegalStateException(
+					"getAttributeCount not supported for event " + currentEvt);
+		}
+		return emtstack[depth].getAttributesSize();
+	}
+
+	@Override
+	public QName getAttributeName(final int index) {
+		final Attribute a = attribute(index, "getAttributeName");
+		return new QName(a.getNamespaceURI(), a.getName(), a.getNamespacePrefix());
+	}
+
+	@Override
+	public String getAttributeNamespace(final int index) {
+		return attribute(index, "getAttributeNamespace").getNamespaceURI();
+	}
+
+	@Override
+	public String getAttributeLocalName(final int index) {
+		return attribute(index, "getAttributeLocalName").getName();
+	}
+
+	@Override
+	public String getAttributePrefix(final int index) {
+		return attribute(index, "getAttributePrefix").getNamespacePrefix();
+	}
+
+	@Override
+	public String getAttributeType(final int index) {
+		return attribute(index, "getAttributeType").getAttributeType().name();
+	}
+
+	@Override
+	public String getAttributeValue(final int index) {
+		return attribute(index, "getAttributeValue").getValue();
+	}
+
+	@Override
+	public boolean isAttributeSpecified(final int index) {
+		return attribute(index, "isAttributeSpecified").isSpecified();
+	}
+
+	@Override
+	public int getNamespaceCount() {
+		final int d = elementDepth("getNamespaceCount");
+		return nsend[d] - nsstart[d];
+	}
+
+	private final Namespace getNamespace(final int index, final String method) {
+		final int d = elementDepth(method);
+		if (index < 0 || index >= nsend[d] - nsstart[d]) {
+			throw new NoSuchElementException("No Namespace with index " + index +
+					" (there are only " + (nsend[d] - nsstart[d]) + ").");
+		}
+		return scope.get(nsstart[d] + index);
+	}
+
+	@Override
+	public String getNamespacePrefix(final int index) {
+		return getNamespace(index, "getNamespacePrefix").getPrefix();
+	}
+
+	@Override
+	public String getNamespaceURI(final int index) {
+		return getNamespace(index, "getNamespaceURI").getURI();
+	}
+
+	@Override
+	public NamespaceContext getNamespaceContext() {
+		// a snapshot: the innermost binding for each prefix.
+		return new JDOMNamespaceContext(scope.inScope());
+	}
+
+	@Override
+	public boolean hasText() {
+		switch (currentEvt) {
+			case CDATA:
+			case CHARACTERS:
+			case COMMENT:
+			case DTD:
+			case ENTITY_REFERENCE:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public String getText() {
+		if (!hasText()) {
+			throw new IllegalStateException(
+					"getText not valid for event type " + currentEvt);
+		}
+		return ctext;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned array is shared, and is only valid until the next call to
+	 * {@link #next()}.
+	 */
+	@Override
+	public char[] getTextCharacters() {
+		final String text = getText();
+		if (!textbufvalid) {
+			final int len = text.length();
+			if (len > textbuf.length) {
+				textbuf = new char[Math.max(len, textbuf.length * 2)];
+			}
+			text.getChars(0, len, textbuf, 0);
+			textbufvalid = true;
+		}
+		return textbuf;
+	}
+
+	@Override
+	public int getTextCharacters(final int sourceStart, final char[] target,
+			final int targetStart, final int length) throws XMLStreamException {
+		final String text = getText();
+		if (targetStart < 0 || targetStart > target.length || length < 0
+				|| targetStart + length > target.length) {
+			throw new IndexOutOfBoundsException("Cannot copy " + length +
+					" characters to offset " + targetStart +
+					" of an array of length " + target.length);
+		}
+		if (sourceStart < 0 || sourceStart >= text.length()) {
+			return 0;
+		}
+		final int cnt = Math.min(length, text.length() - sourceStart);
+		text.getChars(sourceStart, sourceStart + cnt, target, targetStart);
+		return cnt;
+	}
+
+	@Override
+	public int getTextStart() {
+		getText();
+		return 0;
+	}
+
+	@Override
+	public int getTextLength() {
+		return getText().length();
+	}
+
+	@Override
+	public String getEncoding() {
+		final Object ret = document == null ? null : document.getProperty("ENCODING");
+		return ret == null ? null : ret.toString();
+	}
+
+	@Override
+	public Location getLocation() {
+		return NOLOCATION;
+	}
+
+	@Override
+	public String getVersion() {
+		return null;
+	}
+
+	@Override
+	public boolean isStandalone() {
+		return document != null &&
+				Boolean.TRUE.equals(document.getProperty("STANDALONE"));
+	}
+
+	@Override
+	public boolean standaloneSet() {
+		return document != null && document.getProperty("STANDALONE") != null;
+	}
+
+	@Override
+	public String getCharacterEncodingScheme() {
+		final Object ret = document == null ? null :
+				document.getProperty("ENCODING_SCHEME");
+		return ret == null ? null : ret.toString();
+	}
+
+	@Override
+	public Object getProperty(final String name) {
+		if (name == null) {
+			throw new IllegalArgumentException(
+					"Property name is not allowed to be null");
+		}
+		if (XMLInputFactory.IS_NAMESPACE_AWARE.equals(name)) {
+			return Boolean.TRUE;
+		}
+		if (XMLInputFactory.IS_COALESCING.equals(name)
+				|| XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES.equals(name)
+				|| XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES.equals(name)
+				|| XMLInputFactory.IS_VALIDATING.equals(name)) {
+			return Boolean.FALSE;
+		}
+		return null;
+	}
+
+}
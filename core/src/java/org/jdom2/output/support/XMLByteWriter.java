@@ -0,0 +1,664 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.output.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import org.jdom2.IllegalDataException;
+import org.jdom2.Verifier;
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+
+/**
+ * A Writer that encodes characters directly in to bytes for the UTF-8,
+ * US-ASCII and ISO-8859-1 encodings, without going through an
+ * {@link java.io.OutputStreamWriter} and its CharsetEncoder.
+ * <p>
+ * The encoded bytes are accumulated in a single reusable byte[] buffer which
+ * is flushed to either an {@link OutputStream} or a
+ * {@link WritableByteChannel} when full, or when {@link #flush()} is called.
+ * <p>
+ * In addition to the regular Writer methods this class has
+ * {@link #writeEscapedText(EscapeStrategy, String, String)} and
+ * {@link #writeEscapedAttribute(EscapeStrategy, String)} which escape and
+ * encode a value in a single pass, producing exactly the same output as
+ * writing the results of {@link Format#escapeText(EscapeStrategy, String, String)}
+ * and {@link Format#escapeAttribute(EscapeStrategy, String)}, but without
+ * creating the intermediate escaped String. Note that, unlike the Format
+ * methods, if an {@link IllegalDataException} is thrown part of the value may
+ * already have been written.
+ * {@link EncodingXMLOutputProcessor} uses these methods when it is given an
+ * XMLByteWriter as the destination.
+ * <p>
+ * Characters that cannot be represented in the target encoding (and
+ * unpaired surrogates) are written as '?', which is the same behaviour as
+ * the OutputStreamWriter. In normal XML output these characters will already
+ * have been escaped by the EscapeStrategy.
+ * <p>
+ * Instances of this class are not thread-safe.
+ * 
+ * @author agent
+ * @since JDOM2
+ */
+public final class XMLByteWriter extends Writer {
+
+	/** The default size of the byte buffer. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The largest number of bytes any single step of the encoder produces:
+	 * an escaped supplementary character &amp;#x10FFFF; is 10 bytes.
+	 */
+	private static final int MAXSTEP = 16;
+
+	private static final int UTF8 = 0;
+	private static final int LATIN1 = 1;
+	private static final int ASCII = 2;
+
+	private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6',
+			'7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+	private static final byte[] LT = ascii("&lt;");
+	private static final byte[] GT = ascii("&gt;");
+	private static final byte[] AMP = ascii("&amp;");
+	private static final byte[] QUOT = ascii("&quot;");
+	private static final byte[] CR = ascii("&#xD;");
+	private static final byte[] LF = ascii("&#xA;");
+	private static final byte[] TAB = ascii("&#x9;");
+
+	private static final byte[] ascii(final String value) {
+		final byte[] ret = new byte[value.length()];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = (byte)value.charAt(i);
+		}
+		return ret;
+	}
+
+	/**
+	 * Get the internal code for the encoding, or -1 if it is not supported.
+	 * @param encoding The encoding name
+	 * @return the internal code, or -1
+	 */
+	private static final int encodingCode(final String encoding) {
+		if (encoding == null) {
+			return -1;
+		}
+		final String name;
+		try {
+			name = Charset.forName(encoding).name();
+		} catch (IllegalArgumentException e) {
+			// illegal or unsupported charset name.
+			return -1;
+		}
+		if ("UTF-8".equals(name)) {
+			return UTF8;
+		}
+		if ("ISO-8859-1".equals(name)) {
+			return LATIN1;
+		}
+		if ("US-ASCII".equals(name)) {
+			return ASCII;
+		}
+		return -1;
+	}
+
+	/**
+	 * Indicate whether the specified encoding can be written by an
+	 * XMLByteWriter. Aliases are resolved, so, for example, "UTF8" and
+	 * "utf-8" are both supported.
+	 * 
+	 * @param encoding
+	 *        The encoding to check
+	 * @return true if this class can encode directly to that encoding.
+	 */
+	public static final boolean isSupported(final String encoding) {
+		return encodingCode(encoding) >= 0;
+	}
+
+	private final OutputStream stream;
+	private final WritableByteChannel channel;
+	private final ByteBuffer bytebuffer;
+	private final int code;
+	private final byte[] buffer;
+	private final int limit;
+	private int pos = 0;
+	/** A high surrogate left over from a previous write() call */
+	private char pendinghigh = 0;
+	private boolean closed = false;
+
+	private XMLByteWriter(final OutputStream stream,
+			final WritableByteChannel channel, final String encoding,
+			final int buffersize) {
+		if (buffersize < MAXSTEP * 4) {
+			throw new IllegalArgumentException("Buffer size " + buffersize
+					+ " is too small, it must be at least " + (MAXSTEP * 4));
+		}
+		code = encodingCode(encoding);
+		if (code < 0) {
+			throw new IllegalArgumentException("The encoding '" + encoding
+					+ "' is not supported by XMLByteWriter");
+		}
+		this.stream = stream;
+		this.channel = channel;
+		this.buffer = new byte[buffersize];
+		this.limit = buffersize - MAXSTEP;
+		this.bytebuffer = channel == null ? null : ByteBuffer.wrap(buffer);
+	}
+
+	/**
+	 * Create an XMLByteWriter that writes to an OutputStream using the
+	 * default buffer size.
+	 * 
+	 * @param out
+	 *        The destination stream
+	 * @param encoding
+	 *        The encoding to use (see {@link #isSupported(String)})
+	 * @throws IllegalArgumentException
+	 *         if the encoding is not supported
+	 * @throws NullPointerException
+	 *         if the OutputStream is null
+	 */
+	public XMLByteWriter(final OutputStream out, final String encoding) {
+		this(out, encoding, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create an XMLByteWriter that writes to an OutputStream.
+	 * 
+	 * @param out
+	 *        The destination stream
+	 * @param encoding
+	 *        The encoding to use (see {@link #isSupported(String)})
+	 * @param buffersize
+	 *        The number of bytes to buffer before writing to the stream.
+	 * @throws IllegalArgumentException
+	 *         if the encoding is not supported, or the buffer is too small.
+	 * @throws NullPointerException
+	 *         if the OutputStream is null
+	 */
+	public XMLByteWriter(final OutputStream out, final String encoding,
+			final int buffersize) {
+		this(nonNull(out), null, encoding, buffersize);
+	}
+
+	/**
+	 * Create an XMLByteWriter that writes to a WritableByteChannel using the
+	 * default buffer size.
+	 * 
+	 * @param out
+	 *        The destination channel
+	 * @param encoding
+	 *        The encoding to use (see {@link #isSupported(String)})
+	 * @throws IllegalArgumentException
+	 *         if the encoding is not supported
+	 * @throws NullPointerException
+	 *         if the channel is null
+	 */
+	public XMLByteWriter(final WritableByteChannel out, final String encoding) {
+		this(out, encoding, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Create an XMLByteWriter that writes to a WritableByteChannel.
+	 * 
+	 * @param out
+	 *        The destination channel
+	 * @param encoding
+	 *        The encoding to use (see {@link #isSupported(String)})
+	 * @param buffersize
+	 *        The number of bytes to buffer before writing to the channel.
+	 * @throws IllegalArgumentException
+	 *         if the encoding is not supported, or the buffer is too small.
+	 * @throws NullPointerException
+	 *         if the channel is null
+	 */
+	public XMLByteWriter(final WritableByteChannel out, final String encoding,
+			final int buffersize) {
+		this(null, nonNull(out), encoding, buffersize);
+	}
+
+	private static final <T> T nonNull(final T value) {
+		if (value == null) {
+			throw new NullPointerException("Null output destination");
+		}
+		return value;
+	}
+
+	/**
+	 * Get the canonical name of the encoding this writer produces.
+	 * @return The encoding name.
+	 */
+	public String getEncoding() {
+		switch (code) {
+			case UTF8:
+				return "UTF-8";
+			case LATIN1:
+				return "ISO-8859-1";
+			default:
+				return "US-ASCII";
+		}
+	}
+
+	/* *******************************************
+	 * Buffer management
+	 * ******************************************* */
+
+	private final void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("XMLByteWriter is closed");
+		}
+	}
+
+	private final void drain() throws IOException {
+		if (pos == 0) {
+			return;
+		}
+		if (stream != null) {
+			stream.write(buffer, 0, pos);
+		} else {
+			bytebuffer.clear();
+			bytebuffer.limit(pos);
+			while (bytebuffer.hasRemaining()) {
+				channel.write(bytebuffer);
+			}
+		}
+		pos = 0;
+	}
+
+	private final void put(final byte[] bytes) throws IOException {
+		if (pos > limit) {
+			drain();
+		}
+		System.arraycopy(bytes, 0, buffer, pos, bytes.length);
+		pos += bytes.length;
+	}
+
+	private final void putAscii(final String value) throws IOException {
+		final int len = value.length();
+		for (int i = 0; i < len; i++) {
+			if (pos > limit) {
+				drain();
+			}
+			buffer[pos++] = (byte)value.charAt(i);
+		}
+	}
+
+	/**
+	 * Write a character reference (&amp;#x...;) for a code point.
+	 * @param cp the code point
+	 * @throws IOException if the buffer cannot be drained.
+	 */
+	private final void putCharRef(final int cp) throws IOException {
+		if (pos > limit) {
+			drain();
+		}
+		buffer[pos++] = '&';
+		buffer[pos++] = '#';
+		buffer[pos++] = 'x';
+		int shift = 28;
+		while (shift > 0 && ((cp >>> shift) & 0xF) == 0) {
+			shift -= 4;
+		}
+		while (shift >= 0) {
+			buffer[pos++] = HEX[(cp >>> shift) & 0xF];
+			shift -= 4;
+		}
+		buffer[pos++] = ';';
+	}
+
+	/**
+	 * Encode a single code point that is known to be valid.
+	 * @param cp the code point.
+	 */
+	private final void putCodePoint(final int cp) {
+		if (cp < 0x80) {
+			buffer[pos++] = (byte)cp;
+			return;
+		}
+		switch (code) {
+			case UTF8:
+				if (cp < 0x800) {
+					buffer[pos++] = (byte)(0xC0 | (cp >> 6));
+					buffer[pos++] = (byte)(0x80 | (cp & 0x3F));
+				} else if (cp < 0x10000) {
+					buffer[pos++] = (byte)(0xE0 | (cp >> 12));
+					buffer[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+					buffer[pos++] = (byte)(0x80 | (cp & 0x3F));
+				} else {
+					buffer[pos++] = (byte)(0xF0 | (cp >> 18));
+					buffer[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+					buffer[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+					buffer[pos++] = (byte)(0x80 | (cp & 0x3F));
+				}
+				return;
+			case LATIN1:
+				buffer[pos++] = cp < 0x100 ? (byte)cp : (byte)'?';
+				return;
+			default:
+				buffer[pos++] = '?';
+		}
+	}
+
+	/**
+	 * Encode one char, combining surrogate pairs across calls.
+	 * @param ch the char to encode
+	 * @throws IOException if the buffer cannot be drained.
+	 */
+	private final void putChar(final char ch) throws IOException {
+		if (pos > limit) {
+			drain();
+		}
+		if (pendinghigh != 0) {
+			final char high = pendinghigh;
+			pendinghigh = 0;
+			if (Verifier.isLowSurrogate(ch)) {
+				putCodePoint(Verifier.decodeSurrogatePair(high, ch));
+				return;
+			}
+			// unpaired high surrogate.
+			buffer[pos++] = '?';
+		}
+		if (ch < 0x80) {
+			buffer[pos++] = (byte)ch;
+		} else if (Verifier.isHighSurrogate(ch)) {
+			pendinghigh = ch;
+		} else if (Verifier.isLowSurrogate(ch)) {
+			// unpaired low surrogate.
+			buffer[pos++] = '?';
+		} else {
+			putCodePoint(ch);
+		}
+	}
+
+	/* *******************************************
+	 * Writer methods
+	 * ******************************************* */
+
+	@Override
+	public void write(final int c) throws IOException {
+		ensureOpen();
+		putChar((char)c);
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len)
+			throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || off + len > cbuf.length) {
+			throw new IndexOutOfBoundsException("Illegal offset " + off
+					+ " and length " + len + " for array of length " + cbuf.length);
+		}
+		final int end = off + len;
+		for (int i = off; i < end; i++) {
+			final char ch = cbuf[i];
+			if (ch < 0x80 && pendinghigh == 0 && pos <= limit) {
+				// fast-path for the common case.
+				buffer[pos++] = (byte)ch;
+			} else {
+				putChar(ch);
+			}
+		}
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len)
+			throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || off + len > str.length()) {
+			throw new IndexOutOfBoundsException("Illegal offset " + off
+					+ " and length " + len + " for String of length " + str.length());
+		}
+		final int end = off + len;
+		for (int i = off; i < end; i++) {
+			final char ch = str.charAt(i);
+			if (ch < 0x80 && pendinghigh == 0 && pos <= limit) {
+				// fast-path for the common case.
+				buffer[pos++] = (byte)ch;
+			} else {
+				putChar(ch);
+			}
+		}
+	}
+
+	@Override
+	public void write(final String str) throws IOException {
+		write(str, 0, str.length());
+	}
+
+	@Override
+	public Writer append(final CharSequence csq) throws IOException {
+		final String s = String.valueOf(csq);
+		write(s, 0, s.length());
+		return this;
+	}
+
+	/**
+	 * Write any buffered bytes to the destination, and flush it. A dangling
+	 * high surrogate from a previous write is retained until the next write
+	 * (or {@link #close()}).
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		drain();
+		if (stream != null) {
+			stream.flush();
+		}
+	}
+
+	/**
+	 * Flush the content, and close the underlying destination. A dangling
+	 * high surrogate is written as '?'.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (pendinghigh != 0) {
+			pendinghigh = 0;
+			if (pos > limit) {
+				drain();
+			}
+			buffer[pos++] = '?';
+		}
+		try {
+			drain();
+		} finally {
+			closed = true;
+			if (stream != null) {
+				stream.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+
+	/* *******************************************
+	 * Single-pass escaping
+	 * ******************************************* */
+
+	/**
+	 * Escape and encode Text content in a single pass. The output is
+	 * identical to writing the result of
+	 * {@link Format#escapeText(EscapeStrategy, String, String)}.
+	 * 
+	 * @param strategy
+	 *        The EscapeStrategy
+	 * @param eol
+	 *        The End-Of-Line sequence to be used (may be null).
+	 * @param value
+	 *        The String to escape
+	 * @throws IOException
+	 *         if the destination fails.
+	 * @throws IllegalDataException
+	 *         if an entity can not be escaped
+	 */
+	public void writeEscapedText(final EscapeStrategy strategy,
+			final String eol, final String value) throws IOException {
+		escape(strategy, eol, value, false);
+	}
+
+	/**
+	 * Escape and encode an Attribute value in a single pass. The output is
+	 * identical to writing the result of
+	 * {@link Format#escapeAttribute(EscapeStrategy, String)}.
+	 * 
+	 * @param strategy
+	 *        The EscapeStrategy
+	 * @param value
+	 *        The String to escape
+	 * @throws IOException
+	 *         if the destination fails.
+	 * @throws IllegalDataException
+	 *         if an entity can not be escaped
+	 */
+	public void writeEscapedAttribute(final EscapeStrategy strategy,
+			final String value) throws IOException {
+		escape(strategy, null, value, true);
+	}
+
+	private final void escape(final EscapeStrategy strategy, final String eol,
+			final String value, final boolean attribute) throws IOException {
+		ensureOpen();
+		if (pendinghigh != 0) {
+			// a prior raw write left a dangling surrogate, it cannot
+			// pair with escaped content.
+			pendinghigh = 0;
+			putAscii("?");
+		}
+		final int len = value.length();
+		char highsurrogate = 0;
+		for (int idx = 0; idx < len; idx++) {
+			final char ch = value.charAt(idx);
+			if (highsurrogate > 0) {
+				if (!Verifier.isLowSurrogate(ch)) {
+					throw new IllegalDataException(
+							"Could not decode surrogate pair 0x" +
+									Integer.toHexString(highsurrogate) + " / 0x"
+									+ Integer.toHexString(ch));
+				}
+				putCharRef(Verifier.decodeSurrogatePair(highsurrogate, ch));
+				highsurrogate = 0;
+				continue;
+			}
+			switch (ch) {
+				case '<':
+					put(LT);
+					break;
+				case '>':
+					put(GT);
+					break;
+				case '&':
+					put(AMP);
+					break;
+				case '\r':
+					put(CR);
+					break;
+				case '"':
+					if (attribute) {
+						put(QUOT);
+					} else if (strategy.shouldEscape(ch)) {
+						putCharRef(ch);
+					} else {
+						putChar(ch);
+					}
+					break;
+				case '\t':
+					if (attribute) {
+						put(TAB);
+					} else if (strategy.shouldEscape(ch)) {
+						putCharRef(ch);
+					} else {
+						putChar(ch);
+					}
+					break;
+				case '\n':
+					if (attribute) {
+						put(LF);
+					} else if (eol != null) {
+						write(eol, 0, eol.length());
+					} else {
+						putChar(ch);
+					}
+					break;
+				default:
+					if (strategy.shouldEscape(ch)) {
+						// make sure what we are escaping is not the
+						// beginning of a multi-byte character.
+						if (Verifier.isHighSurrogate(ch)) {
+							// this is a the high of a surrogate pair
+							highsurrogate = ch;
+						} else {
+							putCharRef(ch);
+						}
+					} else {
+						putChar(ch);
+					}
+					break;
+			}
+		}
+		if (highsurrogate > 0) {
+			throw new IllegalDataException("Surrogate pair 0x" +
+					Integer.toHexString(highsurrogate) + "truncated");
+		}
+	}
+
+}
@@ -0,0 +1,480 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.transform;
+
+import java.io.File;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.JDOMFactory;
+import org.jdom2.output.StAXStreamReader;
+
+/**
+ * A thread-safe cache of compiled XSLT stylesheets, with a bounded pool of
+ * reusable {@link Transformer} instances for each stylesheet.
+ * <p>
+ * {@link XSLTransformer} compiles its stylesheet once, but still creates a new
+ * Transformer for every transformation, and the set-up of a Transformer is
+ * often more expensive than the transformation of a small document. The
+ * TransformerService instead keeps the compiled {@link Templates} for each
+ * stylesheet system ID, and keeps up to {@link #getPoolSize()} idle
+ * Transformers for each of them. A Transformer is taken from the pool for each
+ * transformation, and {@link Transformer#reset() reset} and returned when the
+ * transformation completes successfully.
+ * <p>
+ * Stylesheets identified by a <code>file:</code> URL are checked for
+ * modification on each lookup, and are recompiled if the file has changed.
+ * Other stylesheets remain cached until they are {@link #invalidate(String)
+ * invalidated} or the cache is {@link #clear() cleared}.
+ *
+ * <pre><code>
+ * TransformerService service = TransformerService.getDefault();
+ *
+ * Document x2 = service.transform("file:/path/file.xsl", x);
+ * </code></pre>
+ *
+ * The input is normally supplied to the XSLT processor as a {@link JDOMSource}.
+ * Processors that can consume a {@link StAXSource} directly may instead be
+ * given a StAX stream over the input Document, see
+ * {@link #setStAXSource(boolean)}.
+ *
+ * @see XSLTransformer
+ * @author agent
+ */
+public final class TransformerService {
+
+	/**
+	 * The default maximum number of idle Transformers kept for each stylesheet.
+	 */
+	public static final int DEFAULT_POOLSIZE = 8;
+
+	private static final class DefaultHolder {
+		private static final TransformerService INSTANCE = new TransformerService();
+	}
+
+	/**
+	 * The compiled Templates of one stylesheet, and the idle Transformers
+	 * created from it.
+	 */
+	private static final class Stylesheet {
+		private final String systemId;
+		private final long modified;
+		private final BlockingQueue<Transformer> idle;
+		private Templates templates = null;
+
+		Stylesheet(String systemId, long modified, int poolsize) {
+			this.systemId = systemId;
+			this.modified = modified;
+			this.idle = new ArrayBlockingQueue<Transformer>(poolsize);
+		}
+	}
+
+	/**
+	 * Get the process-wide TransformerService, which uses the default
+	 * TransformerFactory, and {@link #DEFAULT_POOLSIZE} as the pool size.
+	 * 
+	 * @return the shared TransformerService instance.
+	 */
+	public static TransformerService getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	private final ConcurrentMap<String, Stylesheet> cache =
+			new ConcurrentHashMap<String, Stylesheet>();
+	private final TransformerFactory tfactory;
+	private final int poolsize;
+	private final boolean staxcapable;
+
+	private volatile JDOMFactory factory = null;
+	private volatile boolean staxsource = false;
+
+	/**
+	 * Create a TransformerService using a new default TransformerFactory, and
+	 * {@link #DEFAULT_POOLSIZE} as the pool size.
+	 */
+	public TransformerService() {
+		this(TransformerFactory.newInstance(), DEFAULT_POOLSIZE);
+	}
+
+	/**
+	 * Create a TransformerService that compiles stylesheets with the given
+	 * TransformerFactory.
+	 * 
+	 * @param tfactory The TransformerFactory to compile stylesheets with. It
+	 *        should not be used elsewhere while this service is in use.
+	 * @param poolsize The maximum number of idle Transformers to keep for
+	 *        each stylesheet.
+	 * @throws NullPointerException if tfactory is null
+	 * @throws IllegalArgumentException if poolsize is less than 1
+	 */
+	public TransformerService(TransformerFactory tfactory, int poolsize) {
+		if (tfactory == null) {
+			throw new NullPointerException("Null TransformerFactory");
+		}
+		if (poolsize < 1) {
+			throw new IllegalArgumentException(
+					"Pool size must be at least 1, not " + poolsize);
+		}
+		this.tfactory = tfactory;
+		this.poolsize = poolsize;
+		this.staxcapable = tfactory.getFeature(StAXSource.FEATURE);
+	}
+
+	/**
+	 * The maximum number of idle Transformers kept for each stylesheet.
+	 * 
+	 * @return the pool size.
+	 */
+	public int getPoolSize() {
+		return poolsize;
+	}
+
+	/**
+	 * Sets a custom JDOMFactory to use when building the transformation
+	 * results.
+	 * 
+	 * @param factory the custom <code>JDOMFactory</code> to use or
+	 *        <code>null</code> to use the default JDOM classes.
+	 */
+	public void setFactory(JDOMFactory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Returns the custom JDOMFactory used to build the transformation results.
+	 * 
+	 * @return the custom <code>JDOMFactory</code> or <code>null</code> if the
+	 *         default JDOM classes are being used.
+	 */
+	public JDOMFactory getFactory() {
+		return factory;
+	}
+
+	/**
+	 * Supply input Documents to the XSLT processor as a {@link StAXSource}
+	 * over the JDOM content, instead of as a {@link JDOMSource}. This is only
+	 * done when the TransformerFactory reports support for the
+	 * {@link StAXSource#FEATURE}, and only for Document inputs.
+	 * <p>
+	 * This is off by default: some processors (including the one in the JDK)
+	 * convert a StAXSource back to SAX events internally, and gain nothing
+	 * from it. Measure with your processor before enabling it.
+	 * 
+	 * @param staxsource true to use a StAXSource where supported.
+	 */
+	public void setStAXSource(boolean staxsource) {
+		this.staxsource = staxsource;
+	}
+
+	/**
+	 * Whether input Documents are supplied as a StAXSource where supported.
+	 * 
+	 * @return true if a StAXSource is used where supported.
+	 * @see #setStAXSource(boolean)
+	 */
+	public boolean isStAXSource() {
+		return staxsource;
+	}
+
+	/**
+	 * Get the compiled Templates for a stylesheet, compiling and caching it
+	 * if needed.
+	 * 
+	 * @param stylesheetSystemId the system ID (URL) of the stylesheet.
+	 * @return the compiled Templates.
+	 * @throws XSLTransformException if the stylesheet cannot be compiled.
+	 */
+	public Templates getTemplates(String stylesheetSystemId)
+			throws XSLTransformException {
+		return compile(lookup(stylesheetSystemId));
+	}
+
+	/**
+	 * Get the compiled Templates for a stylesheet file, compiling and caching
+	 * it if needed.
+	 * 
+	 * @param stylesheet the stylesheet File.
+	 * @return the compiled Templates.
+	 * @throws XSLTransformException if the stylesheet cannot be compiled.
+	 */
+	public Templates getTemplates(File stylesheet) throws XSLTransformException {
+		return getTemplates(systemId(stylesheet));
+	}
+
+	/**
+	 * Remove a stylesheet, and its idle Transformers, from the cache.
+	 * 
+	 * @param stylesheetSystemId the system ID of the stylesheet to remove.
+	 * @return true if the stylesheet was cached.
+	 */
+	public boolean invalidate(String stylesheetSystemId) {
+		return cache.remove(stylesheetSystemId) != null;
+	}
+
+	/**
+	 * Remove all stylesheets from the cache.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * The number of stylesheets currently cached.
+	 * 
+	 * @return the cached stylesheet count.
+	 */
+	public int getCacheSize() {
+		return cache.size();
+	}
+
+	/**
+	 * Transforms the given document to an output document.
+	 * 
+	 * @param stylesheetSystemId the system ID of the stylesheet to apply.
+	 * @param inputDoc input document
+	 * @return transformed output document
+	 * @throws XSLTransformException if there's a problem in the transformation
+	 */
+	public Document transform(String stylesheetSystemId, Document inputDoc)
+			throws XSLTransformException {
+		return transform(stylesheetSystemId, inputDoc, null);
+	}
+
+	/**
+	 * Transforms the given document to an output document, with stylesheet
+	 * parameters.
+	 * 
+	 * @param stylesheetSystemId the system ID of the stylesheet to apply.
+	 * @param inputDoc input document
+	 * @param parameters the stylesheet parameters to set (may be null).
+	 * @return transformed output document
+	 * @throws XSLTransformException if there's a problem in the transformation
+	 */
+	public Document transform(String stylesheetSystemId, Document inputDoc,
+			Map<String, ?> parameters) throws XSLTransformException {
+		final Source source = staxsource && staxcapable
+				? new StAXSource(new StAXStreamReader().output(inputDoc))
+				: new JDOMSource(inputDoc);
+		final JDOMResult result = new JDOMResult();
+		result.setFactory(factory);  // null ok
+		transform(stylesheetSystemId, source, result, parameters);
+		return result.getDocument();
+	}
+
+	/**
+	 * Transforms the given document to an output document.
+	 * 
+	 * @param stylesheet the stylesheet File to apply.
+	 * @param inputDoc input document
+	 * @return transformed output document
+	 * @throws XSLTransformException if there's a problem in the transformation
+	 */
+	public Document transform(File stylesheet, Document inputDoc)
+			throws XSLTransformException {
+		return transform(systemId(stylesheet), inputDoc, null);
+	}
+
+	/**
+	 * Transforms the given input nodes to a list of output nodes.
+	 * 
+	 * @param stylesheetSystemId the system ID of the stylesheet to apply.
+	 * @param inputNodes input nodes
+	 * @return transformed output nodes
+	 * @throws XSLTransformException if there's a problem in the transformation
+	 */
+	public List<Content> transform(String stylesheetSystemId,
+			List<Content> inputNodes) throws XSLTransformException {
+		final JDOMResult result = new JDOMResult();
+		result.setFactory(factory);  // null ok
+		transform(stylesheetSystemId, new JDOMSource(inputNodes), result, null);
+		return result.getResult();
+	}
+
+	/**
+	 * Transform an arbitrary Source to an arbitrary Result using a pooled
+	 * Transformer for the stylesheet.
+	 * 
+	 * @param stylesheetSystemId the system ID of the stylesheet to apply.
+	 * @param source the input to transform.
+	 * @param result where to put the transformation output.
+	 * @param parameters the stylesheet parameters to set (may be null).
+	 * @throws XSLTransformException if there's a problem in the transformation
+	 */
+	public void transform(String stylesheetSystemId, Source source,
+			Result result, Map<String, ?> parameters) throws XSLTransformException {
+		final Stylesheet sheet = lookup(stylesheetSystemId);
+		final Transformer transformer = borrow(sheet);
+		try {
+			if (parameters != null) {
+				for (Map.Entry<String, ?> me : parameters.entrySet()) {
+					transformer.setParameter(me.getKey(), me.getValue());
+				}
+			}
+			transformer.transform(source, result);
+		} catch (TransformerException e) {
+			// the state of the transformer is unknown, do not reuse it.
+			throw new XSLTransformException("Could not perform transformation", e);
+		}
+		// some processors keep parameters across a reset().
+		transformer.clearParameters();
+		transformer.reset();
+		sheet.idle.offer(transformer);
+	}
+
+	/**
+	 * Locate the cached Stylesheet for a system ID, replacing it if the
+	 * underlying file has been modified.
+	 */
+	private Stylesheet lookup(final String systemId) {
+		if (systemId == null) {
+			throw new NullPointerException("Null stylesheet system ID");
+		}
+		final long modified = lastModified(systemId);
+		while (true) {
+			final Stylesheet current = cache.get(systemId);
+			if (current != null && current.modified == modified) {
+				return current;
+			}
+			final Stylesheet replacement =
+					new Stylesheet(systemId, modified, poolsize);
+			if (current == null) {
+				if (cache.putIfAbsent(systemId, replacement) == null) {
+					return replacement;
+				}
+			} else if (cache.replace(systemId, current, replacement)) {
+				return replacement;
+			}
+			// some other thread got there first, look again.
+		}
+	}
+
+	private Templates compile(final Stylesheet sheet) throws XSLTransformException {
+		synchronized (sheet) {
+			if (sheet.templates != null) {
+				return sheet.templates;
+			}
+			Templates templates = null;
+			TransformerException problem = null;
+			try {
+				// TransformerFactory instances are not thread-safe.
+				synchronized (tfactory) {
+					templates = tfactory.newTemplates(
+							new StreamSource(sheet.systemId));
+				}
+			} catch (TransformerException e) {
+				problem = e;
+			}
+			if (templates == null) {
+				// do not keep the broken stylesheet, allow it to be fixed.
+				// Some processors report the problem to the ErrorListener
+				// and return null instead of throwing.
+				cache.remove(sheet.systemId, sheet);
+				throw new XSLTransformException(
+						"Could not compile stylesheet " + sheet.systemId, problem);
+			}
+			sheet.templates = templates;
+			return templates;
+		}
+	}
+
+	private Transformer borrow(final Stylesheet sheet) throws XSLTransformException {
+		final Transformer pooled = sheet.idle.poll();
+		if (pooled != null) {
+			return pooled;
+		}
+		try {
+			return compile(sheet).newTransformer();
+		} catch (TransformerException e) {
+			throw new XSLTransformException("Could not create Transformer", e);
+		}
+	}
+
+	private static final String systemId(final File file) {
+		return file.getAbsoluteFile().toURI().toString();
+	}
+
+	/**
+	 * The modification time of a <code>file:</code> system ID, or 0 for
+	 * anything else.
+	 */
+	private static final long lastModified(final String systemId) {
+		if (!systemId.regionMatches(true, 0, "file:", 0, 5)) {
+			return 0L;
+		}
+		try {
+			return new File(new URI(systemId)).lastModified();
+		} catch (Exception e) {
+			// not a hierarchical file URI we can check.
+			return 0L;
+		}
+	}
+
+}
@@ -107,7 +107,12 @@ import org.xml.sax.EntityResolver;
  *    a default implementation is chosen. In Sun's JDK 1.4, this is
  *       Xalan 2.2d10. </li>
  *    </ol>
-
+ * <p>
+ * A new Transformer is created for each transformation. Applications that
+ * run many transformations with the same stylesheets should consider the
+ * {@link TransformerService}, which caches compiled stylesheets and pools
+ * the Transformers.
+ *
  * @author  Jason Hunter
  * @author  Elliotte Rusty Harold
  */
@@ -0,0 +1,148 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filter;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.util.AbstractXPathCompiled;
+
+/**
+ * An XPathExpression that evaluates a {@link LocationPath} directly against
+ * the JDOM model.
+ * <p>
+ * Context objects that are not JDOM nodes (for example a List of nodes) are
+ * passed on to an expression compiled by the fallback factory, so the results
+ * are always the same as the fallback library would produce.
+ * 
+ * @param <T> The generic type of the returned values.
+ * @author agent
+ */
+final class DirectCompiled<T> extends AbstractXPathCompiled<T> {
+
+	private final LocationPath path;
+	private final XPathFactory fallback;
+
+	/**
+	 * Compile the expression.
+	 * 
+	 * @param expression
+	 *        The XPath expression
+	 * @param filter
+	 *        The result filter
+	 * @param variables
+	 *        The variables (not referenced by supported expressions)
+	 * @param namespaces
+	 *        The namespaces used to resolve prefixes
+	 * @param fallback
+	 *        The factory to use for unsupported context objects.
+	 * @throws UnsupportedExpressionException
+	 *         if the expression is not supported by the direct engine.
+	 */
+	DirectCompiled(final String expression, final Filter<T> filter,
+			final Map<String, Object> variables, final Namespace[] namespaces,
+			final XPathFactory fallback) throws UnsupportedExpressionException {
+		super(expression, filter, variables, namespaces);
+		this.fallback = fallback;
+		this.path = new DirectParser(expression, this).parse();
+	}
+
+	private static final boolean isNode(final Object context) {
+		return context instanceof Content || context instanceof Attribute
+				|| context instanceof Document;
+	}
+
+	private List<?> fallbackAll(final Object context) {
+		return fallback.compile(getExpression(), Filters.fpassthrough(),
+				getVariables(), getNamespaces()).evaluate(context);
+	}
+
+	@Override
+	protected List<?> evaluateRawAll(final Object context) {
+		if (isNode(context)) {
+			return path.evaluate(context);
+		}
+		return fallbackAll(context);
+	}
+
+	@Override
+	protected Object evaluateRawFirst(final Object context) {
+		// the iterator stops at the first result.
+		final Iterator<?> it = iterateRaw(context);
+		return it.hasNext() ? it.next() : null;
+	}
+
+	@Override
+	protected Iterator<?> iterateRaw(final Object context) {
+		if (isNode(context)) {
+			return path.iterate(context);
+		}
+		return fallbackAll(context).iterator();
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " direct " + path;
+	}
+
+}
@@ -0,0 +1,477 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jdom2.Namespace;
+import org.jdom2.Verifier;
+import org.jdom2.xpath.XPathExpression;
+
+/**
+ * A recursive-descent parser for the subset of XPath supported by the
+ * direct engine. Anything outside the subset results in an
+ * {@link UnsupportedExpressionException} (including syntax errors, which are
+ * left to the fallback XPath library to report). The supported grammar is:
+ * 
+ * <pre>
+ * Path      ::= '/' | '/' RelPath | '//' RelPath | RelPath
+ * RelPath   ::= Step (('/' | '//') Step)*
+ * Step      ::= '.' | '..' | '@' NodeTest Predicate*
+ *             | (Axis '::')? NodeTest Predicate*
+ * Axis      ::= child | descendant | descendant-or-self | attribute
+ *             | parent | self
+ * NodeTest  ::= '*' | NCName ':' '*' | QName | 'node()' | 'text()'
+ *             | 'comment()' | 'processing-instruction(' Literal? ')'
+ * Predicate ::= '[' PredExpr ']'
+ * PredExpr  ::= Number | 'last()' | 'position()' CmpOp Number
+ *             | Path | Path ('=' | '!=') Literal | Literal ('=' | '!=') Path
+ * </pre>
+ * 
+ * @author agent
+ */
+final class DirectParser {
+
+	private final String xpath;
+	private final XPathExpression<?> resolver;
+	private final int len;
+	private int pos = 0;
+
+	/**
+	 * Create a parser for the expression.
+	 * 
+	 * @param xpath
+	 *        The expression to parse.
+	 * @param resolver
+	 *        Used to resolve namespace prefixes.
+	 */
+	DirectParser(final String xpath, final XPathExpression<?> resolver) {
+		this.xpath = xpath;
+		this.resolver = resolver;
+		this.len = xpath.length();
+	}
+
+	/**
+	 * Parse the whole expression.
+	 * 
+	 * @return the compiled LocationPath
+	 * @throws UnsupportedExpressionException
+	 *         if the expression is not in the supported subset.
+	 */
+	LocationPath parse() throws UnsupportedExpressionException {
+		final LocationPath path = parsePath();
+		skipWhite();
+		if (pos < len) {
+			throw unsupported("unexpected content");
+		}
+		return path;
+	}
+
+	private UnsupportedExpressionException unsupported(final String why) {
+		return new UnsupportedExpressionException("Unsupported XPath '" 
+				+ xpath + "' at position " + pos + ": " + why);
+	}
+
+	private void skipWhite() {
+		while (pos < len) {
+			final char c = xpath.charAt(pos);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return;
+			}
+			pos++;
+		}
+	}
+
+	private boolean peek(final char c) {
+		return pos < len && xpath.charAt(pos) == c;
+	}
+
+	private boolean peek(final String s) {
+		return xpath.startsWith(s, pos);
+	}
+
+	private void expect(final char c) throws UnsupportedExpressionException {
+		skipWhite();
+		if (!peek(c)) {
+			throw unsupported("expected '" + c + "'");
+		}
+		pos++;
+	}
+
+	private boolean isStepStart() {
+		if (pos >= len) {
+			return false;
+		}
+		final char c = xpath.charAt(pos);
+		return c == '.' || c == '@' || c == '*' 
+				|| (c != ':' && Verifier.isXMLNameStartCharacter(c));
+	}
+
+	private LocationPath parsePath() throws UnsupportedExpressionException {
+		skipWhite();
+		final ArrayList<Step> steps = new ArrayList<Step>();
+		if (peek("//")) {
+			pos += 2;
+			steps.add(new Step(Step.DESCENDANT_OR_SELF, NodeTest.NODE, null));
+			parseRelative(steps);
+			return new LocationPath(true, steps);
+		}
+		if (peek('/')) {
+			pos++;
+			skipWhite();
+			if (isStepStart()) {
+				parseRelative(steps);
+			}
+			return new LocationPath(true, steps);
+		}
+		parseRelative(steps);
+		return new LocationPath(false, steps);
+	}
+
+	private void parseRelative(final List<Step> steps) 
+			throws UnsupportedExpressionException {
+		steps.add(parseStep());
+		while (true) {
+			skipWhite();
+			if (peek("//")) {
+				pos += 2;
+				steps.add(new Step(Step.DESCENDANT_OR_SELF, NodeTest.NODE, null));
+				steps.add(parseStep());
+			} else if (peek('/')) {
+				pos++;
+				steps.add(parseStep());
+			} else {
+				return;
+			}
+		}
+	}
+
+	private String parseNCName() {
+		final int start = pos;
+		if (pos < len && xpath.charAt(pos) != ':' 
+				&& Verifier.isXMLNameStartCharacter(xpath.charAt(pos))) {
+			pos++;
+			while (pos < len && xpath.charAt(pos) != ':'
+					&& Verifier.isXMLNameCharacter(xpath.charAt(pos))) {
+				pos++;
+			}
+		}
+		return start == pos ? null : xpath.substring(start, pos);
+	}
+
+	private Step parseStep() throws UnsupportedExpressionException {
+		skipWhite();
+		if (peek("..")) {
+			pos += 2;
+			return new Step(Step.PARENT, NodeTest.NODE, null);
+		}
+		if (peek('.')) {
+			pos++;
+			return new Step(Step.SELF, NodeTest.NODE, null);
+		}
+		int axis = Step.CHILD;
+		if (peek('@')) {
+			pos++;
+			axis = Step.ATTRIBUTE;
+		} else {
+			final int mark = pos;
+			final String name = parseNCName();
+			skipWhite();
+			if (name != null && peek("::")) {
+				pos += 2;
+				if ("child".equals(name)) {
+					axis = Step.CHILD;
+				} else if ("descendant".equals(name)) {
+					axis = Step.DESCENDANT;
+				} else if ("descendant-or-self".equals(name)) {
+					axis = Step.DESCENDANT_OR_SELF;
+				} else if ("attribute".equals(name)) {
+					axis = Step.ATTRIBUTE;
+				} else if ("parent".equals(name)) {
+					axis = Step.PARENT;
+				} else if ("self".equals(name)) {
+					axis = Step.SELF;
+				} else {
+					throw unsupported("axis " + name);
+				}
+			} else {
+				// not an axis, it is the node test.
+				pos = mark;
+			}
+		}
+		final NodeTest test = parseNodeTest();
+		ArrayList<Predicate> preds = null;
+		skipWhite();
+		while (peek('[')) {
+			pos++;
+			if (preds == null) {
+				preds = new ArrayList<Predicate>();
+			}
+			preds.add(parsePredicate());
+			expect(']');
+			skipWhite();
+		}
+		return new Step(axis, test, preds);
+	}
+
+	private Namespace resolve(final String prefix) 
+			throws UnsupportedExpressionException {
+		try {
+			return resolver.getNamespace(prefix);
+		} catch (IllegalArgumentException iae) {
+			throw unsupported("undeclared prefix " + prefix);
+		}
+	}
+
+	private NodeTest parseNodeTest() throws UnsupportedExpressionException {
+		skipWhite();
+		if (peek('*')) {
+			pos++;
+			return new NodeTest(NodeTest.ANYNAME, null, null);
+		}
+		final String name = parseNCName();
+		if (name == null) {
+			throw unsupported("expected a node test");
+		}
+		if (peek(':') && !peek("::")) {
+			pos++;
+			if (peek('*')) {
+				pos++;
+				return new NodeTest(NodeTest.NSNAME, null, resolve(name));
+			}
+			final String local = parseNCName();
+			if (local == null) {
+				throw unsupported("expected a local name");
+			}
+			return new NodeTest(NodeTest.NAME, local, resolve(name));
+		}
+		final int mark = pos;
+		skipWhite();
+		if (!peek('(')) {
+			pos = mark;
+			return new NodeTest(NodeTest.NAME, name, Namespace.NO_NAMESPACE);
+		}
+		pos++;
+		NodeTest ret = null;
+		if ("node".equals(name)) {
+			ret = NodeTest.NODE;
+		} else if ("text".equals(name)) {
+			ret = new NodeTest(NodeTest.TEXT, null, null);
+		} else if ("comment".equals(name)) {
+			ret = new NodeTest(NodeTest.COMMENT, null, null);
+		} else if ("processing-instruction".equals(name)) {
+			skipWhite();
+			String target = null;
+			if (peek('\'') || peek('"')) {
+				target = parseLiteral();
+			}
+			ret = new NodeTest(NodeTest.PI, target, null);
+		} else {
+			throw unsupported("function " + name + "()");
+		}
+		expect(')');
+		return ret;
+	}
+
+	private String parseLiteral() throws UnsupportedExpressionException {
+		final char quote = xpath.charAt(pos);
+		final int end = xpath.indexOf(quote, pos + 1);
+		if (end < 0) {
+			throw unsupported("unterminated literal");
+		}
+		final String ret = xpath.substring(pos + 1, end);
+		pos = end + 1;
+		return ret;
+	}
+
+	private double parseNumber() throws UnsupportedExpressionException {
+		final int start = pos;
+		while (pos < len && xpath.charAt(pos) >= '0' && xpath.charAt(pos) <= '9') {
+			pos++;
+		}
+		if (peek('.')) {
+			pos++;
+			while (pos < len && xpath.charAt(pos) >= '0' && xpath.charAt(pos) <= '9') {
+				pos++;
+			}
+		}
+		if (pos == start || (pos == start + 1 && xpath.charAt(start) == '.')) {
+			throw unsupported("expected a number");
+		}
+		return Double.parseDouble(xpath.substring(start, pos));
+	}
+
+	private boolean isNumberStart() {
+		if (pos >= len) {
+			return false;
+		}
+		final char c = xpath.charAt(pos);
+		if (c >= '0' && c <= '9') {
+			return true;
+		}
+		return c == '.' && pos + 1 < len 
+				&& xpath.charAt(pos + 1) >= '0' && xpath.charAt(pos + 1) <= '9';
+	}
+
+	/**
+	 * Parse a function call with no arguments, e.g. 'last()'.
+	 * @param fname the function name
+	 * @return true if the function was there (and consumed).
+	 */
+	private boolean parseNoArgFunction(final String fname) {
+		if (!peek(fname)) {
+			return false;
+		}
+		final int mark = pos;
+		pos += fname.length();
+		skipWhite();
+		if (peek('(')) {
+			pos++;
+			skipWhite();
+			if (peek(')')) {
+				pos++;
+				return true;
+			}
+		}
+		pos = mark;
+		return false;
+	}
+
+	/**
+	 * Parse one of = != &lt; &lt;= &gt; &gt;=
+	 * @return the Predicate operator constant, or -1.
+	 */
+	private int parseOperator() {
+		skipWhite();
+		if (peek("!=")) {
+			pos += 2;
+			return Predicate.NE;
+		}
+		if (peek("<=")) {
+			pos += 2;
+			return Predicate.LE;
+		}
+		if (peek(">=")) {
+			pos += 2;
+			return Predicate.GE;
+		}
+		if (peek('=')) {
+			pos++;
+			return Predicate.EQ;
+		}
+		if (peek('<')) {
+			pos++;
+			return Predicate.LT;
+		}
+		if (peek('>')) {
+			pos++;
+			return Predicate.GT;
+		}
+		return -1;
+	}
+
+	private Predicate parsePredicate() throws UnsupportedExpressionException {
+		skipWhite();
+		if (isNumberStart()) {
+			final double value = parseNumber();
+			skipWhite();
+			if (!peek(']')) {
+				throw unsupported("numeric expression");
+			}
+			if (value != Math.floor(value)) {
+				// XPath says nothing matches, but Jaxen truncates.
+				throw unsupported("non-integer position");
+			}
+			return new Predicate.Position(Predicate.EQ, value);
+		}
+		if (parseNoArgFunction("last")) {
+			skipWhite();
+			if (!peek(']')) {
+				throw unsupported("last() expression");
+			}
+			return new Predicate.Last();
+		}
+		if (parseNoArgFunction("position")) {
+			final int op = parseOperator();
+			skipWhite();
+			if (op < 0 || !isNumberStart()) {
+				throw unsupported("position() expression");
+			}
+			return new Predicate.Position(op, parseNumber());
+		}
+		if (peek('\'') || peek('"')) {
+			final String literal = parseLiteral();
+			final int op = parseOperator();
+			if (op != Predicate.EQ && op != Predicate.NE) {
+				throw unsupported("literal comparison");
+			}
+			return new Predicate.Compare(parsePath(), literal, op == Predicate.EQ);
+		}
+		final LocationPath path = parsePath();
+		skipWhite();
+		if (peek(']')) {
+			return new Predicate.Exists(path);
+		}
+		final int op = parseOperator();
+		skipWhite();
+		if ((op == Predicate.EQ || op == Predicate.NE) 
+				&& (peek('\'') || peek('"'))) {
+			return new Predicate.Compare(path, parseLiteral(), op == Predicate.EQ);
+		}
+		throw unsupported("predicate expression");
+	}
+
+}
@@ -0,0 +1,194 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.Map;
+
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filter;
+import org.jdom2.internal.StripedCounter;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.jaxen.JaxenXPathFactory;
+
+/**
+ * An XPathFactory that evaluates simple location paths directly against the
+ * JDOM model, and uses a fallback XPathFactory (Jaxen by default) for
+ * everything else.
+ * <p>
+ * The direct engine avoids the overheads of a general-purpose XPath library
+ * (generic navigator calls, namespace wrapper objects, and copying result
+ * lists). It supports location paths using:
+ * <ul>
+ * <li>the child, descendant, descendant-or-self, attribute, parent and self
+ * axes, and the abbreviations <code>// @ . ..</code>
+ * <li>name tests (<code>name</code>, <code>pfx:name</code>,
+ * <code>pfx:*</code>, <code>*</code>) and the <code>node()</code>,
+ * <code>text()</code>, <code>comment()</code> and
+ * <code>processing-instruction()</code> node tests
+ * <li>positional predicates: <code>[2]</code>, <code>[last()]</code>,
+ * <code>[position() &lt; 3]</code>
+ * <li>existence and string equality predicates: <code>[@id]</code>,
+ * <code>[@id = 'x']</code>, <code>[child != "x"]</code>
+ * </ul>
+ * Expressions that use anything else (functions, variables, unions, other
+ * axes, numeric or boolean expressions, etc.) are compiled by the fallback
+ * factory, as are expressions with prefixes that are not declared. Which
+ * engine is used is decided once, at compile time, and the counts are
+ * available from {@link #getDirectCount()} and {@link #getFallbackCount()}.
+ * <p>
+ * Results from the direct engine are in document order without duplicates.
+ * <p>
+ * The public no-argument constructor makes it possible to use this class as
+ * the default XPathFactory through the
+ * {@link org.jdom2.JDOMConstants#JDOM2_PROPERTY_XPATH_FACTORY} system
+ * property. It can also be decorated by an
+ * {@link org.jdom2.xpath.util.CachingXPathFactory}.
+ * 
+ * @author agent
+ * @since JDOM2
+ */
+public final class DirectXPathFactory extends XPathFactory {
+
+	private final XPathFactory fallback;
+	private final StripedCounter direct = new StripedCounter();
+	private final StripedCounter fallbacks = new StripedCounter();
+
+	/**
+	 * Create a DirectXPathFactory that falls back to a
+	 * {@link JaxenXPathFactory}.
+	 */
+	public DirectXPathFactory() {
+		this(new JaxenXPathFactory());
+	}
+
+	/**
+	 * Create a DirectXPathFactory with the given fallback factory.
+	 * 
+	 * @param fallback
+	 *        The XPathFactory to use for unsupported expressions.
+	 * @throws NullPointerException
+	 *         if the fallback is null.
+	 */
+	public DirectXPathFactory(final XPathFactory fallback) {
+		if (fallback == null) {
+			throw new NullPointerException("Null fallback XPathFactory");
+		}
+		this.fallback = fallback;
+	}
+
+	@Override
+	public <T> XPathExpression<T> compile(final String expression,
+			final Filter<T> filter, final Map<String, Object> variables,
+			final Namespace... namespaces) {
+		try {
+			final XPathExpression<T> ret = new DirectCompiled<T>(expression,
+					filter, variables, namespaces, fallback);
+			direct.increment();
+			return ret;
+		} catch (UnsupportedExpressionException uee) {
+			fallbacks.increment();
+			return fallback.compile(expression, filter, variables, namespaces);
+		}
+	}
+
+	/**
+	 * Get the XPathFactory used for expressions the direct engine does not
+	 * support.
+	 * 
+	 * @return the fallback XPathFactory
+	 */
+	public XPathFactory getFallback() {
+		return fallback;
+	}
+
+	/**
+	 * Indicate whether an XPathExpression is evaluated by the direct engine.
+	 * 
+	 * @param expression
+	 *        The expression to check
+	 * @return true if the expression was compiled by the direct engine.
+	 */
+	public boolean isDirect(final XPathExpression<?> expression) {
+		return expression instanceof DirectCompiled;
+	}
+
+	/**
+	 * Get the number of expressions compiled by the direct engine.
+	 * 
+	 * @return the direct compile count
+	 */
+	public long getDirectCount() {
+		return direct.get();
+	}
+
+	/**
+	 * Get the number of expressions that were compiled by the fallback
+	 * factory.
+	 * 
+	 * @return the fallback compile count
+	 */
+	public long getFallbackCount() {
+		return fallbacks.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"[DirectXPathFactory: %d direct, %d fallback to %s]",
+				getDirectCount(), getFallbackCount(), fallback);
+	}
+
+}
@@ -0,0 +1,203 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Document;
+
+/**
+ * A compiled location path: an optional leading '/' and a sequence of
+ * {@link Step}s.
+ * 
+ * @author agent
+ */
+final class LocationPath {
+
+	private final boolean absolute;
+	private final Step[] steps;
+
+	LocationPath(final boolean absolute, final List<Step> steps) {
+		this.absolute = absolute;
+		this.steps = optimize(steps);
+	}
+
+	/**
+	 * <code>//name</code> is really <code>/descendant-or-self::node()/child::name</code>.
+	 * Merge the two steps in to either descendant::name (if there are no
+	 * positional predicates) or the combined DESCENDANT_CHILD step.
+	 * 
+	 * @param steps The steps as parsed.
+	 * @return the optimized steps.
+	 */
+	private static final Step[] optimize(final List<Step> steps) {
+		final ArrayList<Step> ret = new ArrayList<Step>(steps.size());
+		for (int i = 0; i < steps.size(); i++) {
+			final Step step = steps.get(i);
+			if (i + 1 < steps.size() && step.axis == Step.DESCENDANT_OR_SELF
+					&& step.test.kind == NodeTest.ANYNODE
+					&& step.predicates.length == 0
+					&& steps.get(i + 1).axis == Step.CHILD) {
+				final Step next = steps.get(i + 1);
+				final List<Predicate> preds = Arrays.asList(next.predicates);
+				ret.add(new Step(next.positional ? Step.DESCENDANT_CHILD
+						: Step.DESCENDANT, next.test, preds));
+				i++;
+			} else {
+				ret.add(step);
+			}
+		}
+		return ret.toArray(new Step[ret.size()]);
+	}
+
+	/**
+	 * The Document node for the context, or null if the context is not in a
+	 * Document.
+	 * 
+	 * @param context
+	 *        The context node.
+	 * @return the Document node, or null.
+	 */
+	private static final Document documentOf(final Object context) {
+		if (context instanceof Document) {
+			return (Document)context;
+		}
+		if (context instanceof Content) {
+			return ((Content)context).getDocument();
+		}
+		if (context instanceof Attribute) {
+			return ((Attribute)context).getDocument();
+		}
+		return null;
+	}
+
+	/**
+	 * Evaluate the path from a context node.
+	 * 
+	 * @param context
+	 *        The context node.
+	 * @return the selected nodes, in document order.
+	 */
+	List<Object> evaluate(final Object context) {
+		List<Object> nodes = new ArrayList<Object>(1);
+		if (absolute) {
+			final Document doc = documentOf(context);
+			if (doc == null) {
+				// same as Jaxen: nothing selected from outside a document.
+				return nodes;
+			}
+			nodes.add(doc);
+		} else {
+			nodes.add(context);
+		}
+		for (Step step : steps) {
+			nodes = step.evaluate(nodes);
+			if (nodes.isEmpty()) {
+				break;
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Evaluate the path from a context node, producing the results of the
+	 * last step lazily (the earlier steps are evaluated in full).
+	 * 
+	 * @param context
+	 *        The context node.
+	 * @return the selected nodes, in document order.
+	 */
+	Iterator<Object> iterate(final Object context) {
+		if (steps.length == 0) {
+			return evaluate(context).iterator();
+		}
+		List<Object> nodes = new ArrayList<Object>(1);
+		if (absolute) {
+			final Document doc = documentOf(context);
+			if (doc == null) {
+				return nodes.iterator();
+			}
+			nodes.add(doc);
+		} else {
+			nodes.add(context);
+		}
+		final int last = steps.length - 1;
+		for (int i = 0; i < last && !nodes.isEmpty(); i++) {
+			nodes = steps[i].evaluate(nodes);
+		}
+		return steps[last].iterate(nodes);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		if (absolute) {
+			sb.append('/');
+		}
+		for (int i = 0; i < steps.length; i++) {
+			if (i > 0) {
+				sb.append('/');
+			}
+			sb.append(steps[i]);
+		}
+		return sb.toString();
+	}
+
+}
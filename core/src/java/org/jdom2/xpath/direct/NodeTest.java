@@ -0,0 +1,206 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+
+/**
+ * The node-test part of a location step, e.g. <code>name</code>,
+ * <code>pfx:*</code>, <code>*</code>, <code>text()</code>.
+ * <p>
+ * The 'principal' node type of the attribute axis is Attribute, and for all
+ * other supported axes it is Element. Name tests only ever match nodes of the
+ * principal type.
+ * 
+ * @author agent
+ */
+final class NodeTest {
+
+	/** node() - matches everything */
+	static final int ANYNODE = 0;
+	/** * - any node of the principal type */
+	static final int ANYNAME = 1;
+	/** pfx:* - any principal node in a namespace */
+	static final int NSNAME = 2;
+	/** name or pfx:name */
+	static final int NAME = 3;
+	/** text() - Text and CDATA */
+	static final int TEXT = 4;
+	/** comment() */
+	static final int COMMENT = 5;
+	/** processing-instruction() or processing-instruction('target') */
+	static final int PI = 6;
+
+	static final NodeTest NODE = new NodeTest(ANYNODE, null, null);
+
+	final int kind;
+	/** the local name (NAME), or the PI target (PI), may be null */
+	final String name;
+	/** The namespace for NSNAME and NAME tests */
+	final Namespace namespace;
+
+	NodeTest(final int kind, final String name, final Namespace namespace) {
+		this.kind = kind;
+		this.name = name;
+		this.namespace = namespace;
+	}
+
+	/**
+	 * Does this test match the given Element?
+	 * @param emt The Element to test
+	 * @return true if it matches.
+	 */
+	final boolean matchesElement(final Element emt) {
+		switch (kind) {
+			case ANYNODE:
+			case ANYNAME:
+				return true;
+			case NSNAME:
+				return namespace.getURI().equals(emt.getNamespaceURI());
+			case NAME:
+				return name.equals(emt.getName())
+						&& namespace.getURI().equals(emt.getNamespaceURI());
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Does this test match the given Attribute (on the attribute axis)?
+	 * @param att The Attribute to test
+	 * @return true if it matches.
+	 */
+	final boolean matchesAttribute(final Attribute att) {
+		switch (kind) {
+			case ANYNODE:
+			case ANYNAME:
+				return true;
+			case NSNAME:
+				return namespace.getURI().equals(att.getNamespaceURI());
+			case NAME:
+				return name.equals(att.getName())
+						&& namespace.getURI().equals(att.getNamespaceURI());
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Does this test match the given Content (on a non-attribute axis)?
+	 * @param c The Content to test
+	 * @return true if it matches.
+	 */
+	final boolean matchesContent(final Content c) {
+		if (kind == ANYNODE) {
+			return true;
+		}
+		switch (c.getCType()) {
+			case Element:
+				return matchesElement((Element)c);
+			case Text:
+			case CDATA:
+				return kind == TEXT;
+			case Comment:
+				return kind == COMMENT;
+			case ProcessingInstruction:
+				return kind == PI && (name == null
+						|| name.equals(((ProcessingInstruction)c).getTarget()));
+			default:
+				// DocType and EntityRef only match node()
+				return false;
+		}
+	}
+
+	/**
+	 * Does this test match any node on a non-attribute axis.
+	 * @param node The node to test.
+	 * @return true if it matches.
+	 */
+	final boolean matches(final Object node) {
+		if (node instanceof Content) {
+			return matchesContent((Content)node);
+		}
+		// Document and Attribute nodes are never of the principal type
+		// on a non-attribute axis, they only match node().
+		return kind == ANYNODE;
+	}
+
+	@Override
+	public String toString() {
+		switch (kind) {
+			case ANYNODE:
+				return "node()";
+			case ANYNAME:
+				return "*";
+			case NSNAME:
+				return namespace.getPrefix() + ":*";
+			case NAME:
+				return namespace.getPrefix().length() == 0 ? name
+						: (namespace.getPrefix() + ":" + name);
+			case TEXT:
+				return "text()";
+			case COMMENT:
+				return "comment()";
+			default:
+				return name == null ? "processing-instruction()"
+						: ("processing-instruction('" + name + "')");
+		}
+	}
+
+}
@@ -0,0 +1,266 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.List;
+
+import org.jdom2.Attribute;
+import org.jdom2.Comment;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+
+/**
+ * A predicate on a location step, the part in [...] brackets. The supported
+ * predicates are:
+ * <ul>
+ * <li>positional: <code>[3]</code>, <code>[last()]</code> and
+ * <code>[position() &lt; 3]</code> (with any of = != &lt; &lt;= &gt; &gt;=)
+ * <li>existence: <code>[@id]</code>, <code>[child/grandchild]</code>
+ * <li>string equality: <code>[@id = 'x']</code>, <code>[name != "x"]</code>
+ * </ul>
+ * 
+ * @author agent
+ */
+abstract class Predicate {
+
+	static final int EQ = 0;
+	static final int NE = 1;
+	static final int LT = 2;
+	static final int LE = 3;
+	static final int GT = 4;
+	static final int GE = 5;
+
+	private static final String[] OPS = {"=", "!=", "<", "<=", ">", ">="};
+
+	/**
+	 * The XPath string-value of a node, as the Jaxen JDOM navigator
+	 * calculates it.
+	 * 
+	 * @param node
+	 *        The node to get the value of.
+	 * @return the String value
+	 */
+	static final String stringValue(final Object node) {
+		if (node instanceof Element) {
+			return ((Element)node).getValue();
+		}
+		if (node instanceof Attribute) {
+			return ((Attribute)node).getValue();
+		}
+		if (node instanceof Text) {
+			// CDATA too
+			return ((Text)node).getText();
+		}
+		if (node instanceof Comment) {
+			return ((Comment)node).getText();
+		}
+		if (node instanceof ProcessingInstruction) {
+			return ((ProcessingInstruction)node).getData();
+		}
+		if (node instanceof Document && ((Document)node).hasRootElement()) {
+			return ((Document)node).getRootElement().getValue();
+		}
+		// DocType, EntityRef, empty Document.
+		return "";
+	}
+
+	/**
+	 * Whether the predicate depends on the node's position in the step.
+	 * @return true if the result depends on the position or size.
+	 */
+	abstract boolean isPositional();
+
+	/**
+	 * Test a node.
+	 * 
+	 * @param node
+	 *        The node to test.
+	 * @param position
+	 *        The 1-based position of the node in the candidate list.
+	 * @param size
+	 *        The size of the candidate list.
+	 * @return true if the node should be kept.
+	 */
+	abstract boolean matches(Object node, int position, int size);
+
+	/**
+	 * [n] and [position() op n]
+	 */
+	static final class Position extends Predicate {
+		private final int op;
+		private final double value;
+
+		Position(final int op, final double value) {
+			this.op = op;
+			this.value = value;
+		}
+
+		@Override
+		boolean isPositional() {
+			return true;
+		}
+
+		@Override
+		boolean matches(final Object node, final int position, final int size) {
+			switch (op) {
+				case EQ:
+					return position == value;
+				case NE:
+					return position != value;
+				case LT:
+					return position < value;
+				case LE:
+					return position <= value;
+				case GT:
+					return position > value;
+				default:
+					return position >= value;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "[position() " + OPS[op] + " " + value + "]";
+		}
+	}
+
+	/**
+	 * [last()]
+	 */
+	static final class Last extends Predicate {
+		@Override
+		boolean isPositional() {
+			return true;
+		}
+
+		@Override
+		boolean matches(final Object node, final int position, final int size) {
+			return position == size;
+		}
+
+		@Override
+		public String toString() {
+			return "[last()]";
+		}
+	}
+
+	/**
+	 * [path] - true if the path selects anything.
+	 */
+	static final class Exists extends Predicate {
+		private final LocationPath path;
+
+		Exists(final LocationPath path) {
+			this.path = path;
+		}
+
+		@Override
+		boolean isPositional() {
+			return false;
+		}
+
+		@Override
+		boolean matches(final Object node, final int position, final int size) {
+			return !path.evaluate(node).isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return "[" + path + "]";
+		}
+	}
+
+	/**
+	 * [path = 'literal'] and [path != 'literal']. As per XPath node-set
+	 * comparison rules, this is true if any selected node's string-value
+	 * compares true.
+	 */
+	static final class Compare extends Predicate {
+		private final LocationPath path;
+		private final String literal;
+		private final boolean equal;
+
+		Compare(final LocationPath path, final String literal,
+				final boolean equal) {
+			this.path = path;
+			this.literal = literal;
+			this.equal = equal;
+		}
+
+		@Override
+		boolean isPositional() {
+			return false;
+		}
+
+		@Override
+		boolean matches(final Object node, final int position, final int size) {
+			final List<Object> nodes = path.evaluate(node);
+			for (int i = 0; i < nodes.size(); i++) {
+				if (literal.equals(stringValue(nodes.get(i))) == equal) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + path + (equal ? " = '" : " != '") + literal + "']";
+		}
+	}
+
+}
@@ -0,0 +1,670 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.direct;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Element;
+import org.jdom2.Parent;
+
+/**
+ * A single location step: an axis, a node test, and zero or more predicates.
+ * <p>
+ * Steps walk the JDOM tree directly, using {@link Content#getCType()} to
+ * identify node types, and the indexed {@link Element#getChildren(String,
+ * org.jdom2.Namespace)} and {@link Element#getAttribute(String,
+ * org.jdom2.Namespace)} methods for name tests.
+ * <p>
+ * The results of a step are always in document order, without duplicates.
+ * 
+ * @author agent
+ */
+final class Step {
+
+	static final int CHILD = 0;
+	static final int DESCENDANT = 1;
+	static final int DESCENDANT_OR_SELF = 2;
+	static final int ATTRIBUTE = 3;
+	static final int PARENT = 4;
+	static final int SELF = 5;
+	/**
+	 * Not a real XPath axis: it is the combination of
+	 * <code>descendant-or-self::node()/child::</code> which is what
+	 * <code>//</code> expands to. Positional predicates are applied relative
+	 * to the parent, exactly as the two separate steps would.
+	 */
+	static final int DESCENDANT_CHILD = 6;
+
+	private static final String[] AXES = {"child", "descendant",
+			"descendant-or-self", "attribute", "parent", "self",
+			"descendant-or-self::node()/child"};
+
+	private static final Predicate[] NOPREDICATES = new Predicate[0];
+
+	/**
+	 * The node's parent on the parent axis (the owning Element for an
+	 * Attribute).
+	 * 
+	 * @param node
+	 *        the node to get the parent of
+	 * @return the parent, or null
+	 */
+	private static final Parent parentOf(final Object node) {
+		if (node instanceof Content) {
+			return ((Content)node).getParent();
+		}
+		if (node instanceof Attribute) {
+			return ((Attribute)node).getParent();
+		}
+		return null;
+	}
+
+	/**
+	 * Is the ancestor an ancestor of the node.
+	 * @param ancestor The potential ancestor
+	 * @param node The node
+	 * @return true if it is.
+	 */
+	private static final boolean isAncestor(final Object ancestor,
+			final Object node) {
+		Parent p = parentOf(node);
+		while (p != null) {
+			if (p == ancestor) {
+				return true;
+			}
+			p = p.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Whether any of the nodes is a descendant of any other.
+	 * @param nodes The nodes to check
+	 * @return true if any node is nested in another.
+	 */
+	private static final boolean hasNested(final List<Object> nodes) {
+		final IdentityHashMap<Object, Object> set = 
+				new IdentityHashMap<Object, Object>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			set.put(nodes.get(i), Boolean.TRUE);
+		}
+		for (int i = 0; i < nodes.size(); i++) {
+			Parent p = parentOf(nodes.get(i));
+			while (p != null) {
+				if (set.containsKey(p)) {
+					return true;
+				}
+				p = p.getParent();
+			}
+		}
+		return false;
+	}
+
+	private static final Object rootOf(final Object node) {
+		Object cur = node instanceof Attribute
+				? ((Attribute)node).getParent() : node;
+		if (cur == null) {
+			return node;
+		}
+		while (cur instanceof Content) {
+			final Parent p = ((Content)cur).getParent();
+			if (p == null) {
+				return cur;
+			}
+			cur = p;
+		}
+		return cur;
+	}
+
+	private static final void collectInOrder(final Object node,
+			final IdentityHashMap<Object, Object> set, final List<Object> out) {
+		if (set.containsKey(node)) {
+			out.add(node);
+		}
+		if (node instanceof Element) {
+			final Element emt = (Element)node;
+			if (emt.hasAttributes()) {
+				final List<Attribute> atts = emt.getAttributes();
+				for (int i = 0; i < atts.size() && out.size() < set.size(); i++) {
+					if (set.containsKey(atts.get(i))) {
+						out.add(atts.get(i));
+					}
+				}
+			}
+		}
+		if (node instanceof Parent) {
+			final List<Content> kids = ((Parent)node).getContent();
+			for (int i = 0; i < kids.size() && out.size() < set.size(); i++) {
+				collectInOrder(kids.get(i), set, out);
+			}
+		}
+	}
+
+	/**
+	 * Put the nodes in document order, removing duplicates. Nodes in
+	 * different trees are grouped by tree, in the order the trees are first
+	 * seen.
+	 * 
+	 * @param nodes
+	 *        The nodes to sort
+	 * @return the sorted nodes.
+	 */
+	static final List<Object> documentOrder(final List<Object> nodes) {
+		if (nodes.size() < 2) {
+			return nodes;
+		}
+		final IdentityHashMap<Object, Object> set = 
+				new IdentityHashMap<Object, Object>(nodes.size());
+		final IdentityHashMap<Object, Object> roots = 
+				new IdentityHashMap<Object, Object>();
+		final ArrayList<Object> rootlist = new ArrayList<Object>();
+		for (int i = 0; i < nodes.size(); i++) {
+			final Object node = nodes.get(i);
+			if (set.put(node, Boolean.TRUE) == null) {
+				final Object root = rootOf(node);
+				if (roots.put(root, Boolean.TRUE) == null) {
+					rootlist.add(root);
+				}
+			}
+		}
+		final ArrayList<Object> out = new ArrayList<Object>(set.size());
+		for (int i = 0; i < rootlist.size(); i++) {
+			collectInOrder(rootlist.get(i), set, out);
+		}
+		return out;
+	}
+
+	final int axis;
+	final NodeTest test;
+	final Predicate[] predicates;
+	/** true if any of the predicates are positional */
+	final boolean positional;
+
+	Step(final int axis, final NodeTest test, final List<Predicate> predicates) {
+		this.axis = axis;
+		this.test = test;
+		this.predicates = predicates == null ? NOPREDICATES
+				: predicates.toArray(new Predicate[predicates.size()]);
+		boolean pos = false;
+		for (Predicate p : this.predicates) {
+			pos |= p.isPositional();
+		}
+		this.positional = pos;
+	}
+
+	/**
+	 * Evaluate this step for each of the context nodes.
+	 * 
+	 * @param contexts
+	 *        The context nodes, in document order.
+	 * @return the selected nodes, in document order.
+	 */
+	List<Object> evaluate(final List<Object> contexts) {
+		final int size = contexts.size();
+		final ArrayList<Object> out = new ArrayList<Object>();
+		if (size == 1) {
+			select(contexts.get(0), out);
+			return out;
+		}
+		switch (axis) {
+			case ATTRIBUTE:
+			case SELF:
+				// context order is preserved.
+				for (int i = 0; i < size; i++) {
+					select(contexts.get(i), out);
+				}
+				return out;
+			case CHILD:
+				for (int i = 0; i < size; i++) {
+					select(contexts.get(i), out);
+				}
+				return hasNested(contexts) ? documentOrder(out) : out;
+			case DESCENDANT:
+			case DESCENDANT_OR_SELF:
+			case DESCENDANT_CHILD:
+				if (axis == DESCENDANT_CHILD || 
+						(!positional && !hasAttributes(contexts))) {
+					// a context inside a previous context selects a subset
+					// of what that previous context selected.
+					Object last = null;
+					for (int i = 0; i < size; i++) {
+						final Object ctx = contexts.get(i);
+						if (last == null || !isAncestor(last, ctx)) {
+							select(ctx, out);
+							last = ctx;
+						}
+					}
+					return out;
+				}
+				for (int i = 0; i < size; i++) {
+					select(contexts.get(i), out);
+				}
+				return documentOrder(out);
+			default:
+				// PARENT.
+				for (int i = 0; i < size; i++) {
+					select(contexts.get(i), out);
+				}
+				return documentOrder(out);
+		}
+	}
+
+	private static final boolean hasAttributes(final List<Object> nodes) {
+		for (int i = 0; i < nodes.size(); i++) {
+			if (nodes.get(i) instanceof Attribute) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Apply the predicates in order.
+	 * @param candidates The nodes selected by the axis and node test.
+	 * @return The nodes that pass all predicates.
+	 */
+	private List<Object> filter(final List<Object> candidates) {
+		List<Object> current = candidates;
+		for (Predicate pred : predicates) {
+			final int size = current.size();
+			if (size == 0) {
+				return current;
+			}
+			final ArrayList<Object> next = new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++) {
+				final Object node = current.get(i);
+				if (pred.matches(node, i + 1, size)) {
+					next.add(node);
+				}
+			}
+			current = next;
+		}
+		return current;
+	}
+
+	/**
+	 * Select the nodes for a single context node.
+	 * @param ctx The context
+	 * @param out where to add the selected nodes.
+	 */
+	private void select(final Object ctx, final List<Object> out) {
+		if (axis == DESCENDANT_CHILD) {
+			if (ctx instanceof Parent) {
+				descendantChildren((Parent)ctx, out);
+			}
+			return;
+		}
+		if (predicates.length == 0) {
+			collect(ctx, out);
+			return;
+		}
+		final ArrayList<Object> candidates = new ArrayList<Object>();
+		collect(ctx, candidates);
+		out.addAll(filter(candidates));
+	}
+
+	/**
+	 * Add the nodes on the axis that match the node test.
+	 * @param ctx The context node
+	 * @param out Where to add the matches.
+	 */
+	private void collect(final Object ctx, final List<Object> out) {
+		switch (axis) {
+			case CHILD:
+				if (test.kind == NodeTest.NAME && ctx instanceof Element) {
+					// use the name index
+					out.addAll(((Element)ctx).getChildren(test.name,
+							test.namespace));
+				} else if (ctx instanceof Parent) {
+					final List<Content> kids = ((Parent)ctx).getContent();
+					for (int i = 0; i < kids.size(); i++) {
+						final Content c = kids.get(i);
+						if (test.matchesContent(c)) {
+							out.add(c);
+						}
+					}
+				}
+				return;
+			case DESCENDANT_OR_SELF:
+				if (test.matches(ctx)) {
+					out.add(ctx);
+				}
+				// fall through
+			case DESCENDANT:
+				if (ctx instanceof Parent) {
+					descendants((Parent)ctx, out);
+				}
+				return;
+			case ATTRIBUTE:
+				if (ctx instanceof Element && ((Element)ctx).hasAttributes()) {
+					final Element emt = (Element)ctx;
+					if (test.kind == NodeTest.NAME) {
+						final Attribute att = emt.getAttribute(test.name,
+								test.namespace);
+						if (att != null) {
+							out.add(att);
+						}
+						return;
+					}
+					final List<Attribute> atts = emt.getAttributes();
+					for (int i = 0; i < atts.size(); i++) {
+						final Attribute att = atts.get(i);
+						if (test.matchesAttribute(att)) {
+							out.add(att);
+						}
+					}
+				}
+				return;
+			case PARENT:
+				final Parent p = parentOf(ctx);
+				if (p != null && test.matches(p)) {
+					out.add(p);
+				}
+				return;
+			default:
+				// SELF
+				if (test.matches(ctx)) {
+					out.add(ctx);
+				}
+		}
+	}
+
+	private void descendants(final Parent parent, final List<Object> out) {
+		final List<Content> kids = parent.getContent();
+		for (int i = 0; i < kids.size(); i++) {
+			final Content c = kids.get(i);
+			if (test.matchesContent(c)) {
+				out.add(c);
+			}
+			if (c.getCType() == Content.CType.Element) {
+				descendants((Element)c, out);
+			}
+		}
+	}
+
+	private void descendantChildren(final Parent parent,
+			final List<Object> out) {
+		final List<Content> kids = parent.getContent();
+		final int size = kids.size();
+		List<Object> selected = null;
+		for (int i = 0; i < size; i++) {
+			final Content c = kids.get(i);
+			if (test.matchesContent(c)) {
+				if (selected == null) {
+					selected = new ArrayList<Object>();
+				}
+				selected.add(c);
+			}
+		}
+		if (selected != null) {
+			selected = filter(selected);
+		}
+		// selected is a subsequence of kids, walk them in parallel.
+		int s = 0;
+		for (int i = 0; i < size; i++) {
+			final Content c = kids.get(i);
+			if (selected != null && s < selected.size() 
+					&& selected.get(s) == c) {
+				out.add(c);
+				s++;
+			}
+			if (c.getCType() == Content.CType.Element) {
+				descendantChildren((Element)c, out);
+			}
+		}
+	}
+
+	/**
+	 * Whether the results for these contexts can be produced lazily, in
+	 * document order, by a {@link StepIterator}.
+	 * 
+	 * @param contexts
+	 *        the context nodes.
+	 * @return true if {@link #iterate(List)} can be lazy.
+	 */
+	private boolean isStreamable(final List<Object> contexts) {
+		switch (axis) {
+			case CHILD:
+				return contexts.size() == 1 || !hasNested(contexts);
+			case DESCENDANT:
+				return !positional;
+			case DESCENDANT_OR_SELF:
+				return !positional 
+						&& (contexts.size() == 1 || !hasAttributes(contexts));
+			case DESCENDANT_CHILD:
+				return true;
+			default:
+				// the attribute, parent, and self axes select very few nodes.
+				return false;
+		}
+	}
+
+	/**
+	 * Evaluate this step for each of the context nodes, lazily if possible.
+	 * The results are the same as {@link #evaluate(List)}.
+	 * 
+	 * @param contexts
+	 *        The context nodes, in document order.
+	 * @return An Iterator over the selected nodes, in document order.
+	 */
+	Iterator<Object> iterate(final List<Object> contexts) {
+		if (contexts.isEmpty() || !isStreamable(contexts)) {
+			return evaluate(contexts).iterator();
+		}
+		return new StepIterator(contexts);
+	}
+
+	/**
+	 * Keep track of where the StepIterator is in each level of the tree.
+	 */
+	private static final class Frame {
+		private final List<? extends Content> kids;
+		/** the nodes that pass positional predicates, or null */
+		private final List<Object> selected;
+		private int index = 0;
+		private int selindex = 0;
+
+		Frame(final List<? extends Content> kids, final List<Object> selected) {
+			this.kids = kids;
+			this.selected = selected;
+		}
+	}
+
+	/**
+	 * Walk the tree depth-first, in document order, producing the nodes that
+	 * match the axis, node test and predicates one at a time.
+	 * Positional predicates are only supported where they are relative to the
+	 * siblings of a node (the child and DESCENDANT_CHILD axes), in which case
+	 * the siblings that pass are calculated when their parent is entered.
+	 */
+	private final class StepIterator implements Iterator<Object> {
+		private final List<Object> contexts;
+		private final ArrayList<Frame> stack = new ArrayList<Frame>();
+		private int cindex = 0;
+		private Object lastcontext = null;
+		private Object next = null;
+
+		StepIterator(final List<Object> contexts) {
+			this.contexts = contexts;
+		}
+
+		private boolean passes(final Object node) {
+			for (Predicate p : predicates) {
+				if (!p.matches(node, 0, 0)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void push(final Parent parent) {
+			if (axis == CHILD && test.kind == NodeTest.NAME 
+					&& parent instanceof Element) {
+				// use the name index, everything matches the node test.
+				final List<Element> kids = ((Element)parent).getChildren(
+						test.name, test.namespace);
+				if (!kids.isEmpty()) {
+					stack.add(new Frame(kids, positional
+							? filter(new ArrayList<Object>(kids)) : null));
+				}
+				return;
+			}
+			final List<Content> kids = parent.getContent();
+			if (kids.isEmpty()) {
+				return;
+			}
+			List<Object> selected = null;
+			if (axis == DESCENDANT_CHILD || positional) {
+				selected = new ArrayList<Object>();
+				for (int i = 0; i < kids.size(); i++) {
+					if (test.matchesContent(kids.get(i))) {
+						selected.add(kids.get(i));
+					}
+				}
+				selected = filter(selected);
+			}
+			stack.add(new Frame(kids, selected));
+		}
+
+		private Object advance() {
+			while (true) {
+				if (stack.isEmpty()) {
+					if (cindex >= contexts.size()) {
+						return null;
+					}
+					final Object ctx = contexts.get(cindex++);
+					if (axis != CHILD) {
+						if (lastcontext != null && isAncestor(lastcontext, ctx)) {
+							// already covered by the previous context.
+							continue;
+						}
+						lastcontext = ctx;
+					}
+					if (ctx instanceof Parent) {
+						push((Parent)ctx);
+					}
+					if (axis == DESCENDANT_OR_SELF && test.matches(ctx) 
+							&& passes(ctx)) {
+						return ctx;
+					}
+					continue;
+				}
+				final Frame frame = stack.get(stack.size() - 1);
+				if (frame.index >= frame.kids.size()) {
+					stack.remove(stack.size() - 1);
+					continue;
+				}
+				final Content c = frame.kids.get(frame.index++);
+				final boolean match;
+				if (frame.selected != null) {
+					match = frame.selindex < frame.selected.size() 
+							&& frame.selected.get(frame.selindex) == c;
+					if (match) {
+						frame.selindex++;
+					}
+				} else {
+					match = test.matchesContent(c) && passes(c);
+				}
+				if (axis != CHILD && c.getCType() == Content.CType.Element) {
+					push((Element)c);
+				}
+				if (match) {
+					return c;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = advance();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more XPath results");
+			}
+			final Object ret = next;
+			next = null;
+			return ret;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException(
+					"Cannot remove XPath results.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(AXES[axis]).append("::").append(test);
+		for (Predicate p : predicates) {
+			sb.append(p);
+		}
+		return sb.toString();
+	}
+
+}
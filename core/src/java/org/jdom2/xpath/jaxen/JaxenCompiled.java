@@ -212,6 +212,37 @@ class JaxenCompiled<T> extends AbstractXPathCompiled<T> implements
 		}
 	}
 	
+	@Override
+	protected Iterator<?> iterateRaw(Object context) {
+		final List<?> raw;
+		try {
+			raw = xPath.selectNodes(context);
+		} catch (JaxenException e) {
+			throw new IllegalStateException(
+					"Unable to evaluate expression. See cause", e);
+		}
+		// Jaxen has already built the full result list, but there is no
+		// need to copy it in unWrap(), unwrap the namespaces as we go.
+		final Iterator<?> it = raw.iterator();
+		return new Iterator<Object>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Object next() {
+				return unWrapNS(it.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException(
+						"Cannot remove XPath results.");
+			}
+		};
+	}
+
 	@Override
 	public JaxenCompiled<T> clone() {
 		// Use a copy-constructor instead of a deep clone.
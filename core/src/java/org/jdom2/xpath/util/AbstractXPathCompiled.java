@@ -58,18 +58,23 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.jdom2.Namespace;
 import org.jdom2.Verifier;
 import org.jdom2.filter.Filter;
+import org.jdom2.util.IteratorIterable;
 import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathDiagnostic;
 
 /**
  * A mostly-implemented XPathExpression that only needs two methods to be
- * implemented in order to satisfy the complete API. Subclasses of this
+ * implemented in order to satisfy the complete API (and a third,
+ * {@link #iterateRaw(Object)}, that may be overridden to produce results
+ * lazily). Subclasses of this
  * <strong>MUST</strong> correctly override the clone() method which in turn
  * should call <code>super.clone();</code>
  * 
@@ -356,6 +361,72 @@ public abstract class AbstractXPathCompiled<T> implements XPathExpression<T> {
 		return xfilter.filter(evaluateRawAll(context));
 	}
 
+	/**
+	 * Process the compiled query against the specified context and return the
+	 * results lazily, one at a time, instead of as a List. The results are in
+	 * the same order as {@link #evaluate(Object)} returns them, and are
+	 * filtered by the same {@link Filter}.
+	 * <p>
+	 * XPath implementations that can produce results incrementally (by
+	 * overriding {@link #iterateRaw(Object)}) will do so, which means that the
+	 * first result is available sooner, and the memory used does not depend
+	 * on the size of the result set. This is especially useful when the
+	 * iteration may stop early. Other implementations will evaluate the whole
+	 * query when this method is called. In either case the document must not
+	 * be modified while the iteration is in progress.
+	 * <p>
+	 * The returned value is both an Iterator and an Iterable (for the
+	 * convenience of for-each loops), and it does not support
+	 * <code>remove()</code>.
+	 * <p>
+	 * This method is not part of the {@link XPathExpression} interface, so
+	 * that existing implementations of that interface remain compatible. Use
+	 * {@link #iterate(XPathExpression, Object)} to iterate any
+	 * XPathExpression.
+	 * 
+	 * @param context
+	 *        The context against which to process the query.
+	 * @return an IteratorIterable over the XPath results.
+	 * @throws NullPointerException
+	 *         if the context is null
+	 * @throws IllegalStateException
+	 *         if the expression is not runnable or if the context node is not
+	 *         appropriate for the expression.
+	 * @since JDOM2
+	 */
+	public IteratorIterable<T> iterate(Object context) {
+		return new FilteredIterator<T>(xfilter, iterateRaw(context));
+	}
+
+	/**
+	 * Iterate the results of any XPathExpression. Expressions that extend
+	 * AbstractXPathCompiled are processed lazily with
+	 * {@link #iterate(Object)}, others are evaluated in full, and their
+	 * results List is iterated.
+	 * 
+	 * @param <T>
+	 *        The generic type of the results.
+	 * @param xpath
+	 *        The XPathExpression to process.
+	 * @param context
+	 *        The context against which to process the query.
+	 * @return an IteratorIterable over the XPath results.
+	 * @throws NullPointerException
+	 *         if the xpath or context is null
+	 * @throws IllegalStateException
+	 *         if the expression is not runnable or if the context node is not
+	 *         appropriate for the expression.
+	 * @since JDOM2
+	 */
+	public static <T> IteratorIterable<T> iterate(
+			final XPathExpression<T> xpath, final Object context) {
+		if (xpath instanceof AbstractXPathCompiled) {
+			return ((AbstractXPathCompiled<T>)xpath).iterate(context);
+		}
+		return new FilteredIterator<T>(xpath.getFilter(),
+				xpath.evaluate(context).iterator());
+	}
+
 	/**
 	 * 
 	 */
@@ -413,4 +484,66 @@ public abstract class AbstractXPathCompiled<T> implements XPathExpression<T> {
 	 */
 	protected abstract Object evaluateRawFirst(Object context);
 
+	/**
+	 * Evaluate the expression returning the raw results one at a time. This
+	 * default implementation simply iterates the results of
+	 * {@link #evaluateRawAll(Object)}. XPath libraries that can produce results
+	 * incrementally should override this method.
+	 * 
+	 * @param context
+	 *        The context against which to evaluate the query
+	 * @return An Iterator over the XPath results.
+	 */
+	protected Iterator<?> iterateRaw(Object context) {
+		return evaluateRawAll(context).iterator();
+	}
+
+	/**
+	 * Apply a Filter to raw results as they are iterated.
+	 * 
+	 * @param <T>
+	 *        The generic type of the returned values.
+	 */
+	private static final class FilteredIterator<T> implements IteratorIterable<T> {
+
+		private final Filter<T> filter;
+		private final Iterator<?> raw;
+		private T next = null;
+
+		public FilteredIterator(final Filter<T> filter, final Iterator<?> raw) {
+			this.filter = filter;
+			this.raw = raw;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && raw.hasNext()) {
+				next = filter.filter(raw.next());
+			}
+			return next != null;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more XPath results");
+			}
+			final T ret = next;
+			next = null;
+			return ret;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException(
+					"Cannot remove XPath results.");
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return this;
+		}
+
+	}
+
 }
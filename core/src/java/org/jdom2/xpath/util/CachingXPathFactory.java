@@ -0,0 +1,507 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.xpath.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filter;
+import org.jdom2.filter.Filters;
+import org.jdom2.internal.StripedCounter;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.jaxen.JaxenXPathFactory;
+
+/**
+ * An XPathFactory that decorates some other XPathFactory and caches the
+ * compiled expressions it creates. This is useful where the same (few hundred)
+ * XPath expressions are compiled over and over again, for example once per
+ * document or per request.
+ * <p>
+ * Compiled expressions are cached in a bounded, least-recently-used map keyed
+ * on the XPath expression, the Namespaces (prefix and URI, in any order), and
+ * the names of the variables. The Filter and the variable values are not part
+ * of the key: they are held by the returned XPathExpression itself, so the
+ * same expression compiled with different Filters or variable values still
+ * shares one cache entry.
+ * <p>
+ * The XPathExpression instances returned by this factory are light-weight
+ * handles on to the cache entry, and are different from those of the
+ * delegate factory in the following ways:
+ * <ul>
+ * <li>The evaluate*() and diagnose() methods may be called concurrently from
+ * multiple threads (as long as the variables are not being modified at the
+ * same time). Each evaluation borrows a compiled expression from a small
+ * pool in the cache entry, sets the handle's variable values on it, and
+ * returns it to the pool when done.
+ * <li>The clone() method is cheap - it copies the variable values but does
+ * not recompile the expression - so per-thread copies (for example for
+ * threads that need different variable values) are inexpensive.
+ * </ul>
+ * <p>
+ * Hit, miss, and eviction counts are available to help size the cache.
+ * <p>
+ * The public no-argument constructor decorates a {@link JaxenXPathFactory},
+ * so this class can be specified as the default XPathFactory through the
+ * {@link org.jdom2.JDOMConstants#JDOM2_PROPERTY_XPATH_FACTORY} system
+ * property.
+ * <p>
+ * Like all XPathFactory instances, this class is thread-safe.
+ * 
+ * @author agent
+ * @since JDOM2
+ */
+public final class CachingXPathFactory extends XPathFactory {
+
+	/** The number of distinct expressions cached by default. */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	/**
+	 * The maximum number of idle compiled expressions each cache entry
+	 * retains for concurrent evaluation.
+	 */
+	private static final int MAXIDLE = 
+			Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	private static final Namespace[] EMPTYNS = new Namespace[0];
+
+	/**
+	 * Build the String key for the cache.
+	 * 
+	 * @param expression
+	 *        The expression
+	 * @param variables
+	 *        The variables (only the names are used)
+	 * @param namespaces
+	 *        The namespaces (in any order).
+	 * @return the cache key.
+	 */
+	private static final String buildKey(final String expression,
+			final Map<String, Object> variables, final Namespace[] namespaces) {
+		if (expression == null) {
+			throw new NullPointerException("Null query");
+		}
+		final StringBuilder sb = new StringBuilder(expression.length() + 32);
+		sb.append(expression);
+		if (namespaces != null && namespaces.length > 0) {
+			final String[] nss = new String[namespaces.length];
+			for (int i = 0; i < nss.length; i++) {
+				if (namespaces[i] == null) {
+					throw new NullPointerException("Null namespace");
+				}
+				nss[i] = namespaces[i].getPrefix() + "=" + namespaces[i].getURI();
+			}
+			Arrays.sort(nss);
+			for (String ns : nss) {
+				sb.append('\u0000').append(ns);
+			}
+		}
+		if (variables != null && !variables.isEmpty()) {
+			final String[] vns = variables.keySet().toArray(
+					new String[variables.size()]);
+			Arrays.sort(vns);
+			sb.append('\u0001');
+			for (String vn : vns) {
+				sb.append('\u0000').append(vn);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A cache entry: the details needed to compile the expression, and a pool
+	 * of idle compiled instances. The instances in the pool always use a
+	 * pass-through Filter, the handles apply their own Filter.
+	 */
+	private static final class CacheEntry {
+		private final XPathFactory factory;
+		private final String expression;
+		private final Map<String, Object> variables;
+		private final Namespace[] namespaces;
+		private final ConcurrentLinkedQueue<XPathExpression<Object>> idle =
+				new ConcurrentLinkedQueue<XPathExpression<Object>>();
+		private final AtomicInteger idlecount = new AtomicInteger();
+
+		public CacheEntry(final XPathFactory factory, final String expression,
+				final Map<String, Object> variables,
+				final Namespace[] namespaces) {
+			this.factory = factory;
+			this.expression = expression;
+			this.variables = variables;
+			this.namespaces = namespaces;
+			// compile one immediately so that invalid expressions fail
+			// during compile, not evaluate, and are never cached.
+			release(create());
+		}
+
+		private XPathExpression<Object> create() {
+			return factory.compile(expression, Filters.fpassthrough(),
+					variables, namespaces);
+		}
+
+		XPathExpression<Object> borrow() {
+			final XPathExpression<Object> ret = idle.poll();
+			if (ret == null) {
+				return create();
+			}
+			idlecount.decrementAndGet();
+			return ret;
+		}
+
+		void release(final XPathExpression<Object> xp) {
+			if (idlecount.incrementAndGet() <= MAXIDLE) {
+				idle.offer(xp);
+			} else {
+				// pool is full, let this one go.
+				idlecount.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * The XPathExpression returned from the cache. The namespace and variable
+	 * management is done by AbstractXPathCompiled, and evaluation is done on
+	 * an instance borrowed from the cache entry.
+	 * 
+	 * @param <T> The generic type of the results.
+	 */
+	private static final class CachedXPathCompiled<T> 
+			extends AbstractXPathCompiled<T> {
+
+		private final CacheEntry entry;
+
+		public CachedXPathCompiled(final CacheEntry entry, final Filter<T> filter,
+				final Map<String, Object> variables,
+				final Namespace[] namespaces) {
+			super(entry.expression, filter, variables, namespaces);
+			this.entry = entry;
+		}
+
+		private XPathExpression<Object> borrow() {
+			final XPathExpression<Object> xp = entry.borrow();
+			for (Map.Entry<String, Object> me : getVariables().entrySet()) {
+				xp.setVariable(me.getKey(), me.getValue());
+			}
+			return xp;
+		}
+
+		@Override
+		protected List<?> evaluateRawAll(final Object context) {
+			final XPathExpression<Object> xp = borrow();
+			try {
+				return xp.evaluate(context);
+			} finally {
+				entry.release(xp);
+			}
+		}
+
+		@Override
+		protected Object evaluateRawFirst(final Object context) {
+			final XPathExpression<Object> xp = borrow();
+			try {
+				return xp.evaluateFirst(context);
+			} finally {
+				entry.release(xp);
+			}
+		}
+
+		@Override
+		protected Iterator<?> iterateRaw(final Object context) {
+			final XPathExpression<Object> xp = borrow();
+			final Iterator<Object> it;
+			try {
+				it = AbstractXPathCompiled.iterate(xp, context);
+			} catch (RuntimeException re) {
+				entry.release(xp);
+				throw re;
+			}
+			// the borrowed instance is returned to the pool when the iteration
+			// completes. If the iteration is abandoned it is simply not
+			// returned, and the pool will create another when needed.
+			return new Iterator<Object>() {
+				private boolean released = false;
+
+				@Override
+				public boolean hasNext() {
+					if (it.hasNext()) {
+						return true;
+					}
+					if (!released) {
+						released = true;
+						entry.release(xp);
+					}
+					return false;
+				}
+
+				@Override
+				public Object next() {
+					return it.next();
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException(
+							"Cannot remove XPath results.");
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * The LRU map. All access is synchronized on the map instance.
+	 */
+	private final class LRUMap extends LinkedHashMap<String, CacheEntry> {
+
+		private static final long serialVersionUID = 1L;
+
+		public LRUMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final java.util.Map.Entry<String, CacheEntry> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private final XPathFactory delegate;
+	private final int capacity;
+	private final LRUMap cache = new LRUMap();
+	private final StripedCounter hits = new StripedCounter();
+	private final StripedCounter misses = new StripedCounter();
+	private final StripedCounter evictions = new StripedCounter();
+
+	/**
+	 * Create a CachingXPathFactory that decorates a new
+	 * {@link JaxenXPathFactory} and caches {@link #DEFAULT_CAPACITY}
+	 * expressions.
+	 */
+	public CachingXPathFactory() {
+		this(new JaxenXPathFactory(), DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a CachingXPathFactory that decorates the specified factory and
+	 * caches {@link #DEFAULT_CAPACITY} expressions.
+	 * 
+	 * @param delegate
+	 *        The XPathFactory that compiles the expressions.
+	 */
+	public CachingXPathFactory(final XPathFactory delegate) {
+		this(delegate, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a CachingXPathFactory that decorates the specified factory and
+	 * caches up to the given number of distinct expressions.
+	 * 
+	 * @param delegate
+	 *        The XPathFactory that compiles the expressions.
+	 * @param capacity
+	 *        The maximum number of distinct expressions to cache.
+	 * @throws NullPointerException
+	 *         if the delegate is null
+	 * @throws IllegalArgumentException
+	 *         if the capacity is less than 1.
+	 */
+	public CachingXPathFactory(final XPathFactory delegate, final int capacity) {
+		if (delegate == null) {
+			throw new NullPointerException("Null delegate XPathFactory");
+		}
+		if (delegate instanceof CachingXPathFactory) {
+			throw new IllegalArgumentException(
+					"Cannot cache an already-caching XPathFactory");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Illegal capacity " + capacity
+					+ ", it must be at least 1.");
+		}
+		this.delegate = delegate;
+		this.capacity = capacity;
+	}
+
+	@Override
+	public <T> XPathExpression<T> compile(final String expression,
+			final Filter<T> filter, final Map<String, Object> variables,
+			final Namespace... namespaces) {
+		if (filter == null) {
+			throw new NullPointerException("Null filter");
+		}
+		final String key = buildKey(expression, variables, namespaces);
+		CacheEntry entry = null;
+		synchronized (cache) {
+			entry = cache.get(key);
+		}
+		if (entry == null) {
+			misses.increment();
+			// compile outside the lock, two threads may both compile the
+			// same expression, but that is harmless.
+			entry = new CacheEntry(delegate, expression,
+					variables == null ? null : new HashMap<String, Object>(variables),
+					namespaces == null ? EMPTYNS : namespaces.clone());
+			synchronized (cache) {
+				final CacheEntry prev = cache.get(key);
+				if (prev == null) {
+					cache.put(key, entry);
+				} else {
+					entry = prev;
+				}
+			}
+		} else {
+			hits.increment();
+		}
+		return new CachedXPathCompiled<T>(entry, filter, variables, namespaces);
+	}
+
+	/**
+	 * Get the XPathFactory that is used to compile the expressions.
+	 * 
+	 * @return the delegate XPathFactory.
+	 */
+	public XPathFactory getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Get the maximum number of distinct expressions that are cached.
+	 * 
+	 * @return the cache capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Get the number of distinct expressions currently cached.
+	 * 
+	 * @return the cache size.
+	 */
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Remove all cached expressions. The statistics are not reset.
+	 * XPathExpressions previously returned from this factory continue to
+	 * work.
+	 */
+	public void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Get the number of compile calls that were satisfied from the cache.
+	 * 
+	 * @return the hit count.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of compile calls that had to compile the expression.
+	 * 
+	 * @return the miss count.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Get the number of expressions that were evicted from the cache to make
+	 * space for others. If this is significant compared to the miss count
+	 * then the cache is probably too small.
+	 * 
+	 * @return the eviction count.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Reset the hit, miss and eviction counts to zero.
+	 */
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"[CachingXPathFactory: %d of %d cached, %d hits, %d misses, %d evictions, delegate %s]",
+				size(), capacity, getHitCount(), getMissCount(),
+				getEvictionCount(), delegate);
+	}
+
+}
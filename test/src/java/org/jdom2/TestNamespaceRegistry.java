@@ -0,0 +1,150 @@
+package org.jdom2;
+
+import static org.junit.Assert.*;
+
+import org.jdom2.test.util.UnitTestUtil;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestNamespaceRegistry {
+	
+	private static final Namespace register(NamespaceRegistry reg, Namespace ns) {
+		final Namespace ret = reg.register(ns);
+		assertTrue(ret == reg.lookup(ns.getURI(), ns.getPrefix()));
+		return ret;
+	}
+	
+	private static final Namespace[] sample(int count) {
+		final Namespace[] ret = new Namespace[count];
+		for (int i = 0; i < count; i++) {
+			ret[i] = Namespace.getNamespace("p" + i, "urn:registry:" + (i % 7));
+		}
+		return ret;
+	}
+	
+	private static final void checkRegistry(NamespaceRegistry reg) {
+		assertEquals(0, reg.size());
+		final Namespace[] nss = sample(20);
+		for (Namespace ns : nss) {
+			assertNull(reg.lookup(ns.getURI(), ns.getPrefix()));
+			assertTrue(ns == register(reg, ns));
+			// registering again returns the already-registered instance.
+			assertTrue(ns == reg.register(ns));
+		}
+		assertEquals(nss.length, reg.size());
+		assertNull(reg.lookup("urn:registry:0", "nope"));
+		assertNull(reg.lookup("urn:registry:none", "p0"));
+		assertNotNull(reg.toString());
+	}
+
+	@Test
+	public void testUnbounded() {
+		checkRegistry(NamespaceRegistry.unbounded());
+	}
+	
+	@Test
+	public void testWeak() {
+		checkRegistry(NamespaceRegistry.weakValued());
+	}
+	
+	@Test
+	public void testBounded() {
+		checkRegistry(NamespaceRegistry.bounded(100));
+	}
+	
+	@Test
+	public void testBoundedEviction() {
+		final NamespaceRegistry reg = NamespaceRegistry.bounded(10);
+		final Namespace[] nss = sample(40);
+		for (int i = 0; i < 10; i++) {
+			// do not use the register() helper, it 'uses' the entries.
+			assertTrue(nss[i] == reg.register(nss[i]));
+		}
+		// 'use' the first one, it should survive the next insert
+		assertTrue(nss[0] == reg.lookup(nss[0].getURI(), nss[0].getPrefix()));
+		assertTrue(nss[10] == reg.register(nss[10]));
+		assertEquals(10, reg.size());
+		assertTrue(nss[0] == reg.lookup(nss[0].getURI(), nss[0].getPrefix()));
+		assertNull(reg.lookup(nss[1].getURI(), nss[1].getPrefix()));
+		for (int i = 11; i < nss.length; i++) {
+			register(reg, nss[i]);
+			assertEquals(10, reg.size());
+		}
+		for (int i = nss.length - 5; i < nss.length; i++) {
+			assertTrue(nss[i] == reg.lookup(nss[i].getURI(), nss[i].getPrefix()));
+		}
+	}
+	
+	@Test
+	public void testBadCapacity() {
+		try {
+			NamespaceRegistry.bounded(0);
+			fail("Expect exception!");
+		} catch (Exception e) {
+			UnitTestUtil.checkException(IllegalArgumentException.class, e);
+		}
+	}
+	
+	@Test
+	public void testForName() {
+		assertEquals(NamespaceRegistry.unbounded().getClass(),
+				NamespaceRegistry.forName(null).getClass());
+		assertEquals(NamespaceRegistry.unbounded().getClass(),
+				NamespaceRegistry.forName("unbounded").getClass());
+		assertEquals(NamespaceRegistry.weakValued().getClass(),
+				NamespaceRegistry.forName("weak").getClass());
+		assertEquals(NamespaceRegistry.bounded(1).getClass(),
+				NamespaceRegistry.forName("lru").getClass());
+		assertEquals(NamespaceRegistry.bounded(1).getClass(),
+				NamespaceRegistry.forName("lru:20").getClass());
+		try {
+			NamespaceRegistry.forName("no.such.Registry");
+			fail("Expect exception!");
+		} catch (Exception e) {
+			UnitTestUtil.checkException(IllegalArgumentException.class, e);
+		}
+	}
+	
+	@Test
+	public void testCounters() {
+		final NamespaceRegistry reg = Namespace.getRegistry();
+		assertNotNull(reg);
+		final long misses = reg.getMissCount();
+		final String uri = "urn:registry:counter:" + System.nanoTime();
+		final Namespace ns = Namespace.getNamespace("c", uri);
+		assertTrue(ns == Namespace.getNamespace("c", uri));
+		assertTrue(reg.getMissCount() >= misses + 1);
+		assertTrue(reg.size() > 0);
+		// the constant namespaces are always available.
+		assertTrue(Namespace.NO_NAMESPACE == Namespace.getNamespace("", ""));
+		assertTrue(Namespace.XML_NAMESPACE == 
+				Namespace.getNamespace("xml", JDOMConstants.NS_URI_XML));
+	}
+	
+	@Test
+	public void testLookupCounting() {
+		final NamespaceRegistry reg = NamespaceRegistry.unbounded();
+		assertFalse(reg.isLookupCounting());
+		reg.countLookup();
+		assertEquals(0L, reg.getLookupCount());
+		reg.setLookupCounting(true);
+		assertTrue(reg.isLookupCounting());
+		reg.countLookup();
+		reg.countLookup();
+		assertEquals(2L, reg.getLookupCount());
+		reg.setLookupCounting(false);
+		reg.countLookup();
+		assertEquals(2L, reg.getLookupCount());
+	}
+	
+	@Test
+	public void testEvictedConstants() {
+		// even when the constant namespaces are evicted they come back.
+		final NamespaceRegistry reg = NamespaceRegistry.bounded(1);
+		reg.register(Namespace.XML_NAMESPACE);
+		register(reg, Namespace.getNamespace("e", "urn:registry:evict"));
+		assertNull(reg.lookup(JDOMConstants.NS_URI_XML, "xml"));
+		assertEquals(1, reg.size());
+	}
+
+}
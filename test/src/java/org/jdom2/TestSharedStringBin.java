@@ -0,0 +1,125 @@
+package org.jdom2;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jdom2.test.util.UnitTestUtil;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestSharedStringBin {
+	
+	@Test
+	public void testNegativeCapacity() {
+		try {
+			new SharedStringBin(-1);
+			fail("excpect exception!");
+		} catch (Exception e) {
+			UnitTestUtil.checkException(IllegalArgumentException.class, e);
+		}
+	}
+	
+	@Test
+	public void testCapacity() {
+		assertEquals(2, new SharedStringBin(0).getCapacity());
+		assertEquals(2, new SharedStringBin(1).getCapacity());
+		assertEquals(128, new SharedStringBin(100).getCapacity());
+		assertEquals(SharedStringBin.DEFAULT_CAPACITY, 
+				new SharedStringBin().getCapacity());
+	}
+	
+	@Test
+	public void testNull() {
+		final SharedStringBin bin = new SharedStringBin();
+		assertNull(bin.reuse(null));
+		assertEquals(0L, bin.getMissCount());
+		assertEquals(0.0, bin.getHitRate(), 0.0);
+	}
+	
+	@Test
+	public void testReuse() {
+		final SharedStringBin bin = new SharedStringBin();
+		final String a = bin.reuse(new String("abc"));
+		assertEquals("abc", a);
+		assertTrue(a == bin.reuse(new String("abc")));
+		assertTrue(a == bin.reuse("abc"));
+		assertEquals(1, bin.size());
+		assertEquals(2L, bin.getHitCount());
+		assertEquals(1L, bin.getMissCount());
+		assertEquals(2.0 / 3.0, bin.getHitRate(), 0.0001);
+		assertTrue(bin.getBytesSaved() > 0L);
+		assertNotNull(bin.toString());
+		
+		bin.clear();
+		assertEquals(0, bin.size());
+		assertTrue(a != bin.reuse("abc"));
+		assertEquals(2L, bin.getHitCount());
+		
+		bin.resetStatistics();
+		assertEquals(0L, bin.getHitCount());
+		assertEquals(0L, bin.getMissCount());
+		assertEquals(0L, bin.getBytesSaved());
+	}
+	
+	@Test
+	public void testBounded() {
+		final SharedStringBin bin = new SharedStringBin(64);
+		for (int i = 0; i < 10000; i++) {
+			assertEquals("v" + i, bin.reuse("v" + i));
+		}
+		assertTrue(bin.size() <= 64);
+		assertEquals(10000L, bin.getMissCount());
+	}
+	
+	@Test
+	public void testCollisions() {
+		// both ways of a set are used before anything is evicted.
+		final SharedStringBin bin = new SharedStringBin(2);
+		final String a = bin.reuse("Aa");
+		final String b = bin.reuse("BB"); // same hashCode as "Aa"
+		assertTrue(a == bin.reuse("Aa"));
+		assertTrue(b == bin.reuse("BB"));
+		assertEquals(2, bin.size());
+		// "Aa" was used less recently, so it goes.
+		bin.reuse("x");
+		assertTrue(b == bin.reuse("BB"));
+		assertTrue(a != bin.reuse("Aa"));
+	}
+	
+	@Test
+	public void testConcurrent() throws Exception {
+		final SharedStringBin bin = new SharedStringBin(256);
+		final ExecutorService exec = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(exec.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						for (int i = 0; i < 20000; i++) {
+							final String v = "s" + (i % 500);
+							if (!v.equals(bin.reuse(v))) {
+								return Boolean.FALSE;
+							}
+						}
+						return Boolean.TRUE;
+					}
+				}));
+			}
+			for (Future<Boolean> f : futures) {
+				assertTrue(f.get().booleanValue());
+			}
+		} finally {
+			exec.shutdown();
+		}
+		assertEquals(80000L, bin.getHitCount() + bin.getMissCount());
+		assertTrue(bin.getHitCount() > 0L);
+	}
+
+}
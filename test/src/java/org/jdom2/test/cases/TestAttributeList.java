@@ -409,4 +409,94 @@ public class TestAttributeList extends AbstractTestList<Attribute> {
 		
 	}
 	
+	private static final Element buildWide(int count) {
+		Namespace ns = Namespace.getNamespace("x", "urn:x");
+		Element emt = new Element("wide");
+		for (int i = 0; i < count; i++) {
+			emt.setAttribute("a" + i, "v" + i);
+			if (i % 3 == 0) {
+				emt.setAttribute("a" + i, "x" + i, ns);
+			}
+		}
+		return emt;
+	}
+	
+	private static final void checkWide(Element emt) {
+		// every attribute should be found by name, at the right place.
+		List<Attribute> atts = emt.getAttributes();
+		for (int i = 0; i < atts.size(); i++) {
+			Attribute a = atts.get(i);
+			assertTrue(a == emt.getAttribute(a.getName(), a.getNamespace()));
+		}
+		assertNull(emt.getAttribute("nosuchattribute"));
+	}
+
+	@Test
+	public void testWideAttributes() {
+		Namespace ns = Namespace.getNamespace("x", "urn:x");
+		for (int size : new int[] {3, 10, 15, 16, 17, 100}) {
+			Element emt = buildWide(size);
+			checkWide(emt);
+			assertEquals("v0", emt.getAttributeValue("a0"));
+			assertEquals("x0", emt.getAttributeValue("a0", ns));
+			assertNull(emt.getAttributeValue("a1", ns));
+		}
+	}
+
+	@Test
+	public void testWideAttributeModification() {
+		Namespace ns = Namespace.getNamespace("x", "urn:x");
+		Element emt = buildWide(100);
+		final int size = emt.getAttributes().size();
+		
+		// replace an existing attribute keeps the position.
+		Attribute rep = new Attribute("a50", "replaced");
+		Attribute old = emt.getAttribute("a50");
+		int pos = emt.getAttributes().indexOf(old);
+		emt.setAttribute(rep);
+		assertEquals(size, emt.getAttributes().size());
+		assertTrue(rep == emt.getAttributes().get(pos));
+		assertEquals("replaced", emt.getAttributeValue("a50"));
+		checkWide(emt);
+		
+		// insert at the front, and remove.
+		Attribute first = new Attribute("first", "f");
+		emt.getAttributes().add(0, first);
+		assertTrue(first == emt.getAttribute("first"));
+		checkWide(emt);
+		assertTrue(emt.removeAttribute("a10"));
+		assertNull(emt.getAttribute("a10"));
+		assertFalse(emt.removeAttribute("a10"));
+		checkWide(emt);
+		
+		// set by position.
+		Attribute set = new Attribute("set", "s", ns);
+		Attribute was = emt.getAttributes().set(3, set);
+		assertNull(emt.getAttribute(was.getName(), was.getNamespace()));
+		assertTrue(set == emt.getAttribute("set", ns));
+		checkWide(emt);
+		
+		// rename an attached attribute.
+		Attribute ren = emt.getAttribute("a20");
+		ren.setName("renamed");
+		assertNull(emt.getAttribute("a20"));
+		assertTrue(ren == emt.getAttribute("renamed"));
+		ren.setNamespace(ns);
+		assertNull(emt.getAttribute("renamed"));
+		assertTrue(ren == emt.getAttribute("renamed", ns));
+		checkWide(emt);
+		
+		// sort keeps lookups working.
+		emt.sortAttributes(null);
+		checkWide(emt);
+		
+		// shrink back below the index threshold.
+		while (emt.getAttributes().size() > 5) {
+			emt.getAttributes().remove(emt.getAttributes().size() - 1);
+		}
+		checkWide(emt);
+		emt.getAttributes().clear();
+		assertNull(emt.getAttribute("a0"));
+	}
+
 }
@@ -78,6 +78,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -3320,4 +3321,179 @@ public final class TestElement {
 		}
 	}
 
+	/**
+	 * Create an Element with enough children to use the name index.
+	 */
+	private static final Element buildWide(int count) {
+		Namespace ns = Namespace.getNamespace("x", "urn:x");
+		Element root = new Element("root");
+		for (int i = 0; i < count; i++) {
+			switch (i % 4) {
+				case 0:
+					root.addContent(new Element("a"));
+					break;
+				case 1:
+					root.addContent(new Element("a", ns));
+					break;
+				case 2:
+					root.addContent(new Element("b"));
+					break;
+				default:
+					root.addContent(new Text(" "));
+			}
+		}
+		return root;
+	}
+	
+	private static final void checkWide(Element root, String name, Namespace ns) {
+		// the unindexed 'reference' view.
+		List<Element> expect = root.getContent(new ElementFilter(name, ns));
+		List<Element> got = root.getChildren(name, ns);
+		assertEquals(expect.size(), got.size());
+		for (int i = 0; i < expect.size(); i++) {
+			assertTrue(expect.get(i) == got.get(i));
+		}
+		int i = 0;
+		for (Element e : got) {
+			assertTrue(expect.get(i++) == e);
+		}
+		assertEquals(expect.size(), i);
+		if (expect.isEmpty()) {
+			assertNull(root.getChild(name, ns));
+			assertTrue(got.isEmpty());
+		} else {
+			assertTrue(expect.get(0) == root.getChild(name, ns));
+		}
+	}
+
+	@Test
+	public void testWideGetChild() {
+		Namespace ns = Namespace.getNamespace("urn:x");
+		for (int size : new int[] {3, 31, 32, 33, 200}) {
+			Element root = buildWide(size);
+			checkWide(root, "a", Namespace.NO_NAMESPACE);
+			checkWide(root, "a", ns);
+			checkWide(root, "b", Namespace.NO_NAMESPACE);
+			checkWide(root, "b", ns);
+			checkWide(root, "c", Namespace.NO_NAMESPACE);
+		}
+	}
+
+	@Test
+	public void testWideIndexModification() {
+		Namespace ns = Namespace.getNamespace("urn:x");
+		Element root = buildWide(100);
+		checkWide(root, "a", ns);
+		
+		// appending keeps the index up to date.
+		Element added = new Element("c");
+		root.addContent(added);
+		assertTrue(added == root.getChild("c"));
+		root.addContent(new Element("c"));
+		checkWide(root, "c", Namespace.NO_NAMESPACE);
+		
+		// inserting, removing, and setting invalidates the index.
+		Element first = new Element("c");
+		root.addContent(0, first);
+		assertTrue(first == root.getChild("c"));
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		root.removeContent(0);
+		assertTrue(added == root.getChild("c"));
+		Element swap = new Element("d", ns);
+		root.setContent(5, swap);
+		assertTrue(swap == root.getChild("d", ns));
+		checkWide(root, "a", ns);
+		checkWide(root, "d", ns);
+		root.removeChildren("a");
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		checkWide(root, "a", ns);
+		assertNull(root.getChild("a"));
+	}
+
+	@Test
+	public void testWideIndexRename() {
+		Namespace ns = Namespace.getNamespace("urn:x");
+		Element root = buildWide(100);
+		Element child = root.getChildren("a").get(10);
+		child.setName("b");
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		checkWide(root, "b", Namespace.NO_NAMESPACE);
+		child.setNamespace(ns);
+		checkWide(root, "b", Namespace.NO_NAMESPACE);
+		checkWide(root, "b", ns);
+		assertTrue(child == root.getChild("b", ns));
+	}
+
+	@Test
+	public void testRenameWhileIterating() {
+		Namespace ns = Namespace.getNamespace("urn:x");
+		for (int size : new int[] {16, 160}) {
+			Element root = buildWide(size);
+			final int acnt = root.getChildren("a").size();
+			int cnt = 0;
+			for (Element e : root.getChildren("a")) {
+				e.setName("z");
+				cnt++;
+			}
+			assertEquals(acnt, cnt);
+			assertTrue(root.getChildren("a").isEmpty());
+			assertEquals(acnt, root.getChildren("z").size());
+			checkWide(root, "z", Namespace.NO_NAMESPACE);
+			cnt = 0;
+			for (Element e : root.getChildren("z")) {
+				e.setNamespace(ns);
+				cnt++;
+			}
+			assertEquals(acnt, cnt);
+			assertNull(root.getChild("z"));
+			checkWide(root, "z", ns);
+		}
+	}
+
+	@Test
+	public void testWideIndexedViewModification() {
+		Element root = buildWide(100);
+		List<Element> as = root.getChildren("a");
+		final int acnt = as.size();
+		Element e = new Element("a");
+		as.add(2, e);
+		assertEquals(acnt + 1, as.size());
+		assertTrue(e == as.get(2));
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		assertTrue(e == as.remove(2));
+		assertEquals(acnt, as.size());
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		as.add(e);
+		assertTrue(e == as.get(acnt));
+		checkWide(root, "a", Namespace.NO_NAMESPACE);
+		Iterator<Element> it = as.iterator();
+		while (it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+		assertTrue(as.isEmpty());
+		assertNull(root.getChild("a"));
+		checkWide(root, "b", Namespace.NO_NAMESPACE);
+	}
+
+	@Test
+	public void testWideIndexSort() {
+		Element root = new Element("root");
+		for (int i = 0; i < 50; i++) {
+			root.addContent(new Element("e" + (i % 5)).setAttribute("i", "" + i));
+		}
+		assertEquals("0", root.getChild("e0").getAttributeValue("i"));
+		root.sortContent(new Comparator<Content>() {
+			@Override
+			public int compare(Content o1, Content o2) {
+				// reverse order of the i attribute.
+				int a = Integer.parseInt(((Element)o1).getAttributeValue("i"));
+				int b = Integer.parseInt(((Element)o2).getAttributeValue("i"));
+				return b - a;
+			}
+		});
+		assertEquals("45", root.getChild("e0").getAttributeValue("i"));
+		checkWide(root, "e0", Namespace.NO_NAMESPACE);
+	}
+
 }
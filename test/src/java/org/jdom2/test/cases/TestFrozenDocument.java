@@ -0,0 +1,402 @@
+package org.jdom2.test.cases;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.filter.Filters;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.test.util.UnitTestUtil;
+
+@SuppressWarnings("javadoc")
+public class TestFrozenDocument {
+
+	private static final String XML =
+			"<!DOCTYPE root []>\n" +
+			"<?pi data?>\n" +
+			"<root xmlns:x=\"urn:x\" att=\"val\" x:att=\"xval\">" +
+			"<!--comment-->" +
+			"<kid>text<![CDATA[cdata]]></kid>" +
+			"<x:kid><gkid/></x:kid>" +
+			"</root>";
+
+	private static final Document build() throws Exception {
+		SAXBuilder sb = new SAXBuilder();
+		sb.setExpandEntities(false);
+		return sb.build(new StringReader(XML));
+	}
+
+	private static final void checkFrozen(Runnable mutation) {
+		try {
+			mutation.run();
+			failNoException(UnsupportedOperationException.class);
+		} catch (Exception e) {
+			checkException(UnsupportedOperationException.class, e);
+		}
+	}
+
+	@Test
+	public void testFreezeState() throws Exception {
+		final Document doc = build();
+		final String before = new XMLOutputter().outputString(doc);
+		assertFalse(doc.isFrozen());
+		assertFalse(doc.getRootElement().isFrozen());
+		assertSame(doc, doc.freeze());
+		assertSame(doc, doc.freeze());
+		assertTrue(doc.isFrozen());
+		assertTrue(doc.getRootElement().isFrozen());
+		assertTrue(doc.getDocType().isFrozen());
+		assertTrue(doc.getRootElement().getAttribute("att").isFrozen());
+		for (Content c : doc.getDescendants()) {
+			assertTrue(c.isFrozen());
+		}
+		assertEquals(before, new XMLOutputter().outputString(doc));
+	}
+
+	@Test
+	public void testFrozenReads() throws Exception {
+		final Document doc = build().freeze();
+		final Element root = doc.getRootElement();
+		final Namespace x = Namespace.getNamespace("x", "urn:x");
+		assertEquals("val", root.getAttributeValue("att"));
+		assertEquals("xval", root.getAttributeValue("att", x));
+		assertEquals("textcdata", root.getChildText("kid"));
+		assertNotNull(root.getChild("kid", x).getChild("gkid"));
+		assertEquals(2, root.getChildren().size());
+		// no attributes, reads still work, and no list is kept.
+		final Element gkid = root.getChild("kid", x).getChild("gkid");
+		assertTrue(gkid.getAttributes().isEmpty());
+		assertFalse(gkid.hasAttributes());
+		assertNull(gkid.getAttribute("att"));
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, x, Namespace.XML_NAMESPACE);
+		int cnt = 0;
+		for (Element e : doc.getDescendants(Filters.element())) {
+			assertTrue(e.isFrozen());
+			cnt++;
+		}
+		assertEquals(4, cnt);
+	}
+
+	@Test
+	public void testFrozenDocumentMutations() throws Exception {
+		final Document doc = build().freeze();
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.addContent(new Comment("more"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.detachRootElement();
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.setDocType(new DocType("root"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.getContent().clear();
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.setBaseURI("file:/tmp");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				doc.setProperty("id", "value");
+			}
+		});
+		assertTrue(doc.hasRootElement());
+		assertEquals(3, doc.getContentSize());
+	}
+
+	@Test
+	public void testFrozenElementMutations() throws Exception {
+		final Document doc = build().freeze();
+		final Element root = doc.getRootElement();
+		final Element kid = root.getChild("kid");
+		final Element gkid = root.getChild("kid", Namespace.getNamespace("urn:x")).getChild("gkid");
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.addContent(new Element("more"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.setName("other");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.setNamespace(Namespace.getNamespace("urn:other"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.addNamespaceDeclaration(Namespace.getNamespace("y", "urn:y"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				kid.detach();
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				kid.setText("replaced");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				kid.removeContent();
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.getChildren().remove(0);
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.sortContent(Filters.element(), new java.util.Comparator<Element>() {
+					@Override
+					public int compare(Element o1, Element o2) {
+						return o1.getName().compareTo(o2.getName());
+					}
+				});
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.setAttribute("att", "changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.setAttribute("new", "value");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.removeAttribute("att");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				gkid.setAttribute("new", "value");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				gkid.getAttributes().add(new Attribute("new", "value"));
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				root.sortAttributes(null);
+			}
+		});
+		assertEquals("val", root.getAttributeValue("att"));
+		assertEquals("text", kid.getText().substring(0, 4));
+		assertFalse(gkid.hasAttributes());
+	}
+
+	@Test
+	public void testFrozenNodeMutations() throws Exception {
+		final Document doc = build().freeze();
+		final Element root = doc.getRootElement();
+		final Attribute att = root.getAttribute("att");
+		final Text text = (Text)root.getChild("kid").getContent(0);
+		final CDATA cdata = (CDATA)root.getChild("kid").getContent(1);
+		final Comment comment = (Comment)root.getContent(0);
+		final ProcessingInstruction pi = (ProcessingInstruction)doc.getContent(1);
+		final DocType dt = doc.getDocType();
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				att.setValue("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				att.setName("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				att.detach();
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				text.setText("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				text.append("more");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				cdata.setText("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				comment.setText("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				pi.setData("changed");
+			}
+		});
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				dt.setInternalSubset("changed");
+			}
+		});
+		assertEquals("val", att.getValue());
+		assertEquals("text", text.getText());
+		assertEquals("cdata", cdata.getText());
+		assertEquals("comment", comment.getText());
+		assertEquals("data", pi.getData());
+	}
+
+	@Test
+	public void testFrozenEntityRef() {
+		final Element root = new Element("root");
+		final EntityRef er = new EntityRef("ent");
+		root.addContent(er);
+		final Document doc = new Document(root).freeze();
+		assertTrue(er.isFrozen());
+		assertTrue(doc.isFrozen());
+		checkFrozen(new Runnable() {
+			@Override
+			public void run() {
+				er.setName("other");
+			}
+		});
+		assertEquals("ent", er.getName());
+	}
+
+	@Test
+	public void testCloneIsMutable() throws Exception {
+		final Document doc = build().freeze();
+		final Document clone = doc.clone();
+		assertFalse(clone.isFrozen());
+		final Element root = clone.getRootElement();
+		assertFalse(root.isFrozen());
+		root.setAttribute("att", "changed");
+		root.getChild("kid").setText("changed");
+		root.addContent(new Element("more"));
+		clone.setBaseURI("file:/tmp");
+		final Element detached = doc.getRootElement().getChild("kid").clone();
+		assertFalse(detached.isFrozen());
+		detached.setName("changed");
+		assertEquals("val", doc.getRootElement().getAttributeValue("att"));
+		assertEquals(2, doc.getRootElement().getChildren().size());
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception {
+		final Element root = new Element("root");
+		root.addNamespaceDeclaration(Namespace.getNamespace("x", "urn:x"));
+		for (int i = 0; i < 200; i++) {
+			final Element kid = new Element("kid" + (i % 50));
+			for (int a = 0; a < 40; a++) {
+				kid.setAttribute("att" + a, "val" + a);
+			}
+			root.addContent(kid);
+		}
+		final Document doc = new Document(root).freeze();
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++) {
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int cnt = 0;
+						for (int i = 0; i < 50; i++) {
+							for (Element kid : doc.getRootElement().getChildren("kid" + i)) {
+								if (("val" + (i % 40)).equals(kid.getAttributeValue("att" + (i % 40))) &&
+										kid.getNamespacesInScope().size() == 3) {
+									cnt++;
+								}
+							}
+						}
+						return Integer.valueOf(cnt);
+					}
+				}));
+			}
+			for (Future<Integer> f : results) {
+				assertEquals(Integer.valueOf(200), f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -8,6 +8,9 @@ import org.jdom2.Text;
 import org.jdom2.test.util.UnitTestUtil;
 import org.junit.Test;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
 @SuppressWarnings("javadoc")
 public class TestNamespaceAware {
 
@@ -167,4 +170,96 @@ public class TestNamespaceAware {
 		
 	}
 	
+	@Test
+	public void testNamespacesScopeShared() {
+		Namespace pfx = Namespace.getNamespace("pfx", "nsuri");
+		Element emt = new Element("root", pfx);
+		Element kid = new Element("kid", pfx);
+		Element gkid = new Element("gkid", pfx);
+		gkid.setAttribute("att", "val");
+		emt.addContent(kid);
+		kid.addContent(gkid);
+		
+		// nothing changes in the kid or grandkid scope.
+		assertSame(emt.getNamespacesInScope(), kid.getNamespacesInScope());
+		assertSame(emt.getNamespacesInScope(), gkid.getNamespacesInScope());
+		assertSame(gkid.getNamespacesInScope(), gkid.getNamespacesInScope());
+		
+		Namespace kfx = Namespace.getNamespace("kfx", "nskid");
+		kid.addNamespaceDeclaration(kfx);
+		assertNotSame(emt.getNamespacesInScope(), kid.getNamespacesInScope());
+		assertSame(kid.getNamespacesInScope(), gkid.getNamespacesInScope());
+		UnitTestUtil.testNamespaceScope(gkid, pfx, Namespace.NO_NAMESPACE, kfx, Namespace.XML_NAMESPACE);
+	}
+
+	@Test
+	public void testNamespacesScopeChanges() {
+		Namespace pfx = Namespace.getNamespace("pfx", "nsuri");
+		Namespace pfy = Namespace.getNamespace("pfy", "nsyyy");
+		Namespace pfz = Namespace.getNamespace("pfz", "nszzz");
+		Element emt = new Element("root", pfx);
+		Element kid = new Element("kid");
+		Element gkid = new Element("gkid");
+		emt.addContent(kid);
+		kid.addContent(gkid);
+		
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		
+		// declarations higher in the tree are seen by the cached descendants.
+		emt.addNamespaceDeclaration(pfy);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, pfy, Namespace.XML_NAMESPACE);
+		UnitTestUtil.testNamespaceIntro(gkid);
+		
+		emt.removeNamespaceDeclaration(pfy);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		
+		// Attribute add, rename, and remove.
+		Attribute att = new Attribute("att", "val", pfy);
+		kid.setAttribute(att);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, pfy, Namespace.XML_NAMESPACE);
+		att.setNamespace(pfz);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, pfz, Namespace.XML_NAMESPACE);
+		kid.removeAttribute(att);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		kid.getAttributes().add(att);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, pfz, Namespace.XML_NAMESPACE);
+		kid.getAttributes().clear();
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		
+		// The Element's own Namespace.
+		kid.setNamespace(pfy);
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfx, pfy, Namespace.XML_NAMESPACE);
+		UnitTestUtil.testNamespaceScope(kid, pfy, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		
+		// Moving the Element.
+		Element other = new Element("other", pfz);
+		other.addContent(kid.detach());
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfy, pfz, Namespace.XML_NAMESPACE);
+		kid.detach();
+		UnitTestUtil.testNamespaceScope(gkid, Namespace.NO_NAMESPACE, pfy, Namespace.XML_NAMESPACE);
+		UnitTestUtil.testNamespaceIntro(kid, pfy);
+		
+		// clones have their own scope.
+		emt.addContent(kid);
+		Element clone = kid.clone();
+		UnitTestUtil.testNamespaceScope(clone, pfy, Namespace.NO_NAMESPACE, Namespace.XML_NAMESPACE);
+		UnitTestUtil.testNamespaceScope(clone.getChild("gkid"), Namespace.NO_NAMESPACE, pfy, Namespace.XML_NAMESPACE);
+	}
+	
+	@Test
+	public void testNamespacesScopeDeepTree() {
+		Namespace pfx = Namespace.getNamespace("pfx", "nsuri");
+		Element root = new Element("root");
+		root.addNamespaceDeclaration(pfx);
+		Element tail = root;
+		for (int i = 0; i < 10000; i++) {
+			Element kid = new Element("kid");
+			tail.addContent(kid);
+			tail = kid;
+		}
+		UnitTestUtil.testNamespaceScope(tail, Namespace.NO_NAMESPACE, pfx, Namespace.XML_NAMESPACE);
+		root.removeNamespaceDeclaration(pfx);
+		UnitTestUtil.testNamespaceScope(tail, Namespace.NO_NAMESPACE, Namespace.XML_NAMESPACE);
+	}
+	
 }
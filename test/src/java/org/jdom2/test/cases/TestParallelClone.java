@@ -0,0 +1,242 @@
+package org.jdom2.test.cases;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.test.util.UnitTestUtil;
+
+@SuppressWarnings("javadoc")
+public class TestParallelClone {
+
+	private static ExecutorService pool = null;
+
+	@BeforeClass
+	public static void startPool() {
+		pool = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void stopPool() {
+		pool.shutdown();
+	}
+
+	private static final Namespace NS = Namespace.getNamespace("p", "urn:p");
+
+	private static final class SpecialElement extends Element {
+		private static final long serialVersionUID = 1L;
+		private static final AtomicInteger CLONES = new AtomicInteger();
+
+		public SpecialElement(String name) {
+			super(name);
+		}
+
+		@Override
+		public Element clone() {
+			CLONES.incrementAndGet();
+			return super.clone();
+		}
+	}
+
+	private static final Element build(int depth, int width, String name) {
+		final Element emt = new Element(name, NS);
+		emt.setAttribute("depth", String.valueOf(depth));
+		emt.setAttribute("att", "val", Namespace.getNamespace("q", "urn:q"));
+		emt.addContent(new Text("text" + depth));
+		emt.addContent(new Comment("comment"));
+		if (depth > 0) {
+			for (int i = 0; i < width; i++) {
+				emt.addContent(build(depth - 1, width, "e" + i));
+				emt.addContent(new CDATA("cdata"));
+			}
+		} else {
+			emt.addNamespaceDeclaration(Namespace.getNamespace("x", "urn:x"));
+			emt.addContent(new EntityRef("ent"));
+			emt.addContent(new ProcessingInstruction("pi", "data"));
+		}
+		return emt;
+	}
+
+	private static final void checkClone(Element source, Element clone) {
+		assertNull(clone.getParent());
+		UnitTestUtil.compare(source, clone);
+		assertEquals(new XMLOutputter().outputString(source),
+				new XMLOutputter().outputString(clone));
+	}
+
+	@Test
+	public void testCloneElement() {
+		final Element root = build(5, 4, "root");
+		checkClone(root, root.clone(pool));
+		// clone a non-root element.
+		final Element kid = root.getChildren().get(2);
+		checkClone(kid, kid.clone(pool));
+	}
+
+	@Test
+	public void testCloneMatchesSequential() {
+		final Element root = build(4, 5, "root");
+		assertEquals(new XMLOutputter().outputString(root.clone()),
+				new XMLOutputter().outputString(root.clone(pool)));
+	}
+
+	@Test
+	public void testCloneNarrowDeep() {
+		// a single chain with a wide bottom.
+		final Element root = build(0, 0, "root");
+		Element tail = root;
+		for (int i = 0; i < 20; i++) {
+			final Element kid = new Element("chain");
+			tail.addContent(kid);
+			tail = kid;
+		}
+		tail.addContent(build(2, 10, "wide"));
+		checkClone(root, root.clone(pool));
+	}
+
+	@Test
+	public void testCloneSmall() {
+		final Element leaf = new Element("leaf");
+		checkClone(leaf, leaf.clone(pool));
+		final Element one = new Element("one");
+		one.addContent(new Element("kid"));
+		checkClone(one, one.clone(pool));
+	}
+
+	@Test
+	public void testCloneCallerRuns() {
+		final Element root = build(4, 4, "root");
+		final Executor direct = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		checkClone(root, root.clone(direct));
+	}
+
+	@Test
+	public void testCloneRejected() {
+		final Element root = build(4, 4, "root");
+		final Executor reject = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException("No thanks");
+			}
+		};
+		checkClone(root, root.clone(reject));
+	}
+
+	@Test
+	public void testCloneIdle() {
+		// an executor that accepts, but never runs anything.
+		final Element root = build(4, 4, "root");
+		final Executor idle = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				// discard
+			}
+		};
+		checkClone(root, root.clone(idle));
+	}
+
+	@Test
+	public void testCloneSubclass() {
+		final Element root = build(3, 4, "root");
+		final SpecialElement special = new SpecialElement("special");
+		special.addContent(build(2, 3, "inner"));
+		root.getChildren().get(1).addContent(special);
+		final int before = SpecialElement.CLONES.get();
+		final Element clone = root.clone(pool);
+		checkClone(root, clone);
+		assertEquals(before + 1, SpecialElement.CLONES.get());
+		assertTrue(clone.getChildren().get(1).getChild("special") instanceof SpecialElement);
+	}
+
+	@Test
+	public void testCloneFailure() {
+		final Element root = build(3, 4, "root");
+		root.getChildren().get(3).addContent(new Element("broken") {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public Element clone() {
+				throw new IllegalStateException("broken clone");
+			}
+		});
+		try {
+			root.clone(pool);
+			failNoException(IllegalStateException.class);
+		} catch (Exception e) {
+			checkException(IllegalStateException.class, e);
+			assertEquals("broken clone", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCloneNullExecutor() {
+		try {
+			new Element("root").clone((Executor)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new Document(new Element("root")).clone((Executor)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+	}
+
+	@Test
+	public void testCloneDocument() {
+		final Document doc = new Document();
+		doc.addContent(new DocType("root"));
+		doc.addContent(new Comment("before"));
+		doc.addContent(build(4, 4, "root"));
+		doc.addContent(new ProcessingInstruction("after", "data"));
+		final Document clone = doc.clone(pool);
+		assertEquals(new XMLOutputter().outputString(doc),
+				new XMLOutputter().outputString(clone));
+		assertEquals(4, clone.getContentSize());
+		assertTrue(clone.getRootElement() != doc.getRootElement());
+		assertTrue(clone.getRootElement().getParent() == clone);
+		UnitTestUtil.compare(doc.getRootElement(), clone.getRootElement());
+	}
+
+	@Test
+	public void testCloneFrozen() {
+		final Document doc = new Document(build(3, 4, "root")).freeze();
+		final Document clone = doc.clone(pool);
+		assertFalse(clone.isFrozen());
+		clone.getRootElement().getChildren().get(0).setAttribute(new Attribute("new", "val"));
+		clone.getRootElement().getChildren().get(0).detach();
+		assertEquals(4, doc.getRootElement().getChildren().size());
+		assertEquals(3, clone.getRootElement().getChildren().size());
+	}
+
+}
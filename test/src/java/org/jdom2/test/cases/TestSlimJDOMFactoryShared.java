@@ -0,0 +1,64 @@
+package org.jdom2.test.cases;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import org.jdom2.JDOMFactory;
+import org.jdom2.SharedStringBin;
+import org.jdom2.SlimJDOMFactory;
+import org.jdom2.Text;
+
+@SuppressWarnings("javadoc")
+public class TestSlimJDOMFactoryShared extends AbstractTestJDOMFactory {
+
+	/**
+	 * @param located
+	 */
+	public TestSlimJDOMFactoryShared() {
+		super(false);
+	}
+
+	@Override
+	protected JDOMFactory buildFactory() {
+		return new SlimJDOMFactory(new SharedStringBin(), true);
+	}
+
+	@Test
+	public void testCaching() {
+		SharedStringBin bin = new SharedStringBin();
+		SlimJDOMFactory fac = new SlimJDOMFactory(bin, true);
+		assertTrue(bin == fac.getSharedStringBin());
+		Text ta = fac.text("hi");
+		String hi = ta.getText();
+		// we expect the StringBin to compact a string value... should no longer
+		// be the intern value.
+		assertTrue("hi" != hi);
+		assertTrue("hi" == hi.intern());
+		
+		// a different factory sharing the bin reuses the value.
+		Text tb = new SlimJDOMFactory(bin, true).text("hi");
+		assertTrue(hi == tb.getText());
+		
+		fac.clearCache();
+		
+		Text tc = fac.text("hi");
+		assertTrue(hi != tc.getText());
+		assertTrue(hi.equals(tc.getText()));
+	}
+	
+	@Test
+	public void testNoText() {
+		SlimJDOMFactory fac = new SlimJDOMFactory(new SharedStringBin(), false);
+		assertTrue("hi" == fac.text("hi").getText());
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void testNullBin() {
+		new SlimJDOMFactory(null, true);
+	}
+	
+	@Test
+	public void testOwnBin() {
+		assertNull(new SlimJDOMFactory().getSharedStringBin());
+	}
+}
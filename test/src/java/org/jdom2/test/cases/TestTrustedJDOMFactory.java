@@ -0,0 +1,92 @@
+package org.jdom2.test.cases;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.jdom2.Attribute;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.IllegalAddException;
+import org.jdom2.JDOMFactory;
+import org.jdom2.Namespace;
+import org.jdom2.Text;
+import org.jdom2.TrustedJDOMFactory;
+import org.jdom2.test.util.UnitTestUtil;
+
+@SuppressWarnings("javadoc")
+public class TestTrustedJDOMFactory extends AbstractTestJDOMFactory {
+
+	public TestTrustedJDOMFactory() {
+		super(false);
+	}
+
+	@Override
+	protected JDOMFactory buildFactory() {
+		return new TrustedJDOMFactory();
+	}
+
+	@Test
+	public void testAddContentWithParent() {
+		final JDOMFactory factory = buildFactory();
+		final Element a = factory.element("a");
+		final Element b = factory.element("b");
+		final Text text = factory.text("text");
+		factory.addContent(a, text);
+		try {
+			factory.addContent(b, text);
+			failNoException(IllegalAddException.class);
+		} catch (Exception e) {
+			checkException(IllegalAddException.class, e);
+		}
+		assertTrue(text.getParent() == a);
+		assertEquals(0, b.getContentSize());
+	}
+
+	@Test
+	public void testSetAttributeWithParent() {
+		final JDOMFactory factory = buildFactory();
+		final Element a = factory.element("a");
+		final Element b = factory.element("b");
+		final Attribute att = factory.attribute("att", "val");
+		factory.setAttribute(a, att);
+		try {
+			factory.setAttribute(b, att);
+			failNoException(IllegalAddException.class);
+		} catch (Exception e) {
+			checkException(IllegalAddException.class, e);
+		}
+		assertTrue(att.getParent() == a);
+		assertTrue(b.getAttributes().isEmpty());
+	}
+
+	@Test
+	public void testSetRootReplaces() {
+		final JDOMFactory factory = buildFactory();
+		final Document doc = factory.document(null);
+		final Element first = factory.element("first");
+		final Element second = factory.element("second");
+		factory.setRoot(doc, first);
+		factory.setRoot(doc, second);
+		assertEquals(1, doc.getContentSize());
+		assertTrue(doc.getRootElement() == second);
+		assertTrue(first.getParent() == null);
+	}
+
+	@Test
+	public void testNamespaceScopeUpdated() {
+		final JDOMFactory factory = buildFactory();
+		final Namespace x = Namespace.getNamespace("x", "urn:x");
+		final Element root = factory.element("root");
+		final Element kid = factory.element("kid");
+		factory.addContent(root, kid);
+		// prime the namespace scope caches before the declaration.
+		UnitTestUtil.testNamespaceScope(kid, Namespace.NO_NAMESPACE, Namespace.XML_NAMESPACE);
+		factory.addNamespaceDeclaration(root, x);
+		UnitTestUtil.testNamespaceScope(kid, Namespace.NO_NAMESPACE, x, Namespace.XML_NAMESPACE);
+	}
+
+}
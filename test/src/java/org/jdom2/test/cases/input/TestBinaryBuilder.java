@@ -0,0 +1,349 @@
+package org.jdom2.test.cases.input;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.compare;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import org.jdom2.Attribute;
+import org.jdom2.AttributeType;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DefaultJDOMFactory;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.input.BinaryBuilder;
+import org.jdom2.located.LocatedElement;
+import org.jdom2.located.LocatedJDOMFactory;
+import org.jdom2.output.BinaryOutputter;
+import org.jdom2.output.XMLOutputter;
+
+@SuppressWarnings("javadoc")
+public class TestBinaryBuilder {
+
+	private static final byte[] toBytes(Document doc) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new BinaryOutputter().output(doc, baos);
+		return baos.toByteArray();
+	}
+
+	private static final byte[] toBytes(Element emt) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new BinaryOutputter().output(emt, baos);
+		return baos.toByteArray();
+	}
+
+	private static final void checkDescendants(Document doc, Document rt) {
+		compare(doc, rt);
+		final Iterator<Content> sit = rt.getDescendants();
+		final Iterator<Content> dit = doc.getDescendants();
+		while (sit.hasNext() && dit.hasNext()) {
+			compare(dit.next(), sit.next());
+		}
+		assertFalse(sit.hasNext());
+		assertFalse(dit.hasNext());
+		assertEquals(new XMLOutputter().outputString(doc),
+				new XMLOutputter().outputString(rt));
+	}
+
+	private static final Document serializationDocument() {
+		// the same Document as TestSerialization.testDocumentSerialization
+		Document doc = new Document();
+		doc.setDocType(new DocType("root", "pubid", "sysid"));
+		doc.getDocType().setInternalSubset(" internalss  with space ");
+		doc.addContent(new Comment("doccomment1"));
+		doc.addContent(new ProcessingInstruction("target1"));
+		doc.addContent(new ProcessingInstruction("target2").setData("key=value"));
+		doc.addContent(new Comment("doccomment2"));
+		Element root = new Element("root");
+		doc.setRootElement(root);
+		root.setAttribute(new Attribute("att", "value"));
+		root.addContent(new Text("  "));
+		root.addNamespaceDeclaration(Namespace.getNamespace("pfx", "uriupfx"));
+		root.addContent(new Element("child", Namespace.getNamespace("nopfxuri")));
+		root.addContent(new EntityRef("name"));
+		root.addContent(new CDATA("cdata"));
+		return doc;
+	}
+
+	@Test
+	public void testSerializationDocument() throws Exception {
+		final Document doc = serializationDocument();
+		final Document rt = new BinaryBuilder().build(toBytes(doc));
+		checkDescendants(doc, rt);
+		assertEquals(" internalss  with space ", rt.getDocType().getInternalSubset());
+		assertEquals("pubid", rt.getDocType().getPublicID());
+		assertEquals("key=value", ((ProcessingInstruction)rt.getContent(3)).getData());
+	}
+
+	@Test
+	public void testSmallerThanSerialization() throws Exception {
+		final Element root = new Element("root", Namespace.getNamespace("urn:data"));
+		for (int i = 0; i < 200; i++) {
+			final Element rec = new Element("record", root.getNamespace());
+			rec.setAttribute("id", String.valueOf(i));
+			rec.setAttribute("status", "active");
+			rec.addContent(new Element("value", root.getNamespace()).setText("v" + i));
+			root.addContent(rec);
+		}
+		final Document doc = new Document(root);
+		final byte[] binary = toBytes(doc);
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(baos);
+		oos.writeObject(doc);
+		oos.close();
+		final String xml = new XMLOutputter().outputString(doc);
+		assertTrue(binary.length < baos.size());
+		assertTrue(binary.length < xml.length());
+		checkDescendants(doc, new BinaryBuilder().build(binary));
+	}
+
+	@Test
+	public void testAttributes() throws Exception {
+		final Namespace ns = Namespace.getNamespace("a", "urn:a");
+		final Element root = new Element("root");
+		root.setAttribute(new Attribute("id", "x1", AttributeType.ID));
+		root.setAttribute(new Attribute("refs", "x1 x2", AttributeType.IDREFS, ns));
+		final Attribute defaulted = new Attribute("def", "dflt", AttributeType.CDATA);
+		defaulted.setSpecified(false);
+		root.setAttribute(defaulted);
+		final Element rt = new BinaryBuilder().buildElement(toBytes(root));
+		compare(root, rt);
+		assertEquals(AttributeType.ID, rt.getAttribute("id").getAttributeType());
+		assertEquals(AttributeType.IDREFS, rt.getAttribute("refs", ns).getAttributeType());
+		assertFalse(rt.getAttribute("def").isSpecified());
+		assertTrue(rt.getAttribute("id").isSpecified());
+	}
+
+	@Test
+	public void testStrings() throws Exception {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			sb.append((char)('a' + (i % 26)));
+			if (i % 100 == 0) {
+				sb.append("\u00e9\u20ac\ud83d\ude00");
+			}
+		}
+		final String big = sb.toString();
+		final Element root = new Element("r\u00f6\u00f6t");
+		root.addContent(big);
+		root.addContent(new Element("kid").setText("\u00e9\u20ac\ud83d\ude00"));
+		root.addContent(new Element("kid").setText("\u00e9\u20ac\ud83d\ude00"));
+		root.addContent(new Text(""));
+		root.addContent(new Comment(big));
+		final Element rt = new BinaryBuilder().buildElement(toBytes(root));
+		compare(root, rt);
+		assertEquals(big, rt.getContent(0).getValue());
+		assertEquals("\u00e9\u20ac\ud83d\ude00", rt.getChildren().get(1).getText());
+		assertEquals("", rt.getContent(3).getValue());
+	}
+
+	@Test
+	public void testUnmergedContent() throws Exception {
+		// content that would not survive an XML round trip.
+		final Element root = new Element("root");
+		root.addContent(new Text("a"));
+		root.addContent(new Text("b"));
+		root.addContent(new CDATA("c"));
+		root.addContent(new EntityRef("ent", "pub", "sys"));
+		final Element rt = new BinaryBuilder().buildElement(toBytes(root));
+		assertEquals(4, rt.getContentSize());
+		assertEquals("pub", ((EntityRef)rt.getContent(3)).getPublicID());
+		assertEquals("sys", ((EntityRef)rt.getContent(3)).getSystemID());
+		assertEquals(Content.CType.CDATA, rt.getContent(2).getCType());
+	}
+
+	@Test
+	public void testDeepElement() throws Exception {
+		final Element root = new Element("root");
+		Element tail = root;
+		for (int i = 0; i < 500; i++) {
+			final Element kid = new Element("deep");
+			tail.addContent(kid);
+			tail = kid;
+		}
+		tail.setText("bottom");
+		final Document doc = new Document(root);
+		checkDescendants(doc, new BinaryBuilder().build(
+				new ByteArrayInputStream(toBytes(doc))));
+	}
+
+	@Test
+	public void testBaseURIAndFactory() throws Exception {
+		final Document doc = serializationDocument();
+		doc.setBaseURI("http://example.com/base");
+		final BinaryBuilder bb = new BinaryBuilder();
+		bb.setFactory(new LocatedJDOMFactory());
+		assertTrue(bb.getFactory() instanceof LocatedJDOMFactory);
+		final Document rt = bb.build(new ByteArrayInputStream(toBytes(doc)));
+		assertEquals("http://example.com/base", rt.getBaseURI());
+		assertTrue(rt.getRootElement() instanceof LocatedElement);
+		assertEquals(new XMLOutputter().outputString(doc),
+				new XMLOutputter().outputString(rt));
+	}
+
+	@Test
+	public void testNullBaseURI() throws Exception {
+		final Document doc = new Document(new Element("root"));
+		assertNull(new BinaryBuilder().build(toBytes(doc)).getBaseURI());
+	}
+
+	@Test
+	public void testKindMismatch() throws Exception {
+		final Element root = new Element("root");
+		try {
+			new BinaryBuilder().build(toBytes(root));
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+		try {
+			new BinaryBuilder().buildElement(toBytes(new Document(root)));
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+	}
+
+	@Test
+	public void testCorrupt() throws Exception {
+		final byte[] good = toBytes(serializationDocument());
+		try {
+			new BinaryBuilder().build("<root/>".getBytes("UTF-8"));
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+		final byte[] version = good.clone();
+		version[3] = 99;
+		try {
+			new BinaryBuilder().build(version);
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+		// every truncation fails cleanly.
+		for (int len = 0; len < good.length; len++) {
+			final byte[] truncated = new byte[len];
+			System.arraycopy(good, 0, truncated, 0, len);
+			try {
+				new BinaryBuilder().build(truncated);
+				failNoException(JDOMException.class);
+			} catch (Exception e) {
+				checkException(JDOMException.class, e);
+			}
+			try {
+				new BinaryBuilder().build(new ByteArrayInputStream(truncated));
+				failNoException(JDOMException.class);
+			} catch (Exception e) {
+				checkException(JDOMException.class, e);
+			}
+		}
+		final byte[] element = toBytes(new Element("root"));
+		try {
+			new BinaryBuilder().buildElement(new ByteArrayInputStream(
+					element, 0, element.length - 1));
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+	}
+
+	@Test
+	public void testCorruptLength() throws Exception {
+		// an inline base URI with a huge, and then a negative, length.
+		final byte[][] corrupt = {
+				{'J', 'D', 'B', 1, 1, 1, (byte)0xF0, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07, 'a'},
+				{'J', 'D', 'B', 1, 1, 1, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x0F, 'a'},
+		};
+		for (byte[] data : corrupt) {
+			try {
+				new BinaryBuilder().build(data);
+				failNoException(JDOMException.class);
+			} catch (Exception e) {
+				checkException(JDOMException.class, e);
+			}
+			try {
+				new BinaryBuilder().build(new ByteArrayInputStream(data));
+				failNoException(JDOMException.class);
+			} catch (Exception e) {
+				checkException(JDOMException.class, e);
+			}
+		}
+	}
+
+	private static final byte[] corruptAt(final byte[] data, final String find,
+			final int offset, final char replace) throws IOException {
+		final byte[] seek = find.getBytes("UTF-8");
+		for (int i = 0; i <= data.length - seek.length; i++) {
+			int j = 0;
+			while (j < seek.length && data[i + j] == seek[j]) {
+				j++;
+			}
+			if (j == seek.length) {
+				final byte[] ret = data.clone();
+				ret[i + offset] = (byte)replace;
+				return ret;
+			}
+		}
+		throw new IllegalStateException("No " + find + " in the data");
+	}
+
+	@Test
+	public void testCorruptVerifiedContent() throws Exception {
+		final Element root = new Element("root");
+		root.addContent(new Text("sometext"));
+		root.addContent(new ProcessingInstruction("xmm", "data"));
+		final Document doc = new Document(root);
+		final byte[] good = toBytes(doc);
+		final byte[][] corrupt = {
+				// an illegal Element name, Text, and PI target.
+				corruptAt(good, "root", 0, '1'),
+				corruptAt(good, "sometext", 0, '\u0001'),
+				corruptAt(good, "xmm", 2, 'l'),
+		};
+		final BinaryBuilder bb = new BinaryBuilder();
+		bb.setFactory(new DefaultJDOMFactory());
+		for (byte[] data : corrupt) {
+			try {
+				bb.build(data);
+				failNoException(JDOMException.class);
+			} catch (Exception e) {
+				checkException(JDOMException.class, e);
+			}
+		}
+		try {
+			bb.buildElement(corruptAt(toBytes(root), "root", 0, '1'));
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+	}
+
+	@Test
+	public void testVerifyingFactory() throws Exception {
+		final Document doc = serializationDocument();
+		final BinaryBuilder bb = new BinaryBuilder();
+		bb.setFactory(new DefaultJDOMFactory());
+		checkDescendants(doc, bb.build(toBytes(doc)));
+	}
+
+}
@@ -0,0 +1,258 @@
+package org.jdom2.test.cases.input;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.StAXEventBuilder;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.internal.MappedFileInputStream;
+import org.jdom2.output.XMLOutputter;
+
+@SuppressWarnings("javadoc")
+public class TestMappedInput {
+
+	private final List<File> tempfiles = new ArrayList<File>();
+
+	@After
+	public void deleteTempFiles() {
+		for (File f : tempfiles) {
+			f.delete();
+		}
+	}
+
+	private File write(final byte[] data) throws IOException {
+		final File tmp = File.createTempFile("jdommap", ".xml");
+		tempfiles.add(tmp);
+		final FileOutputStream fos = new FileOutputStream(tmp);
+		try {
+			fos.write(data);
+		} finally {
+			fos.close();
+		}
+		return tmp;
+	}
+
+	private static byte[] sample(final int size) {
+		final byte[] data = new byte[size];
+		for (int i = 0; i < size; i++) {
+			data[i] = (byte)(i * 31 + 7);
+		}
+		return data;
+	}
+
+	private static String bigxml() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("<root>");
+		for (int i = 0; i < 500; i++) {
+			sb.append("<kid id=\"").append(i).append("\">text \u00e9\u4e2d ")
+				.append(i).append("</kid>");
+		}
+		sb.append("</root>");
+		return sb.toString();
+	}
+
+	private static String expect(final String xml) throws Exception {
+		return new XMLOutputter().outputString(
+				new SAXBuilder().build(new StringReader(xml)));
+	}
+
+	@Test
+	public void testReadWindows() throws IOException {
+		final byte[] data = sample(10000);
+		final File file = write(data);
+		// byte at a time, small window.
+		final InputStream in = new MappedFileInputStream(file, 7);
+		try {
+			assertEquals(10000, in.available());
+			for (int i = 0; i < data.length; i++) {
+				assertEquals(data[i] & 0xFF, in.read());
+			}
+			assertEquals(-1, in.read());
+			assertEquals(-1, in.read(new byte[10], 0, 10));
+			assertEquals(0, in.available());
+		} finally {
+			in.close();
+		}
+		// bulk reads straddling windows.
+		for (int window : new int[] {1, 13, 4096, 10000, 100000}) {
+			final InputStream bin = new MappedFileInputStream(file, window);
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			final byte[] buf = new byte[1000];
+			int got = 0;
+			try {
+				while ((got = bin.read(buf, 0, buf.length)) >= 0) {
+					assertTrue(got > 0);
+					baos.write(buf, 0, got);
+				}
+			} finally {
+				bin.close();
+			}
+			assertArrayEquals(data, baos.toByteArray());
+		}
+	}
+
+	@Test
+	public void testSkip() throws IOException {
+		final byte[] data = sample(1000);
+		final InputStream in = new MappedFileInputStream(write(data), 64);
+		try {
+			assertEquals(0L, in.skip(0));
+			assertEquals(10L, in.skip(10));
+			assertEquals(data[10] & 0xFF, in.read());
+			// skip past several windows.
+			assertEquals(300L, in.skip(300));
+			assertEquals(data[311] & 0xFF, in.read());
+			assertEquals(988 - 300, in.available());
+			assertEquals(688L, in.skip(10000));
+			assertEquals(-1, in.read());
+			assertEquals(0L, in.skip(10));
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void testEmptyAndClosed() throws IOException {
+		final InputStream in = new MappedFileInputStream(write(new byte[0]));
+		assertEquals(0, in.available());
+		assertEquals(-1, in.read());
+		in.close();
+		in.close();
+		try {
+			in.read();
+			failNoException(IOException.class);
+		} catch (Exception e) {
+			checkException(IOException.class, e);
+		}
+		try {
+			in.available();
+			failNoException(IOException.class);
+		} catch (Exception e) {
+			checkException(IOException.class, e);
+		}
+	}
+
+	@Test
+	public void testBadArguments() throws IOException {
+		final File file = write(sample(10));
+		try {
+			new MappedFileInputStream(file, 0);
+			failNoException(IllegalArgumentException.class);
+		} catch (Exception e) {
+			checkException(IllegalArgumentException.class, e);
+		}
+		final InputStream in = new MappedFileInputStream(file);
+		try {
+			in.read(new byte[10], 5, 6);
+			failNoException(IndexOutOfBoundsException.class);
+		} catch (Exception e) {
+			checkException(IndexOutOfBoundsException.class, e);
+		} finally {
+			in.close();
+		}
+		try {
+			new MappedFileInputStream(new File(file.getPath() + ".missing"));
+			failNoException(IOException.class);
+		} catch (Exception e) {
+			checkException(IOException.class, e);
+		}
+	}
+
+	@Test
+	public void testSAXBuildMapped() throws Exception {
+		final String xml = bigxml();
+		final File file = write(xml.getBytes("UTF-8"));
+		final Document doc = new SAXBuilder().buildMapped(file);
+		assertEquals(expect(xml), new XMLOutputter().outputString(doc));
+		assertEquals(file.getAbsoluteFile().toURI().toURL().toExternalForm(),
+				doc.getBaseURI());
+	}
+
+	@Test
+	public void testSAXBuildMappedEncodings() throws Exception {
+		final String xml = bigxml();
+		// UTF-16 with a byte-order mark.
+		final Document utf16 = new SAXBuilder().buildMapped(
+				write(xml.getBytes("UTF-16")));
+		assertEquals(expect(xml), new XMLOutputter().outputString(utf16));
+		// encoding from the declaration.
+		final String latin = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" +
+				"<root>caf\u00e9</root>";
+		final Document doc = new SAXBuilder().buildMapped(
+				write(latin.getBytes("ISO-8859-1")));
+		assertEquals("caf\u00e9", doc.getRootElement().getText());
+	}
+
+	@Test
+	public void testSAXBuildMappedRelativeDTD() throws Exception {
+		final File dtd = write("<!ENTITY greet 'hello'>".getBytes("UTF-8"));
+		final File file = write(("<!DOCTYPE root SYSTEM \"" + dtd.getName() +
+				"\"><root>&greet;</root>").getBytes("UTF-8"));
+		final Document doc = new SAXBuilder().buildMapped(file);
+		assertEquals("hello", doc.getRootElement().getText());
+	}
+
+	@Test
+	public void testSAXBuildMappedError() throws Exception {
+		final File file = write("<root><kid></root>".getBytes("UTF-8"));
+		try {
+			new SAXBuilder().buildMapped(file);
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+	}
+
+	@Test
+	public void testStAXBuildMapped() throws Exception {
+		final String xml = bigxml();
+		final String expect = expect(xml);
+		final XMLInputFactory inputfactory = XMLInputFactory.newInstance();
+		for (String charset : new String[] {"UTF-8", "UTF-16"}) {
+			final File file = write(xml.getBytes(charset));
+			assertEquals(expect, new XMLOutputter().outputString(
+					new StAXStreamBuilder().buildMapped(inputfactory, file)));
+			assertEquals(expect, new XMLOutputter().outputString(
+					new StAXEventBuilder().buildMapped(inputfactory, file)));
+		}
+	}
+
+	@Test
+	public void testStAXBuildMappedError() throws Exception {
+		final File file = write("<root><kid></root>".getBytes("UTF-8"));
+		final XMLInputFactory inputfactory = XMLInputFactory.newInstance();
+		try {
+			new StAXStreamBuilder().buildMapped(inputfactory, file);
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+		try {
+			new StAXEventBuilder().buildMapped(inputfactory, file);
+			failNoException(JDOMException.class);
+		} catch (Exception e) {
+			checkException(JDOMException.class, e);
+		}
+	}
+
+}
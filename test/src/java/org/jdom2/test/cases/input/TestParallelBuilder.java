@@ -0,0 +1,337 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.test.cases.input;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.ParallelBuilder;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.sax.SAXEngine;
+import org.jdom2.test.util.FidoFetch;
+
+@SuppressWarnings("javadoc")
+public class TestParallelBuilder {
+	
+	private static final InputSource source(final String xml) {
+		return new InputSource(new StringReader(xml));
+	}
+	
+	private static final Callable<InputStream> opener(final String xml) {
+		return new Callable<InputStream>() {
+			@Override
+			public InputStream call() throws Exception {
+				return new ByteArrayInputStream(xml.getBytes("UTF-8"));
+			}
+		};
+	}
+	
+	@Test
+	public void testBuildAll() throws Exception {
+		final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), 4);
+		try {
+			assertEquals(4, pb.getParallelism());
+			final List<Callable<InputStream>> inputs = 
+					new ArrayList<Callable<InputStream>>();
+			for (int i = 0; i < 200; i++) {
+				inputs.add(opener("<doc id='" + i + "'/>"));
+			}
+			final List<ParallelBuilder.Result<Callable<InputStream>>> results = 
+					pb.buildAll(inputs, ParallelBuilder.STREAMS);
+			assertEquals(inputs.size(), results.size());
+			for (int i = 0; i < results.size(); i++) {
+				final ParallelBuilder.Result<Callable<InputStream>> r = results.get(i);
+				assertTrue(r.isSuccess());
+				assertNull(r.getException());
+				assertTrue(inputs.get(i) == r.getInput());
+				assertEquals(String.valueOf(i), 
+						r.getDocument().getRootElement().getAttributeValue("id"));
+				assertNotNull(r.toString());
+			}
+			// engines are reused, never more than the parallelism.
+			assertTrue(pb.getPool().getMissCount() <= 4);
+			assertTrue(pb.getPool().getHitCount() >= 196);
+		} finally {
+			pb.shutdown();
+		}
+	}
+	
+	@Test
+	public void testErrorCapture() throws Exception {
+		final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), 2);
+		try {
+			final Callable<InputStream> broken = new Callable<InputStream>() {
+				@Override
+				public InputStream call() throws Exception {
+					throw new IOException("no stream");
+				}
+			};
+			final List<ParallelBuilder.Result<InputSource>> results = pb.buildAll(
+					Arrays.asList(source("<ok/>"), source("<broken>")), 
+					ParallelBuilder.INPUT_SOURCES);
+			assertTrue(results.get(0).isSuccess());
+			assertFalse(results.get(1).isSuccess());
+			assertNull(results.get(1).getDocument());
+			assertTrue(results.get(1).getException() instanceof JDOMException);
+			final Callable<InputStream> nullstream = new Callable<InputStream>() {
+				@Override
+				public InputStream call() {
+					return null;
+				}
+			};
+			final List<ParallelBuilder.Result<Callable<InputStream>>> streams = 
+					pb.buildAll(Arrays.asList(broken, nullstream), 
+							ParallelBuilder.STREAMS);
+			assertTrue(streams.get(0).getException() instanceof IOException);
+			assertTrue(streams.get(1).getException() instanceof IOException);
+			assertEquals("root", pb.submit(FidoFetch.getFido().getURL(
+					"/DOMBuilder/complex.xml")).get().getRootElement().getName());
+			try {
+				pb.submit("file:/no/such/file.xml").get();
+				fail("Expected a build failure");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof IOException);
+			}
+		} finally {
+			pb.shutdown();
+		}
+	}
+	
+	@Test
+	public void testSubmit() throws Exception {
+		final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder());
+		try {
+			assertEquals(Runtime.getRuntime().availableProcessors(), pb.getParallelism());
+			final Future<Document> good = pb.submit(source("<root/>"));
+			final Future<Document> bad = pb.submit(source("<root>"));
+			assertEquals("root", good.get().getRootElement().getName());
+			try {
+				bad.get();
+				fail("Expected a build failure");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof JDOMException);
+			}
+			final List<Future<Document>> all = pb.submitAll(Arrays.asList(
+					source("<a/>"), source("<b/>")), ParallelBuilder.INPUT_SOURCES);
+			assertEquals("a", all.get(0).get().getRootElement().getName());
+			assertEquals("b", all.get(1).get().getRootElement().getName());
+			assertNotNull(pb.toString());
+		} finally {
+			pb.shutdown();
+		}
+		try {
+			pb.submit(source("<late/>"));
+			fail("Expected the executor to be shut down");
+		} catch (RejectedExecutionException e) {
+			// good
+		}
+	}
+	
+	@Test
+	public void testSharedExecutor() throws Exception {
+		final ExecutorService exec = Executors.newFixedThreadPool(8);
+		try {
+			final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), exec, 2);
+			final List<InputSource> inputs = new ArrayList<InputSource>();
+			for (int i = 0; i < 50; i++) {
+				inputs.add(source("<doc/>"));
+			}
+			for (ParallelBuilder.Result<InputSource> r : 
+					pb.buildAll(inputs, ParallelBuilder.INPUT_SOURCES)) {
+				assertTrue(r.isSuccess());
+			}
+			// only 2 engines even though there are 8 threads.
+			assertTrue(pb.getPool().getMissCount() <= 2);
+			pb.shutdown();
+			// our executor is still running.
+			assertFalse(exec.isShutdown());
+		} finally {
+			exec.shutdown();
+		}
+	}
+	
+	@Test
+	public void testSharedExecutorNotBlocked() throws Exception {
+		final ExecutorService exec = Executors.newFixedThreadPool(2);
+		try {
+			final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), exec, 1);
+			final CountDownLatch latch = new CountDownLatch(1);
+			// the first build holds the only engine until the latch opens.
+			final Reader waiting = new FilterReader(new StringReader("<first/>")) {
+				@Override
+				public int read(final char[] cbuf, final int off, final int len) 
+						throws IOException {
+					try {
+						if (!latch.await(10, TimeUnit.SECONDS)) {
+							throw new IOException("Executor thread was blocked");
+						}
+					} catch (InterruptedException e) {
+						throw new IOException("Interrupted");
+					}
+					return super.read(cbuf, off, len);
+				}
+			};
+			final Future<Document> first = pb.submit(new InputSource(waiting));
+			final Future<Document> second = pb.submit(source("<second/>"));
+			// only one build is on the executor, the other thread is free.
+			exec.submit(new Runnable() {
+				@Override
+				public void run() {
+					latch.countDown();
+				}
+			});
+			assertEquals("first", first.get().getRootElement().getName());
+			assertEquals("second", second.get().getRootElement().getName());
+			exec.shutdown();
+			try {
+				pb.submit(source("<late/>"));
+				fail("Expected the shared executor to be shut down");
+			} catch (RejectedExecutionException e) {
+				// good
+			}
+		} finally {
+			exec.shutdown();
+		}
+	}
+	
+	@Test
+	public void testCustomInputType() throws Exception {
+		final ParallelBuilder.InputType<String> text = 
+				new ParallelBuilder.InputType<String>() {
+			@Override
+			public Document build(final SAXEngine engine, final String input) 
+					throws JDOMException, IOException {
+				return engine.build(new StringReader(input));
+			}
+		};
+		final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), 2);
+		try {
+			final List<ParallelBuilder.Result<String>> results = 
+					pb.buildAll(Arrays.asList("<a/>", "<b>"), text);
+			assertEquals("a", results.get(0).getDocument().getRootElement().getName());
+			assertEquals("<a/>", results.get(0).getInput());
+			assertTrue(results.get(1).getException() instanceof JDOMException);
+		} finally {
+			pb.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBadInputs() {
+		final ParallelBuilder pb = new ParallelBuilder(new SAXBuilder(), 1);
+		try {
+			try {
+				pb.submit((InputSource)null);
+				fail("Expected null input");
+			} catch (NullPointerException e) {
+				// good
+			}
+			try {
+				pb.submit(source("<a/>"), null);
+				fail("Expected null type");
+			} catch (NullPointerException e) {
+				// good
+			}
+			try {
+				pb.submitAll(Arrays.asList(source("<a/>"), null), 
+						ParallelBuilder.INPUT_SOURCES);
+				fail("Expected null input");
+			} catch (NullPointerException e) {
+				// good
+			}
+		} finally {
+			pb.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBadConstruction() {
+		try {
+			new ParallelBuilder(new SAXBuilder(), 0);
+			fail("Expected bad parallelism");
+		} catch (IllegalArgumentException e) {
+			// good
+		}
+		try {
+			new ParallelBuilder(new SAXBuilder(), null, 2);
+			fail("Expected null executor");
+		} catch (NullPointerException e) {
+			// good
+		}
+	}
+
+}
@@ -551,6 +551,20 @@ public final class TestSAXBuilder {
 		assertFalse(se.getIgnoringBoundaryWhitespace());
 	}
 
+	@Test
+	public void testReuseParserKeepsConfiguration() throws JDOMException, IOException {
+		// the SAXHandler is reset after each build, but that should not
+		// reset the whitespace/entity configuration of a reused parser.
+		SAXBuilder sb = new SAXBuilder();
+		sb.setReuseParser(true);
+		sb.setIgnoringBoundaryWhitespace(true);
+		final String xml = "<root>  <child/>  </root>";
+		for (int i = 0; i < 3; i++) {
+			Document doc = sb.build(new CharArrayReader(xml.toCharArray()));
+			assertEquals(1, doc.getRootElement().getContentSize());
+		}
+	}
+
 	@SuppressWarnings("deprecation")
 	@Test
 	public void testGetReuseParser() {
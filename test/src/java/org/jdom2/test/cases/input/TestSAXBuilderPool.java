@@ -0,0 +1,224 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.test.cases.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.UncheckedJDOMFactory;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.SAXBuilderPool;
+
+@SuppressWarnings("javadoc")
+public final class TestSAXBuilderPool {
+	
+	private static final String xml = "<root>  <child att=\"val\"/>  <child/>  </root>";
+	
+	private static final Document build(SAXBuilderPool pool) throws JDOMException, IOException {
+		return pool.build(new CharArrayReader(xml.toCharArray()));
+	}
+
+	@Test
+	public void testConstruction() {
+		SAXBuilder sb = new SAXBuilder();
+		SAXBuilderPool pool = new SAXBuilderPool(sb, 3);
+		assertEquals(3, pool.getCapacity());
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(0L, pool.getHitCount());
+		assertEquals(0L, pool.getMissCount());
+		assertEquals(0L, pool.getWaitCount());
+		
+		pool = new SAXBuilderPool(sb);
+		assertEquals(Runtime.getRuntime().availableProcessors(), pool.getCapacity());
+	}
+
+	@Test
+	public void testConstructionFailures() {
+		try {
+			new SAXBuilderPool(null, 1);
+			fail("Should not be able to pool a null template");
+		} catch (NullPointerException npe) {
+			// good.
+		}
+		try {
+			new SAXBuilderPool(new SAXBuilder(), 0);
+			fail("Should not be able to have an empty pool");
+		} catch (IllegalArgumentException iae) {
+			// good.
+		}
+		SAXBuilder sb = new SAXBuilder();
+		sb.setXMLFilter(new XMLFilterImpl());
+		try {
+			new SAXBuilderPool(sb, 1);
+			fail("Should not be able to pool a template with an XMLFilter");
+		} catch (IllegalArgumentException iae) {
+			// good.
+		}
+	}
+
+	@Test
+	public void testTemplateConfiguration() throws JDOMException, IOException {
+		SAXBuilder sb = new SAXBuilder();
+		UncheckedJDOMFactory fac = new UncheckedJDOMFactory();
+		sb.setJDOMFactory(fac);
+		sb.setIgnoringBoundaryWhitespace(true);
+		sb.setExpandEntities(false);
+		SAXBuilderPool pool = new SAXBuilderPool(sb, 2);
+		assertTrue(fac == pool.getJDOMFactory());
+		assertTrue(pool.getIgnoringBoundaryWhitespace());
+		assertFalse(pool.getIgnoringElementContentWhitespace());
+		assertFalse(pool.getExpandEntities());
+		assertFalse(pool.isValidating());
+		assertTrue(sb.getErrorHandler() == pool.getErrorHandler());
+		assertTrue(sb.getEntityResolver() == pool.getEntityResolver());
+		assertTrue(sb.getDTDHandler() == pool.getDTDHandler());
+		
+		// boundary whitespace is ignored, even when the engine is reused.
+		for (int i = 0; i < 3; i++) {
+			assertEquals(2, build(pool).getRootElement().getContentSize());
+		}
+	}
+
+	@Test
+	public void testHitsAndMisses() throws JDOMException, IOException {
+		SAXBuilderPool pool = new SAXBuilderPool(new SAXBuilder(), 2);
+		assertNotNull(build(pool));
+		assertEquals(1L, pool.getMissCount());
+		assertEquals(0L, pool.getHitCount());
+		assertEquals(1, pool.getIdleCount());
+		
+		assertNotNull(pool.build(new ByteArrayInputStream(xml.getBytes("UTF-8"))));
+		assertNotNull(pool.build(new InputSource(new CharArrayReader(xml.toCharArray()))));
+		assertEquals(1L, pool.getMissCount());
+		assertEquals(2L, pool.getHitCount());
+		assertEquals(0L, pool.getWaitCount());
+		assertEquals(1, pool.getIdleCount());
+		
+		pool.clear();
+		assertEquals(0, pool.getIdleCount());
+		assertNotNull(build(pool));
+		assertEquals(2L, pool.getMissCount());
+		assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	public void testEngineReturnedAfterFailure() throws IOException {
+		SAXBuilderPool pool = new SAXBuilderPool(new SAXBuilder(), 1);
+		try {
+			pool.build(new CharArrayReader("<root>".toCharArray()));
+			fail("Should not be able to parse broken XML");
+		} catch (JDOMException e) {
+			// good
+		}
+		assertEquals(1, pool.getIdleCount());
+		try {
+			assertEquals(2, build(pool).getRootElement().getChildren().size());
+		} catch (JDOMException e) {
+			fail("Engine should be reusable after a parse failure: " + e.getMessage());
+		}
+		assertEquals(1L, pool.getHitCount());
+	}
+
+	@Test
+	public void testConcurrentBuilds() throws Exception {
+		final SAXBuilderPool pool = new SAXBuilderPool(new SAXBuilder(), 2);
+		final int threads = 4;
+		final int builds = 50;
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < threads; t++) {
+				results.add(exec.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int cnt = 0;
+						for (int i = 0; i < builds; i++) {
+							cnt += build(pool).getRootElement().getChildren().size();
+						}
+						return Integer.valueOf(cnt);
+					}
+				}));
+			}
+			for (Future<Integer> f : results) {
+				assertEquals(2 * builds, f.get().intValue());
+			}
+		} finally {
+			exec.shutdown();
+		}
+		assertTrue(pool.getMissCount() <= 2L);
+		assertTrue(pool.getIdleCount() <= 2);
+		assertEquals(threads * builds, pool.getHitCount() + pool.getMissCount());
+	}
+
+}
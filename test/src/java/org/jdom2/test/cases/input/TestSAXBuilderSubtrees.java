@@ -0,0 +1,212 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.test.cases.input;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filters;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.sax.ElementPathFilter;
+import org.jdom2.input.sax.SubtreeListener;
+import org.jdom2.output.XMLOutputter;
+
+@SuppressWarnings("javadoc")
+public class TestSAXBuilderSubtrees {
+	
+	private static final String FEED = 
+			"<?xml version=\"1.0\"?>\n" +
+			"<!-- before -->\n" +
+			"<feed xmlns=\"urn:feed\" xmlns:m=\"urn:meta\" version=\"2\">\n" +
+			"  <header><title>t</title></header>\n" +
+			"  <!-- inside -->\n" +
+			"  <record id=\"1\" m:seen=\"yes\"><name>one</name><m:x/></record>\n" +
+			"  <record id=\"2\"><name>two</name><record id=\"nested\"/></record>\n" +
+			"  <group><record id=\"3\"><name>three</name></record></group>\n" +
+			"</feed>";
+	
+	private static final class Collector implements SubtreeListener {
+		private final List<Element> elements = new ArrayList<Element>();
+		@Override
+		public void subtreeBuilt(Element element) throws JDOMException {
+			assertNull(element.getParent());
+			elements.add(element);
+		}
+	}
+	
+	@Test
+	public void testAbsolutePath() throws Exception {
+		final Collector col = new Collector();
+		final Document doc = new SAXBuilder().buildSubtrees(
+				new StringReader(FEED), new ElementPathFilter("/feed/record"), col);
+		assertEquals(2, col.elements.size());
+		final Element one = col.elements.get(0);
+		assertEquals("1", one.getAttributeValue("id"));
+		assertEquals("one", one.getChildText("name", Namespace.getNamespace("urn:feed")));
+		assertEquals("yes", one.getAttributeValue("seen", Namespace.getNamespace("urn:meta")));
+		// the in-scope namespace is declared on the detached element.
+		assertTrue(one.getAdditionalNamespaces().contains(
+				Namespace.getNamespace("m", "urn:meta")));
+		assertEquals(Namespace.getNamespace("urn:feed"), one.getNamespace());
+		final String xml = new XMLOutputter().outputString(one);
+		assertTrue(xml, xml.contains("xmlns:m=\"urn:meta\""));
+		// the nested record is delivered as part of its parent.
+		assertEquals("2", col.elements.get(1).getAttributeValue("id"));
+		assertEquals(2, col.elements.get(1).getContentSize());
+		
+		// the skeleton
+		assertTrue(doc.hasRootElement());
+		final Element root = doc.getRootElement();
+		assertEquals("feed", root.getName());
+		assertEquals("2", root.getAttributeValue("version"));
+		assertEquals(0, root.getContentSize());
+		assertEquals(2, doc.getContentSize());
+	}
+	
+	@Test
+	public void testRelativePath() throws Exception {
+		final Collector col = new Collector();
+		new SAXBuilder().buildSubtrees(new StringReader(FEED),
+				new ElementPathFilter("record"), col);
+		assertEquals(3, col.elements.size());
+		assertEquals("3", col.elements.get(2).getAttributeValue("id"));
+	}
+	
+	@Test
+	public void testFilter() throws Exception {
+		final Collector col = new Collector();
+		new SAXBuilder().buildSubtrees(new StringReader(FEED),
+				Filters.element("name", Namespace.getNamespace("urn:feed")), col);
+		assertEquals(3, col.elements.size());
+		assertEquals("two", col.elements.get(1).getText());
+	}
+	
+	@Test
+	public void testRootMatches() throws Exception {
+		final Collector col = new Collector();
+		final Document doc = new SAXBuilder().buildSubtrees(
+				new StringReader(FEED), new ElementPathFilter("/feed"), col);
+		assertEquals(1, col.elements.size());
+		assertEquals(4, col.elements.get(0).getChildren().size());
+		assertFalse(doc.hasRootElement());
+	}
+	
+	@Test
+	public void testListenerAborts() throws Exception {
+		try {
+			new SAXBuilder().buildSubtrees(new StringReader(FEED), 
+					new ElementPathFilter("record"), new SubtreeListener() {
+				@Override
+				public void subtreeBuilt(Element element) throws JDOMException {
+					throw new JDOMException("stop");
+				}
+			});
+			fail("Expected the listener exception");
+		} catch (JDOMException e) {
+			assertTrue(e.getMessage().contains("stop"));
+		}
+	}
+	
+	@Test
+	public void testRegularBuildUnaffected() throws Exception {
+		final SAXBuilder builder = new SAXBuilder();
+		builder.buildSubtrees(new StringReader(FEED),
+				new ElementPathFilter("record"), new Collector());
+		final Document doc = builder.build(new StringReader(FEED));
+		assertEquals(4, doc.getRootElement().getChildren().size());
+	}
+	
+	@Test
+	public void testLargeStream() throws Exception {
+		// a generated document that is never held in memory as a whole.
+		final StringBuilder sb = new StringBuilder("<feed>");
+		for (int i = 0; i < 5000; i++) {
+			sb.append("\n <record id=\"").append(i).append("\">text</record>");
+		}
+		sb.append("</feed>");
+		final int[] count = new int[1];
+		final Document doc = new SAXBuilder().buildSubtrees(
+				new StringReader(sb.toString()), new ElementPathFilter("/feed/record"), 
+				new SubtreeListener() {
+			@Override
+			public void subtreeBuilt(Element element) {
+				assertEquals(String.valueOf(count[0]++), element.getAttributeValue("id"));
+			}
+		});
+		assertEquals(5000, count[0]);
+		assertEquals(0, doc.getRootElement().getContentSize());
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void testNullMatcher() throws Exception {
+		new SAXBuilder().buildSubtrees(new StringReader(FEED), null, new Collector());
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testNullListener() throws Exception {
+		new SAXBuilder().buildSubtrees(new StringReader(FEED),
+				new ElementPathFilter("record"), null);
+	}
+
+}
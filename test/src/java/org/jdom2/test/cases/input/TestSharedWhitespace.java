@@ -0,0 +1,134 @@
+package org.jdom2.test.cases.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.junit.Test;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Text;
+import org.jdom2.filter.Filters;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.internal.SharedWhitespace;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+
+@SuppressWarnings("javadoc")
+public class TestSharedWhitespace {
+
+	private static String pretty(final int depth, final String indent) {
+		Element root = new Element("root");
+		Element tail = root;
+		for (int i = 0; i < depth; i++) {
+			for (int j = 0; j < 3; j++) {
+				tail.addContent(new Element("leaf").setText("text"));
+			}
+			final Element kid = new Element("kid");
+			tail.addContent(kid);
+			tail = kid;
+		}
+		return new XMLOutputter(Format.getPrettyFormat().setIndent(indent)
+				.setLineSeparator("\n")).outputString(new Document(root));
+	}
+
+	private static List<String> whitespace(final Document doc) {
+		final List<String> ret = new ArrayList<String>();
+		for (Text t : doc.getDescendants(Filters.text())) {
+			if (t.getText().trim().length() == 0) {
+				ret.add(t.getText());
+			}
+		}
+		return ret;
+	}
+
+	private static void checkShared(final Document a, final Document b, 
+			final String xml) {
+		// the values are unchanged.
+		assertEquals(xml, new XMLOutputter(Format.getRawFormat()
+				.setLineSeparator("\n")).outputString(a));
+		final List<String> wa = whitespace(a);
+		final List<String> wb = whitespace(b);
+		assertTrue(wa.size() > 10);
+		assertEquals(wa, wb);
+		int shared = 0;
+		for (int i = 0; i < wa.size(); i++) {
+			final String ws = wa.get(i);
+			if (ws.length() <= SharedWhitespace.MAXINDENT + 1) {
+				assertSame(ws, wb.get(i));
+				assertSame(ws, SharedWhitespace.get(ws.toCharArray(), 0, ws.length()));
+				shared++;
+			} else {
+				// too deep to be shared.
+				assertTrue(ws != wb.get(i));
+			}
+		}
+		assertTrue(shared > 10);
+	}
+
+	@Test
+	public void testGet() {
+		final String[] shared = {"\n", " ", "\t", "\n  ", "\n\t\t", "    "};
+		for (String s : shared) {
+			final String got = SharedWhitespace.get(s.toCharArray(), 0, s.length());
+			assertEquals(s, got);
+			assertSame(got, SharedWhitespace.get(("x" + s + "x").toCharArray(), 1, s.length()));
+		}
+		final String[] unshared = {"", "x", "\n x", " \n", "\n \t", "\n\n", 
+				"\r\n  ", "  x"};
+		for (String s : unshared) {
+			assertNull(s, SharedWhitespace.get(s.toCharArray(), 0, s.length()));
+		}
+		final StringBuilder sb = new StringBuilder("\n");
+		for (int i = 0; i < SharedWhitespace.MAXINDENT; i++) {
+			sb.append(' ');
+		}
+		final String longest = sb.toString();
+		assertEquals(longest, SharedWhitespace.get(longest.toCharArray(), 0, longest.length()));
+		final String toolong = longest + " ";
+		assertNull(SharedWhitespace.get(toolong.toCharArray(), 0, toolong.length()));
+	}
+
+	@Test
+	public void testSAXBuilder() throws Exception {
+		for (String indent : new String[] {"  ", "\t"}) {
+			final String xml = pretty(40, indent);
+			final SAXBuilder sb = new SAXBuilder();
+			final Document a = sb.build(new StringReader(xml));
+			final Document b = sb.build(new StringReader(xml));
+			checkShared(a, b, xml);
+		}
+	}
+
+	@Test
+	public void testStAXStreamBuilder() throws Exception {
+		final XMLInputFactory inputfactory = XMLInputFactory.newInstance();
+		final String xml = pretty(40, "  ");
+		final StAXStreamBuilder sb = new StAXStreamBuilder();
+		final Document a = sb.build(inputfactory.createXMLStreamReader(new StringReader(xml)));
+		final Document b = sb.build(inputfactory.createXMLStreamReader(new StringReader(xml)));
+		checkShared(a, b, xml);
+	}
+
+	@Test
+	public void testMixedWhitespaceValues() throws Exception {
+		final String xml = "<root>\n  <a> \n </a><b>\t \t</b><c>\n  text\n  </c>\n</root>";
+		final Document doc = new SAXBuilder().build(new StringReader(xml));
+		final Element root = doc.getRootElement();
+		assertEquals(" \n ", root.getChild("a").getText());
+		assertEquals("\t \t", root.getChild("b").getText());
+		assertEquals("\n  text\n  ", root.getChild("c").getText());
+		assertEquals("\n  ", root.getContent(0).getValue());
+		assertEquals("\n", root.getContent(root.getContentSize() - 1).getValue());
+	}
+
+}
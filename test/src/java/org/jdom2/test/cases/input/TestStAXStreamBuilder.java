@@ -4,12 +4,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamReader;
 
 import org.junit.Ignore;
@@ -20,13 +24,17 @@ import org.jdom2.DefaultJDOMFactory;
 import org.jdom2.DocType;
 import org.jdom2.Document;
 import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
 import org.jdom2.input.SAXBuilder;
 import org.jdom2.input.StAXStreamBuilder;
 import org.jdom2.input.stax.DefaultStAXFilter;
+import org.jdom2.input.stax.StAXFilter;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
 import org.jdom2.test.util.FidoFetch;
 import org.jdom2.test.util.UnitTestUtil;
+import org.jdom2.util.IteratorIterable;
 
 @SuppressWarnings("javadoc")
 public class TestStAXStreamBuilder {
@@ -119,6 +127,89 @@ public class TestStAXStreamBuilder {
 		checkStAX("/xsdcomplex/input.xml", false);
 	}
 	
+	@Test
+	public void testIterateFragmentsLazily() throws Exception {
+		StAXStreamBuilder stxb = new StAXStreamBuilder();
+		XMLInputFactory inputfac = XMLInputFactory.newInstance();
+		XMLStreamReader reader = inputfac.createXMLStreamReader(new StringReader(
+				"<root><a>1</a><b>2</b><c>3</c></root>"));
+		// iterate the children of the root element.
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		StAXFilter filter = new DefaultStAXFilter();
+		IteratorIterable<Content> it = stxb.iterateFragments(reader, filter);
+		assertTrue(it == it.iterator());
+		assertTrue(it.hasNext());
+		assertTrue(it.hasNext());
+		Element a = (Element)it.next();
+		assertEquals("a", a.getName());
+		// the reader has not been read past the first fragment.
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		assertEquals("a", reader.getLocalName());
+		assertEquals("b", ((Element)it.next()).getName());
+		assertEquals("c", ((Element)it.next()).getName());
+		assertFalse(it.hasNext());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		assertEquals("root", reader.getLocalName());
+		try {
+			it.next();
+			fail("Expected no more fragments");
+		} catch (NoSuchElementException e) {
+			// good
+		}
+		try {
+			it.remove();
+			fail("Expected remove to fail");
+		} catch (UnsupportedOperationException e) {
+			// good
+		}
+	}
+	
+	@Test
+	public void testIterateFragmentsBadState() throws Exception {
+		StAXStreamBuilder stxb = new StAXStreamBuilder();
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(
+				new StringReader("<root/>"));
+		reader.next();
+		reader.next();
+		try {
+			stxb.iterateFragments(reader, new DefaultStAXFilter());
+			fail("Expected a state exception");
+		} catch (JDOMException e) {
+			// good
+		}
+	}
+	
+	@Test
+	public void testIterateFragmentsDocument() throws Exception {
+		StAXStreamBuilder stxb = new StAXStreamBuilder();
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(
+				new StringReader("<!-- c --><root><a/></root>"));
+		int cnt = 0;
+		for (Content c : stxb.iterateFragments(reader, new DefaultStAXFilter())) {
+			assertEquals(cnt == 0 ? Content.CType.Comment : Content.CType.Element,
+					c.getCType());
+			cnt++;
+		}
+		assertEquals(2, cnt);
+	}
+	
+	@Test
+	public void testIterateFragmentsBrokenInput() throws Exception {
+		StAXStreamBuilder stxb = new StAXStreamBuilder();
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(
+				new StringReader("<root><a/><b></root>"));
+		IteratorIterable<Content> it = stxb.iterateFragments(reader, new DefaultStAXFilter());
+		try {
+			while (it.hasNext()) {
+				it.next();
+			}
+			fail("Expected a parse problem");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof JDOMException);
+		}
+		assertFalse(it.hasNext());
+	}
+	
 	private void checkStAX(String resname, boolean expand) {
 		try {
 			StAXStreamBuilder stxb = new StAXStreamBuilder();
@@ -135,6 +226,12 @@ public class TestStAXStreamBuilder {
 			Document fragbuild = new Document();
 			fragbuild.addContent(contentlist);
 			Element fragroot = fragbuild.getRootElement();
+			
+			XMLStreamReader iterreader = inputfac.createXMLStreamReader(FidoFetch.getFido().getStream(resname));
+			Document iterbuild = new Document();
+			for (Content c : stxb.iterateFragments(iterreader, new DefaultStAXFilter())) {
+				iterbuild.addContent(c);
+			}
 
 			SAXBuilder sb = new SAXBuilder();
 			sb.setExpandEntities(expand);
@@ -146,6 +243,7 @@ public class TestStAXStreamBuilder {
 			assertEquals("ROOT SAX to StAXReader", toString(saxroot), toString(staxroot));
 			assertEquals("DOC SAX to StAXReader FragmentList", toString(saxbuild), toString(fragbuild));
 			assertEquals("ROOT SAX to StAXReader FragmentList", toString(saxroot), toString(fragroot));
+			assertEquals("DOC SAX to StAXReader FragmentIterator", toString(saxbuild), toString(iterbuild));
 			
 		} catch (Exception e) {
 			UnitTestUtil.failException("Could not parse file '" + resname + "': " + e.getMessage(), e);
@@ -0,0 +1,134 @@
+package org.jdom2.test.cases.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+
+import org.junit.Test;
+import org.xml.sax.InputSource;
+
+import org.jdom2.DefaultJDOMFactory;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.TrustedJDOMFactory;
+import org.jdom2.input.DOMBuilder;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.located.LocatedJDOMFactory;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.test.util.UnitTestUtil;
+
+@SuppressWarnings("javadoc")
+public class TestTrustedInput {
+
+	private static final String XML = 
+			"<?xml version=\"1.0\"?>\n" +
+			"<!--lead-->\n" +
+			"<?pi data?>\n" +
+			"<root xmlns=\"urn:d\" xmlns:x=\"urn:x\" att=\"val\" x:att=\"xval\">\n" +
+			"  <kid a=\"1\" b=\"&lt;2&gt;\">text &amp; more<![CDATA[cdata]]></kid>\n" +
+			"  <x:kid xmlns:y=\"urn:y\" y:att=\"y\"><y:gkid/><!--comment--></x:kid>\n" +
+			"  <other xmlns=\"\">caf\u00e9 \u20ac</other>\n" +
+			"</root>\n" +
+			"<!--trail-->";
+
+	private static String out(final Document doc) {
+		return new XMLOutputter().outputString(doc);
+	}
+
+	private static void checkScopes(final Document doc) {
+		final Element root = doc.getRootElement();
+		final Namespace d = Namespace.getNamespace("urn:d");
+		final Namespace x = Namespace.getNamespace("x", "urn:x");
+		final Namespace y = Namespace.getNamespace("y", "urn:y");
+		final Element xkid = root.getChild("kid", x);
+		UnitTestUtil.testNamespaceScope(xkid.getChild("gkid", y), 
+				y, d, x, Namespace.XML_NAMESPACE);
+		UnitTestUtil.testNamespaceScope(root.getChild("other"), 
+				Namespace.NO_NAMESPACE, x, Namespace.XML_NAMESPACE);
+	}
+
+	@Test
+	public void testSAXBuilder() throws Exception {
+		final SAXBuilder checked = new SAXBuilder();
+		final SAXBuilder trusted = new SAXBuilder();
+		assertFalse(trusted.isTrustedInput());
+		trusted.setTrustedInput(true);
+		assertTrue(trusted.isTrustedInput());
+		assertTrue(trusted.getJDOMFactory() instanceof TrustedJDOMFactory);
+		final Document doc = trusted.build(new StringReader(XML));
+		assertEquals(out(checked.build(new StringReader(XML))), out(doc));
+		checkScopes(doc);
+		trusted.setTrustedInput(false);
+		assertFalse(trusted.isTrustedInput());
+		assertTrue(trusted.getJDOMFactory().getClass() == DefaultJDOMFactory.class);
+	}
+
+	@Test
+	public void testSAXBuilderNotExpanded() throws Exception {
+		final String xml = "<!DOCTYPE root [<!ENTITY ent 'value'>]><root>a&ent;b</root>";
+		final SAXBuilder checked = new SAXBuilder();
+		checked.setExpandEntities(false);
+		final SAXBuilder trusted = new SAXBuilder();
+		trusted.setExpandEntities(false);
+		trusted.setTrustedInput(true);
+		assertEquals(out(checked.build(new StringReader(xml))), 
+				out(trusted.build(new StringReader(xml))));
+	}
+
+	@Test
+	public void testStAXStreamBuilder() throws Exception {
+		final XMLInputFactory inputfactory = XMLInputFactory.newInstance();
+		final StAXStreamBuilder checked = new StAXStreamBuilder();
+		final StAXStreamBuilder trusted = new StAXStreamBuilder();
+		trusted.setTrustedInput(true);
+		assertTrue(trusted.isTrustedInput());
+		final Document doc = trusted.build(
+				inputfactory.createXMLStreamReader(new StringReader(XML)));
+		assertEquals(out(checked.build(
+				inputfactory.createXMLStreamReader(new StringReader(XML)))),
+				out(doc));
+		checkScopes(doc);
+	}
+
+	@Test
+	public void testDOMBuilder() throws Exception {
+		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		dbf.setNamespaceAware(true);
+		final org.w3c.dom.Document dom = dbf.newDocumentBuilder().parse(
+				new InputSource(new StringReader(XML)));
+		final DOMBuilder trusted = new DOMBuilder();
+		trusted.setTrustedInput(true);
+		assertTrue(trusted.isTrustedInput());
+		final Document doc = trusted.build(dom);
+		assertEquals(out(new DOMBuilder().build(dom)), out(doc));
+		checkScopes(doc);
+	}
+
+	@Test
+	public void testCustomFactory() {
+		final DOMBuilder builder = new DOMBuilder();
+		final LocatedJDOMFactory located = new LocatedJDOMFactory();
+		builder.setFactory(located);
+		assertFalse(builder.isTrustedInput());
+		// switching off does not touch a custom factory.
+		builder.setTrustedInput(false);
+		assertTrue(builder.getFactory() == located);
+		builder.setTrustedInput(true);
+		assertTrue(builder.getFactory() instanceof TrustedJDOMFactory);
+		final TrustedJDOMFactory mine = new TrustedJDOMFactory() {
+			// a custom subclass.
+		};
+		builder.setFactory(mine);
+		assertTrue(builder.isTrustedInput());
+		builder.setTrustedInput(true);
+		assertTrue(builder.getFactory() == mine);
+	}
+
+}
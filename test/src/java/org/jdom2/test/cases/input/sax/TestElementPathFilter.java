@@ -0,0 +1,124 @@
+/*--
+
+ Copyright (C) 2026 Jason Hunter & Brett McLaughlin.
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions
+ are met:
+
+ 1. Redistributions of source code must retain the above copyright
+    notice, this list of conditions, and the following disclaimer.
+
+ 2. Redistributions in binary form must reproduce the above copyright
+    notice, this list of conditions, and the disclaimer that follows
+    these conditions in the documentation and/or other materials
+    provided with the distribution.
+
+ 3. The name "JDOM" must not be used to endorse or promote products
+    derived from this software without prior written permission.  For
+    written permission, please contact <request_AT_jdom_DOT_org>.
+
+ 4. Products derived from this software may not be called "JDOM", nor
+    may "JDOM" appear in their name, without prior written permission
+    from the JDOM Project Management <request_AT_jdom_DOT_org>.
+
+ In addition, we request (but do not require) that you include in the
+ end-user documentation provided with the redistribution and/or in the
+ software itself an acknowledgement equivalent to the following:
+     "This product includes software developed by the
+      JDOM Project (http://www.jdom.org/)."
+ Alternatively, the acknowledgment may be graphical using the logos
+ available at http://www.jdom.org/images/logos.
+
+ THIS SOFTWARE IS PROVIDED ``AS IS'' AND ANY EXPRESSED OR IMPLIED
+ WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED.  IN NO EVENT SHALL THE JDOM AUTHORS OR THE PROJECT
+ CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF
+ USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ SUCH DAMAGE.
+
+ This software consists of voluntary contributions made by many
+ individuals on behalf of the JDOM Project and was originally
+ created by Jason Hunter <jhunter_AT_jdom_DOT_org> and
+ Brett McLaughlin <brett_AT_jdom_DOT_org>.  For more information
+ on the JDOM Project, please see <http://www.jdom.org/>.
+
+ */
+
+package org.jdom2.test.cases.input.sax;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.input.sax.ElementPathFilter;
+
+@SuppressWarnings("javadoc")
+public class TestElementPathFilter {
+	
+	private static final Namespace NS = Namespace.getNamespace("p", "urn:p");
+	
+	private final Element root = new Element("root");
+	private final Element mid = new Element("mid", NS);
+	private final Element leaf = new Element("leaf");
+	
+	public TestElementPathFilter() {
+		root.addContent(mid);
+		mid.addContent(leaf);
+	}
+
+	@Test
+	public void testAbsolute() {
+		assertTrue(new ElementPathFilter("/root").matches(root));
+		assertFalse(new ElementPathFilter("/root").matches(mid));
+		assertTrue(new ElementPathFilter("/root/mid/leaf").matches(leaf));
+		assertTrue(new ElementPathFilter("/root/p:mid/leaf").matches(leaf));
+		assertTrue(new ElementPathFilter("/*/*/leaf").matches(leaf));
+		assertFalse(new ElementPathFilter("/mid/leaf").matches(leaf));
+		assertFalse(new ElementPathFilter("/x/root/mid/leaf").matches(leaf));
+	}
+
+	@Test
+	public void testRelative() {
+		assertTrue(new ElementPathFilter("leaf").matches(leaf));
+		assertTrue(new ElementPathFilter("mid/leaf").matches(leaf));
+		assertTrue(new ElementPathFilter("p:mid").matches(mid));
+		assertFalse(new ElementPathFilter("q:mid").matches(mid));
+		assertFalse(new ElementPathFilter("root/leaf").matches(leaf));
+		assertFalse(new ElementPathFilter("leaf").matches(root));
+		assertFalse(new ElementPathFilter("leaf").matches("leaf"));
+		assertFalse(new ElementPathFilter("x/root").matches(root));
+	}
+	
+	@Test
+	public void testEquals() {
+		final ElementPathFilter a = new ElementPathFilter("/a/b");
+		assertEquals(a, new ElementPathFilter("/a/b"));
+		assertEquals(a.hashCode(), new ElementPathFilter("/a/b").hashCode());
+		assertFalse(a.equals(new ElementPathFilter("a/b")));
+		assertEquals("/a/b", a.getPath());
+		assertNotNull(a.toString());
+	}
+	
+	@Test
+	public void testBadPaths() {
+		for (String p : new String[] {null, "", "/", "a//b", "a/"}) {
+			try {
+				new ElementPathFilter(p);
+				fail("Expected bad path " + p);
+			} catch (IllegalArgumentException e) {
+				// good
+			}
+		}
+	}
+
+}
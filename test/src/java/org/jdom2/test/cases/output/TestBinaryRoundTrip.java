@@ -0,0 +1,32 @@
+package org.jdom2.test.cases.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jdom2.Document;
+import org.jdom2.JDOMException;
+import org.jdom2.input.BinaryBuilder;
+import org.jdom2.output.BinaryOutputter;
+
+@SuppressWarnings("javadoc")
+public class TestBinaryRoundTrip extends AbstractTestRoundTrip {
+
+	@Override
+	Document prepare(Document doc) {
+		return doc;
+	}
+
+	@Override
+	Document roundTrip(final Document doc) {
+		try {
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			new BinaryOutputter().output(doc, baos);
+			return new BinaryBuilder().build(baos.toByteArray());
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		} catch (JDOMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
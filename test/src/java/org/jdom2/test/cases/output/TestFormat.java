@@ -3,7 +3,15 @@ package org.jdom2.test.cases.output;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+
+import org.jdom2.IllegalDataException;
+import org.jdom2.Verifier;
 import org.jdom2.output.EscapeStrategy;
 import org.jdom2.output.Format;
 import org.jdom2.output.Format.TextMode;
@@ -219,6 +227,30 @@ public class TestFormat {
 				new char[] {(char)0xD800});
 	}
 	
+	@Test
+	public void testCharsetStrategyShared() {
+		final EscapeStrategy sjis = Format.getRawFormat().setEncoding("Shift_JIS").getEscapeStrategy();
+		assertTrue(sjis == Format.getPrettyFormat().setEncoding("Shift_JIS").getEscapeStrategy());
+		// an alias of the same charset.
+		assertTrue(sjis == Format.getRawFormat().setEncoding("SJIS").getEscapeStrategy());
+		assertTrue(sjis != Format.getRawFormat().setEncoding("windows-1252").getEscapeStrategy());
+	}
+	
+	@Test
+	public void testCharsetStrategyMatchesEncoder() {
+		for (String encoding : new String[] {"Shift_JIS", "windows-1252", "EUC-KR"}) {
+			final EscapeStrategy es = Format.getRawFormat().setEncoding(encoding).getEscapeStrategy();
+			final CharsetEncoder encoder = Charset.forName(encoding).newEncoder();
+			for (int c = 0; c < 0x10000; c++) {
+				final char ch = (char)c;
+				final boolean expect = Verifier.isHighSurrogate(ch) || !encoder.canEncode(ch);
+				if (expect != es.shouldEscape(ch)) {
+					fail(encoding + " escape of 0x" + Integer.toHexString(c) + " should be " + expect);
+				}
+			}
+		}
+	}
+	
 	private void checkBitEscape(String encoding, 
 			char[] keep, char[] escape) {
 		Format form = Format.getPrettyFormat();
@@ -250,10 +282,32 @@ public class TestFormat {
 		checkTrim(" \rx \t y\n  ", "x \t y", "x \t y\n  ", " \rx \t y", "x y");
 	}
 	
+	private static String escapeText(EscapeStrategy strategy, String eol, String base) {
+		final StringWriter sw = new StringWriter();
+		try {
+			Format.escapeText(sw, strategy, eol, base);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sw.toString();
+	}
+	
+	private static String escapeAttribute(EscapeStrategy strategy, String base) {
+		final StringWriter sw = new StringWriter();
+		try {
+			Format.escapeAttribute(sw, strategy, base);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return sw.toString();
+	}
+	
 	private void checkEscapes(String eol, String base, String txt, String att) {
 		EscapeStrategy strategy = Format.getPrettyFormat().getEscapeStrategy();
 		assertEquals(txt, Format.escapeText(strategy, eol, base));
 		assertEquals(att, Format.escapeAttribute(strategy, base));
+		assertEquals(txt, escapeText(strategy, eol, base));
+		assertEquals(att, escapeAttribute(strategy, base));
 	}
 	
 	@Test
@@ -265,4 +319,57 @@ public class TestFormat {
 		checkEscapes("\r\n", " \" \n ", " \" \r\n ", " &quot; &#xA; ");
 	}
 
+	@Test
+	public void testEscapeWriterMatchesString() {
+		final String sample = "plain <&> \"quoted\"\ttab\r\nline " +
+				"caf\u00e9 \u20ac \u3042 \ud834\udd1e &amp;&lt; end";
+		final EscapeStrategy custom = new EscapeStrategy() {
+			@Override
+			public boolean shouldEscape(char ch) {
+				// escapes some markup, quotes and tabs too.
+				return ch == 'a' || ch == '"' || ch == '\t' || ch == '<' || ch > 127;
+			}
+		};
+		final EscapeStrategy[] strategies = {
+				Format.getRawFormat().getEscapeStrategy(),
+				Format.getRawFormat().setEncoding("ISO-8859-1").getEscapeStrategy(),
+				Format.getRawFormat().setEncoding("US-ASCII").getEscapeStrategy(),
+				Format.getRawFormat().setEncoding("windows-1252").getEscapeStrategy(),
+				Format.getRawFormat().setEncoding("Shift_JIS").getEscapeStrategy(),
+				Format.getRawFormat().setEncoding("junk").getEscapeStrategy(),
+				custom};
+		for (EscapeStrategy strategy : strategies) {
+			for (String eol : new String[] {null, "\n", "\r\n"}) {
+				for (String value : new String[] {"", "x", sample, "<", 
+						"&&&", "\ud834\udd1e", sample + sample}) {
+					assertEquals(Format.escapeText(strategy, eol, value), 
+							escapeText(strategy, eol, value));
+				}
+			}
+			assertEquals(Format.escapeAttribute(strategy, sample), 
+					escapeAttribute(strategy, sample));
+			assertEquals(Format.escapeAttribute(strategy, "\ud834\udd1e"), 
+					escapeAttribute(strategy, "\ud834\udd1e"));
+		}
+		assertEquals("&#x1d11e;", escapeText(strategies[2], null, "\ud834\udd1e"));
+		assertEquals("caf&#xe9;&#x20ac;", escapeAttribute(strategies[2], "caf\u00e9\u20ac"));
+	}
+	
+	@Test
+	public void testEscapeWriterBrokenSurrogates() {
+		final EscapeStrategy strategy = Format.getRawFormat().getEscapeStrategy();
+		try {
+			escapeText(strategy, null, "a\ud834b");
+			fail("Should not be able to escape a broken surrogate pair");
+		} catch (IllegalDataException ide) {
+			// good
+		}
+		try {
+			escapeAttribute(strategy, "a\ud834");
+			fail("Should not be able to escape a truncated surrogate pair");
+		} catch (IllegalDataException ide) {
+			// good
+		}
+	}
+
 }
@@ -0,0 +1,312 @@
+package org.jdom2.test.cases.output;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import org.jdom2.Attribute;
+import org.jdom2.AttributeType;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.Content;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.adapters.JAXPDOMAdapter;
+import org.jdom2.output.DOMOutputter;
+import org.jdom2.output.Format;
+import org.jdom2.output.support.AbstractDOMOutputProcessor;
+import org.jdom2.output.support.RawDOMOutputProcessor;
+
+@SuppressWarnings("javadoc")
+public class TestRawDOMOutputProcessor {
+
+	private static ExecutorService pool = null;
+
+	@BeforeClass
+	public static void startPool() {
+		pool = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void stopPool() {
+		pool.shutdown();
+	}
+
+	private static final Namespace NSA = Namespace.getNamespace("a", "urn:a");
+	private static final Namespace NSB = Namespace.getNamespace("b", "urn:b");
+	private static final Namespace NSA2 = Namespace.getNamespace("a", "urn:a2");
+	private static final Namespace DEF = Namespace.getNamespace("urn:def");
+
+	private static final AbstractDOMOutputProcessor REFERENCE =
+			new AbstractDOMOutputProcessor() {
+		// the standard processing.
+	};
+
+	private static Element build(final int depth, final int width, final String name) {
+		final Element emt = new Element(name, depth % 2 == 0 ? DEF : NSA);
+		emt.setAttribute("depth", String.valueOf(depth));
+		emt.setAttribute(new Attribute("att", "val", NSB));
+		emt.addContent(new Text("text " + depth));
+		if (depth > 0) {
+			for (int i = 0; i < width; i++) {
+				emt.addContent(build(depth - 1, width, "e" + i));
+				emt.addContent(new Comment("comment"));
+			}
+		} else {
+			final Element rebind = new Element("rebind", NSA2);
+			rebind.addNamespaceDeclaration(Namespace.getNamespace("c", "urn:c"));
+			rebind.addContent(new Element("plain"));
+			rebind.addContent(new CDATA("cdata"));
+			rebind.addContent(new EntityRef("ent"));
+			rebind.addContent(new ProcessingInstruction("pi", "data"));
+			rebind.addContent(new ProcessingInstruction("empty", "  "));
+			emt.addContent(rebind);
+		}
+		return emt;
+	}
+
+	private static Document document() {
+		final Element root = build(4, 4, "root");
+		final Attribute unspecified = new Attribute("defaulted", "dv");
+		unspecified.setSpecified(false);
+		root.setAttribute(unspecified);
+		root.setAttribute(new Attribute("id", "r", AttributeType.ID));
+		final Document doc = new Document();
+		doc.addContent(new DocType("root"));
+		doc.addContent(new Comment("before"));
+		doc.addContent(root);
+		doc.addContent(new ProcessingInstruction("after", "pi"));
+		return doc;
+	}
+
+	private static org.w3c.dom.Document newdoc() throws JDOMException {
+		return new JAXPDOMAdapter().createDocument();
+	}
+
+	private static void compare(final Node expect, final Node actual,
+			final org.w3c.dom.Document owner) {
+		assertEquals(expect.getNodeType(), actual.getNodeType());
+		assertEquals(expect.getNodeName(), actual.getNodeName());
+		assertEquals(expect.getNamespaceURI(), actual.getNamespaceURI());
+		assertEquals(expect.getLocalName(), actual.getLocalName());
+		assertEquals(expect.getPrefix(), actual.getPrefix());
+		assertEquals(expect.getNodeValue(), actual.getNodeValue());
+		if (actual.getNodeType() != Node.DOCUMENT_NODE) {
+			assertSame(owner, actual.getOwnerDocument());
+		}
+		final NamedNodeMap eatts = expect.getAttributes();
+		final NamedNodeMap aatts = actual.getAttributes();
+		if (eatts == null) {
+			assertNull(aatts);
+		} else {
+			assertEquals(eatts.getLength(), aatts.getLength());
+			for (int i = 0; i < eatts.getLength(); i++) {
+				compare(eatts.item(i), aatts.item(i), owner);
+			}
+		}
+		final NodeList ekids = expect.getChildNodes();
+		final NodeList akids = actual.getChildNodes();
+		assertEquals(ekids.getLength(), akids.getLength());
+		for (int i = 0; i < ekids.getLength(); i++) {
+			compare(ekids.item(i), akids.item(i), owner);
+		}
+	}
+
+	private static void checkDocument(final Document doc, final Format format,
+			final Executor executor) throws JDOMException {
+		final org.w3c.dom.Document expect =
+				REFERENCE.process(newdoc(), format, doc);
+		final org.w3c.dom.Document basedoc = newdoc();
+		final RawDOMOutputProcessor raw = new RawDOMOutputProcessor();
+		final org.w3c.dom.Document actual = executor == null
+				? raw.process(basedoc, format, doc)
+				: raw.process(basedoc, format, doc, executor);
+		assertSame(basedoc, actual);
+		assertEquals(expect.getXmlVersion(), actual.getXmlVersion());
+		compare(expect, actual, basedoc);
+	}
+
+	@Test
+	public void testDocument() throws JDOMException {
+		checkDocument(document(), Format.getRawFormat(), null);
+	}
+
+	@Test
+	public void testDocumentFormats() throws JDOMException {
+		final Document doc = document();
+		checkDocument(doc, Format.getRawFormat().setOmitDeclaration(true), null);
+		final Format specified = Format.getRawFormat();
+		specified.setSpecifiedAttributesOnly(true);
+		checkDocument(doc, specified, null);
+		checkDocument(doc, specified, pool);
+		// not raw, processed the standard way.
+		checkDocument(doc, Format.getPrettyFormat(), null);
+		checkDocument(doc, Format.getPrettyFormat(), pool);
+	}
+
+	@Test
+	public void testDocumentNoRoot() throws JDOMException {
+		final Document doc = new Document();
+		doc.addContent(new Comment("only"));
+		checkDocument(doc, Format.getRawFormat(), null);
+		checkDocument(doc, Format.getRawFormat(), pool);
+	}
+
+	@Test
+	public void testElementAndList() throws JDOMException {
+		final Element kid = document().getRootElement().getChildren().get(1);
+		final org.w3c.dom.Document basedoc = newdoc();
+		final RawDOMOutputProcessor raw = new RawDOMOutputProcessor();
+		compare(REFERENCE.process(newdoc(), Format.getRawFormat(), kid),
+				raw.process(basedoc, Format.getRawFormat(), kid), basedoc);
+		compare(REFERENCE.process(newdoc(), Format.getRawFormat(), kid),
+				raw.process(basedoc, Format.getRawFormat(), kid, pool), basedoc);
+
+		final List<Content> list = new ArrayList<Content>(kid.getContent());
+		final List<Node> expect = REFERENCE.process(newdoc(), Format.getRawFormat(), list);
+		final List<Node> actual = raw.process(basedoc, Format.getRawFormat(), list);
+		assertEquals(expect.size(), actual.size());
+		for (int i = 0; i < expect.size(); i++) {
+			compare(expect.get(i), actual.get(i), basedoc);
+		}
+	}
+
+	@Test
+	public void testParallel() throws JDOMException {
+		checkDocument(document(), Format.getRawFormat(), pool);
+		// a small tree, not worth splitting.
+		checkDocument(new Document(new Element("leaf")), Format.getRawFormat(), pool);
+	}
+
+	@Test
+	public void testParallelDeepNamespaces() throws JDOMException {
+		// namespaces declared above the frontier must be in scope in the tasks.
+		final Element root = new Element("root", DEF);
+		root.addNamespaceDeclaration(NSA);
+		Element tail = root;
+		for (int i = 0; i < 3; i++) {
+			final Element kid = new Element("chain", i == 1 ? NSA2 : DEF);
+			tail.addContent(kid);
+			tail = kid;
+		}
+		for (int i = 0; i < 40; i++) {
+			tail.addContent(build(2, 3, "wide" + i));
+			tail.addContent(new Element("x", NSA2).setAttribute("y", "z", NSB));
+		}
+		checkDocument(new Document(root), Format.getRawFormat(), pool);
+	}
+
+	@Test
+	public void testParallelExecutors() throws JDOMException {
+		final Executor direct = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		};
+		final Executor reject = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException("No thanks");
+			}
+		};
+		final Executor idle = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				// discard
+			}
+		};
+		final Document doc = document();
+		checkDocument(doc, Format.getRawFormat(), direct);
+		checkDocument(doc, Format.getRawFormat(), reject);
+		checkDocument(doc, Format.getRawFormat(), idle);
+	}
+
+	@Test
+	public void testParallelFailure() throws JDOMException {
+		final Document doc = document();
+		doc.getRootElement().getChildren().get(2).getChildren().get(1)
+				.addContent(new Element("broken") {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public String getNamespaceURI() {
+				throw new IllegalStateException("broken element");
+			}
+		});
+		try {
+			new RawDOMOutputProcessor().process(newdoc(), Format.getRawFormat(),
+					doc, pool);
+			failNoException(IllegalStateException.class);
+		} catch (Exception e) {
+			checkException(IllegalStateException.class, e);
+			assertEquals("broken element", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testDOMOutputter() throws JDOMException {
+		final DOMOutputter outputter = new DOMOutputter();
+		assertTrue(outputter.getDOMOutputProcessor() instanceof RawDOMOutputProcessor);
+		final Document doc = document();
+		final org.w3c.dom.Document expect = REFERENCE.process(
+				new JAXPDOMAdapter().createDocument(doc.getDocType()),
+				Format.getRawFormat(), doc);
+		final org.w3c.dom.Document sequential = outputter.output(doc);
+		compare(expect, sequential, sequential);
+		final org.w3c.dom.Document parallel = outputter.output(doc, pool);
+		compare(expect, parallel, parallel);
+		final org.w3c.dom.Element emt = outputter.output(doc.getRootElement(), pool);
+		compare(expect.getDocumentElement(), emt, emt.getOwnerDocument());
+		// other processors are used sequentially.
+		outputter.setDOMOutputProcessor(REFERENCE);
+		final org.w3c.dom.Document other = outputter.output(doc, pool);
+		compare(expect, other, other);
+	}
+
+	@Test
+	public void testNullExecutor() throws JDOMException {
+		try {
+			new DOMOutputter().output(document(), (Executor)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new DOMOutputter().output(new Element("root"), (Executor)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new RawDOMOutputProcessor().process(newdoc(), Format.getRawFormat(),
+					document(), (Executor)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+	}
+
+}
@@ -0,0 +1,358 @@
+package org.jdom2.test.cases.output;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.NoSuchElementException;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.Text;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.output.StAXStreamReader;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.output.support.RawStAXStreamReader;
+
+@SuppressWarnings("javadoc")
+public class TestRawStAXStreamReader {
+
+	private static final Namespace NSA = Namespace.getNamespace("a", "urn:a");
+	private static final Namespace NSB = Namespace.getNamespace("b", "urn:b");
+	private static final Namespace NSA2 = Namespace.getNamespace("a", "urn:a2");
+	private static final Namespace DEF = Namespace.getNamespace("urn:def");
+
+	private static Document rich() {
+		final Element root = new Element("root", DEF);
+		root.addNamespaceDeclaration(NSB);
+		root.setAttribute("id", "r");
+		root.setAttribute(new Attribute("att", "val", NSA));
+		root.addContent(new Text("\n  "));
+		root.addContent(new Comment("comment"));
+		final Element kid = new Element("kid", NSA);
+		kid.addContent(new Text("text & <more>"));
+		kid.addContent(new CDATA("cdata"));
+		kid.addContent(new EntityRef("ent"));
+		kid.addContent(new ProcessingInstruction("pi", "data"));
+		root.addContent(kid);
+		// rebind a prefix, and drop back to no namespace.
+		final Element rebind = new Element("rebind", NSA2);
+		rebind.addContent(new Element("plain"));
+		rebind.addContent(new Element("same", NSA2).setAttribute("x", "y", NSB));
+		root.addContent(rebind);
+		for (int i = 0; i < 50; i++) {
+			root.addContent(new Element("deep" + i, DEF).setText("value " + i));
+		}
+		final Document doc = new Document();
+		doc.addContent(new DocType("root", "-//x//y", "root.dtd"));
+		doc.addContent(new ProcessingInstruction("before", "pi"));
+		doc.addContent(root);
+		doc.addContent(new Comment("after"));
+		return doc;
+	}
+
+	private static void checkSame(final XMLStreamReader expect,
+			final XMLStreamReader actual) throws XMLStreamException {
+		assertEquals(expect.getEventType(), actual.getEventType());
+		while (expect.hasNext()) {
+			assertTrue(actual.hasNext());
+			final int evt = expect.next();
+			assertEquals(evt, actual.next());
+			assertEquals(evt, actual.getEventType());
+			assertEquals(expect.hasText(), actual.hasText());
+			assertEquals(expect.hasName(), actual.hasName());
+			if (expect.hasText()) {
+				assertEquals(expect.getText(), actual.getText());
+				assertEquals(expect.getTextLength(), actual.getTextLength());
+				assertEquals(expect.getText(), new String(actual.getTextCharacters(),
+						actual.getTextStart(), actual.getTextLength()));
+			}
+			if (evt == XMLStreamConstants.CHARACTERS) {
+				assertEquals(expect.isWhiteSpace(), actual.isWhiteSpace());
+			}
+			if (evt == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+				assertEquals(expect.getPITarget(), actual.getPITarget());
+				assertEquals(expect.getPIData(), actual.getPIData());
+			}
+			if (evt == XMLStreamConstants.ENTITY_REFERENCE) {
+				assertEquals(expect.getLocalName(), actual.getLocalName());
+			}
+			if (expect.hasName()) {
+				assertEquals(expect.getName(), actual.getName());
+				// AbstractStAXStreamReader has no names on END_ELEMENT.
+				assertEquals(expect.getName().getLocalPart(), actual.getLocalName());
+				assertEquals(expect.getName().getPrefix(), actual.getPrefix());
+				assertEquals(expect.getName().getNamespaceURI(), actual.getNamespaceURI());
+				assertEquals(expect.getNamespaceCount(), actual.getNamespaceCount());
+				for (int i = 0; i < expect.getNamespaceCount(); i++) {
+					assertEquals(expect.getNamespacePrefix(i), actual.getNamespacePrefix(i));
+					assertEquals(expect.getNamespaceURI(i), actual.getNamespaceURI(i));
+				}
+				for (String prefix : new String[] {"", "a", "b", "xml", "none"}) {
+					assertEquals(expect.getNamespaceURI(prefix), actual.getNamespaceURI(prefix));
+				}
+			}
+			if (evt == XMLStreamConstants.START_ELEMENT) {
+				assertEquals(expect.getAttributeCount(), actual.getAttributeCount());
+				for (int i = 0; i < expect.getAttributeCount(); i++) {
+					assertEquals(expect.getAttributeLocalName(i), actual.getAttributeLocalName(i));
+					assertEquals(expect.getAttributeNamespace(i), actual.getAttributeNamespace(i));
+					assertEquals(expect.getAttributePrefix(i), actual.getAttributePrefix(i));
+					assertEquals(expect.getAttributeValue(i), actual.getAttributeValue(i));
+					assertEquals(expect.getAttributeType(i), actual.getAttributeType(i));
+					assertEquals(expect.isAttributeSpecified(i), actual.isAttributeSpecified(i));
+					assertEquals(expect.getAttributeName(i).getLocalPart(),
+							actual.getAttributeName(i).getLocalPart());
+					assertEquals(expect.getAttributeName(i).getPrefix(),
+							actual.getAttributeName(i).getPrefix());
+				}
+			}
+		}
+		assertFalse(actual.hasNext());
+		assertEquals(XMLStreamConstants.END_DOCUMENT, actual.getEventType());
+	}
+
+	@Test
+	public void testMatchesStAXStreamReader() throws XMLStreamException {
+		final Document doc = rich();
+		checkSame(new StAXStreamReader().output(doc), new RawStAXStreamReader(doc));
+	}
+
+	@Test
+	public void testMatchesParsedDocument() throws Exception {
+		final Document doc = rich();
+		final DocType dt = new DocType("root");
+		dt.setInternalSubset("<!ENTITY ent \"entity\">");
+		doc.setDocType(dt);
+		final String xml = new XMLOutputter().outputString(doc);
+		final SAXBuilder sb = new SAXBuilder();
+		sb.setExpandEntities(false);
+		final Document parsed = sb.build(new StringReader(xml));
+		checkSame(new StAXStreamReader().output(parsed), new RawStAXStreamReader(parsed));
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		final Document doc = rich();
+		final XMLStreamReader reader = new RawStAXStreamReader(doc);
+		try {
+			final Document built = new StAXStreamBuilder().build(reader);
+			assertEquals(new XMLOutputter().outputString(doc.getRootElement()),
+					new XMLOutputter().outputString(built.getRootElement()));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testFrozenDocument() throws Exception {
+		final Document doc = rich().freeze();
+		checkSame(new StAXStreamReader().output(doc), new RawStAXStreamReader(doc));
+	}
+
+	@Test
+	public void testTextCharacters() throws XMLStreamException {
+		final Element root = new Element("root");
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			sb.append("long text ").append(i).append(' ');
+		}
+		root.addContent(new Text("short"));
+		root.addContent(new Element("kid"));
+		root.addContent(new Text(sb.toString()));
+		root.addContent(new Element("kid"));
+		root.addContent(new Text("tiny"));
+		final XMLStreamReader reader = new RawStAXStreamReader(new Document(root));
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+		assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+		final char[] first = reader.getTextCharacters();
+		assertSame(first, reader.getTextCharacters());
+		assertEquals("short", new String(first, reader.getTextStart(), reader.getTextLength()));
+
+		final char[] target = new char[10];
+		assertEquals(3, reader.getTextCharacters(2, target, 1, 8));
+		assertArrayEquals("\0ort\0\0\0\0\0\0".toCharArray(), target);
+		assertEquals(0, reader.getTextCharacters(5, target, 0, 5));
+		try {
+			reader.getTextCharacters(0, target, 5, 6);
+			failNoException(IndexOutOfBoundsException.class);
+		} catch (Exception e) {
+			checkException(IndexOutOfBoundsException.class, e);
+		}
+
+		reader.next();
+		reader.next();
+		assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+		assertEquals(sb.toString(), new String(reader.getTextCharacters(),
+				reader.getTextStart(), reader.getTextLength()));
+		reader.next();
+		reader.next();
+		assertEquals(XMLStreamConstants.CHARACTERS, reader.next());
+		// the buffer is reused for smaller text.
+		final char[] last = reader.getTextCharacters();
+		assertTrue(last.length >= sb.length());
+		assertEquals("tiny", new String(last, reader.getTextStart(), reader.getTextLength()));
+	}
+
+	@Test
+	public void testElementText() throws XMLStreamException {
+		final Element root = new Element("root");
+		root.addContent(new Element("one").setText("single"));
+		root.addContent(new Element("many").addContent(new Text("a"))
+				.addContent(new Comment("skip")).addContent(new CDATA("b"))
+				.addContent(new Text("c")));
+		root.addContent(new Element("none"));
+		final XMLStreamReader reader = new RawStAXStreamReader(new Document(root));
+		reader.next();
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		assertEquals("single", reader.getElementText());
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		assertEquals("abc", reader.getElementText());
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+		assertEquals("", reader.getElementText());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.nextTag());
+		assertEquals("root", reader.getLocalName());
+		try {
+			reader.getElementText();
+			failNoException(XMLStreamException.class);
+		} catch (Exception e) {
+			checkException(XMLStreamException.class, e);
+		}
+	}
+
+	@Test
+	public void testAttributeValue() throws XMLStreamException {
+		final Element root = new Element("root");
+		root.setAttribute("att", "plain");
+		root.setAttribute("att", "spaced", NSA);
+		final XMLStreamReader reader = new RawStAXStreamReader(new Document(root));
+		reader.next();
+		assertEquals("plain", reader.getAttributeValue(null, "att"));
+		assertEquals("plain", reader.getAttributeValue("", "att"));
+		assertEquals("spaced", reader.getAttributeValue("urn:a", "att"));
+		assertNull(reader.getAttributeValue("urn:b", "att"));
+		assertNull(reader.getAttributeValue(null, "ATT"));
+		reader.require(XMLStreamConstants.START_ELEMENT, "", "root");
+		try {
+			reader.require(XMLStreamConstants.START_ELEMENT, "urn:a", "root");
+			failNoException(XMLStreamException.class);
+		} catch (Exception e) {
+			checkException(XMLStreamException.class, e);
+		}
+		reader.next();
+		try {
+			reader.getAttributeCount();
+			failNoException(IllegalStateException.class);
+		} catch (Exception e) {
+			checkException(IllegalStateException.class, e);
+		}
+	}
+
+	@Test
+	public void testNamespaceContext() throws XMLStreamException {
+		final Element root = new Element("root", DEF);
+		root.addNamespaceDeclaration(NSA);
+		final Element kid = new Element("kid", NSA2);
+		kid.addContent(new Element("gkid"));
+		root.addContent(kid);
+		final XMLStreamReader reader = new RawStAXStreamReader(new Document(root));
+		reader.next();
+		reader.next();
+		NamespaceContext ctx = reader.getNamespaceContext();
+		assertEquals("urn:a2", ctx.getNamespaceURI("a"));
+		assertEquals("urn:def", ctx.getNamespaceURI(""));
+		assertEquals(Namespace.XML_NAMESPACE.getURI(), ctx.getNamespaceURI("xml"));
+		reader.next();
+		assertEquals("gkid", reader.getLocalName());
+		assertEquals(1, reader.getNamespaceCount());
+		assertEquals("", reader.getNamespacePrefix(0));
+		ctx = reader.getNamespaceContext();
+		assertEquals("", ctx.getNamespaceURI(""));
+		assertEquals("urn:a2", ctx.getNamespaceURI("a"));
+		reader.next();
+		// the END_ELEMENT still has its own namespaces in scope.
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+		assertEquals("", reader.getNamespaceURI(""));
+		reader.next();
+		assertEquals("kid", reader.getLocalName());
+		assertEquals("urn:def", reader.getNamespaceURI(""));
+		assertEquals("urn:a2", reader.getNamespaceURI("a"));
+		reader.next();
+		assertEquals("urn:a", reader.getNamespaceURI("a"));
+		try {
+			reader.getNamespacePrefix(2);
+			failNoException(NoSuchElementException.class);
+		} catch (Exception e) {
+			checkException(NoSuchElementException.class, e);
+		}
+	}
+
+	@Test
+	public void testEndAndClose() throws XMLStreamException {
+		final XMLStreamReader reader = new RawStAXStreamReader(
+				new Document(new Element("root")));
+		assertEquals(XMLStreamConstants.START_DOCUMENT, reader.getEventType());
+		assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.next());
+		assertEquals(XMLStreamConstants.END_DOCUMENT, reader.next());
+		assertFalse(reader.hasNext());
+		try {
+			reader.next();
+			failNoException(NoSuchElementException.class);
+		} catch (Exception e) {
+			checkException(NoSuchElementException.class, e);
+		}
+		try {
+			reader.getText();
+			failNoException(IllegalStateException.class);
+		} catch (Exception e) {
+			checkException(IllegalStateException.class, e);
+		}
+		reader.close();
+		assertFalse(reader.hasNext());
+
+		final XMLStreamReader early = new RawStAXStreamReader(rich());
+		early.next();
+		early.next();
+		early.close();
+		assertFalse(early.hasNext());
+	}
+
+	@Test
+	public void testBadDocument() {
+		try {
+			new RawStAXStreamReader(null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new RawStAXStreamReader(new Document());
+			failNoException(IllegalStateException.class);
+		} catch (Exception e) {
+			checkException(IllegalStateException.class, e);
+		}
+	}
+
+}
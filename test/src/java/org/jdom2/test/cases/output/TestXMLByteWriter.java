@@ -0,0 +1,276 @@
+package org.jdom2.test.cases.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+
+import org.jdom2.Attribute;
+import org.jdom2.Comment;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.IllegalDataException;
+import org.jdom2.Namespace;
+import org.jdom2.output.EscapeStrategy;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.output.support.EncodingXMLOutputProcessor;
+import org.jdom2.output.support.XMLByteWriter;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestXMLByteWriter {
+
+	private static final String[] ENCODINGS = {"UTF-8", "US-ASCII", "ISO-8859-1"};
+
+	private static final String SAMPLE = "plain <&> \"quoted\"\ttab\r\nline "
+			+ "caf\u00e9 \u20ac \ud834\udd1e end";
+
+	private static final byte[] viaStreamWriter(final String encoding,
+			final String value) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final Writer w = new OutputStreamWriter(baos, encoding);
+		w.write(value);
+		w.close();
+		return baos.toByteArray();
+	}
+
+	private static final byte[] viaByteWriter(final String encoding,
+			final String value, final int chunk) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final XMLByteWriter w = new XMLByteWriter(baos, encoding, 64);
+		for (int i = 0; i < value.length(); i += chunk) {
+			w.write(value, i, Math.min(chunk, value.length() - i));
+		}
+		w.close();
+		return baos.toByteArray();
+	}
+
+	private static final Document sampleDocument() {
+		final Namespace ns = Namespace.getNamespace("p", "urn:caf\u00e9");
+		final Element root = new Element("root", ns);
+		root.setAttribute(new Attribute("att", SAMPLE));
+		root.setAttribute(new Attribute("nat", "\u00e9\u20ac", ns));
+		root.addContent(SAMPLE);
+		for (int i = 0; i < 200; i++) {
+			final Element kid = new Element("kid");
+			kid.setAttribute("idx", "v" + i + "\u00e9");
+			kid.addContent(SAMPLE + i);
+			root.addContent(kid);
+		}
+		root.addContent(new Comment(" comment \u00e9 "));
+		return new Document(root);
+	}
+
+	@Test
+	public void testIsSupported() {
+		assertTrue(XMLByteWriter.isSupported("UTF-8"));
+		assertTrue(XMLByteWriter.isSupported("utf8"));
+		assertTrue(XMLByteWriter.isSupported("US-ASCII"));
+		assertTrue(XMLByteWriter.isSupported("ASCII"));
+		assertTrue(XMLByteWriter.isSupported("ISO-8859-1"));
+		assertTrue(XMLByteWriter.isSupported("latin1"));
+		assertFalse(XMLByteWriter.isSupported("UTF-16"));
+		assertFalse(XMLByteWriter.isSupported("Bogus-Charset"));
+		assertFalse(XMLByteWriter.isSupported("%%"));
+		assertFalse(XMLByteWriter.isSupported(null));
+	}
+
+	@Test
+	public void testConstruct() {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		assertEquals("UTF-8", new XMLByteWriter(baos, "utf8").getEncoding());
+		assertEquals("US-ASCII", new XMLByteWriter(baos, "ascii").getEncoding());
+		assertEquals("ISO-8859-1", new XMLByteWriter(baos, "latin1").getEncoding());
+		try {
+			new XMLByteWriter(baos, "UTF-16");
+			fail("Should not support UTF-16");
+		} catch (IllegalArgumentException iae) {
+			// good
+		}
+		try {
+			new XMLByteWriter(baos, "UTF-8", 10);
+			fail("Should not allow a tiny buffer");
+		} catch (IllegalArgumentException iae) {
+			// good
+		}
+		try {
+			new XMLByteWriter((ByteArrayOutputStream)null, "UTF-8");
+			fail("Should not allow a null stream");
+		} catch (NullPointerException npe) {
+			// good
+		}
+	}
+
+	@Test
+	public void testEncodingMatchesOutputStreamWriter() throws IOException {
+		final String[] values = {"", "abc", SAMPLE, "\u00ff\u0100\u07ff\u0800\uffff",
+				"bad \ud834 high", "bad \udd1e low", "trailing \ud834"};
+		for (String enc : ENCODINGS) {
+			for (String value : values) {
+				final byte[] expect = viaStreamWriter(enc, value);
+				for (int chunk = 1; chunk < 5; chunk++) {
+					assertArrayEquals(enc + " " + value + " chunk " + chunk,
+							expect, viaByteWriter(enc, value, chunk));
+				}
+				final StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < 100; i++) {
+					sb.append(value);
+				}
+				final String big = sb.toString();
+				assertArrayEquals(expect.length + " bytes", 
+						viaStreamWriter(enc, big), viaByteWriter(enc, big, 1000));
+			}
+		}
+	}
+
+	@Test
+	public void testCharArrayAndSingleChar() throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final XMLByteWriter w = new XMLByteWriter(baos, "UTF-8");
+		final char[] chars = SAMPLE.toCharArray();
+		w.write(chars, 0, 10);
+		for (int i = 10; i < 20; i++) {
+			w.write(chars[i]);
+		}
+		w.write(chars, 20, chars.length - 20);
+		w.flush();
+		assertArrayEquals(SAMPLE.getBytes("UTF-8"), baos.toByteArray());
+		w.close();
+		try {
+			w.write("x");
+			fail("Should not be able to write after close");
+		} catch (IOException ioe) {
+			// good
+		}
+	}
+
+	@Test
+	public void testChannel() throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final XMLByteWriter w = new XMLByteWriter(Channels.newChannel(baos), "UTF-8", 64);
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			sb.append(SAMPLE);
+		}
+		w.write(sb.toString());
+		w.close();
+		assertArrayEquals(sb.toString().getBytes("UTF-8"), baos.toByteArray());
+	}
+
+	@Test
+	public void testEscapeMatchesFormat() throws IOException {
+		for (String enc : ENCODINGS) {
+			final Format fmt = Format.getRawFormat().setEncoding(enc);
+			for (String eol : new String[]{null, "\n", "\r\n"}) {
+				final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				final XMLByteWriter w = new XMLByteWriter(baos, enc, 64);
+				w.writeEscapedText(fmt.getEscapeStrategy(), eol, SAMPLE);
+				w.write('|');
+				w.writeEscapedAttribute(fmt.getEscapeStrategy(), SAMPLE);
+				w.close();
+				final String expect = Format.escapeText(fmt.getEscapeStrategy(), eol, SAMPLE)
+						+ "|" + Format.escapeAttribute(fmt.getEscapeStrategy(), SAMPLE);
+				assertArrayEquals(enc + " " + eol, viaStreamWriter(enc, expect),
+						baos.toByteArray());
+			}
+		}
+	}
+
+	@Test
+	public void testEscapeBrokenSurrogates() throws IOException {
+		final Format fmt = Format.getRawFormat();
+		final XMLByteWriter w = new XMLByteWriter(new ByteArrayOutputStream(), "UTF-8");
+		try {
+			w.writeEscapedText(fmt.getEscapeStrategy(), null, "a\ud834b");
+			fail("Should not be able to escape a broken surrogate pair");
+		} catch (IllegalDataException ide) {
+			// good
+		}
+		try {
+			w.writeEscapedAttribute(fmt.getEscapeStrategy(), "a\ud834");
+			fail("Should not be able to escape a truncated surrogate pair");
+		} catch (IllegalDataException ide) {
+			// good
+		}
+	}
+
+	@Test
+	public void testXMLOutputterStreamMatchesWriter() throws IOException {
+		final Document doc = sampleDocument();
+		final Format[] formats = {Format.getRawFormat(), Format.getPrettyFormat(),
+				Format.getCompactFormat()};
+		for (String enc : ENCODINGS) {
+			for (Format base : formats) {
+				final Format fmt = base.setEncoding(enc);
+				final XMLOutputter out = new XMLOutputter(fmt);
+				final ByteArrayOutputStream expect = new ByteArrayOutputStream();
+				final Writer osw = new OutputStreamWriter(expect, enc);
+				out.output(doc, osw);
+				osw.close();
+				final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+				out.output(doc, actual);
+				assertArrayEquals(enc, expect.toByteArray(), actual.toByteArray());
+			}
+		}
+	}
+
+	@Test
+	public void testCustomEscapeStrategy() throws IOException {
+		final EscapeStrategy quotes = new EscapeStrategy() {
+			@Override
+			public boolean shouldEscape(char ch) {
+				return ch == '"' || ch == '\t' || ch > 0x7F;
+			}
+		};
+		final Document doc = new Document(new Element("root").setText("a\"b\tc"));
+		doc.getRootElement().setAttribute("att", "a\"b\tc");
+		doc.getRootElement().addContent(new Element("kid").setText(SAMPLE));
+		for (String enc : ENCODINGS) {
+			final Format fmt = Format.getRawFormat().setEncoding(enc);
+			fmt.setEscapeStrategy(quotes);
+			final XMLOutputter out = new XMLOutputter(fmt);
+			final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			out.output(doc, actual);
+			final String got = new String(actual.toByteArray(), enc);
+			assertEquals(enc, out.outputString(doc), got);
+			assertTrue(got, got.contains(">a&#x22;b&#x9;c<"));
+
+			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			final XMLByteWriter w = new XMLByteWriter(baos, enc, 64);
+			w.writeEscapedText(quotes, null, SAMPLE);
+			w.close();
+			assertArrayEquals(enc, viaStreamWriter(enc,
+					Format.escapeText(quotes, null, SAMPLE)), baos.toByteArray());
+		}
+	}
+
+	@Test
+	public void testCustomProcessor() throws IOException {
+		final Document doc = sampleDocument();
+		final XMLOutputter out = new XMLOutputter(Format.getRawFormat(),
+				new EncodingXMLOutputProcessor());
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final XMLByteWriter w = new XMLByteWriter(bytes, "UTF-8");
+		out.output(doc, w);
+		assertEquals(out.outputString(doc), new String(bytes.toByteArray(), "UTF-8"));
+	}
+
+	@Test
+	public void testUnsupportedEncodingUsesWriter() throws IOException {
+		final Document doc = sampleDocument();
+		final XMLOutputter out = new XMLOutputter(
+				Format.getRawFormat().setEncoding("UTF-16"));
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		out.output(doc, bytes);
+		assertEquals(out.outputString(doc), new String(bytes.toByteArray(), "UTF-16"));
+	}
+
+}
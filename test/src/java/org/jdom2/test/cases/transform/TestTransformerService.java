@@ -0,0 +1,275 @@
+package org.jdom2.test.cases.transform;
+
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerFactory;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Text;
+import org.jdom2.TrustedJDOMFactory;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.transform.TransformerService;
+import org.jdom2.transform.XSLTransformException;
+
+@SuppressWarnings("javadoc")
+public class TestTransformerService {
+
+	private static final String XSLHEAD =
+			"<?xml version=\"1.0\"?>\n" +
+			"<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">\n";
+
+	private static final String XSLTAIL = "</xsl:stylesheet>\n";
+
+	private static final String PASSTHROUGH = XSLHEAD +
+			"   <xsl:template match=\"*\">\n" +
+			"      <xsl:copy-of select=\".\" />\n" +
+			"   </xsl:template>\n" + XSLTAIL;
+
+	private static final String WRAP = XSLHEAD +
+			"   <xsl:param name=\"label\" select=\"'none'\" />\n" +
+			"   <xsl:template match=\"/\">\n" +
+			"      <wrap label=\"{$label}\"><xsl:copy-of select=\"*\" /></wrap>\n" +
+			"   </xsl:template>\n" + XSLTAIL;
+
+	private final List<File> tempfiles = new ArrayList<File>();
+
+	@After
+	public void deleteTempFiles() {
+		for (File f : tempfiles) {
+			f.delete();
+		}
+	}
+
+	private File write(final File file, final String xsl) throws IOException {
+		final FileOutputStream fos = new FileOutputStream(file);
+		try {
+			fos.write(xsl.getBytes("UTF-8"));
+		} finally {
+			fos.close();
+		}
+		return file;
+	}
+
+	private File write(final String xsl) throws IOException {
+		final File tmp = File.createTempFile("jdomxsl", ".xsl");
+		tempfiles.add(tmp);
+		return write(tmp, xsl);
+	}
+
+	private static Document input() {
+		final Element root = new Element("root");
+		for (int i = 0; i < 5; i++) {
+			root.addContent(new Element("kid").setAttribute("id", String.valueOf(i))
+					.setText("text " + i));
+		}
+		return new Document(root);
+	}
+
+	private static String out(final Document doc) {
+		return new XMLOutputter().outputString(doc);
+	}
+
+	@Test
+	public void testTransform() throws Exception {
+		final TransformerService service = new TransformerService();
+		final File xsl = write(PASSTHROUGH);
+		final Document in = input();
+		for (int i = 0; i < 20; i++) {
+			assertEquals(out(in), out(service.transform(xsl, in)));
+		}
+		assertEquals(1, service.getCacheSize());
+		// the File and the URL resolve to the same entry.
+		assertSame(service.getTemplates(xsl),
+				service.getTemplates(xsl.getAbsoluteFile().toURI().toString()));
+		assertEquals(1, service.getCacheSize());
+	}
+
+	@Test
+	public void testTransformList() throws Exception {
+		final TransformerService service = new TransformerService();
+		final String xsl = write(PASSTHROUGH).toURI().toString();
+		final List<Content> in = new ArrayList<Content>();
+		in.add(new Element("a"));
+		in.add(new Element("b").setText("b"));
+		final List<Content> result = service.transform(xsl, in);
+		assertEquals(2, result.size());
+		assertEquals("a", ((Element)result.get(0)).getName());
+		assertEquals("b", ((Element)result.get(1)).getText());
+	}
+
+	@Test
+	public void testParameters() throws Exception {
+		final TransformerService service = new TransformerService(
+				TransformerFactory.newInstance(), 1);
+		final String xsl = write(WRAP).toURI().toString();
+		final Document labelled = service.transform(xsl, input(),
+				Collections.singletonMap("label", "first"));
+		assertEquals("first", labelled.getRootElement().getAttributeValue("label"));
+		// the pooled transformer must not remember the parameter.
+		final Document plain = service.transform(xsl, input());
+		assertEquals("none", plain.getRootElement().getAttributeValue("label"));
+	}
+
+	@Test
+	public void testFactory() throws Exception {
+		final TransformerService service = new TransformerService();
+		final TrustedJDOMFactory factory = new TrustedJDOMFactory();
+		service.setFactory(factory);
+		assertSame(factory, service.getFactory());
+		final Document in = input();
+		assertEquals(out(in), out(service.transform(write(PASSTHROUGH), in)));
+		service.setFactory(null);
+		assertEquals(null, service.getFactory());
+	}
+
+	@Test
+	public void testStAXSource() throws Exception {
+		final TransformerService service = new TransformerService();
+		assertFalse(service.isStAXSource());
+		service.setStAXSource(true);
+		assertTrue(service.isStAXSource());
+		final File xsl = write(WRAP);
+		final Document in = input();
+		in.getRootElement().addContent(new Text("caf\u00e9 & <stuff>"));
+		final Document staxout = service.transform(xsl, in);
+		service.setStAXSource(false);
+		assertEquals(out(service.transform(xsl, in)), out(staxout));
+	}
+
+	@Test
+	public void testModifiedStylesheet() throws Exception {
+		final TransformerService service = new TransformerService();
+		final File xsl = write(PASSTHROUGH);
+		xsl.setLastModified(100000000000L);
+		final Templates before = service.getTemplates(xsl);
+		assertEquals("root", service.transform(xsl, input()).getRootElement().getName());
+		write(xsl, WRAP);
+		xsl.setLastModified(200000000000L);
+		assertNotSame(before, service.getTemplates(xsl));
+		assertEquals("wrap", service.transform(xsl, input()).getRootElement().getName());
+		assertEquals(1, service.getCacheSize());
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		final TransformerService service = new TransformerService();
+		final String xsl = write(PASSTHROUGH).toURI().toString();
+		final Templates before = service.getTemplates(xsl);
+		assertSame(before, service.getTemplates(xsl));
+		assertTrue(service.invalidate(xsl));
+		assertFalse(service.invalidate(xsl));
+		assertEquals(0, service.getCacheSize());
+		assertNotSame(before, service.getTemplates(xsl));
+		service.getTemplates(write(WRAP));
+		assertEquals(2, service.getCacheSize());
+		service.clear();
+		assertEquals(0, service.getCacheSize());
+	}
+
+	@Test
+	public void testBrokenStylesheet() throws Exception {
+		final TransformerService service = new TransformerService();
+		final File xsl = write(PASSTHROUGH);
+		xsl.delete();
+		try {
+			service.transform(xsl, input());
+			failNoException(XSLTransformException.class);
+		} catch (Exception e) {
+			checkException(XSLTransformException.class, e);
+		}
+		// broken stylesheets are not kept.
+		assertEquals(0, service.getCacheSize());
+		write(xsl, PASSTHROUGH);
+		assertEquals("root", service.transform(xsl, input()).getRootElement().getName());
+	}
+
+	@Test
+	public void testBadArguments() {
+		try {
+			new TransformerService(null, 4);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new TransformerService(TransformerFactory.newInstance(), 0);
+			failNoException(IllegalArgumentException.class);
+		} catch (Exception e) {
+			checkException(IllegalArgumentException.class, e);
+		}
+		try {
+			new TransformerService().getTemplates((String)null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+	}
+
+	@Test
+	public void testDefault() {
+		assertSame(TransformerService.getDefault(), TransformerService.getDefault());
+		assertEquals(TransformerService.DEFAULT_POOLSIZE,
+				TransformerService.getDefault().getPoolSize());
+	}
+
+	@Test
+	public void testConcurrentTransforms() throws Exception {
+		final TransformerService service = new TransformerService(
+				TransformerFactory.newInstance(), 2);
+		final String pass = write(PASSTHROUGH).toURI().toString();
+		final String wrap = write(WRAP).toURI().toString();
+		final String expect = out(input());
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++) {
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int cnt = 0;
+						for (int i = 0; i < 25; i++) {
+							if (expect.equals(out(service.transform(pass, input())))) {
+								cnt++;
+							}
+							if ("wrap".equals(service.transform(wrap, input())
+									.getRootElement().getName())) {
+								cnt++;
+							}
+						}
+						return Integer.valueOf(cnt);
+					}
+				}));
+			}
+			for (Future<Integer> f : results) {
+				assertEquals(Integer.valueOf(50), f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(2, service.getCacheSize());
+	}
+
+}
@@ -69,6 +69,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
@@ -90,6 +91,7 @@ import org.jdom2.xpath.XPathBuilder;
 import org.jdom2.xpath.XPathDiagnostic;
 import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.util.AbstractXPathCompiled;
 
 @SuppressWarnings({"javadoc"})
 public abstract class AbstractTestXPathCompiled {
@@ -211,6 +213,26 @@ public abstract class AbstractTestXPathCompiled {
 		
 	}
 	
+	private static void checkIterate(XPathExpression<?> xpath, Object context, List<?> result) {
+		final Iterator<?> it = AbstractXPathCompiled.iterate(xpath, context);
+		for (Object o : result) {
+			assertTrue(it.hasNext());
+			assertEquals(o, it.next());
+		}
+		assertFalse(it.hasNext());
+		try {
+			it.next();
+			failNoException(NoSuchElementException.class);
+		} catch (Exception e) {
+			checkException(NoSuchElementException.class, e);
+		}
+		int cnt = 0;
+		for (Object o : AbstractXPathCompiled.iterate(xpath, context)) {
+			assertEquals(result.get(cnt++), o);
+		}
+		assertEquals(result.size(), cnt);
+	}
+
 	/**
 	 * A mechanism for exercising the XPath system.
 	 * @param xpath The xpath to run.
@@ -227,6 +249,7 @@ public abstract class AbstractTestXPathCompiled {
 			fail ("Got a null result from selectNodes()");
 		}
 		checkDiagnostic(xpath, context, result, xpath.diagnose(context, false));
+		checkIterate(xpath, context, result);
 		
 		boolean allns = true;
 		boolean allatts = true;
@@ -0,0 +1,34 @@
+package org.jdom2.test.cases.xpath;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.jaxen.JaxenXPathFactory;
+import org.jdom2.xpath.util.CachingXPathFactory;
+
+@SuppressWarnings({"javadoc"})
+public class TestCachingXPathCompiled extends AbstractTestXPathCompiled {
+	
+	public TestCachingXPathCompiled() {
+		super(true);
+	}
+
+	// small capacity so that eviction happens during the tests too.
+	private static final XPathFactory myfac = 
+			new CachingXPathFactory(new JaxenXPathFactory(), 8);
+	
+	@Override
+	XPathFactory getFactory() {
+		return myfac;
+	}
+
+	@Override
+	@Test
+	@Ignore
+	public void testXPathOR() {
+		// JAXEN Does not support document order for unions....
+		super.testXPathOR();
+	}
+
+}
@@ -0,0 +1,231 @@
+package org.jdom2.test.cases.xpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jdom2.Attribute;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.jaxen.JaxenXPathFactory;
+import org.jdom2.xpath.util.AbstractXPathCompiled;
+import org.jdom2.xpath.util.CachingXPathFactory;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestCachingXPathFactory {
+
+	private static final Element buildRoot() {
+		final Element root = new Element("root");
+		for (int i = 0; i < 20; i++) {
+			final Element kid = new Element("kid");
+			kid.setAttribute("idx", Integer.toString(i));
+			root.addContent(kid);
+		}
+		new Document(root);
+		return root;
+	}
+
+	@Test
+	public void testConstruct() {
+		final CachingXPathFactory fac = new CachingXPathFactory();
+		assertTrue(fac.getDelegate() instanceof JaxenXPathFactory);
+		assertEquals(CachingXPathFactory.DEFAULT_CAPACITY, fac.getCapacity());
+		assertEquals(0, fac.size());
+		assertTrue(fac.toString().contains("CachingXPathFactory"));
+		try {
+			new CachingXPathFactory(null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			new CachingXPathFactory(new JaxenXPathFactory(), 0);
+			failNoException(IllegalArgumentException.class);
+		} catch (Exception e) {
+			checkException(IllegalArgumentException.class, e);
+		}
+		try {
+			new CachingXPathFactory(fac);
+			failNoException(IllegalArgumentException.class);
+		} catch (Exception e) {
+			checkException(IllegalArgumentException.class, e);
+		}
+	}
+
+	@Test
+	public void testNewInstance() {
+		final XPathFactory fac = XPathFactory.newInstance(
+				CachingXPathFactory.class.getName());
+		assertTrue(fac instanceof CachingXPathFactory);
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		final CachingXPathFactory fac = new CachingXPathFactory();
+		final Element root = buildRoot();
+		final XPathExpression<Element> a = fac.compile("/root/kid", Filters.element());
+		assertEquals(1, fac.getMissCount());
+		assertEquals(0, fac.getHitCount());
+		final XPathExpression<Element> b = fac.compile("/root/kid", Filters.element());
+		assertEquals(1, fac.getMissCount());
+		assertEquals(1, fac.getHitCount());
+		assertNotSame(a, b);
+		// a different filter shares the compiled entry.
+		final XPathExpression<Attribute> c = fac.compile("/root/kid", Filters.attribute());
+		assertEquals(2, fac.getHitCount());
+		assertEquals(1, fac.size());
+		assertEquals(20, a.evaluate(root).size());
+		assertEquals(20, b.evaluate(root).size());
+		assertTrue(c.evaluate(root).isEmpty());
+		assertNull(c.evaluateFirst(root));
+		assertEquals(root.getChildren().get(0), a.evaluateFirst(root));
+
+		// namespace order is irrelevant, but namespace content is not.
+		final Namespace x = Namespace.getNamespace("x", "urn:x");
+		final Namespace y = Namespace.getNamespace("y", "urn:y");
+		final Namespace x2 = Namespace.getNamespace("x", "urn:x2");
+		fac.compile("//x:kid", Filters.element(), null, x, y);
+		fac.compile("//x:kid", Filters.element(), null, y, x);
+		assertEquals(2, fac.getMissCount());
+		assertEquals(3, fac.getHitCount());
+		fac.compile("//x:kid", Filters.element(), null, x2, y);
+		assertEquals(3, fac.getMissCount());
+		assertEquals(3, fac.size());
+
+		fac.resetStatistics();
+		assertEquals(0, fac.getHitCount());
+		assertEquals(0, fac.getMissCount());
+		fac.clear();
+		assertEquals(0, fac.size());
+		// expressions survive the clear.
+		assertEquals(20, a.evaluate(root).size());
+	}
+
+	@Test
+	public void testEviction() {
+		final CachingXPathFactory fac = new CachingXPathFactory(
+				new JaxenXPathFactory(), 2);
+		fac.compile("/a");
+		fac.compile("/b");
+		fac.compile("/a");
+		// c evicts b, the least recently used.
+		fac.compile("/c");
+		assertEquals(1, fac.getEvictionCount());
+		assertEquals(2, fac.size());
+		fac.compile("/a");
+		assertEquals(3, fac.getMissCount());
+		assertEquals(2, fac.getHitCount());
+		fac.compile("/b");
+		assertEquals(4, fac.getMissCount());
+		assertEquals(2, fac.getEvictionCount());
+	}
+
+	@Test
+	public void testBadExpressionNotCached() {
+		final CachingXPathFactory fac = new CachingXPathFactory();
+		for (int i = 0; i < 2; i++) {
+			try {
+				fac.compile("/root/[", Filters.element());
+				failNoException(IllegalArgumentException.class);
+			} catch (Exception e) {
+				checkException(IllegalArgumentException.class, e);
+			}
+		}
+		assertEquals(2, fac.getMissCount());
+		assertEquals(0, fac.size());
+		try {
+			fac.compile(null, Filters.element());
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			fac.compile("/root", null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+	}
+
+	@Test
+	public void testVariablesAreNotShared() {
+		final CachingXPathFactory fac = new CachingXPathFactory();
+		final Element root = buildRoot();
+		final Map<String, Object> vars = new HashMap<String, Object>();
+		vars.put("idx", "3");
+		final XPathExpression<Element> a = fac.compile("/root/kid[@idx = $idx]",
+				Filters.element(), vars);
+		vars.put("idx", "7");
+		final XPathExpression<Element> b = fac.compile("/root/kid[@idx = $idx]",
+				Filters.element(), vars);
+		assertEquals(1, fac.getHitCount());
+		assertEquals("3", a.evaluateFirst(root).getAttributeValue("idx"));
+		assertEquals("7", b.evaluateFirst(root).getAttributeValue("idx"));
+		final XPathExpression<Element> c = a.clone();
+		c.setVariable("idx", "11");
+		assertEquals("3", a.evaluateFirst(root).getAttributeValue("idx"));
+		assertEquals("11", c.evaluateFirst(root).getAttributeValue("idx"));
+		assertEquals("3", a.getVariable("idx"));
+		assertFalse(a.diagnose(root, false).getResult().isEmpty());
+		assertEquals(a, a.diagnose(root, true).getXPathExpression());
+	}
+
+	@Test
+	public void testConcurrentEvaluation() throws Exception {
+		final CachingXPathFactory fac = new CachingXPathFactory();
+		final Element root = buildRoot();
+		final XPathExpression<Element> shared = fac.compile("//kid[@idx > 9]",
+				Filters.element());
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int count = 0;
+						for (int i = 0; i < 200; i++) {
+							count += shared.evaluate(root).size();
+							assertEquals(Double.valueOf(20),
+									fac.compile("count(//kid)").evaluateFirst(root));
+						}
+						return count;
+					}
+				}));
+			}
+			for (Future<Integer> f : futures) {
+				assertEquals(Integer.valueOf(200 * 10), f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(2, fac.size());
+		int cnt = 0;
+		for (Element e : AbstractXPathCompiled.iterate(shared, root)) {
+			assertEquals(shared.evaluate(root).get(cnt++), e);
+		}
+		assertEquals(10, cnt);
+		assertEquals(Collections.emptyList(), 
+				fac.compile("//nothing", Filters.element()).evaluate(root));
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.jdom2.test.cases.xpath;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.direct.DirectXPathFactory;
+
+@SuppressWarnings({"javadoc"})
+public class TestDirectCompiled extends AbstractTestXPathCompiled {
+	
+	public TestDirectCompiled() {
+		super(true);
+	}
+
+	private static final XPathFactory myfac = new DirectXPathFactory();
+	
+	@Override
+	XPathFactory getFactory() {
+		return myfac;
+	}
+
+	@Override
+	@Test
+	@Ignore
+	public void testXPathOR() {
+		// unions fall back to Jaxen, which does not support document order for unions....
+		super.testXPathOR();
+	}
+
+}
@@ -0,0 +1,352 @@
+package org.jdom2.test.cases.xpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.jdom2.test.util.UnitTestUtil.checkException;
+import static org.jdom2.test.util.UnitTestUtil.failNoException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jdom2.Attribute;
+import org.jdom2.CDATA;
+import org.jdom2.Comment;
+import org.jdom2.DocType;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.EntityRef;
+import org.jdom2.Namespace;
+import org.jdom2.ProcessingInstruction;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
+import org.jdom2.xpath.direct.DirectXPathFactory;
+import org.jdom2.xpath.jaxen.JaxenXPathFactory;
+import org.jdom2.xpath.util.AbstractXPathCompiled;
+import org.jdom2.xpath.util.CachingXPathFactory;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TestDirectXPathFactory {
+
+	private static final Namespace NSA = Namespace.getNamespace("a", "urn:a");
+	private static final Namespace NSB = Namespace.getNamespace("b", "urn:b");
+
+	private static final String[] DIRECT = {
+		"/", ".", "..", "*", "node()", "/node()", "//node()", "//*", "//text()",
+		"//comment()", "//processing-instruction()",
+		"//processing-instruction('pi')", "//processing-instruction(\"nope\")",
+		"/root", "/root/sec", "/root/sec/para", "//para", "//para/@id", "//@id",
+		"//@*", "//sec//para", "//sec/para", "//para/..", "//para/../..",
+		"//sec[2]", "//sec[1]/para[last()]", "//para[1]", "//para[last()]",
+		"//sec/para[2]", "//para[position() > 1]", "//para[position() <= 2]",
+		"//para[position() != 1]", "//para[position() < 2]",
+		"//para[position() >= 2]", "//para[position() = 3]", "//para[position() < 1.5]",
+		"//para[@id]", "//para[@id = 'p2']", "//para[@id != 'p2']",
+		"//para['p3' = @id]", "//para[. = 'text two']", "//para[text() = \"text two\"]",
+		"//sec[para/@id = 'p5']", "//sec[para][@title]", "//sec[@title][2]",
+		"//sec[2][@title]", "//a:item", "//a:*", "//b:item/@b:att", "//*[@b:att]",
+		"//item", "/root/*/*", "descendant::para", "descendant-or-self::sec",
+		"child::sec/child::para", "//para/self::para", "//para/self::node()",
+		"//para/self::sec", "//sec/descendant::para[1]",
+		"//sec/descendant-or-self::*[1]", "//para/parent::sec",
+		"//para/parent::*", "//@id/..", "//@id/parent::para", "//@*/self::node()",
+		"/root/sec[1]//node()", "//sec/para/text()", "/root/sec/..",
+		"//sec [ 1 ] / para", "child :: sec", "//sec//sec", "//sec//sec/para",
+		"//sec//para[1]", "//sec/descendant::para",
+	};
+
+	private static final String[] FALLBACK = {
+		"count(//para)", "//para | //sec", "//para[contains(., 'two')]",
+		"//para[@id = $var]", "ancestor::sec", "//para[@id = 3]",
+		"following-sibling::para", "//c:thing", "//para[1 + 1]",
+		"//para[last() - 1]", "//para[1.5]", "//para[@id and @x]", "string(/)", "//para[not(@id)]",
+		"/root/sec[", "namespace::*", "1 + 2", "-1",
+		"//para/ancestor-or-self::node()[false()]",
+	};
+
+	private static final Document buildDocument() {
+		final Element root = new Element("root");
+		final Document doc = new Document(root);
+		doc.addContent(0, new DocType("root"));
+		doc.addContent(0, new Comment("before"));
+		doc.addContent(new ProcessingInstruction("pi", "after"));
+		root.addContent(new EntityRef("ent"));
+		int p = 0;
+		for (int s = 0; s < 3; s++) {
+			final Element sec = new Element("sec");
+			if (s > 0) {
+				sec.setAttribute("title", "Section " + s);
+			}
+			root.addContent(sec);
+			for (int i = 0; i < 3; i++) {
+				final Element para = new Element("para");
+				para.setAttribute("id", "p" + (++p));
+				para.addContent("text " + (i == 1 ? "two" : "other"));
+				sec.addContent(para);
+			}
+			sec.addContent(new Comment("c" + s));
+			sec.addContent(new CDATA("cdata" + s));
+		}
+		// nested sections.
+		final Element outer = new Element("sec");
+		final Element inner = new Element("sec");
+		outer.addContent(new Element("para").setText("outer"));
+		outer.addContent(inner);
+		outer.addContent(new Element("para").setText("outer2"));
+		inner.addContent(new Element("para").setText("inner"));
+		inner.addContent(new Element("para").setText("inner2"));
+		root.addContent(outer);
+		final Element item = new Element("item", NSA);
+		item.setAttribute("att", "val", NSB);
+		root.addContent(item);
+		final Element bitem = new Element("item", NSB);
+		bitem.setAttribute("att", "val", NSB);
+		bitem.addContent(new ProcessingInstruction("pi", "inner"));
+		item.addContent(bitem);
+		root.addContent(new Element("item"));
+		return doc;
+	}
+
+	private static final List<Object> contexts(final Document doc) {
+		final List<Object> ret = new ArrayList<Object>();
+		ret.add(doc);
+		ret.add(doc.getRootElement());
+		ret.add(doc.getRootElement().getChildren().get(1));
+		ret.add(doc.getRootElement().getChildren().get(1).getChildren().get(0)
+				.getAttribute("id"));
+		ret.add(doc.getRootElement().getChildren().get(3));
+		ret.add(doc.getRootElement().getChildren().get(0).getContent(0));
+		return ret;
+	}
+
+	private static final void assertIdentical(final String msg,
+			final List<?> expect, final List<?> actual) {
+		assertEquals(msg + " sizes " + expect + " vs " + actual,
+				expect.size(), actual.size());
+		for (int i = 0; i < expect.size(); i++) {
+			assertSame(msg + " at " + i, expect.get(i), actual.get(i));
+		}
+	}
+
+	@Test
+	public void testSameResultsAsJaxen() {
+		final Document doc = buildDocument();
+		final XPathFactory jaxen = new JaxenXPathFactory();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		for (String xp : DIRECT) {
+			final XPathExpression<Object> dx = direct.compile(xp, 
+					Filters.fpassthrough(), null, NSA, NSB);
+			assertTrue("Should be direct: " + xp, direct.isDirect(dx));
+			final XPathExpression<Object> jx = jaxen.compile(xp, 
+					Filters.fpassthrough(), null, NSA, NSB);
+			for (Object context : contexts(doc)) {
+				final String msg = xp + " on " + context;
+				assertIdentical(msg, jx.evaluate(context), dx.evaluate(context));
+				final List<Object> iterated = new ArrayList<Object>();
+				for (Object o : AbstractXPathCompiled.iterate(dx, context)) {
+					iterated.add(o);
+				}
+				assertIdentical(msg + " iterate", jx.evaluate(context), iterated);
+				assertSame(msg, jx.evaluateFirst(context), dx.evaluateFirst(context));
+			}
+		}
+		assertEquals(DIRECT.length, direct.getDirectCount());
+		assertEquals(0, direct.getFallbackCount());
+	}
+
+	@Test
+	public void testIterateIsLazy() {
+		// white-box: content added ahead of a lazy iteration is seen by it.
+		final Document doc = buildDocument();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		for (String xp : new String[] {"//para", "/root/sec/para", "/root/sec/para[1]",
+				"//para[text()]", "descendant-or-self::para"}) {
+			final Element tail = new Element("sec");
+			doc.getRootElement().addContent(tail);
+			final List<Element> all = direct.compile(xp, Filters.element()).evaluate(doc);
+			final Iterator<Element> it = AbstractXPathCompiled.iterate(
+					direct.compile(xp, Filters.element()), doc);
+			assertSame(all.get(0), it.next());
+			tail.addContent(new Element("para").setText("late"));
+			int cnt = 1;
+			while (it.hasNext()) {
+				it.next();
+				cnt++;
+			}
+			assertEquals(xp, all.size() + 1, cnt);
+			tail.detach();
+		}
+	}
+
+	@Test
+	public void testIterateRemove() {
+		final Document doc = buildDocument();
+		final Iterator<Element> it = AbstractXPathCompiled.iterate(
+				new DirectXPathFactory().compile("//para", Filters.element()), doc);
+		it.next();
+		try {
+			it.remove();
+			failNoException(UnsupportedOperationException.class);
+		} catch (Exception e) {
+			checkException(UnsupportedOperationException.class, e);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testIterateOtherExpression() {
+		// an XPathExpression that is not an AbstractXPathCompiled.
+		final Document doc = buildDocument();
+		final XPathExpression<Element> real = new DirectXPathFactory().compile(
+				"//para", Filters.element());
+		final XPathExpression<Element> other = (XPathExpression<Element>)Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] {XPathExpression.class},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args)
+							throws Throwable {
+						return method.invoke(real, args);
+					}
+				});
+		final List<Element> all = real.evaluate(doc);
+		int cnt = 0;
+		for (Element e : AbstractXPathCompiled.iterate(other, doc)) {
+			assertSame(all.get(cnt++), e);
+		}
+		assertEquals(all.size(), cnt);
+	}
+
+	@Test
+	public void testDetached() {
+		final Element root = buildDocument().getRootElement().detach();
+		final XPathFactory jaxen = new JaxenXPathFactory();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		for (String xp : new String[] {"/", "/root", "//para", "sec/para", "..",
+				"//para/..", ".//para[2]"}) {
+			final XPathExpression<Object> dx = direct.compile(xp);
+			assertTrue(direct.isDirect(dx));
+			assertIdentical(xp, jaxen.compile(xp).evaluate(root), dx.evaluate(root));
+		}
+	}
+
+	@Test
+	public void testFallback() {
+		final Document doc = buildDocument();
+		final XPathFactory jaxen = new JaxenXPathFactory();
+		final DirectXPathFactory direct = new DirectXPathFactory(jaxen);
+		assertSame(jaxen, direct.getFallback());
+		int good = 0;
+		for (String xp : FALLBACK) {
+			XPathExpression<Object> dx = null;
+			try {
+				dx = direct.compile(xp, Filters.fpassthrough(),
+						Collections.singletonMap("var", (Object)"p2"), NSA, NSB);
+			} catch (IllegalArgumentException iae) {
+				// the fallback can not compile it either.
+				continue;
+			}
+			good++;
+			assertFalse("Should not be direct: " + xp, direct.isDirect(dx));
+			final XPathExpression<Object> jx = jaxen.compile(xp, Filters.fpassthrough(),
+					Collections.singletonMap("var", (Object)"p2"), NSA, NSB);
+			List<Object> expect = null;
+			try {
+				expect = jx.evaluate(doc);
+			} catch (RuntimeException re) {
+				try {
+					dx.evaluate(doc);
+					failNoException(re.getClass());
+				} catch (Exception e) {
+					checkException(re.getClass(), e);
+				}
+				continue;
+			}
+			assertEquals(xp, expect, dx.evaluate(doc));
+		}
+		assertTrue(good > 10);
+		assertEquals(FALLBACK.length, direct.getFallbackCount());
+		assertEquals(0, direct.getDirectCount());
+		assertTrue(direct.toString().contains("DirectXPathFactory"));
+	}
+
+	@Test
+	public void testNonNodeContext() {
+		final Document doc = buildDocument();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		final XPathExpression<Element> dx = direct.compile("para", Filters.element());
+		assertTrue(direct.isDirect(dx));
+		final List<Element> secs = doc.getRootElement().getChildren("sec");
+		final List<Element> jax = new JaxenXPathFactory().compile("para", 
+				Filters.element()).evaluate(secs);
+		assertEquals(jax, dx.evaluate(secs));
+		assertTrue(dx.evaluate("string").isEmpty());
+		assertNull(dx.evaluateFirst("string"));
+	}
+
+	@Test
+	public void testFilterAndVariables() {
+		final Document doc = buildDocument();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		final XPathExpression<Attribute> dx = direct.compile("//para/@id",
+				Filters.attribute(), Collections.singletonMap("v", (Object)"x"));
+		assertTrue(direct.isDirect(dx));
+		assertEquals(13 - 4, dx.evaluate(doc).size());
+		assertEquals("p1", dx.evaluateFirst(doc).getValue());
+		assertEquals("x", dx.getVariable("v"));
+		final XPathExpression<Attribute> clone = dx.clone();
+		clone.setVariable("v", "y");
+		assertEquals("x", dx.getVariable("v"));
+		assertEquals(dx.evaluate(doc), clone.evaluate(doc));
+		assertTrue(direct.compile("//para", Filters.attribute()).evaluate(doc).isEmpty());
+		assertEquals(Arrays.asList("[XPathExpression"), 
+				Arrays.asList(dx.toString().substring(0, 16)));
+	}
+
+	@Test
+	public void testBadArguments() {
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		try {
+			new DirectXPathFactory(null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			direct.compile(null);
+			failNoException(NullPointerException.class);
+		} catch (Exception e) {
+			checkException(NullPointerException.class, e);
+		}
+		try {
+			direct.compile("/root", Filters.element(), null,
+					Namespace.getNamespace("a", "urn:x"), Namespace.getNamespace("a", "urn:y"));
+			failNoException(IllegalArgumentException.class);
+		} catch (Exception e) {
+			checkException(IllegalArgumentException.class, e);
+		}
+	}
+
+	@Test
+	public void testCachingDirect() {
+		final Document doc = buildDocument();
+		final DirectXPathFactory direct = new DirectXPathFactory();
+		final CachingXPathFactory caching = new CachingXPathFactory(direct);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(9 + 4, caching.compile("//para", Filters.element())
+					.evaluate(doc).size());
+		}
+		assertEquals(1, direct.getDirectCount());
+		assertEquals(4, caching.getHitCount());
+	}
+
+}